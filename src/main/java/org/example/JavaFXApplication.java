@@ -2,64 +2,119 @@ package org.example;
 
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.stage.StageStyle;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.example.config.SpringFXMLLoader;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
+// The Spring context is started on its own thread as soon as the toolkit is up, and a splash window is
+// shown while it runs; the dashboard replaces the splash once the context is ready. Each startup phase
+// logs its duration, and the first window logs the time since the JVM started.
 public class JavaFXApplication extends Application {
     private static final Logger LOGGER = Logger.getLogger(JavaFXApplication.class.getName());
+    private CompletableFuture<ConfigurableApplicationContext> contextReady;
     private ConfigurableApplicationContext applicationContext;
     private SpringFXMLLoader springFXMLLoader;
+    private Stage splashStage;
 
     @Override
     public void init() {
         LOGGER.info("Initializing JavaFX Application...");
-        try {
-            applicationContext = new SpringApplicationBuilder(PrisonManagementApplication.class)
-                .headless(false)
-                .run();
-            LOGGER.info("Spring Application Context initialized successfully");
-            
-            springFXMLLoader = applicationContext.getBean(SpringFXMLLoader.class);
-            if (springFXMLLoader == null) {
-                throw new IllegalStateException("Failed to retrieve SpringFXMLLoader bean");
-            }
-            LOGGER.info("SpringFXMLLoader bean retrieved successfully");
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error during initialization", e);
-            Platform.exit();
-        }
+        contextReady = CompletableFuture.supplyAsync(this::startSpring,
+            runnable -> new Thread(runnable, "spring-startup").start());
     }
 
     @Override
     public void start(Stage primaryStage) {
         LOGGER.info("Starting JavaFX Application...");
+        showSplash();
+        LOGGER.info("Splash shown " + sinceJvmStart() + " ms after JVM start");
+
+        contextReady.whenComplete((context, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+                LOGGER.log(Level.SEVERE, "Error during initialization", cause);
+                displayError("Application Error", "Failed to start application", cause.getMessage());
+                closeSplash();
+                Platform.exit();
+                return;
+            }
+            applicationContext = context;
+            springFXMLLoader = context.getBean(SpringFXMLLoader.class);
+            showDashboard(primaryStage);
+        }));
+    }
+
+    private ConfigurableApplicationContext startSpring() {
+        long start = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PrisonManagementApplication.class)
+            .headless(false)
+            .run();
+        LOGGER.info("Spring Application Context initialized in " + millisSince(start) + " ms");
+
+        // Runs while the dashboard is being built; later windows find their classes already loaded
+        context.getBean(SpringFXMLLoader.class).preload(SpringFXMLLoader.PRELOADED_VIEWS);
+        return context;
+    }
+
+    private void showDashboard(Stage primaryStage) {
         try {
-            LOGGER.info("Loading dashboard.fxml...");
+            long start = System.nanoTime();
             Parent root = springFXMLLoader.load("/fxml/dashboard.fxml");
-            LOGGER.info("FXML loaded successfully");
+            LOGGER.info("Dashboard loaded in " + millisSince(start) + " ms");
 
             Scene scene = new Scene(root);
             scene.getStylesheets().add("/styles/dashboard.css");
-            LOGGER.info("Scene created and stylesheet added");
 
             primaryStage.setTitle("Prison Management System");
             primaryStage.setScene(scene);
             primaryStage.show();
-            LOGGER.info("Primary stage shown");
+            closeSplash();
+            LOGGER.info("Primary stage shown " + sinceJvmStart() + " ms after JVM start");
 
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error starting application", e);
             displayError("Application Error", "Failed to start application", e.getMessage());
+            closeSplash();
             Platform.exit();
         }
     }
 
+    // Built in code rather than FXML so it appears before anything else is loaded
+    private void showSplash() {
+        Label title = new Label("Prison Management System");
+        title.setStyle("-fx-font-size: 18px; -fx-font-weight: bold;");
+        VBox content = new VBox(16, title, new ProgressIndicator(), new Label("Starting..."));
+        content.setAlignment(Pos.CENTER);
+        content.setStyle("-fx-padding: 32px; -fx-background-color: white;");
+
+        splashStage = new Stage(StageStyle.UNDECORATED);
+        splashStage.setScene(new Scene(content, 360, 220));
+        splashStage.centerOnScreen();
+        splashStage.show();
+    }
+
+    private void closeSplash() {
+        if (splashStage != null) {
+            splashStage.close();
+            splashStage = null;
+        }
+    }
+
     @Override
     public void stop() {
         LOGGER.info("Stopping JavaFX Application...");
@@ -69,13 +124,19 @@ public class JavaFXApplication extends Application {
     }
 
     private void displayError(String title, String header, String content) {
-        Platform.runLater(() -> {
-            javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
-            alert.setTitle(title);
-            alert.setHeaderText(header);
-            alert.setContentText(content);
-            alert.showAndWait();
-        });
+        javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(header);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static long sinceJvmStart() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
     }
 
     public static void main(String[] args) {
@@ -8,23 +8,31 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 
 @SpringBootApplication(scanBasePackages = "org.example")
 @EntityScan(basePackages = "org.example.models")
 public class PrisonManagementApplication {
+    private static final Logger LOGGER = Logger.getLogger(PrisonManagementApplication.class.getName());
 
     public static void main(String[] args) {
         SpringApplication.run(PrisonManagementApplication.class, args);
     }
 
+    // One line at startup; the entity names only at FINE
     @Bean
     public CommandLineRunner checkEntities(EntityManager entityManager) {
         return args -> {
-            System.out.println("----- Registered Entities -----");
-            for (EntityType<?> entity : entityManager.getMetamodel().getEntities()) {
-                System.out.println("Entity: " + entity.getName());
+            Set<EntityType<?>> entities = entityManager.getMetamodel().getEntities();
+            LOGGER.info("Registered " + entities.size() + " JPA entities");
+            if (LOGGER.isLoggable(Level.FINE)) {
+                for (EntityType<?> entity : entities) {
+                    LOGGER.fine("Entity: " + entity.getName());
+                }
             }
-            System.out.println("---------------------------------");
         };
     }
 }
@@ -0,0 +1,46 @@
+package org.example.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.logging.Logger;
+
+// Prisoners, cells, schedules, expenses and staff take their ids from the id_generator table in blocks of
+// ALLOCATION_SIZE instead of from AUTO_INCREMENT, since Hibernate cannot batch inserts whose ids the database
+// assigns.
+// The table is created on first start and each entity's row is seeded past its highest existing id;
+// rows that already exist are left alone. Hibernate treats the stored value as the top of the next block,
+// so a seed of MAX(id) + ALLOCATION_SIZE hands out ids from MAX(id) + 1. All inserts into these tables must
+// go through Hibernate from then on, or they can take an id from a block already handed out.
+public final class IdGeneratorTable {
+    private static final Logger LOGGER = Logger.getLogger(IdGeneratorTable.class.getName());
+
+    // The entities' @TableGenerator allocationSize
+    public static final int ALLOCATION_SIZE = 50;
+
+    // Generator row, as in pkColumnValue, to the entity's table
+    private static final Map<String, String> TABLES = Map.of(
+        "prisoner", "prisoner",
+        "cell", "cell",
+        "schedule", "schedule",
+        "expense", "expense",
+        "staff", "staff");
+
+    private IdGeneratorTable() {
+    }
+
+    public static void initialize(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS id_generator ("
+            + "entity VARCHAR(64) NOT NULL PRIMARY KEY, next_id BIGINT NOT NULL)");
+        int seeded = 0;
+        for (Map.Entry<String, String> entry : TABLES.entrySet()) {
+            seeded += jdbcTemplate.update("INSERT IGNORE INTO id_generator (entity, next_id) "
+                + "SELECT ?, COALESCE(MAX(id), 0) + ? FROM " + entry.getValue(), entry.getKey(), ALLOCATION_SIZE);
+        }
+        if (seeded > 0) {
+            LOGGER.info("Seeded " + seeded + " id generator rows");
+        }
+    }
+}
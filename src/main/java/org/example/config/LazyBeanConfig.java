@@ -0,0 +1,34 @@
+package org.example.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.logging.Logger;
+
+// The controllers are only needed once their window or endpoint is first used, so they are created then
+// instead of at startup. Web request mappings are still registered up front from the bean types alone.
+// Services with scheduled jobs or event listeners stay eager; rarely used ones are marked @Lazy themselves.
+@Configuration
+public class LazyBeanConfig {
+    private static final Logger LOGGER = Logger.getLogger(LazyBeanConfig.class.getName());
+
+    private static final String CONTROLLERS_PACKAGE = "org.example.controllers.";
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyControllers() {
+        return beanFactory -> {
+            int lazy = 0;
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String className = definition.getBeanClassName();
+                if (className != null && className.startsWith(CONTROLLERS_PACKAGE) && !definition.isLazyInit()) {
+                    definition.setLazyInit(true);
+                    lazy++;
+                }
+            }
+            LOGGER.fine("Marked " + lazy + " controller beans for lazy initialization");
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.config;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +13,8 @@ import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @EnableMongoRepositories(basePackages = "org.example.repositories.mongodb")
 public class MongoConfig {
@@ -18,16 +22,29 @@ public class MongoConfig {
     @Value("${spring.data.mongodb.uri}")
     private String mongoUri;
 
+    @Value("${spring.data.mongodb.connection-pool-size:50}")
+    private int poolSize;
+
+    @Value("${spring.data.mongodb.connection-pool-max-wait-ms:30000}")
+    private long maxWaitMillis;
+
+    // The driver's pool is the bound on concurrent Mongo operations; callers beyond it wait in its queue
     @Primary
     @Bean
     public MongoClient mongoClient() {
-        return MongoClients.create(mongoUri);
+        ConnectionString connectionString = new ConnectionString(mongoUri);
+        return MongoClients.create(MongoClientSettings.builder()
+            .applyConnectionString(connectionString)
+            .applyToConnectionPoolSettings(pool -> pool
+                .maxSize(poolSize)
+                .maxWaitTime(maxWaitMillis, TimeUnit.MILLISECONDS))
+            .build());
     }
 
     @Primary
     @Bean
     public MongoDatabaseFactory mongoDbFactory() {
-        return new SimpleMongoClientDatabaseFactory(mongoUri);
+        return new SimpleMongoClientDatabaseFactory(mongoClient(), new ConnectionString(mongoUri).getDatabase());
     }
 
     @Primary
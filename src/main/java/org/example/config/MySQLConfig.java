@@ -1,12 +1,15 @@
 package org.example.config;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.data.repository.config.BootstrapMode;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
@@ -15,23 +18,43 @@ import org.springframework.transaction.PlatformTransactionManager;
 import jakarta.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
 import java.util.Properties;
+import java.util.logging.Logger;
 
 @Configuration
 @EnableJpaRepositories(
         basePackages = "org.example.repositories.mysql",
         entityManagerFactoryRef = "mysqlEntityManager",
-        transactionManagerRef = "mysqlTransactionManager")
+        transactionManagerRef = "mysqlTransactionManager",
+        bootstrapMode = BootstrapMode.DEFERRED)
 @EntityScan(basePackages = {"org.example.models"})
 public class MySQLConfig {
+    private static final Logger LOGGER = Logger.getLogger(MySQLConfig.class.getName());
 
+    @Value("${datasource.mysql.pool-size:20}")
+    private int poolSize;
+
+    @Value("${datasource.mysql.acquire-timeout-ms:30000}")
+    private long acquireTimeoutMillis;
+
+    @Value("${datasource.mysql.jdbc-batch-size:50}")
+    private int jdbcBatchSize;
+
+    @Value("${datasource.mysql.statistics:false}")
+    private boolean statistics;
+
+    // Pooled; callers beyond the pool size wait in Hikari's queue for up to the acquire timeout instead of
+    // all hitting the database at once. The pool is closed with the context.
     @Primary
-    @Bean(name = "mysqlDataSource")
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
+    @Bean(name = "mysqlDataSource", destroyMethod = "close")
+    public HikariDataSource dataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("mysql-pool");
         dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl("jdbc:mysql://localhost:3306/prison_management?useSSL=false&serverTimezone=UTC");
+        dataSource.setJdbcUrl("jdbc:mysql://localhost:3306/prison_management?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true");
         dataSource.setUsername("root");
         dataSource.setPassword("A76891114s*");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setConnectionTimeout(acquireTimeoutMillis);
         return dataSource;
     }
 
@@ -39,7 +62,15 @@ public class MySQLConfig {
     @Bean(name = "mysqlEntityManager")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory(
             @Qualifier("mysqlDataSource") DataSource dataSource) {
-        LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+        // The id generator rows are seeded on the bootstrap thread right before Hibernate starts, so a failure
+        // there fails the entity manager future and the first query sees it instead of waiting forever
+        LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean() {
+            @Override
+            protected EntityManagerFactory createNativeEntityManagerFactory() {
+                IdGeneratorTable.initialize(dataSource);
+                return super.createNativeEntityManagerFactory();
+            }
+        };
         em.setDataSource(dataSource);
         em.setPackagesToScan("org.example.models");
 
@@ -51,8 +82,26 @@ public class MySQLConfig {
         properties.setProperty("hibernate.hbm2ddl.auto", "none");
         properties.setProperty("hibernate.show_sql", "true");
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQLDialect");
+        // Group statements per table into JDBC batches; the driver rewrites them into multi-row statements
+        properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(jdbcBatchSize));
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.order_updates", "true");
+        // Counts the JDBC statements behind each batch request; see BatchOperationService
+        properties.setProperty("hibernate.generate_statistics", String.valueOf(statistics));
+        // IN lists are padded to the next power of two so multi-get queries reuse a few statement plans
+        properties.setProperty("hibernate.query.in_clause_parameter_padding", "true");
         em.setJpaProperties(properties);
 
+        // Hibernate connects to MySQL and builds its metamodel on its own thread while the rest of the context,
+        // Mongo included, starts up; the repositories are deferred so only the first real query waits for it.
+        SimpleAsyncTaskExecutor bootstrapExecutor = new SimpleAsyncTaskExecutor("jpa-bootstrap-");
+        bootstrapExecutor.setTaskDecorator(task -> () -> {
+            long start = System.nanoTime();
+            task.run();
+            LOGGER.info("MySQL entity manager ready in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        });
+        em.setBootstrapExecutor(bootstrapExecutor);
+
         return em;
     }
 
@@ -1,124 +1,239 @@
 package org.example.config;
 
+import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
+import javafx.util.Callback;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
+// Loads FXML views with their controllers taken from the Spring context. Each file is found and read
+// once and its bytes kept in memory, and its classes can be loaded ahead of time by preload. Nothing
+// parsed is kept: FXMLLoader still parses the XML and builds a new node graph on every load, since it
+// has no reusable parsed form, scene graphs cannot be shared, and a ready-made view would hold a
+// controller bound to that one graph. What a repeated load saves is the resource lookup, the file read
+// and the class loading. The injection check walks a controller's fields only in development mode.
 @Component
 public class SpringFXMLLoader {
     private static final Logger LOGGER = Logger.getLogger(SpringFXMLLoader.class.getName());
+
+    // The screens opened most often after the dashboard, which is loaded at startup anyway; their files are
+    // read and their classes loaded ahead of the first visit
+    public static final List<String> PRELOADED_VIEWS = List.of(
+        "/fxml/prisoner-details.fxml", "/fxml/block-details.fxml", "/fxml/staff.fxml");
+
+    private static final ClassValue<List<Field>> FXML_FIELDS = new ClassValue<>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(FXML.class)) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            return fields;
+        }
+    };
+
+    private static final ClassValue<Optional<Method>> SET_ROOT = new ClassValue<>() {
+        @Override
+        protected Optional<Method> computeValue(Class<?> type) {
+            try {
+                return Optional.of(type.getMethod("setRoot", Parent.class));
+            } catch (NoSuchMethodException e) {
+                return Optional.empty();
+            }
+        }
+    };
+
     private final ApplicationContext applicationContext;
+    private final boolean devMode;
+    private final Callback<Class<?>, Object> controllerFactory;
+    private final Map<String, FxmlSource> sources = new ConcurrentHashMap<>();
 
     public SpringFXMLLoader(ApplicationContext applicationContext) {
         this.applicationContext = applicationContext;
         if (applicationContext == null) {
             throw new IllegalArgumentException("ApplicationContext cannot be null");
         }
-        LOGGER.info("SpringFXMLLoader initialized with ApplicationContext: " + applicationContext);
+        this.devMode = applicationContext.getEnvironment().getProperty("javafx.dev-mode", Boolean.class, false);
+        this.controllerFactory = this::createController;
+        LOGGER.info("SpringFXMLLoader initialized with ApplicationContext: " + applicationContext
+            + (devMode ? " (development mode)" : ""));
     }
 
     public Parent load(String fxmlPath) throws IOException {
-        LOGGER.info("Loading FXML from path: " + fxmlPath);
-        
+        FXMLLoader loader;
+        try {
+            loader = loadView(fxmlPath);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error loading FXML: " + fxmlPath, e);
+            throw new IOException("Error loading FXML: " + fxmlPath, e);
+        }
+        Parent root = loader.getRoot();
+        // Store the loader in the root's properties
+        root.getProperties().put(FXMLLoader.class.getName(), loader);
+        return root;
+    }
+
+    public <T> T loadAndGetController(String fxmlPath, Class<T> controllerClass) {
+        try {
+            FXMLLoader loader = loadView(fxmlPath);
+            T controller = loader.getController();
+
+            // Set root if method exists
+            Optional<Method> setRoot = SET_ROOT.get(controller.getClass());
+            if (setRoot.isPresent()) {
+                setRoot.get().invoke(controller, loader.<Parent>getRoot());
+            } else {
+                LOGGER.fine("Controller does not have a setRoot method: " + controller.getClass().getName());
+            }
+            return controller;
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Failed to load FXML: " + fxmlPath, e);
+            throw new RuntimeException("Failed to load FXML: " + fxmlPath, e);
+        }
+    }
+
+    // Reads the files and loads the classes they use on a few background threads, so the first
+    // window of each kind does not pay for class loading and initialization on the FX thread. Best effort:
+    // a view that fails here is reported again, with its real error, when it is opened.
+    public CompletableFuture<Void> preload(Collection<String> fxmlPaths) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, fxmlPaths.size()), runnable -> {
+            Thread thread = new Thread(runnable, "fxml-preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<?>[] views = fxmlPaths.stream()
+            .map(fxmlPath -> CompletableFuture.runAsync(() -> preloadView(fxmlPath), executor))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(views).whenComplete((ignored, error) -> executor.shutdown());
+    }
+
+    private void preloadView(String fxmlPath) {
+        long start = System.nanoTime();
+        try {
+            int classes = source(fxmlPath).loadClasses(getClass().getClassLoader());
+            LOGGER.info("Preloaded " + fxmlPath + " (" + classes + " classes) in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Could not preload FXML: " + fxmlPath, e);
+        }
+    }
+
+    private FXMLLoader loadView(String fxmlPath) throws IOException {
+        LOGGER.fine("Loading FXML from path: " + fxmlPath);
+        FxmlSource source = source(fxmlPath);
+        FXMLLoader loader = new FXMLLoader(source.location);
+        loader.setControllerFactory(controllerFactory);
+        try (InputStream in = source.open()) {
+            loader.load(in);
+        }
+        Object controller = loader.getController();
+        if (controller == null) {
+            LOGGER.severe("Controller was not created for FXML: " + fxmlPath);
+            throw new RuntimeException("Controller was not created for FXML: " + fxmlPath);
+        }
+        if (devMode) {
+            verifyFXMLInjection(controller);
+        }
+        return loader;
+    }
+
+    private FxmlSource source(String fxmlPath) throws IOException {
+        FxmlSource source = sources.get(fxmlPath);
+        if (source == null) {
+            source = FxmlSource.read(fxmlPath, resolve(fxmlPath));
+            FxmlSource concurrent = sources.putIfAbsent(fxmlPath, source);
+            source = concurrent != null ? concurrent : source;
+        }
+        return source;
+    }
+
+    private URL resolve(String fxmlPath) throws IOException {
         // First try to load from the class path
         URL resource = getClass().getResource(fxmlPath);
-        
+
         // If not found, try with a leading slash
         if (resource == null && !fxmlPath.startsWith("/")) {
             resource = getClass().getResource("/" + fxmlPath);
-            LOGGER.info("Trying with leading slash: /" + fxmlPath);
         }
-        
+
         // If still not found, try with the class loader
         if (resource == null) {
             resource = getClass().getClassLoader().getResource(fxmlPath);
-            LOGGER.info("Trying with ClassLoader: " + fxmlPath);
         }
-        
+
         if (resource == null) {
             String error = "Cannot find FXML file: " + fxmlPath;
             LOGGER.severe(error);
             throw new IOException(error);
         }
-        
-        LOGGER.info("Found resource at: " + resource);
+        return resource;
+    }
 
-        FXMLLoader loader = new FXMLLoader(resource);
-        
-        // Set up the controller factory to use Spring context
-        loader.setControllerFactory(clazz -> {
-            LOGGER.info("Creating controller for class: " + clazz.getName());
-            try {
-                // Get the actual controller class (remove CGLIB proxy if present)
-                Class<?> actualClass = clazz;
-                if (AopUtils.isCglibProxy(clazz)) {
-                    actualClass = AopProxyUtils.ultimateTargetClass(clazz);
-                    LOGGER.info("Detected CGLIB proxy class, using actual class: " + actualClass.getName());
-                }
-                
-                Object controller = applicationContext.getBean(actualClass);
-                if (AopUtils.isCglibProxy(controller)) {
-                    controller = AopProxyUtils.getSingletonTarget(controller);
-                    LOGGER.info("Retrieved singleton target from proxy: " + controller);
-                }
-                
-                LOGGER.info("Controller created from Spring context: " + controller);
-                return controller;
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Failed to create controller for " + clazz.getName(), e);
-                throw new RuntimeException("Failed to create controller", e);
+    private Object createController(Class<?> clazz) {
+        try {
+            // Get the actual controller class (remove CGLIB proxy if present)
+            Class<?> actualClass = clazz;
+            if (AopUtils.isCglibProxy(clazz)) {
+                actualClass = AopProxyUtils.ultimateTargetClass(clazz);
             }
-        });
 
-        try {
-            Parent root = loader.load();
-            Object controller = loader.getController();
-            
-            if (controller == null) {
-                LOGGER.severe("Controller was not created for FXML: " + fxmlPath);
-                throw new RuntimeException("Controller was not created for FXML: " + fxmlPath);
+            Object controller = applicationContext.getBean(actualClass);
+            if (AopUtils.isCglibProxy(controller)) {
+                controller = AopProxyUtils.getSingletonTarget(controller);
             }
-            
-            // Store the loader in the root's properties
-            root.getProperties().put(FXMLLoader.class.getName(), loader);
-            
-            LOGGER.info("FXML loaded successfully. Controller: " + controller.getClass().getName());
-            verifyFXMLInjection(controller);
-            
-            return root;
+            LOGGER.fine("Controller created from Spring context: " + controller);
+            return controller;
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error loading FXML: " + fxmlPath, e);
-            throw new IOException("Error loading FXML: " + fxmlPath, e);
+            LOGGER.log(Level.SEVERE, "Failed to create controller for " + clazz.getName(), e);
+            throw new RuntimeException("Failed to create controller", e);
         }
     }
 
+    // Development aid: reports @FXML fields the view did not inject
     private void verifyFXMLInjection(Object controller) {
-        LOGGER.info("Verifying FXML injection for controller: " + controller.getClass().getName());
         try {
             // Get the actual class (remove CGLIB proxy if present)
             Class<?> actualClass = controller.getClass();
             if (AopUtils.isCglibProxy(controller)) {
                 actualClass = AopProxyUtils.ultimateTargetClass(controller.getClass());
                 controller = AopProxyUtils.getSingletonTarget(controller);
-                LOGGER.info("Detected proxy class, using actual class: " + actualClass.getName());
             }
-            
-            java.lang.reflect.Field[] fields = actualClass.getDeclaredFields();
-            for (java.lang.reflect.Field field : fields) {
-                if (field.isAnnotationPresent(javafx.fxml.FXML.class)) {
-                    field.setAccessible(true);
-                    Object value = field.get(controller);
-                    LOGGER.info("FXML field " + field.getName() + ": " + (value != null ? "INJECTED" : "NULL"));
-                    if (value == null) {
-                        LOGGER.warning("FXML injection failed for field: " + field.getName());
-                    }
+
+            for (Field field : FXML_FIELDS.get(actualClass)) {
+                if (field.get(controller) == null) {
+                    LOGGER.warning("FXML injection failed for field: " + actualClass.getSimpleName() + "."
+                        + field.getName());
                 }
             }
         } catch (Exception e) {
@@ -126,83 +241,93 @@ public class SpringFXMLLoader {
         }
     }
 
-    public <T> T loadAndGetController(String fxmlPath, Class<T> controllerClass) {
-        try {
-        LOGGER.info("Loading FXML and getting controller from path: " + fxmlPath);
-            
-            // First try to load from the class path
-            URL resource = getClass().getResource(fxmlPath);
-            
-            // If not found, try with a leading slash
-            if (resource == null && !fxmlPath.startsWith("/")) {
-                resource = getClass().getResource("/" + fxmlPath);
-                LOGGER.info("Trying with leading slash: /" + fxmlPath);
+    // The resolved location and raw bytes of one FXML file; every load parses them again
+    private static final class FxmlSource {
+        private final URL location;
+        private final byte[] source;
+
+        private FxmlSource(URL location, byte[] source) {
+            this.location = location;
+            this.source = source;
+        }
+
+        static FxmlSource read(String fxmlPath, URL location) throws IOException {
+            try (InputStream in = location.openStream()) {
+                LOGGER.fine("Read FXML source " + fxmlPath + " from " + location);
+                return new FxmlSource(location, in.readAllBytes());
             }
-            
-            // If still not found, try with the class loader
-            if (resource == null) {
-                resource = getClass().getClassLoader().getResource(fxmlPath);
-                LOGGER.info("Trying with ClassLoader: " + fxmlPath);
+        }
+
+        InputStream open() {
+            return new ByteArrayInputStream(source);
+        }
+
+        // Loads and initializes the controller and every element class the file names, resolved
+        // against its imports the way FXMLLoader does; returns how many classes were found
+        int loadClasses(ClassLoader classLoader) throws XMLStreamException {
+            List<String> packages = new ArrayList<>();
+            Map<String, String> imported = new HashMap<>();
+            Set<String> names = new LinkedHashSet<>();
+            XMLStreamReader reader = XMLInputFactory.newFactory().createXMLStreamReader(open());
+            try {
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.PROCESSING_INSTRUCTION && "import".equals(reader.getPITarget())) {
+                        String target = reader.getPIData().trim();
+                        if (target.endsWith(".*")) {
+                            packages.add(target.substring(0, target.length() - 2));
+                        } else {
+                            imported.put(target.substring(target.lastIndexOf('.') + 1), target);
+                        }
+                    } else if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        if (reader.getPrefix() == null || reader.getPrefix().isEmpty()) {
+                            if (!name.isEmpty() && Character.isUpperCase(name.charAt(0))) {
+                                names.add(name);
+                            }
+                        }
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            if (FXMLLoader.FX_NAMESPACE_PREFIX.equals(reader.getAttributePrefix(i))
+                                && FXMLLoader.FX_CONTROLLER_ATTRIBUTE.equals(reader.getAttributeLocalName(i))) {
+                                names.add(reader.getAttributeValue(i));
+                            }
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
             }
-            
-            if (resource == null) {
-                String error = "Cannot find FXML file: " + fxmlPath;
-                LOGGER.severe(error);
-                throw new RuntimeException(error);
+
+            int loaded = 0;
+            for (String name : names) {
+                if (loadClass(name, imported, packages, classLoader)) {
+                    loaded++;
+                }
             }
-            
-            LOGGER.info("Found resource at: " + resource);
-            
-            FXMLLoader loader = new FXMLLoader(resource);
-            
-            // Set up the controller factory to use Spring context (same as load method)
-            loader.setControllerFactory(clazz -> {
-                LOGGER.info("Creating controller for class: " + clazz.getName());
-                try {
-                    // Get the actual controller class (remove CGLIB proxy if present)
-                    Class<?> actualClass = clazz;
-                    if (AopUtils.isCglibProxy(clazz)) {
-                        actualClass = AopProxyUtils.ultimateTargetClass(clazz);
-                        LOGGER.info("Detected CGLIB proxy class, using actual class: " + actualClass.getName());
-                    }
-                    
-                    Object controller = applicationContext.getBean(actualClass);
-                    if (AopUtils.isCglibProxy(controller)) {
-                        controller = AopProxyUtils.getSingletonTarget(controller);
-                        LOGGER.info("Retrieved singleton target from proxy: " + controller);
-                    }
-                    
-                    LOGGER.info("Controller created from Spring context: " + controller);
-                    return controller;
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Failed to create controller for " + clazz.getName(), e);
-                    throw new RuntimeException("Failed to create controller", e);
-        }
-            });
-            
-            Parent root = loader.load();
-        T controller = loader.getController();
-            
-        if (controller == null) {
-                LOGGER.severe("Controller was not created for FXML: " + fxmlPath);
-                throw new RuntimeException("Controller was not created for FXML: " + fxmlPath);
+            return loaded;
         }
-        
-            // Set root if method exists
-            try {
-                controller.getClass().getMethod("setRoot", javafx.scene.Parent.class).invoke(controller, root);
-                LOGGER.info("Successfully set root for controller: " + controller.getClass().getName());
-            } catch (Exception e) {
-                LOGGER.warning("Controller does not have a setRoot method or it could not be called: " + controller.getClass().getName() + ".setRoot(javafx.scene.Parent)");
+
+        private static boolean loadClass(String name, Map<String, String> imported, List<String> packages,
+                                         ClassLoader classLoader) {
+            List<String> candidates = new ArrayList<>();
+            if (imported.containsKey(name)) {
+                candidates.add(imported.get(name));
+            } else if (name.contains(".")) {
+                candidates.add(name);
+            } else {
+                for (String pkg : packages) {
+                    candidates.add(pkg + "." + name);
+                }
             }
-            
-            LOGGER.info("FXML loaded successfully. Controller: " + controller.getClass().getName());
-            verifyFXMLInjection(controller);
-            
-            return controller;
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Failed to load FXML: " + fxmlPath, e);
-            throw new RuntimeException("Failed to load FXML: " + fxmlPath, e);
+            for (String candidate : candidates) {
+                try {
+                    Class.forName(candidate, true, classLoader);
+                    return true;
+                } catch (ClassNotFoundException | LinkageError e) {
+                    // Not in this package, or not loadable off the FX thread; the real load will tell
+                }
+            }
+            return false;
         }
     }
-}
\ No newline at end of file
+}
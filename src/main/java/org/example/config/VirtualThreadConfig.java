@@ -0,0 +1,86 @@
+package org.example.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Runs Tomcat requests and the application task executor, which serves async MVC requests, on virtual
+// threads when app.threads.virtual.enabled is set. Downstream concurrency stays bounded by the MySQL and
+// Mongo pools, and pinned virtual threads are reported from a JFR stream so synchronized I/O in drivers
+// shows up in the log.
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger LOGGER = Logger.getLogger(VirtualThreadConfig.class.getName());
+    private static final int PINNED_STACK_DEPTH = 8;
+
+    private final Duration pinnedThreshold;
+    private RecordingStream pinnedEvents;
+
+    public VirtualThreadConfig(@Value("${app.threads.virtual.pinned-threshold-ms:20}") long pinnedThresholdMillis) {
+        this.pinnedThreshold = Duration.ofMillis(pinnedThresholdMillis);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-vt-", 0).factory()));
+    }
+
+    @Bean(name = "applicationTaskExecutor")
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("async-vt-", 0).factory()));
+    }
+
+    @PostConstruct
+    public void startPinningDiagnostics() {
+        try {
+            pinnedEvents = new RecordingStream();
+            pinnedEvents.enable("jdk.VirtualThreadPinned").withThreshold(pinnedThreshold).withStackTrace();
+            pinnedEvents.onEvent("jdk.VirtualThreadPinned", this::logPinned);
+            pinnedEvents.startAsync();
+            LOGGER.info("Virtual threads enabled; reporting pins longer than " + pinnedThreshold.toMillis() + "ms");
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Virtual thread pinning diagnostics unavailable", e);
+        }
+    }
+
+    @PreDestroy
+    public void stopPinningDiagnostics() {
+        if (pinnedEvents != null) {
+            pinnedEvents.close();
+        }
+    }
+
+    private void logPinned(RecordedEvent event) {
+        StringBuilder message = new StringBuilder("Virtual thread pinned for ")
+            .append(event.getDuration().toMillis()).append("ms");
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            for (int i = 0; i < Math.min(PINNED_STACK_DEPTH, frames.size()); i++) {
+                RecordedFrame frame = frames.get(i);
+                message.append("\n    at ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+            }
+        }
+        LOGGER.warning(message.toString());
+    }
+}
@@ -27,6 +27,16 @@ public class AddBlockController {
     @Autowired
     private PrisonService prisonService;
 
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
+
+    @FXML
+    public void initialize() {
+        tasks = uiTaskRunner.scopeFor(blockTypeField);
+    }
+
     @FXML
     private void handleSaveBlock() {
         try {
@@ -36,23 +46,26 @@ public class AddBlockController {
                 return;
             }
 
-            // Get the first prison (assuming we're working with a single prison for now)
-            Prison currentPrison = prisonService.getAllPrisons().get(0);
-            if (currentPrison == null) {
-                showError("Error", "No prison found in the system");
-                return;
-            }
+            tasks.submit("create block", () -> {
+                // Get the first prison (assuming we're working with a single prison for now)
+                Prison currentPrison = prisonService.getAllPrisons().get(0);
+                if (currentPrison == null) {
+                    throw new IllegalStateException("No prison found in the system");
+                }
+
+                // Create and save the new block
+                return blockService.createBlock(new Block(type, currentPrison));
+            }, block -> {
+                LOGGER.info("Block created successfully: " + type);
+                showSuccess("Success", "Block added successfully");
 
-            // Create and save the new block
-            Block block = new Block(type, currentPrison);
-            blockService.createBlock(block);
-            
-            LOGGER.info("Block created successfully: " + type);
-            showSuccess("Success", "Block added successfully");
-            
-            // Close the dialog
-            Stage stage = (Stage) blockTypeField.getScene().getWindow();
-            stage.close();
+                // Close the dialog
+                Stage stage = (Stage) blockTypeField.getScene().getWindow();
+                stage.close();
+            }, e -> {
+                LOGGER.log(Level.SEVERE, "Error creating block", e);
+                showError("Error", "Failed to create block: " + e.getMessage());
+            });
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error creating block", e);
             showError("Error", "Failed to create block: " + e.getMessage());
@@ -35,12 +35,20 @@ public class AddCellController {
     private Parent root;
 
     private final CellService cellService;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
     private Block currentBlock;
     private Cell cellToEdit;
 
     @Autowired
-    public AddCellController(CellService cellService) {
+    public AddCellController(CellService cellService, UiTaskRunner uiTaskRunner) {
         this.cellService = cellService;
+        this.uiTaskRunner = uiTaskRunner;
+    }
+
+    @FXML
+    public void initialize() {
+        tasks = uiTaskRunner.scopeFor(cellTypeField);
     }
 
     public void initData(Block block, Cell cell) {
@@ -136,28 +144,29 @@ public class AddCellController {
     }
 
     private void saveCell(String cellType, Integer capacity) {
-        try {
-            if (cellToEdit != null) {
-                // Update existing cell
-                cellToEdit.setType(cellType);
-                cellToEdit.setCapacity(capacity);
-                cellService.updateCell(cellToEdit.getId(), cellToEdit);
-                logger.info("Updated cell: {} with capacity: {} in block: {}", cellType, capacity, currentBlock.getId());
-            } else {
-                // Create new cell
-                Cell cell = new Cell();
-                cell.setType(cellType);
-                cell.setCapacity(capacity);
-                currentBlock.addCell(cell);
-                cellService.createCell(cell);
-                logger.info("Created new cell: {} with capacity: {} in block: {}", cellType, capacity, currentBlock.getId());
-            }
-
-            closeDialog();
-        } catch (Exception e) {
-            logger.error("Error saving cell", e);
-            showError("Error", "Failed to save cell: " + e.getMessage());
+        Cell cell;
+        if (cellToEdit != null) {
+            // Update existing cell
+            cell = cellToEdit;
+            cell.setType(cellType);
+            cell.setCapacity(capacity);
+        } else {
+            // Create new cell
+            cell = new Cell();
+            cell.setType(cellType);
+            cell.setCapacity(capacity);
+            currentBlock.addCell(cell);
         }
+        boolean update = cellToEdit != null;
+        tasks.submit("save cell",
+            () -> update ? cellService.updateCell(cell.getId(), cell) : cellService.createCell(cell), saved -> {
+                logger.info("{} cell: {} with capacity: {} in block: {}", update ? "Updated" : "Created",
+                    cellType, capacity, currentBlock.getId());
+                closeDialog();
+            }, e -> {
+                logger.error("Error saving cell", e);
+                showError("Error", "Failed to save cell: " + e.getMessage());
+            });
     }
 
     @FXML
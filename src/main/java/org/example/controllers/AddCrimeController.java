@@ -26,16 +26,20 @@ public class AddCrimeController {
     private DatePicker sentenceStartDatePicker;
 
     private final CrimeService crimeService;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
     private Prisoner prisoner;
     private javafx.scene.Parent root;
 
     @Autowired
-    public AddCrimeController(CrimeService crimeService) {
+    public AddCrimeController(CrimeService crimeService, UiTaskRunner uiTaskRunner) {
         this.crimeService = crimeService;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(nameField);
         sentenceStartDatePicker.setValue(LocalDate.now());
     }
 
@@ -56,8 +60,8 @@ public class AddCrimeController {
             crime.setSentenceStartDate(java.sql.Date.valueOf(sentenceStartDatePicker.getValue()));
             crime.setPrisoner(prisoner);
 
-            crimeService.saveCrime(crime);
-            closeDialog();
+            tasks.submit("save crime", () -> crimeService.saveCrime(crime), saved -> closeDialog(),
+                e -> System.err.println("Error saving crime: " + e.getMessage()));
         } catch (Exception e) {
             System.err.println("Error saving crime: " + e.getMessage());
         }
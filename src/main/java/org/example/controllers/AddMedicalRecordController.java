@@ -25,17 +25,21 @@ public class AddMedicalRecordController {
     private ComboBox<String> statusComboBox;
 
     private final MedicalRecordService medicalRecordService;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
     private Prisoner prisoner;
     private MedicalRecord editingRecord;
     private javafx.scene.Parent root;
 
     @Autowired
-    public AddMedicalRecordController(MedicalRecordService medicalRecordService) {
+    public AddMedicalRecordController(MedicalRecordService medicalRecordService, UiTaskRunner uiTaskRunner) {
         this.medicalRecordService = medicalRecordService;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(diagnosisField);
         statusComboBox.getItems().addAll(
             "ACTIVE",
             "ARCHIVED",
@@ -75,8 +79,11 @@ public class AddMedicalRecordController {
                 record.setPrisoner(prisoner);
                 
                 System.out.println("Creating new medical record for prisoner: " + prisoner.getName());
-                MedicalRecord savedRecord = medicalRecordService.createMedicalRecord(record);
-                System.out.println("Medical record created with ID: " + savedRecord.getId());
+                tasks.submit("create medical record", () -> medicalRecordService.createMedicalRecord(record),
+                    savedRecord -> {
+                        System.out.println("Medical record created with ID: " + savedRecord.getId());
+                        closeDialog();
+                    }, this::saveFailed);
             } else {
                 // Update existing record
                 System.out.println("Updating existing medical record...");
@@ -100,18 +107,23 @@ public class AddMedicalRecordController {
                 }
                 
                 System.out.println("Updating medical record with ID: " + editingRecord.getId());
-                MedicalRecord savedRecord = medicalRecordService.updateMedicalRecord(editingRecord.getId(), editingRecord);
-                System.out.println("Medical record updated successfully: " + savedRecord.getId());
+                MedicalRecord record = editingRecord;
+                tasks.submit("update medical record",
+                    () -> medicalRecordService.updateMedicalRecord(record.getId(), record), savedRecord -> {
+                        System.out.println("Medical record updated successfully: " + savedRecord.getId());
+                        closeDialog();
+                    }, this::saveFailed);
             }
-            
-            System.out.println("=== Medical Record Save Completed ===");
-            closeDialog();
         } catch (Exception e) {
-            System.err.println("Error saving medical record: " + e.getMessage());
-            e.printStackTrace();
+            saveFailed(e);
         }
     }
 
+    private void saveFailed(Throwable e) {
+        System.err.println("Error saving medical record: " + e.getMessage());
+        e.printStackTrace();
+    }
+
     @FXML
     private void handleCancel() {
         closeDialog();
@@ -23,11 +23,14 @@ public class AddPrisonerController {
     @FXML private DatePicker sentenceEndField;
 
     @Autowired private PrisonerService prisonerService;
+    @Autowired private UiTaskRunner uiTaskRunner;
 
+    private UiTaskScope tasks;
     private Cell currentCell;
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(root);
         // Initialize gender ComboBox with options
         genderField.getItems().addAll(Arrays.asList("Male", "Female"));
     }
@@ -78,11 +81,11 @@ public class AddPrisonerController {
             prisoner.setCell(currentCell);
 
             // Save prisoner
-            prisonerService.createPrisoner(prisoner);
-
-            // Close dialog
-            Stage stage = (Stage) root.getScene().getWindow();
-            stage.close();
+            tasks.submit("save prisoner", () -> prisonerService.createPrisoner(prisoner), saved -> {
+                // Close dialog
+                Stage stage = (Stage) root.getScene().getWindow();
+                stage.close();
+            }, e -> showError("Error", "Failed to save prisoner: " + e.getMessage()));
 
         } catch (Exception e) {
             showError("Error", "Failed to save prisoner: " + e.getMessage());
@@ -29,13 +29,21 @@ public class AddRoomController {
 
     private final RoomService roomService;
     private final DepartmentService departmentService;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
     private Block currentBlock;
     private Runnable onSaveCallback;
 
     @Autowired
-    public AddRoomController(RoomService roomService, DepartmentService departmentService) {
+    public AddRoomController(RoomService roomService, DepartmentService departmentService, UiTaskRunner uiTaskRunner) {
         this.roomService = roomService;
         this.departmentService = departmentService;
+        this.uiTaskRunner = uiTaskRunner;
+    }
+
+    @FXML
+    public void initialize() {
+        tasks = uiTaskRunner.scopeFor(roomTypeField);
     }
 
     public void setBlock(Block block) {
@@ -48,7 +56,17 @@ public class AddRoomController {
     }
 
     private void loadDepartments() {
-        List<Department> departments = departmentService.getAllDepartments();
+        loadDepartments(null);
+    }
+
+    // Selects the given department once loaded, or the first one when null
+    private void loadDepartments(Department selected) {
+        tasks.refresh("load departments", departmentService::getAllDepartments,
+            departments -> showDepartments(departments, selected),
+            e -> showError("Error", "Failed to load departments: " + e.getMessage()));
+    }
+
+    private void showDepartments(List<Department> departments, Department selected) {
         departmentComboBox.setItems(javafx.collections.FXCollections.observableArrayList(departments));
         departmentComboBox.setConverter(new StringConverter<Department>() {
             @Override
@@ -61,7 +79,9 @@ public class AddRoomController {
                 return null; // Not needed for ComboBox
             }
         });
-        if (!departments.isEmpty()) {
+        if (selected != null) {
+            departmentComboBox.setValue(selected);
+        } else if (!departments.isEmpty()) {
             departmentComboBox.setValue(departments.get(0));
         }
     }
@@ -74,16 +94,9 @@ public class AddRoomController {
         dialog.setContentText("Enter department type:");
 
         Optional<String> result = dialog.showAndWait();
-        result.ifPresent(type -> {
-            try {
-                Department department = new Department(type);
-                department = departmentService.createDepartment(department);
-                loadDepartments();
-                departmentComboBox.setValue(department);
-            } catch (Exception e) {
-                showError("Error", "Failed to create department: " + e.getMessage());
-            }
-        });
+        result.ifPresent(type -> tasks.submit("create department",
+            () -> departmentService.createDepartment(new Department(type)), this::loadDepartments,
+            e -> showError("Error", "Failed to create department: " + e.getMessage())));
     }
 
     @FXML
@@ -108,20 +121,25 @@ public class AddRoomController {
                 return;
             }
 
-            // Create and save the room
-            Room room = new Room(roomType, description);
-            room = roomService.createRoom(room);
-            
-            // Assign the room to the block and department
-            roomService.assignToBlock(room.getId(), currentBlock, selectedDepartment);
-            
-            logger.info("Created new room: {} in block: {} and department: {}", 
-                roomType, currentBlock.getId(), selectedDepartment.getId());
-
-            if (onSaveCallback != null) {
-                onSaveCallback.run();
-            }
-            closeDialog();
+            Block block = currentBlock;
+            tasks.run("save room", () -> {
+                // Create and save the room
+                Room room = roomService.createRoom(new Room(roomType, description));
+
+                // Assign the room to the block and department
+                roomService.assignToBlock(room.getId(), block, selectedDepartment);
+            }, () -> {
+                logger.info("Created new room: {} in block: {} and department: {}",
+                    roomType, block.getId(), selectedDepartment.getId());
+
+                if (onSaveCallback != null) {
+                    onSaveCallback.run();
+                }
+                closeDialog();
+            }, e -> {
+                logger.error("Error saving room", e);
+                showError("Error", "Failed to save room: " + e.getMessage());
+            });
         } catch (Exception e) {
             logger.error("Error saving room", e);
             showError("Error", "Failed to save room: " + e.getMessage());
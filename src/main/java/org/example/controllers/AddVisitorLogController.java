@@ -7,10 +7,13 @@ import javafx.scene.control.DatePicker;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
 import javafx.stage.Stage;
 import org.example.models.Prisoner;
 import org.example.models.Visitor;
 import org.example.models.VisitorLog;
+import org.example.models.VisitSlot;
 import org.example.services.VisitorService;
 import org.example.services.VisitorLogService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,11 +21,14 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Component
 @Scope("prototype")
 public class AddVisitorLogController {
+    private static final Logger LOGGER = Logger.getLogger(AddVisitorLogController.class.getName());
+
     @FXML
     private ComboBox<Visitor> visitorComboBox;
     @FXML
@@ -34,25 +40,32 @@ public class AddVisitorLogController {
     @FXML
     private DatePicker visitDatePicker;
     @FXML
+    private ComboBox<VisitSlot> visitSlotComboBox;
+    @FXML
     private ComboBox<String> statusComboBox;
     @FXML
     private TextArea commentsArea;
 
     private final VisitorService visitorService;
     private final VisitorLogService visitorLogService;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
     private Prisoner prisoner;
     private boolean isNewVisitor = false;
     private VisitorLog editingLog;
     private javafx.scene.Parent root;
 
     @Autowired
-    public AddVisitorLogController(VisitorService visitorService, VisitorLogService visitorLogService) {
+    public AddVisitorLogController(VisitorService visitorService, VisitorLogService visitorLogService,
+                                   UiTaskRunner uiTaskRunner) {
         this.visitorService = visitorService;
         this.visitorLogService = visitorLogService;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(visitorComboBox);
         relationshipComboBox.getItems().addAll(
             "Family",
             "Friend",
@@ -96,21 +109,47 @@ public class AddVisitorLogController {
             }
         });
 
+        visitSlotComboBox.setCellFactory(param -> new VisitSlotCell());
+        visitSlotComboBox.setButtonCell(new VisitSlotCell());
+        visitDatePicker.valueProperty().addListener((observable, oldDate, newDate) -> loadSlots());
+
         // Load existing visitors
         loadVisitors();
     }
 
-    private void loadVisitors() {
-        try {
-            List<Visitor> visitors = visitorService.getAllVisitors();
-            visitorComboBox.getItems().addAll(visitors);
-        } catch (Exception e) {
-            System.err.println("Error loading visitors: " + e.getMessage());
+    // The slots of the chosen day with room left, plus the one the edited visit already holds
+    private void loadSlots() {
+        visitSlotComboBox.getItems().clear();
+        visitSlotComboBox.setValue(null);
+        LocalDate date = visitDatePicker.getValue();
+        if (prisoner == null || date == null) {
+            return;
         }
+        Prisoner visited = prisoner;
+        LocalTime heldTime = editingLog != null && !editingLog.isRejected() && date.equals(editingLog.getDate())
+            ? editingLog.getVisitTime() : null;
+        tasks.refresh("load visit slots", () -> visitorLogService.getSlots(visited, date), slots -> {
+            for (VisitSlot slot : slots) {
+                boolean held = slot.getStartTime().equals(heldTime);
+                if (!slot.isFull() || held) {
+                    visitSlotComboBox.getItems().add(slot);
+                }
+                if (held) {
+                    visitSlotComboBox.setValue(slot);
+                }
+            }
+        }, e -> LOGGER.log(Level.WARNING, "Error loading visit slots", e));
+    }
+
+    private void loadVisitors() {
+        tasks.refresh("load visitors", visitorService::getAllVisitors,
+            visitors -> visitorComboBox.getItems().addAll(visitors),
+            e -> System.err.println("Error loading visitors: " + e.getMessage()));
     }
 
     public void setPrisoner(Prisoner prisoner) {
         this.prisoner = prisoner;
+        loadSlots();
     }
 
     @FXML
@@ -126,13 +165,14 @@ public class AddVisitorLogController {
         if (log != null) {
             try {
                 // Load the visitor by ID and set it in the combo box
-                visitorService.getVisitorById(log.getVisitorId()).ifPresent(visitor -> {
-                    visitorComboBox.setValue(visitor);
-                });
+                tasks.refresh("load visitor", () -> visitorService.getVisitorById(log.getVisitorId()),
+                    visitor -> visitor.ifPresent(visitorComboBox::setValue),
+                    e -> System.err.println("Error setting visitor log for editing: " + e.getMessage()));
                 
                 // Set other fields from the log
                 relationshipComboBox.setValue(log.getRelationship());
                 visitDatePicker.setValue(log.getDate());
+                loadSlots();
                 statusComboBox.setValue(log.getStatus());
                 commentsArea.setText(log.getNotes());
             } catch (Exception e) {
@@ -144,76 +184,90 @@ public class AddVisitorLogController {
     @FXML
     private void handleSave() {
         if (prisoner != null) {
-            try {
+            // Read the form on the FX thread; lookups and writes run in one background task
+            String name = newVisitorNameField.getText().trim();
+            String relationship = relationshipComboBox.getValue();
+            Visitor selectedVisitor = visitorComboBox.getValue();
+            if (isNewVisitor) {
+                if (name.isEmpty() || relationship == null) {
+                    // TODO: Show error dialog
+                    return;
+                }
+            } else if (editingLog == null && selectedVisitor == null) {
+                // TODO: Show error dialog
+                return;
+            }
+            boolean createVisitor = isNewVisitor;
+            VisitorLog log = editingLog;
+            LocalDate date = visitDatePicker.getValue();
+            String status = statusComboBox.getValue();
+            VisitSlot slot = visitSlotComboBox.getValue();
+            // The visit is booked into the chosen slot or not at all; only a rejected visit needs none
+            if (slot == null && !"REJECTED".equals(status)) {
+                showError("Validation Error", "Choose a visit time with places left");
+                return;
+            }
+            if (slot == null && log == null) {
+                showError("Validation Error", "Choose a visit time");
+                return;
+            }
+            LocalTime visitTime = slot != null ? slot.getStartTime() : null;
+            String comments = commentsArea.getText();
+
+            tasks.run("save visitor log", () -> {
                 Visitor visitor;
-                if (isNewVisitor) {
+                if (createVisitor) {
                     // Create new visitor
-                    String name = newVisitorNameField.getText().trim();
-                    String relationship = relationshipComboBox.getValue();
-                    if (name.isEmpty() || relationship == null) {
-                        // TODO: Show error dialog
-                        return;
-                    }
                     visitor = visitorService.createVisitor(name, relationship);
-                } else if (editingLog != null) {
-                    // For editing, get visitor from combo box or load by ID from existing log
-                    visitor = visitorComboBox.getValue();
-                    if (visitor == null) {
-                        // If no visitor selected in combo box, load from existing log
-                        visitor = visitorService.getVisitorById(editingLog.getVisitorId()).orElse(null);
-                        if (visitor == null) {
-                            System.err.println("Could not find visitor for editing log");
-                            return;
-                        }
-                    }
+                } else if (selectedVisitor != null) {
+                    visitor = selectedVisitor;
                 } else {
-                    visitor = visitorComboBox.getValue();
-                    if (visitor == null) {
-                        // TODO: Show error dialog
-                        return;
-                    }
+                    // If no visitor selected in combo box, load from existing log
+                    visitor = visitorService.getVisitorById(log.getVisitorId())
+                        .orElseThrow(() -> new IllegalStateException("Could not find visitor for editing log"));
                 }
-                if (editingLog == null) {
-                // Create visitor log
-                VisitorLog visitorLog = visitorLogService.createVisitorLog(
-                    visitor,
-                    prisoner,
-                    visitDatePicker.getValue(),
-                    LocalTime.now(),
-                    commentsArea.getText()
-                );
-                // Update status if not PENDING
-                String status = statusComboBox.getValue();
-                if (!"PENDING".equals(status)) {
-                    switch (status) {
-                        case "APPROVED":
-                            visitorLogService.approveVisitorLog(visitorLog.getId());
-                            break;
-                        case "REJECTED":
-                            visitorLogService.rejectVisitorLog(visitorLog.getId());
-                            break;
-                        case "COMPLETED":
-                            visitorLogService.completeVisitorLog(visitorLog.getId());
-                            break;
+                if (log == null) {
+                    // Create visitor log
+                    VisitorLog visitorLog = visitorLogService.createVisitorLog(
+                        visitor,
+                        prisoner,
+                        date,
+                        visitTime,
+                        comments
+                    );
+                    // Update status if not PENDING
+                    if (!"PENDING".equals(status)) {
+                        switch (status) {
+                            case "APPROVED":
+                                visitorLogService.approveVisitorLog(visitorLog.getId());
+                                break;
+                            case "REJECTED":
+                                visitorLogService.rejectVisitorLog(visitorLog.getId());
+                                break;
+                            case "COMPLETED":
+                                visitorLogService.completeVisitorLog(visitorLog.getId());
+                                break;
+                        }
                     }
-                }
                 } else {
                     // Update existing log
-                    editingLog.setPrisonerId(prisoner.getId());
-                    editingLog.setVisitorId(visitor.getId());
-                    editingLog.setDate(visitDatePicker.getValue());
-                    editingLog.setRelationship(relationshipComboBox.getValue());
-                    editingLog.setNotes(commentsArea.getText());
-                    editingLog.setStatus(statusComboBox.getValue());
-                    visitorLogService.updateVisitorLog(editingLog.getId(), editingLog);
+                    log.setPrisonerId(prisoner.getId());
+                    log.setVisitorId(visitor.getId());
+                    log.setDate(date);
+                    log.setRelationship(relationship);
+                    log.setNotes(comments);
+                    log.setStatus(status);
+                    log.setVisitTime(visitTime);
+                    visitorLogService.updateVisitorLog(log.getId(), log);
                 }
+            }, () -> {
                 // Close the window
                 Stage stage = (Stage) visitorComboBox.getScene().getWindow();
                 stage.close();
-            } catch (Exception e) {
-                System.err.println("Error saving visitor log: " + e.getMessage());
-                // TODO: Show error dialog
-            }
+            }, e -> {
+                LOGGER.log(Level.WARNING, "Error saving visitor log", e);
+                showError("Error", "Failed to save visitor log: " + e.getMessage());
+            });
         }
     }
 
@@ -224,6 +278,26 @@ public class AddVisitorLogController {
         stage.close();
     }
 
+    private void showError(String title, String content) {
+        Alert alert = new Alert(AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+
+    private static class VisitSlotCell extends ListCell<VisitSlot> {
+        @Override
+        protected void updateItem(VisitSlot slot, boolean empty) {
+            super.updateItem(slot, empty);
+            if (empty || slot == null) {
+                setText("Select a visit time...");
+            } else {
+                setText(slot.getStartTime() + " (" + slot.getAvailable() + " of " + slot.getCapacity() + " free)");
+            }
+        }
+    }
+
     public void setRoot(javafx.scene.Parent root) { this.root = root; }
     public javafx.scene.Parent getRoot() { return root; }
 } 
\ No newline at end of file
@@ -0,0 +1,163 @@
+package org.example.controllers;
+
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.util.Callback;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Resolves a per-row lookup for a whole table at once. The keys of the loaded rows are collected,
+// fetched with one batched query in the view's task scope, and the cells are refreshed when the result arrives.
+public class BatchColumnResolver<S, K, V> {
+
+    private static final String LOADING_TEXT = "Loading...";
+    private static final String ERROR_TEXT = "Error";
+
+    private final UiTaskScope tasks;
+    private final TableView<S> table;
+    private final Function<S, K> keyExtractor;
+    private final Function<Collection<K>, Map<K, V>> batchLoader;
+
+    // All state is touched on the FX thread only
+    private final Map<K, V> values = new HashMap<>();
+    private final Set<K> loaded = new HashSet<>();
+    private final Set<K> pending = new HashSet<>();
+    private final Set<K> failed = new HashSet<>();
+    private int generation;
+
+    // Only added rows and rows updated in place can be missing values; paged tables report each
+    // loaded page as an update, and their unloaded rows are null
+    private final ListChangeListener<S> rowsChanged = change -> {
+        Set<K> keys = new LinkedHashSet<>();
+        while (change.next()) {
+            if (change.wasAdded() || change.wasUpdated()) {
+                collectMissing(change.getList().subList(change.getFrom(), change.getTo()), keys);
+            }
+        }
+        request(keys);
+    };
+
+    private BatchColumnResolver(UiTaskScope tasks, TableView<S> table, Function<S, K> keyExtractor,
+                                Function<Collection<K>, Map<K, V>> batchLoader) {
+        this.tasks = tasks;
+        this.table = table;
+        this.keyExtractor = keyExtractor;
+        this.batchLoader = batchLoader;
+    }
+
+    // Creates a resolver that follows the table's rows from now on
+    public static <S, K, V> BatchColumnResolver<S, K, V> forTable(UiTaskScope tasks, TableView<S> table,
+                                                                  Function<S, K> keyExtractor,
+                                                                  Function<Collection<K>, Map<K, V>> batchLoader) {
+        BatchColumnResolver<S, K, V> resolver = new BatchColumnResolver<>(tasks, table, keyExtractor, batchLoader);
+        resolver.attach();
+        return resolver;
+    }
+
+    private void attach() {
+        table.itemsProperty().addListener((observable, oldItems, newItems) -> {
+            if (oldItems != null) {
+                oldItems.removeListener(rowsChanged);
+            }
+            if (newItems != null) {
+                newItems.addListener(rowsChanged);
+            }
+            // A new item list means the table was reloaded, so cached values may be stale
+            invalidate();
+            requestMissing();
+        });
+        if (table.getItems() != null) {
+            table.getItems().addListener(rowsChanged);
+        }
+    }
+
+    public Callback<TableColumn.CellDataFeatures<S, String>, ObservableValue<String>> column(
+            Function<V, String> formatter, String missingText) {
+        return cellData -> new ReadOnlyStringWrapper(display(cellData.getValue(), formatter, missingText));
+    }
+
+    // Drops cached values; the next change to the table's rows fetches them again
+    public void invalidate() {
+        generation++;
+        values.clear();
+        loaded.clear();
+        pending.clear();
+        failed.clear();
+    }
+
+    // Values the caller already fetched; rows with these keys are shown without another query
+    public void preload(Map<K, V> known) {
+        values.putAll(known);
+        loaded.addAll(known.keySet());
+    }
+
+    private String display(S row, Function<V, String> formatter, String missingText) {
+        K key = row != null ? keyExtractor.apply(row) : null;
+        if (key == null) {
+            return missingText;
+        }
+        if (failed.contains(key)) {
+            return ERROR_TEXT;
+        }
+        if (!loaded.contains(key)) {
+            return LOADING_TEXT;
+        }
+        V value = values.get(key);
+        return value != null ? formatter.apply(value) : missingText;
+    }
+
+    private void requestMissing() {
+        ObservableList<S> rows = table.getItems();
+        if (rows == null) {
+            return;
+        }
+        Set<K> keys = new LinkedHashSet<>();
+        collectMissing(rows, keys);
+        request(keys);
+    }
+
+    private void collectMissing(List<? extends S> rows, Set<K> keys) {
+        for (S row : rows) {
+            K key = row != null ? keyExtractor.apply(row) : null;
+            if (key != null && !loaded.contains(key) && !pending.contains(key) && !failed.contains(key)) {
+                keys.add(key);
+            }
+        }
+    }
+
+    private void request(Set<K> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        pending.addAll(keys);
+        int requestGeneration = generation;
+        tasks.submit("resolve " + keys.size() + " table values", () -> batchLoader.apply(keys), result -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            pending.removeAll(keys);
+            loaded.addAll(keys);
+            values.putAll(result);
+            table.refresh();
+        }, e -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            pending.removeAll(keys);
+            failed.addAll(keys);
+            table.refresh();
+        });
+    }
+}
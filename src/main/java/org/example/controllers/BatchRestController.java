@@ -0,0 +1,183 @@
+package org.example.controllers;
+
+import org.example.models.Cell;
+import org.example.services.BatchOperationService;
+import org.example.services.BatchOperationService.BatchResult;
+import org.example.services.CellService;
+import org.example.services.PrisonerService;
+import org.example.services.ScheduleService;
+import org.example.services.StaffService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Batch writes for integrations that would otherwise send one request per record. Each body is an array
+// of {"op": "create" | "update" | "delete", "id": ..., "data": {...}}; data has the same shape as the
+// single-record endpoint. The response has one result per operation, in request order. With
+// atomic=true nothing is committed unless every operation succeeds.
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*")
+public class BatchRestController {
+
+    private final BatchOperationService batchOperationService;
+    private final PrisonerService prisonerService;
+    private final CellService cellService;
+    private final ScheduleService scheduleService;
+    private final StaffService staffService;
+
+    @Autowired
+    public BatchRestController(BatchOperationService batchOperationService, PrisonerService prisonerService,
+                               CellService cellService, ScheduleService scheduleService, StaffService staffService) {
+        this.batchOperationService = batchOperationService;
+        this.prisonerService = prisonerService;
+        this.cellService = cellService;
+        this.scheduleService = scheduleService;
+        this.staffService = staffService;
+    }
+
+    @PostMapping("/prisoners:batch")
+    public ResponseEntity<BatchResult> batchPrisoners(
+            @RequestBody List<BatchOperation<PrisonerRestController.PrisonerRequest>> operations,
+            @RequestParam(defaultValue = "false") boolean atomic) {
+        return ResponseEntity.ok(batchOperationService.execute(operations, atomic, this::applyPrisoner));
+    }
+
+    @PostMapping("/cells:batch")
+    public ResponseEntity<BatchResult> batchCells(
+            @RequestBody List<BatchOperation<CellController.CellRequest>> operations,
+            @RequestParam(defaultValue = "false") boolean atomic) {
+        return ResponseEntity.ok(batchOperationService.execute(operations, atomic, this::applyCell));
+    }
+
+    @PostMapping("/schedules:batch")
+    public ResponseEntity<BatchResult> batchSchedules(
+            @RequestBody List<BatchOperation<ScheduleController.ScheduleRequest>> operations,
+            @RequestParam(defaultValue = "false") boolean atomic) {
+        return ResponseEntity.ok(batchOperationService.execute(operations, atomic, this::applySchedule));
+    }
+
+    // Each apply method runs inside the batch transaction and returns the id of the affected row
+    private Object applyPrisoner(BatchOperation<PrisonerRestController.PrisonerRequest> operation) {
+        return switch (operation.requireOp()) {
+            case BatchOperation.CREATE -> {
+                PrisonerRestController.PrisonerRequest data = operation.requireData();
+                yield prisonerService.createPrisoner(data.toPrisoner(findCell(data.getCellId()))).getId();
+            }
+            case BatchOperation.UPDATE -> {
+                PrisonerRestController.PrisonerRequest data = operation.requireData();
+                yield prisonerService.updatePrisoner(operation.requireId(), data.toPrisoner(findCell(data.getCellId())))
+                    .getId();
+            }
+            case BatchOperation.DELETE -> {
+                prisonerService.deletePrisoner(operation.requireId());
+                yield operation.getId();
+            }
+            default -> throw operation.unknownOp();
+        };
+    }
+
+    private Object applyCell(BatchOperation<CellController.CellRequest> operation) {
+        return switch (operation.requireOp()) {
+            case BatchOperation.CREATE -> cellService.createCell(operation.requireData().toCell()).getId();
+            case BatchOperation.UPDATE -> cellService.updateCell(operation.requireId(),
+                operation.requireData().toCell()).getId();
+            case BatchOperation.DELETE -> {
+                cellService.deleteCell(operation.requireId());
+                yield operation.getId();
+            }
+            default -> throw operation.unknownOp();
+        };
+    }
+
+    private Object applySchedule(BatchOperation<ScheduleController.ScheduleRequest> operation) {
+        return switch (operation.requireOp()) {
+            case BatchOperation.CREATE -> {
+                ScheduleController.ScheduleRequest data = operation.requireData();
+                yield scheduleService.createSchedule(staffService.getStaffById(data.getStaffId()),
+                    data.getDays(), data.getStartTime(), data.getEndTime()).getId();
+            }
+            case BatchOperation.UPDATE -> {
+                ScheduleController.ScheduleRequest data = operation.requireData();
+                yield scheduleService.updateSchedule(operation.requireId(),
+                    data.toSchedule(staffService.getStaffById(data.getStaffId()))).getId();
+            }
+            case BatchOperation.DELETE -> {
+                scheduleService.deleteSchedule(operation.requireId());
+                yield operation.getId();
+            }
+            default -> throw operation.unknownOp();
+        };
+    }
+
+    private Cell findCell(Integer cellId) {
+        if (cellId == null) {
+            throw new IllegalArgumentException("Cell ID cannot be null");
+        }
+        return cellService.getCellById(cellId)
+            .orElseThrow(() -> new RuntimeException("Cell not found with ID: " + cellId));
+    }
+
+    // DTO classes
+    private static class BatchOperation<T> {
+        static final String CREATE = "create";
+        static final String UPDATE = "update";
+        static final String DELETE = "delete";
+
+        private String op;
+        private Integer id;
+        private T data;
+
+        public String getOp() {
+            return op;
+        }
+
+        public void setOp(String op) {
+            this.op = op;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public void setId(Integer id) {
+            this.id = id;
+        }
+
+        public T getData() {
+            return data;
+        }
+
+        public void setData(T data) {
+            this.data = data;
+        }
+
+        String requireOp() {
+            if (op == null) {
+                throw new IllegalArgumentException("Operation type cannot be null");
+            }
+            return op;
+        }
+
+        Integer requireId() {
+            if (id == null) {
+                throw new IllegalArgumentException("Operation '" + op + "' needs an id");
+            }
+            return id;
+        }
+
+        T requireData() {
+            if (data == null) {
+                throw new IllegalArgumentException("Operation '" + op + "' needs data");
+            }
+            return data;
+        }
+
+        IllegalArgumentException unknownOp() {
+            return new IllegalArgumentException("Unknown batch operation '" + op + "'. Allowed: "
+                + CREATE + ", " + UPDATE + ", " + DELETE);
+        }
+    }
+}
@@ -12,13 +12,16 @@ import org.example.models.Prison;
 import org.example.services.BlockService;
 import org.example.services.CellService;
 import org.example.services.RoomService;
+import org.example.services.ResourceVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Component
@@ -30,6 +33,9 @@ public class BlockController {
     private final BlockService blockService;
     private final CellService cellService;
     private final RoomService roomService;
+    private final ResourceVersionService resourceVersions;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
 
     // FXML UI Elements
     @FXML private Label blockNameLabel;
@@ -48,21 +54,32 @@ public class BlockController {
     private Block currentBlock;
 
     @Autowired
-    public BlockController(BlockService blockService, CellService cellService, RoomService roomService) {
+    public BlockController(BlockService blockService, CellService cellService, RoomService roomService,
+                           ResourceVersionService resourceVersions, UiTaskRunner uiTaskRunner) {
         this.blockService = blockService;
         this.cellService = cellService;
         this.roomService = roomService;
+        this.resourceVersions = resourceVersions;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     // JavaFX UI Methods
     @FXML
     public void initialize() {
-        currentBlock = blockService.getBlockById(1).orElse(null);
+        tasks = uiTaskRunner.scopeFor(cellsTable);
+        tasks.refresh("load block", () -> {
+            // Counts walk the block's collections, so they are read here rather than on the FX thread
+            return blockService.getBlockById(1).map(BlockSummary::new).orElse(null);
+        }, this::showBlock);
+    }
+
+    private void showBlock(BlockSummary summary) {
+        currentBlock = summary != null ? summary.block : null;
         if (currentBlock != null) {
             blockNameLabel.setText(currentBlock.getType());
-            totalRoomsLabel.setText(String.valueOf(currentBlock.getRooms().size()));
-            totalCellsLabel.setText(String.valueOf(currentBlock.getNumberOfCells()));
-            totalPrisonersLabel.setText(String.valueOf(currentBlock.getNumberOfPrisoners()));
+            totalRoomsLabel.setText(String.valueOf(summary.totalRooms));
+            totalCellsLabel.setText(String.valueOf(summary.totalCells));
+            totalPrisonersLabel.setText(String.valueOf(summary.totalPrisoners));
 
             typeCol.setCellValueFactory(new PropertyValueFactory<>("type"));
             capacityCol.setCellValueFactory(new PropertyValueFactory<>("capacity"));
@@ -77,19 +94,21 @@ public class BlockController {
 
     private void loadCells() {
         if (currentBlock != null) {
-            ObservableList<Cell> cells = FXCollections.observableArrayList(
-                    cellService.getCellsByBlockId(currentBlock.getBlockId())
-            );
-            cellsTable.setItems(cells);
+            Integer blockId = currentBlock.getBlockId();
+            tasks.refresh("load cells", () -> cellService.getCellsByBlockId(blockId), blockCells -> {
+                ObservableList<Cell> cells = FXCollections.observableArrayList(blockCells);
+                cellsTable.setItems(cells);
+            });
         }
     }
 
     private void loadRooms() {
         if (currentBlock != null) {
-            ObservableList<Room> rooms = FXCollections.observableArrayList(
-                    roomService.getRoomsByBlockId(currentBlock.getBlockId())
-            );
-            roomsTable.setItems(rooms);
+            Integer blockId = currentBlock.getBlockId();
+            tasks.refresh("load rooms", () -> roomService.getRoomsByBlockId(blockId), blockRooms -> {
+                ObservableList<Room> rooms = FXCollections.observableArrayList(blockRooms);
+                roomsTable.setItems(rooms);
+            });
         }
     }
 
@@ -110,13 +129,21 @@ public class BlockController {
 
     // REST Endpoints
     @GetMapping
-    public ResponseEntity<List<Block>> getAllBlocks() {
-        return ResponseEntity.ok(blockService.getAllBlocks());
+    public ResponseEntity<List<Map<String, Object>>> getAllBlocks(
+            @RequestParam(required = false) List<String> fields, WebRequest request) {
+        List<String> selected = BlockService.RESPONSE_FIELDS.select(fields);
+        String etag = resourceVersions.etag(request, "blocks-" + String.join(",", selected),
+            ResourceVersionService.BLOCKS, ResourceVersionService.CELLS, ResourceVersionService.ROOMS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(blockService.getBlockFields(selected));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Block> getBlockById(@PathVariable Integer id) {
-        Optional<Block> block = blockService.getBlockById(id);
+    public ResponseEntity<Map<String, Object>> getBlockById(@PathVariable Integer id,
+                                                            @RequestParam(required = false) List<String> fields) {
+        Optional<Map<String, Object>> block = blockService.getBlockFieldsById(id, fields);
         return block.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -150,8 +177,9 @@ public class BlockController {
     }
 
     @GetMapping("/{id}/cells")
-    public ResponseEntity<List<Cell>> getBlockCells(@PathVariable Integer id) {
-        return ResponseEntity.ok(cellService.getCellsByBlockId(id));
+    public ResponseEntity<List<Map<String, Object>>> getBlockCells(
+            @PathVariable Integer id, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(cellService.getCellFieldsByBlockId(id, fields));
     }
 
     @GetMapping("/{id}/rooms")
@@ -160,7 +188,13 @@ public class BlockController {
     }
 
     @GetMapping("/{id}/stats")
-    public ResponseEntity<BlockStats> getBlockStats(@PathVariable Integer id) {
+    public ResponseEntity<BlockStats> getBlockStats(@PathVariable Integer id, WebRequest request) {
+        String etag = resourceVersions.etag(request, "block-stats-" + id,
+            ResourceVersionService.BLOCKS, ResourceVersionService.CELLS,
+            ResourceVersionService.ROOMS, ResourceVersionService.PRISONERS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         Optional<Block> block = blockService.getBlockById(id);
         if (block.isPresent()) {
             Block b = block.get();
@@ -169,7 +203,7 @@ public class BlockController {
                 b.getNumberOfCells(),
                 b.getNumberOfPrisoners()
             );
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok().eTag(etag).body(stats);
         }
         return ResponseEntity.notFound().build();
     }
@@ -202,4 +236,19 @@ public class BlockController {
             this.totalPrisoners = totalPrisoners;
         }
     }
+
+    // What the FX view shows, read in the background
+    private static class BlockSummary {
+        private final Block block;
+        private final int totalRooms;
+        private final int totalCells;
+        private final int totalPrisoners;
+
+        BlockSummary(Block block) {
+            this.block = block;
+            this.totalRooms = block.getRooms().size();
+            this.totalCells = block.getNumberOfCells();
+            this.totalPrisoners = block.getNumberOfPrisoners();
+        }
+    }
 }
\ No newline at end of file
@@ -64,6 +64,11 @@ public class BlockDetailsController {
     @Autowired
     private SpringFXMLLoader springFXMLLoader;
 
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
+
     public BlockDetailsController(BlockService blockService, CellService cellService, RoomService roomService, DepartmentService departmentService) {
         this.blockService = blockService;
         this.cellService = cellService;
@@ -82,6 +87,7 @@ public class BlockDetailsController {
     @FXML
     public void initialize() {
         LOGGER.info("Initializing BlockDetailsController");
+        tasks = uiTaskRunner.scopeFor(blockTypeLabel);
         
         // Initialize cell columns
         cellIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
@@ -263,6 +269,18 @@ public class BlockDetailsController {
         }
     }
 
+    // Reads the block with its relations again in the background, then refreshes the view
+    private void reloadBlock(Runnable afterUpdate) {
+        Integer blockId = block.getId();
+        tasks.refresh("reload block", () -> blockService.getBlockByIdWithRelations(blockId), reloaded -> {
+            block = reloaded;
+            updateUI();
+            if (afterUpdate != null) {
+                afterUpdate.run();
+            }
+        }, e -> LOGGER.log(Level.SEVERE, "Error refreshing block data", e));
+    }
+
     @FXML
     private void handleClose() {
         try {
@@ -311,11 +329,7 @@ public class BlockDetailsController {
         try {
             AddRoomController controller = springFXMLLoader.loadAndGetController("/fxml/add-room.fxml", AddRoomController.class);
             controller.setBlock(block);
-            controller.setOnSaveCallback(() -> {
-                block = blockService.getBlockByIdWithRelations(block.getId());
-                updateUI();
-                filterRooms(roomSearchField.getText());
-            });
+            controller.setOnSaveCallback(() -> reloadBlock(() -> filterRooms(roomSearchField.getText())));
 
             Stage stage = new Stage();
             stage.setTitle("Add New Room");
@@ -340,10 +354,7 @@ public class BlockDetailsController {
             stage.setResizable(false);
 
             // Refresh the block data when the dialog is closed
-            stage.setOnHidden(event -> {
-                block = blockService.getBlockByIdWithRelations(block.getId());
-                updateUI();
-            });
+            stage.setOnHidden(event -> reloadBlock(null));
 
             stage.show();
         } catch (Exception e) {
@@ -372,14 +383,14 @@ public class BlockDetailsController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    blockService.deleteBlock(block.getId());
-                    LOGGER.info("Block deleted successfully: " + block.getId());
+                Integer blockId = block.getId();
+                tasks.run("delete block", () -> blockService.deleteBlock(blockId), () -> {
+                    LOGGER.info("Block deleted successfully: " + blockId);
                     handleClose(); // Close the details window
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Error deleting block: " + block.getId(), e);
+                }, e -> {
+                    LOGGER.log(Level.SEVERE, "Error deleting block: " + blockId, e);
                     showError("Error", "Failed to delete block: " + e.getMessage());
-                }
+                });
             }
         });
     }
@@ -393,16 +404,14 @@ public class BlockDetailsController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    cellService.deleteCell(cell.getId());
+                tasks.run("delete cell", () -> cellService.deleteCell(cell.getId()), () -> {
                     LOGGER.info("Cell deleted successfully: " + cell.getId());
                     // Refresh the block data
-                    block = blockService.getBlockByIdWithRelations(block.getId());
-                    updateUI();
-                } catch (Exception e) {
+                    reloadBlock(null);
+                }, e -> {
                     LOGGER.log(Level.SEVERE, "Error deleting cell: " + cell.getId(), e);
                     showError("Error", "Failed to delete cell: " + e.getMessage());
-                }
+                });
             }
         });
     }
@@ -421,18 +430,15 @@ public class BlockDetailsController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    // Delete the room (RoomService will handle all cleanup)
-                    roomService.deleteRoom(room.getId());
+                // Delete the room (RoomService will handle all cleanup)
+                tasks.run("delete room", () -> roomService.deleteRoom(room.getId()), () -> {
                     LOGGER.info("Room deleted successfully: " + room.getId());
                     // Refresh the block data
-                    block = blockService.getBlockByIdWithRelations(block.getId());
-                    updateUI();
-                    filterRooms(roomSearchField.getText());
-                } catch (Exception e) {
+                    reloadBlock(() -> filterRooms(roomSearchField.getText()));
+                }, e -> {
                     LOGGER.log(Level.SEVERE, "Error deleting room: " + room.getId(), e);
                     showError("Error", "Failed to delete room: " + e.getMessage());
-                }
+                });
             }
         });
     }
@@ -446,20 +452,26 @@ public class BlockDetailsController {
     }
 
     private void handleDepartmentDetails(Room room) {
-        try {
-            Department department = room.getContains2Relations().stream()
-                .map(Contains2::getDepartment)
-                .findFirst()
-                .orElse(null);
+        Department department = room.getContains2Relations().stream()
+            .map(Contains2::getDepartment)
+            .findFirst()
+            .orElse(null);
 
-            if (department == null) {
-                showError("Error", "No department associated with this room");
-                return;
-            }
+        if (department == null) {
+            showError("Error", "No department associated with this room");
+            return;
+        }
 
-            // Get the department with all relationships eagerly loaded
-            Department departmentWithRelations = departmentService.getDepartmentByIdWithRelations(department.getId());
+        // Get the department with all relationships eagerly loaded
+        tasks.submit("load department", () -> departmentService.getDepartmentByIdWithRelations(department.getId()),
+            this::openDepartmentDetails, e -> {
+                LOGGER.log(Level.SEVERE, "Error opening department details", e);
+                showError("Error", "Failed to open department details: " + e.getMessage());
+            });
+    }
 
+    private void openDepartmentDetails(Department departmentWithRelations) {
+        try {
             DepartmentDetailsController controller = springFXMLLoader.loadAndGetController("/fxml/department-details.fxml", DepartmentDetailsController.class);
             controller.initData(departmentWithRelations);
 
@@ -497,17 +509,23 @@ public class BlockDetailsController {
     }
 
     private void handleRoomDetails(Room room) {
-        try {
+        tasks.submit("load room", () -> {
             // Try to load the room with all relations, but use safe method if there are data integrity issues
-            Room roomWithRelations;
             try {
-                roomWithRelations = roomService.getRoomByIdWithRelations(room.getId());
+                return roomService.getRoomByIdWithRelations(room.getId());
             } catch (Exception e) {
                 LOGGER.warning("Failed to load room with relations, using safe method: " + e.getMessage());
                 // Use safe method that doesn't try to fetch invalid departments
-                roomWithRelations = roomService.getRoomByIdWithRelationsSafe(room.getId());
+                return roomService.getRoomByIdWithRelationsSafe(room.getId());
             }
-            
+        }, this::openRoomDetails, e -> {
+            LOGGER.log(Level.SEVERE, "Error opening room details", e);
+            showError("Error", "Failed to open room details: " + e.getMessage());
+        });
+    }
+
+    private void openRoomDetails(Room roomWithRelations) {
+        try {
             RoomDetailsController controller = springFXMLLoader.loadAndGetController("/fxml/room-details.fxml", RoomDetailsController.class);
             controller.initData(roomWithRelations);
 
@@ -518,23 +536,16 @@ public class BlockDetailsController {
             stage.showAndWait(); // Make it modal
 
             // Refresh block data after room details window closes
-            try {
-                LOGGER.info("Refreshing block data after room details closed");
-                
-                // Refresh the block data from database
-                block = blockService.getBlockByIdWithRelations(block.getId());
-                
-                updateUI();
+            LOGGER.info("Refreshing block data after room details closed");
+            reloadBlock(() -> {
                 filterRooms(roomSearchField.getText());
-                
+
                 // Force table refresh
                 roomsTable.getItems().clear();
                 roomsTable.getItems().addAll(block.getRooms());
-                
+
                 LOGGER.info("Block data refreshed successfully");
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Error refreshing block data after room details closed", e);
-            }
+            });
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error opening room details", e);
             showError("Error", "Failed to open room details: " + e.getMessage());
@@ -9,13 +9,17 @@ import org.example.models.Cell;
 import org.example.models.Block;
 import org.example.services.CellService;
 import org.example.services.BlockService;
+import org.example.services.MultiGetResult;
+import org.example.services.ResourceVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Component
@@ -26,6 +30,9 @@ public class CellController {
 
     private final CellService cellService;
     private final BlockService blockService;
+    private final ResourceVersionService resourceVersions;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
 
     @FXML private Label cellIdLabel;
     @FXML private Label cellTypeLabel;
@@ -43,20 +50,26 @@ public class CellController {
     private Block currentBlock;
 
     @Autowired
-    public CellController(CellService cellService, BlockService blockService) {
+    public CellController(CellService cellService, BlockService blockService, ResourceVersionService resourceVersions,
+                          UiTaskRunner uiTaskRunner) {
         this.cellService = cellService;
         this.blockService = blockService;
+        this.resourceVersions = resourceVersions;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(cellsTable);
         // Load block data by ID (adjust ID as needed)
-        currentBlock = blockService.getBlockById(1).orElse(null);
+        tasks.refresh("load block", () -> blockService.getBlockById(1).orElse(null), block -> {
+            currentBlock = block;
 
-        if (currentBlock != null) {
-            setupTable();
-            loadCells();
-        }
+            if (currentBlock != null) {
+                setupTable();
+                loadCells();
+            }
+        });
     }
 
     private void setupTable() {
@@ -69,10 +82,11 @@ public class CellController {
 
     private void loadCells() {
         if (currentBlock != null) {
-            ObservableList<Cell> cells = FXCollections.observableArrayList(
-                    cellService.getCellsByBlockId(currentBlock.getBlockId())
-            );
-            cellsTable.setItems(cells);
+            Integer blockId = currentBlock.getBlockId();
+            tasks.refresh("load cells", () -> cellService.getCellsByBlockId(blockId), blockCells -> {
+                ObservableList<Cell> cells = FXCollections.observableArrayList(blockCells);
+                cellsTable.setItems(cells);
+            });
         }
     }
 
@@ -90,20 +104,35 @@ public class CellController {
 
     // REST Endpoints
     @GetMapping
-    public ResponseEntity<List<Cell>> getAllCells() {
-        return ResponseEntity.ok(cellService.getAllCells());
+    public ResponseEntity<List<Map<String, Object>>> getAllCells(
+            @RequestParam(required = false) List<String> fields, WebRequest request) {
+        List<String> selected = CellService.RESPONSE_FIELDS.select(fields);
+        String etag = resourceVersions.etag(request, "cells-" + String.join(",", selected),
+            ResourceVersionService.CELLS, ResourceVersionService.BLOCKS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(cellService.getCellFields(selected));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResult<Map<String, Object>>> getCellsByIds(
+            @RequestParam List<Integer> ids, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(cellService.getCellFieldsByIds(ids, fields));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Cell> getCellById(@PathVariable Integer id) {
-        Optional<Cell> cell = cellService.getCellById(id);
+    public ResponseEntity<Map<String, Object>> getCellById(@PathVariable Integer id,
+                                                           @RequestParam(required = false) List<String> fields) {
+        Optional<Map<String, Object>> cell = cellService.getCellFieldsById(id, fields);
         return cell.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/block/{blockId}")
-    public ResponseEntity<List<Cell>> getCellsByBlockId(@PathVariable Integer blockId) {
-        return ResponseEntity.ok(cellService.getCellsByBlockId(blockId));
+    public ResponseEntity<List<Map<String, Object>>> getCellsByBlockId(
+            @PathVariable Integer blockId, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(cellService.getCellFieldsByBlockId(blockId, fields));
     }
 
     @GetMapping("/type/{type}")
@@ -112,28 +141,23 @@ public class CellController {
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<Cell>> getAvailableCells() {
-        return ResponseEntity.ok(cellService.getAvailableCells());
+    public ResponseEntity<List<Cell>> getAvailableCells(WebRequest request) {
+        String etag = resourceVersions.etag(request, "cells-available",
+            ResourceVersionService.CELLS, ResourceVersionService.BLOCKS, ResourceVersionService.PRISONERS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(cellService.getAvailableCells());
     }
 
     @PostMapping
     public ResponseEntity<Cell> createCell(@RequestBody CellRequest request) {
-        Cell cell = new Cell(
-            request.getType(),
-            request.getCapacity(),
-            request.getBlock()
-        );
-        return ResponseEntity.ok(cellService.createCell(cell));
+        return ResponseEntity.ok(cellService.createCell(request.toCell()));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Cell> updateCell(@PathVariable Integer id, @RequestBody CellRequest request) {
-        Cell cell = new Cell(
-            request.getType(),
-            request.getCapacity(),
-            request.getBlock()
-        );
-        return ResponseEntity.ok(cellService.updateCell(id, cell));
+        return ResponseEntity.ok(cellService.updateCell(id, request.toCell()));
     }
 
     @DeleteMapping("/{id}")
@@ -143,7 +167,12 @@ public class CellController {
     }
 
     @GetMapping("/{id}/stats")
-    public ResponseEntity<CellStats> getCellStats(@PathVariable Integer id) {
+    public ResponseEntity<CellStats> getCellStats(@PathVariable Integer id, WebRequest request) {
+        String etag = resourceVersions.etag(request, "cell-stats-" + id,
+            ResourceVersionService.CELLS, ResourceVersionService.PRISONERS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         Optional<Cell> cell = cellService.getCellById(id);
         if (cell.isPresent()) {
             Cell c = cell.get();
@@ -152,13 +181,14 @@ public class CellController {
                 c.getNPrisoners(),
                 !c.isAtCapacity()
             );
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok().eTag(etag).body(stats);
         }
         return ResponseEntity.notFound().build();
     }
 
     // DTO classes
-    private static class CellRequest {
+    // Also the payload of cell batch operations
+    static class CellRequest {
         private String type;
         private int capacity;
         private Block block;
@@ -186,6 +216,10 @@ public class CellController {
         public void setBlock(Block block) {
             this.block = block;
         }
+
+        Cell toCell() {
+            return new Cell(type, capacity, block);
+        }
     }
 
     private static class CellStats {
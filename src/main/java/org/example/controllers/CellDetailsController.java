@@ -50,7 +50,11 @@ public class CellDetailsController {
     
     @Autowired
     private PrisonerService prisonerService;
-    
+
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
     private Cell cell;
     private Block block;
     private Parent root;
@@ -66,6 +70,8 @@ public class CellDetailsController {
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(prisonersTable);
+
         // Initialize prisoner columns
         prisonerIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
         prisonerNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
@@ -135,18 +141,9 @@ public class CellDetailsController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    // Delete prisoner from database
-                    prisonerService.deletePrisoner(prisoner.getId());
-                    
-                    // Refresh cell data to update UI
-                    cellService.getCellById(cell.getId()).ifPresent(c -> {
-                        cell = c;
-                        updateUI();
-                    });
-                } catch (Exception e) {
-                    showError("Error", "Failed to delete prisoner", e.getMessage());
-                }
+                // Delete prisoner from database, then refresh cell data to update UI
+                tasks.run("delete prisoner", () -> prisonerService.deletePrisoner(prisoner.getId()),
+                    this::handleRefresh, e -> showError("Error", "Failed to delete prisoner", e.getMessage()));
             }
         });
     }
@@ -209,12 +206,7 @@ public class CellDetailsController {
             stage.setScene(new Scene(controller.getRoot()));
             
             // Refresh the cell data when the dialog is closed
-            stage.setOnHidden(event -> {
-                cellService.getCellById(cell.getId()).ifPresent(c -> {
-                    cell = c;
-                    updateUI();
-                });
-            });
+            stage.setOnHidden(event -> handleRefresh());
             
             stage.show();
         } catch (Exception e) {
@@ -233,12 +225,7 @@ public class CellDetailsController {
             stage.setScene(new Scene(controller.getRoot()));
             
             // Refresh the cell data when the dialog is closed
-            stage.setOnHidden(event -> {
-                cellService.getCellById(cell.getId()).ifPresent(c -> {
-                    cell = c;
-                    updateUI();
-                });
-            });
+            stage.setOnHidden(event -> handleRefresh());
             
             stage.show();
         } catch (Exception e) {
@@ -248,10 +235,11 @@ public class CellDetailsController {
 
     @FXML
     private void handleRefresh() {
-        cellService.getCellById(cell.getId()).ifPresent(c -> {
+        Integer cellId = cell.getId();
+        tasks.refresh("reload cell", () -> cellService.getCellById(cellId), reloaded -> reloaded.ifPresent(c -> {
             cell = c;
             updateUI();
-        });
+        }), e -> showError("Error", "Failed to refresh cell", e.getMessage()));
     }
 
     private void handlePrisonerDetails(Prisoner prisoner) {
@@ -12,11 +12,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.example.services.DepartmentService;
 import org.example.services.ExpenseService;
+import org.example.services.ExpenseStatisticsService;
+import org.example.services.ExpenseStatisticsService.ExpenseTotals;
 import org.example.services.StaffService;
+import org.example.services.ResourceVersionService;
 
 import java.util.List;
+import java.util.Map;
 
 @Component
 @RestController
@@ -27,6 +32,10 @@ public class DepartmentController {
     private final DepartmentService departmentService;
     private final ExpenseService expenseService;
     private final StaffService staffService;
+    private final ExpenseStatisticsService expenseStatisticsService;
+    private final ResourceVersionService resourceVersions;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
 
     @FXML private Label departmentNameLabel;
 
@@ -46,15 +55,25 @@ public class DepartmentController {
     private Department currentDepartment;
 
     @Autowired
-    public DepartmentController(DepartmentService departmentService, ExpenseService expenseService, StaffService staffService) {
+    public DepartmentController(DepartmentService departmentService, ExpenseService expenseService, StaffService staffService,
+                                ExpenseStatisticsService expenseStatisticsService,
+                                ResourceVersionService resourceVersions, UiTaskRunner uiTaskRunner) {
         this.departmentService = departmentService;
         this.expenseService = expenseService;
         this.staffService = staffService;
+        this.expenseStatisticsService = expenseStatisticsService;
+        this.resourceVersions = resourceVersions;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
-        currentDepartment = departmentService.getDepartmentById(1);
+        tasks = uiTaskRunner.scopeFor(expensesTable);
+        tasks.refresh("load department", () -> departmentService.getDepartmentById(1), this::showDepartment);
+    }
+
+    private void showDepartment(Department department) {
+        currentDepartment = department;
 
         if (currentDepartment != null) {
             departmentNameLabel.setText(currentDepartment.getType());
@@ -76,17 +95,19 @@ public class DepartmentController {
     }
 
     private void loadExpenses() {
-        ObservableList<Expense> expenses = FXCollections.observableArrayList(
-                expenseService.getExpensesByDepartment(currentDepartment)
-        );
-        expensesTable.setItems(expenses);
+        Department department = currentDepartment;
+        tasks.refresh("load expenses", () -> expenseService.getExpensesByDepartment(department), departmentExpenses -> {
+            ObservableList<Expense> expenses = FXCollections.observableArrayList(departmentExpenses);
+            expensesTable.setItems(expenses);
+        });
     }
 
     private void loadStaff() {
-        ObservableList<Staff> staffList = FXCollections.observableArrayList(
-                staffService.getStaffByDepartment(currentDepartment.getId())
-        );
-        staffTable.setItems(staffList);
+        Integer departmentId = currentDepartment.getId();
+        tasks.refresh("load staff", () -> staffService.getStaffByDepartment(departmentId), departmentStaff -> {
+            ObservableList<Staff> staffList = FXCollections.observableArrayList(departmentStaff);
+            staffTable.setItems(staffList);
+        });
     }
 
     @FXML
@@ -106,13 +127,21 @@ public class DepartmentController {
 
     // REST Endpoints
     @GetMapping
-    public ResponseEntity<List<Department>> getAllDepartments() {
-        return ResponseEntity.ok(departmentService.getAllDepartments());
+    public ResponseEntity<List<Map<String, Object>>> getAllDepartments(
+            @RequestParam(required = false) List<String> fields, WebRequest request) {
+        List<String> selected = DepartmentService.RESPONSE_FIELDS.select(fields);
+        String etag = resourceVersions.etag(request, "departments-" + String.join(",", selected),
+            ResourceVersionService.DEPARTMENTS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(departmentService.getDepartmentFields(selected));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Department> getDepartmentById(@PathVariable Integer id) {
-        return ResponseEntity.ok(departmentService.getDepartmentById(id));
+    public ResponseEntity<Map<String, Object>> getDepartmentById(@PathVariable Integer id,
+                                                                 @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(departmentService.getDepartmentFieldsById(id, fields));
     }
 
     @GetMapping("/{id}/expenses")
@@ -121,8 +150,9 @@ public class DepartmentController {
     }
 
     @GetMapping("/{id}/staff")
-    public ResponseEntity<List<Staff>> getDepartmentStaff(@PathVariable Integer id) {
-        return ResponseEntity.ok(staffService.getStaffByDepartment(id));
+    public ResponseEntity<List<Map<String, Object>>> getDepartmentStaff(
+            @PathVariable Integer id, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(staffService.getStaffFieldsByDepartment(id, fields));
     }
 
     @PostMapping
@@ -144,18 +174,23 @@ public class DepartmentController {
     }
 
     @GetMapping("/{id}/stats")
-    public ResponseEntity<DepartmentStats> getDepartmentStats(@PathVariable Integer id) {
-        Department department = departmentService.getDepartmentById(id);
-        List<Staff> staff = staffService.getStaffByDepartment(id);
-        List<Expense> expenses = expenseService.getExpensesByDepartment(department);
+    public ResponseEntity<DepartmentStats> getDepartmentStats(@PathVariable Integer id, WebRequest request) {
+        String etag = resourceVersions.etag(request, "department-stats-" + id,
+            ResourceVersionService.DEPARTMENTS, ResourceVersionService.STAFF,
+            ResourceVersionService.EXPENSES);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        departmentService.getDepartmentById(id); // Verify exists
+        ExpenseTotals totals = expenseStatisticsService.getDepartmentExpenseTotals(id);
         
         DepartmentStats stats = new DepartmentStats(
-            staff.size(),
-            expenses.stream().mapToDouble(Expense::getAmount).sum(),
-            expenses.stream().filter(e -> "PENDING".equals(e.getStatus())).count()
+            (int) staffService.getStaffCountByDepartment(id),
+            totals.getTotalAmount(),
+            totals.getPendingCount()
         );
         
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok().eTag(etag).body(stats);
     }
 
     // DTO classes
@@ -70,6 +70,11 @@ public class DepartmentDetailsController {
     @Autowired
     private SpringFXMLLoader springFXMLLoader;
 
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
+
     @Autowired
     public DepartmentDetailsController(DepartmentService departmentService, StaffService staffService, BlockService blockService, ScheduleService scheduleService) {
         this.departmentService = departmentService;
@@ -88,6 +93,7 @@ public class DepartmentDetailsController {
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(staffTable);
         setupStaffTable();
     }
 
@@ -164,7 +170,7 @@ public class DepartmentDetailsController {
                         currentSchedulePopup.hide();
                         currentSchedulePopup = null;
                     }
-                    currentSchedulePopup = showStaffSchedulePopup(staff, scheduleButton, currentHideTimer);
+                    loadStaffSchedulePopup(staff, scheduleButton);
                 });
                 scheduleButton.setOnMouseExited(event -> {
                     // Start a timer to hide the popup after a delay
@@ -219,16 +225,7 @@ public class DepartmentDetailsController {
         if (department != null) {
             departmentNameLabel.setText(department.getType());
             departmentDescriptionLabel.setText("Status: " + department.getStatus());
-            
-            // Get department head (first staff member with role "Head" or "Manager")
-            String departmentHead = staffService.getStaffByDepartment(department.getId()).stream()
-                .filter(staff -> staff.getRole().toLowerCase().contains("head") || 
-                               staff.getRole().toLowerCase().contains("manager"))
-                .map(Staff::getName)
-                .findFirst()
-                .orElse("Not assigned");
-            departmentHeadLabel.setText(departmentHead);
-            
+
             // Update block information and maintain the block reference
             Block currentBlock = department.getContains2Relations().stream()
                 .map(contains2 -> {
@@ -249,24 +246,33 @@ public class DepartmentDetailsController {
             String assignedBlock = currentBlock != null ? currentBlock.getType() : "Not assigned";
             departmentBlockLabel.setText(assignedBlock);
             
-            // Load staff
+            // Load staff, which also sets the department head
             loadStaff();
         }
     }
 
     private void loadStaff() {
-        try {
-            // Force a fresh database query to get updated staff data
-            List<Staff> staffList = staffService.getStaffByDepartment(department.getId());
+        // Force a fresh database query to get updated staff data
+        Integer departmentId = department.getId();
+        tasks.refresh("load staff", () -> staffService.getStaffByDepartment(departmentId), staffList -> {
+            // Get department head (first staff member with role "Head" or "Manager")
+            String departmentHead = staffList.stream()
+                .filter(staff -> staff.getRole().toLowerCase().contains("head") ||
+                               staff.getRole().toLowerCase().contains("manager"))
+                .map(Staff::getName)
+                .findFirst()
+                .orElse("Not assigned");
+            departmentHeadLabel.setText(departmentHead);
+
             ObservableList<Staff> observableStaffList = FXCollections.observableArrayList(staffList);
             staffTable.setItems(observableStaffList);
-            
+
             // Force table refresh
             staffTable.refresh();
-        } catch (Exception e) {
+        }, e -> {
             LOGGER.log(Level.SEVERE, "Error loading staff", e);
             showError("Error", "Failed to load staff: " + e.getMessage());
-        }
+        });
     }
 
     @FXML
@@ -278,18 +284,29 @@ public class DepartmentDetailsController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    staffService.deleteStaff(staff.getId());
-                    loadStaff(); // Refresh the table
-                } catch (Exception e) {
-                    showError("Error", "Failed to delete staff: " + e.getMessage());
-                }
+                // Refresh the table once deleted
+                tasks.run("delete staff", () -> staffService.deleteStaff(staff.getId()), this::loadStaff,
+                    e -> showError("Error", "Failed to delete staff: " + e.getMessage()));
             }
         });
     }
 
     @FXML
     private void handleClose() {
+        if (block == null) {
+            returnToBlockDetails(null);
+            return;
+        }
+        // Reload block with all relationships to avoid lazy loading issues; the window closes once it is loaded
+        Integer blockId = block.getId();
+        tasks.submit("load block", () -> blockService.getBlockByIdWithRelations(blockId), this::returnToBlockDetails,
+            e -> {
+                LOGGER.log(Level.SEVERE, "Error returning to block details", e);
+                showError("Error", "Failed to return to block details: " + e.getMessage());
+            });
+    }
+
+    private void returnToBlockDetails(Block reloadedBlock) {
         try {
             // Clean up any open popup
             if (currentSchedulePopup != null) {
@@ -306,9 +323,7 @@ public class DepartmentDetailsController {
             currentStage.close();
 
             // Return to the block details page
-            if (block != null) {
-                // Reload block with all relationships to avoid lazy loading issues
-                Block reloadedBlock = blockService.getBlockByIdWithRelations(block.getId());
+            if (reloadedBlock != null) {
                 BlockDetailsController controller = springFXMLLoader.loadAndGetController("/fxml/block-details.fxml", BlockDetailsController.class);
                 controller.initData(reloadedBlock);
 
@@ -343,8 +358,9 @@ public class DepartmentDetailsController {
             controller.setDialogStage(dialogStage);
             controller.initData(department, () -> {
                 // Refresh department details after editing
-                Department refreshed = departmentService.getDepartmentByIdWithRelations(department.getId());
-                initData(refreshed);
+                Integer departmentId = department.getId();
+                tasks.refresh("reload department", () -> departmentService.getDepartmentByIdWithRelations(departmentId),
+                    this::initData, e -> showError("Error", "Failed to reload department: " + e.getMessage()));
             });
             dialogStage.showAndWait();
         } catch (Exception e) {
@@ -408,14 +424,20 @@ public class DepartmentDetailsController {
     }
 
     private void openStaffDetails(Staff staff) {
+        // Get fresh staff data with all relationships
+        tasks.submit("load staff details", () -> staffService.getStaffByIdWithRelations(staff.getId()),
+            freshStaff -> showStaffDetails(staff, freshStaff), e -> {
+                LOGGER.log(Level.SEVERE, "Unexpected error opening staff details", e);
+                showError("Unexpected Error", "An unexpected error occurred: " + e.getMessage());
+            });
+    }
+
+    private void showStaffDetails(Staff staff, Staff freshStaff) {
         try {
             // Load the staff details FXML and get controller using SpringFXMLLoader
             StaffDetailsController controller = springFXMLLoader.loadAndGetController("/fxml/staff-details.fxml", StaffDetailsController.class);
             Parent root = controller.getRoot();
-            
-            // Get fresh staff data with all relationships
-            Staff freshStaff = staffService.getStaffByIdWithRelations(staff.getId());
-            
+
             // Set the staff data before showing the window
             controller.setStaff(freshStaff);
             controller.setPreviousPage("department_details");
@@ -434,11 +456,21 @@ public class DepartmentDetailsController {
         }
     }
 
-    private Popup showStaffSchedulePopup(Staff staff, Button sourceButton, javafx.animation.Timeline hideTimer) {
+    // Loads the schedules in the background; hovering another staff member replaces a load still waiting
+    private void loadStaffSchedulePopup(Staff staff, Button sourceButton) {
+        tasks.refresh("load schedule", () -> scheduleService.getSchedulesByStaffId(staff.getId()), schedules -> {
+            // The pointer may have left the button while the schedules were loading
+            if (sourceButton == null || sourceButton.isHover()) {
+                currentSchedulePopup = showStaffSchedulePopup(staff, schedules, sourceButton);
+            }
+        }, e -> {
+            LOGGER.log(Level.SEVERE, "Error showing staff schedule", e);
+            showError("Error", "Failed to load schedule: " + e.getMessage());
+        });
+    }
+
+    private Popup showStaffSchedulePopup(Staff staff, List<Schedule> schedules, Button sourceButton) {
         try {
-            // Get staff schedules
-            List<Schedule> schedules = scheduleService.getSchedulesByStaffId(staff.getId());
-            
             // Create schedule popup content
             VBox content = new VBox(8);
             content.setStyle("-fx-padding: 15px; -fx-background-color: white; -fx-border-color: #ccc; -fx-border-radius: 5px;");
@@ -574,12 +606,8 @@ public class DepartmentDetailsController {
         }
     }
 
-    private Popup showStaffSchedulePopup(Staff staff) {
-        return showStaffSchedulePopup(staff, null, null);
-    }
-
     private void showStaffSchedule(Staff staff) {
-        showStaffSchedulePopup(staff);
+        loadStaffSchedulePopup(staff, null);
     }
 
     private void openAddScheduleDialog(Staff staff) {
@@ -671,15 +699,17 @@ public class DepartmentDetailsController {
                     schedule.setDays(new HashSet<>(selectedDays));
                     
                     // Save schedule using the service method
-                    scheduleService.createSchedule(staff, new HashSet<>(selectedDays), 
-                                                 LocalTime.of(startHourSpinner.getValue(), startMinuteSpinner.getValue()),
-                                                 LocalTime.of(endHourSpinner.getValue(), endMinuteSpinner.getValue()));
-                    
-                    dialogStage.close();
-                    
-                    // Refresh the schedule popup
-                    showStaffSchedule(staff);
-                    
+                    tasks.submit("save schedule", () -> scheduleService.createSchedule(staff, schedule.getDays(),
+                        schedule.getStart(), schedule.getEnd()), saved -> {
+                            dialogStage.close();
+
+                            // Refresh the schedule popup
+                            showStaffSchedule(staff);
+                        }, ex -> {
+                            LOGGER.log(Level.SEVERE, "Error saving schedule", ex);
+                            showError("Error", "Failed to save schedule: " + ex.getMessage());
+                        });
+
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error saving schedule", ex);
                     showError("Error", "Failed to save schedule: " + ex.getMessage());
@@ -800,13 +830,17 @@ public class DepartmentDetailsController {
                     schedule.setDays(new HashSet<>(selectedDays));
                     
                     // Save updated schedule
-                    scheduleService.updateSchedule(schedule.getId(), schedule);
-                    
-                    dialogStage.close();
-                    
-                    // Refresh the schedule popup
-                    showStaffSchedule(staff);
-                    
+                    tasks.submit("update schedule", () -> scheduleService.updateSchedule(schedule.getId(), schedule),
+                        saved -> {
+                            dialogStage.close();
+
+                            // Refresh the schedule popup
+                            showStaffSchedule(staff);
+                        }, ex -> {
+                            LOGGER.log(Level.SEVERE, "Error updating schedule", ex);
+                            showError("Error", "Failed to update schedule: " + ex.getMessage());
+                        });
+
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error updating schedule", ex);
                     showError("Error", "Failed to update schedule: " + ex.getMessage());
@@ -824,10 +858,14 @@ public class DepartmentDetailsController {
                     
                     Optional<ButtonType> result = confirmDialog.showAndWait();
                     if (result.isPresent() && result.get() == ButtonType.OK) {
-                        scheduleService.deleteSchedule(schedule.getId());
-                        dialogStage.close();
-                        // Refresh the schedule popup
-                        showStaffSchedule(staff);
+                        tasks.run("delete schedule", () -> scheduleService.deleteSchedule(schedule.getId()), () -> {
+                            dialogStage.close();
+                            // Refresh the schedule popup
+                            showStaffSchedule(staff);
+                        }, ex -> {
+                            LOGGER.log(Level.SEVERE, "Error deleting schedule", ex);
+                            showError("Error", "Failed to delete schedule: " + ex.getMessage());
+                        });
                     }
                 } catch (Exception ex) {
                     LOGGER.log(Level.SEVERE, "Error deleting schedule", ex);
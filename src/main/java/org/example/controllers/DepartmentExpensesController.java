@@ -8,16 +8,24 @@ import javafx.scene.Parent;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.scene.control.ContentDisplay;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.XYChart;
 import org.example.models.Department;
 import org.example.models.Expense;
+import org.example.models.ExpenseMonthlyRollup;
 import org.example.services.DepartmentService;
 import org.example.services.ExpenseService;
+import org.example.services.ExpenseTimeSeriesService;
 import org.example.config.SpringFXMLLoader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.time.format.DateTimeFormatter;
@@ -27,6 +35,7 @@ import javafx.scene.layout.HBox;
 public class DepartmentExpensesController {
     private static final Logger LOGGER = Logger.getLogger(DepartmentExpensesController.class.getName());
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int TREND_MONTHS = 12;
 
     @FXML private Label departmentNameLabel;
 
@@ -37,8 +46,11 @@ public class DepartmentExpensesController {
     @FXML private TableColumn<Expense, String> expenseStatusColumn;
     @FXML private TableColumn<Expense, Void> expenseActionsColumn;
 
+    @FXML private LineChart<String, Number> expenseTrendChart;
+
     private final DepartmentService departmentService;
     private final ExpenseService expenseService;
+    private final ExpenseTimeSeriesService expenseTimeSeriesService;
     private Department department;
     private Parent root;
 
@@ -46,9 +58,16 @@ public class DepartmentExpensesController {
     private SpringFXMLLoader springFXMLLoader;
 
     @Autowired
-    public DepartmentExpensesController(DepartmentService departmentService, ExpenseService expenseService) {
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
+
+    @Autowired
+    public DepartmentExpensesController(DepartmentService departmentService, ExpenseService expenseService,
+                                        ExpenseTimeSeriesService expenseTimeSeriesService) {
         this.departmentService = departmentService;
         this.expenseService = expenseService;
+        this.expenseTimeSeriesService = expenseTimeSeriesService;
     }
 
     public Parent getRoot() {
@@ -61,6 +80,7 @@ public class DepartmentExpensesController {
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(expensesTable);
         setupExpensesTable();
     }
 
@@ -134,14 +154,47 @@ public class DepartmentExpensesController {
     }
 
     private void loadExpenses() {
-        try {
-            List<Expense> expenses = expenseService.getExpensesByDepartment(department);
+        Department selected = department;
+        tasks.refresh("load expenses", () -> expenseService.getExpensesByDepartment(selected), expenses -> {
             ObservableList<Expense> expensesList = FXCollections.observableArrayList(expenses);
             expensesTable.setItems(expensesList);
             expensesTable.refresh(); // Force table refresh
-        } catch (Exception e) {
+        }, e -> {
             LOGGER.log(Level.SEVERE, "Error loading expenses", e);
             showError("Error", "Failed to load expenses: " + e.getMessage());
+        });
+        loadExpenseTrend();
+    }
+
+    private void loadExpenseTrend() {
+        Integer departmentId = department.getId();
+        tasks.refresh("load expense trend", () -> expenseTimeSeriesService.getTimeSeries(departmentId, TREND_MONTHS),
+            this::showExpenseTrend, e -> LOGGER.log(Level.SEVERE, "Error loading expense trend", e));
+    }
+
+    private void showExpenseTrend(List<ExpenseMonthlyRollup> rollups) {
+        try {
+            // One series per status, with every month present so the lines share the same axis
+            YearMonth firstMonth = YearMonth.now().minusMonths(TREND_MONTHS - 1);
+            Map<String, XYChart.Series<String, Number>> seriesByStatus = new LinkedHashMap<>();
+            for (String status : List.of("PAID", "PENDING", "OVERDUE")) {
+                XYChart.Series<String, Number> series = new XYChart.Series<>();
+                series.setName(status);
+                for (int i = 0; i < TREND_MONTHS; i++) {
+                    series.getData().add(new XYChart.Data<>(firstMonth.plusMonths(i).toString(), 0.0));
+                }
+                seriesByStatus.put(status, series);
+            }
+            for (ExpenseMonthlyRollup rollup : rollups) {
+                XYChart.Series<String, Number> series = seriesByStatus.get(rollup.getStatus());
+                if (series != null) {
+                    int index = (int) firstMonth.until(YearMonth.parse(rollup.getMonth()), ChronoUnit.MONTHS);
+                    series.getData().get(index).setYValue(rollup.getAmount());
+                }
+            }
+            expenseTrendChart.getData().setAll(seriesByStatus.values());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error loading expense trend", e);
         }
     }
 
@@ -154,12 +207,9 @@ public class DepartmentExpensesController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    expenseService.deleteExpense(expense.getId());
-                    loadExpenses(); // Refresh the table
-                } catch (Exception e) {
-                    showError("Error", "Failed to delete expense: " + e.getMessage());
-                }
+                // Refresh the table once deleted
+                tasks.run("delete expense", () -> expenseService.deleteExpense(expense.getId()), this::loadExpenses,
+                    e -> showError("Error", "Failed to delete expense: " + e.getMessage()));
             }
         });
     }
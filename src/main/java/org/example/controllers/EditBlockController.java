@@ -18,12 +18,20 @@ public class EditBlockController {
     @FXML private TextField blockTypeField;
 
     private final BlockService blockService;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
     private Block block;
     private Parent root;
 
     @Autowired
-    public EditBlockController(BlockService blockService) {
+    public EditBlockController(BlockService blockService, UiTaskRunner uiTaskRunner) {
         this.blockService = blockService;
+        this.uiTaskRunner = uiTaskRunner;
+    }
+
+    @FXML
+    public void initialize() {
+        tasks = uiTaskRunner.scopeFor(blockTypeField);
     }
 
     public void setRoot(Parent root) {
@@ -57,13 +65,16 @@ public class EditBlockController {
 
             // Update block type
             block.setType(newType);
-            blockService.updateBlock(block.getId(), block);
-
-            // Close the dialog
-            Stage stage = (Stage) blockTypeField.getScene().getWindow();
-            stage.close();
+            tasks.submit("update block", () -> blockService.updateBlock(block.getId(), block), updated -> {
+                // Close the dialog
+                Stage stage = (Stage) blockTypeField.getScene().getWindow();
+                stage.close();
 
-            LOGGER.info("Block updated successfully: " + block.getId());
+                LOGGER.info("Block updated successfully: " + updated.getId());
+            }, e -> {
+                LOGGER.log(Level.SEVERE, "Error updating block", e);
+                showError("Error", "Failed to update block: " + e.getMessage());
+            });
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error updating block", e);
             showError("Error", "Failed to update block: " + e.getMessage());
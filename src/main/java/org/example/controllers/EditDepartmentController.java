@@ -23,8 +23,14 @@ public class EditDepartmentController {
     @Autowired
     private DepartmentService departmentService;
 
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
+
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(nameField);
         // Populate status combo box
         statusComboBox.getItems().addAll("ACTIVE", "INACTIVE");
     }
@@ -57,9 +63,11 @@ public class EditDepartmentController {
             department.setStatus(status);
             // department.setDescription(description); // Uncomment if you have a description field
 
-            departmentService.updateDepartment(department.getId(), department);
-            if (onSaveCallback != null) onSaveCallback.run();
-            if (dialogStage != null) dialogStage.close();
+            tasks.submit("save department", () -> departmentService.updateDepartment(department.getId(), department),
+                saved -> {
+                    if (onSaveCallback != null) onSaveCallback.run();
+                    if (dialogStage != null) dialogStage.close();
+                }, e -> showError("Error", "Failed to save department: " + e.getMessage()));
         } catch (Exception e) {
             showError("Error", "Failed to save department: " + e.getMessage());
         }
@@ -24,13 +24,23 @@ public class EditExpenseController {
     @Autowired
     private ExpenseService expenseService;
 
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
+
+    @FXML
+    public void initialize() {
+        tasks = uiTaskRunner.scopeFor(amountField);
+    }
+
     public void initData(Expense expense, Department department, Runnable onSaveCallback) {
         this.expense = expense;
         this.department = department;
         this.onSaveCallback = onSaveCallback;
         
         // Populate status combo box
-        statusComboBox.getItems().addAll("PAID", "PENDING");
+        statusComboBox.getItems().addAll("PAID", "PENDING", "OVERDUE");
         
         if (expense != null) {
             amountField.setText(String.valueOf(expense.getAmount()));
@@ -69,13 +79,17 @@ public class EditExpenseController {
             expense.setDueDate(dueDate);
             expense.setStatus(status);
 
-            if (expense.getId() == null) {
-                expenseService.createExpense(expense);
-            } else {
-                expenseService.updateExpense(expense.getId(), expense);
-            }
-            if (onSaveCallback != null) onSaveCallback.run();
-            if (dialogStage != null) dialogStage.close();
+            Expense toSave = expense;
+            tasks.run("save expense", () -> {
+                if (toSave.getId() == null) {
+                    expenseService.createExpense(toSave);
+                } else {
+                    expenseService.updateExpense(toSave.getId(), toSave);
+                }
+            }, () -> {
+                if (onSaveCallback != null) onSaveCallback.run();
+                if (dialogStage != null) dialogStage.close();
+            }, e -> showError("Error", "Failed to save expense: " + e.getMessage()));
         } catch (Exception e) {
             showError("Error", "Failed to save expense: " + e.getMessage());
         }
@@ -21,11 +21,19 @@ public class EditPrisonController {
     @FXML private TextField prisonCountryField;
 
     private final PrisonService prisonService;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
     private Prison prison;
 
     @Autowired
-    public EditPrisonController(PrisonService prisonService) {
+    public EditPrisonController(PrisonService prisonService, UiTaskRunner uiTaskRunner) {
         this.prisonService = prisonService;
+        this.uiTaskRunner = uiTaskRunner;
+    }
+
+    @FXML
+    public void initialize() {
+        tasks = uiTaskRunner.scopeFor(prisonNameField);
     }
 
     public void setPrison(Prison prison) {
@@ -56,21 +64,27 @@ public class EditPrisonController {
                 updatedPrison.setStreet(prisonStreetField.getText());
                 updatedPrison.setCountry(prisonCountryField.getText());
 
-                prisonService.updatePrison(prison.getId(), updatedPrison);
-                LOGGER.info("Prison updated successfully");
-                closeDialog();
+                tasks.submit("update prison", () -> prisonService.updatePrison(prison.getId(), updatedPrison),
+                    saved -> {
+                        LOGGER.info("Prison updated successfully");
+                        closeDialog();
+                    }, this::showSaveError);
             }
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error saving prison changes", e);
-            // Show error dialog
-            javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
-            alert.setTitle("Error");
-            alert.setHeaderText("Failed to save changes");
-            alert.setContentText("An error occurred while saving prison changes: " + e.getMessage());
-            alert.showAndWait();
+            showSaveError(e);
         }
     }
 
+    private void showSaveError(Throwable e) {
+        LOGGER.log(Level.SEVERE, "Error saving prison changes", e);
+        // Show error dialog
+        javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText("Failed to save changes");
+        alert.setContentText("An error occurred while saving prison changes: " + e.getMessage());
+        alert.showAndWait();
+    }
+
     @FXML
     private void handleCancelEditPrison() {
         LOGGER.info("Canceling prison edit");
@@ -37,6 +37,11 @@ public class EditPrisonerController {
     @Autowired
     private PrisonerService prisonerService;
 
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
+
     public Parent getRoot() {
         return root;
     }
@@ -47,6 +52,7 @@ public class EditPrisonerController {
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(nameField);
         genderComboBox.getItems().addAll("MALE", "FEMALE");
         blockComboBox.getItems().addAll("A", "B", "C", "D");
     }
@@ -70,27 +76,25 @@ public class EditPrisonerController {
     @FXML
     private void handleSave() {
         if (prisoner != null) {
-            try {
-                // Update prisoner fields
-                prisoner.setName(nameField.getText());
-                prisoner.setDateOfBirth(dobField.getValue());
-                prisoner.setGender(genderComboBox.getValue());
-                prisoner.setSentenceStart(sentenceStartPicker.getValue());
-                prisoner.setSentenceEnd(sentenceEndPicker.getValue());
-                // TODO: Update block/cell
-                
-                // Save to database
-                prisonerService.updatePrisoner(prisoner.getId(), prisoner);
-                
+            // Update prisoner fields
+            prisoner.setName(nameField.getText());
+            prisoner.setDateOfBirth(dobField.getValue());
+            prisoner.setGender(genderComboBox.getValue());
+            prisoner.setSentenceStart(sentenceStartPicker.getValue());
+            prisoner.setSentenceEnd(sentenceEndPicker.getValue());
+            // TODO: Update block/cell
+
+            // Save to database
+            tasks.submit("save prisoner", () -> prisonerService.updatePrisoner(prisoner.getId(), prisoner), saved -> {
                 System.out.println("Prisoner saved successfully. Closing window...");
-                
+
                 // Show success message
                 Alert alert = new Alert(Alert.AlertType.INFORMATION);
                 alert.setTitle("Success");
                 alert.setHeaderText("Prisoner Updated");
                 alert.setContentText("Prisoner details have been saved successfully.");
                 alert.showAndWait();
-                
+
                 // Close the window
                 Stage stage = (Stage) nameField.getScene().getWindow();
                 if (stage != null) {
@@ -98,7 +102,7 @@ public class EditPrisonerController {
                 } else {
                     System.err.println("Stage is null, cannot close window");
                 }
-            } catch (Exception e) {
+            }, e -> {
                 System.err.println("Error saving prisoner: " + e.getMessage());
                 e.printStackTrace();
                 // Even if there's an error, try to close the window
@@ -110,7 +114,7 @@ public class EditPrisonerController {
                 } catch (Exception closeException) {
                     System.err.println("Error closing window: " + closeException.getMessage());
                 }
-            }
+            });
         } else {
             System.err.println("Prisoner is null, cannot save");
         }
@@ -22,12 +22,20 @@ public class EditRoomController {
     @FXML private TextArea descriptionArea;
 
     private final RoomService roomService;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
     private Room room;
     private Parent root;
 
     @Autowired
-    public EditRoomController(RoomService roomService) {
+    public EditRoomController(RoomService roomService, UiTaskRunner uiTaskRunner) {
         this.roomService = roomService;
+        this.uiTaskRunner = uiTaskRunner;
+    }
+
+    @FXML
+    public void initialize() {
+        tasks = uiTaskRunner.scopeFor(roomTypeField);
     }
 
     public void setRoot(Parent root) {
@@ -67,21 +75,26 @@ public class EditRoomController {
                 room.setType(newType);
                 room.setDescription(newDescription.isEmpty() ? null : newDescription);
 
-                roomService.updateRoom(room.getId(), room);
-                LOGGER.info("Room updated successfully: " + room.getId());
-                closeDialog();
+                tasks.submit("update room", () -> roomService.updateRoom(room.getId(), room), saved -> {
+                    LOGGER.info("Room updated successfully: " + room.getId());
+                    closeDialog();
+                }, this::showSaveError);
             }
         } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error saving room changes", e);
-            // Show error dialog like EditPrisonController does
-            javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
-            alert.setTitle("Error");
-            alert.setHeaderText("Failed to save changes");
-            alert.setContentText("An error occurred while saving room changes: " + e.getMessage());
-            alert.showAndWait();
+            showSaveError(e);
         }
     }
 
+    private void showSaveError(Throwable e) {
+        LOGGER.log(Level.SEVERE, "Error saving room changes", e);
+        // Show error dialog like EditPrisonController does
+        javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText("Failed to save changes");
+        alert.setContentText("An error occurred while saving room changes: " + e.getMessage());
+        alert.showAndWait();
+    }
+
     @FXML
     private void handleCancelEditRoom() {
         LOGGER.info("Canceling room edit");
@@ -49,6 +49,12 @@ public class EditStaffController {
     @Autowired
     private DepartmentService departmentService;
 
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
+    private List<Staff> allStaff = List.of();
+
     public Parent getRoot() {
         return root;
     }
@@ -59,6 +65,9 @@ public class EditStaffController {
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(nameField);
+        tasks.setErrorHandler((description, e) -> showError("Error", "Failed to " + description, e.getMessage()));
+
         // Initialize gender combo box
         genderComboBox.getItems().addAll("MALE", "FEMALE", "OTHER");
         
@@ -66,13 +75,16 @@ public class EditStaffController {
         loadDepartments();
         
         // Load potential supervisors
-        loadSupervisors();
+        tasks.refresh("load staff", staffService::getAllStaff, staffList -> {
+            allStaff = staffList;
+            loadSupervisors();
+        });
     }
 
     private void loadDepartments() {
+        tasks.refresh("load departments", departmentService::getAllDepartments, departments ->
+            departmentComboBox.setItems(javafx.collections.FXCollections.observableArrayList(departments)));
         try {
-            List<Department> departments = departmentService.getAllDepartments();
-            departmentComboBox.setItems(javafx.collections.FXCollections.observableArrayList(departments));
             departmentComboBox.setConverter(new StringConverter<Department>() {
                 @Override
                 public String toString(Department department) {
@@ -97,9 +109,9 @@ public class EditStaffController {
         }
     }
 
+    // Filters the staff loaded in initialize, so changing the department does not query again
     private void loadSupervisors() {
         try {
-            List<Staff> allStaff = staffService.getAllStaff();
             List<Staff> potentialSupervisors = new java.util.ArrayList<>();
             
             // Add warden(s) from any department
@@ -247,41 +259,46 @@ public class EditStaffController {
             staff.setSalary(salary);
             staff.setPhone(phoneField.getText().trim());
             
-            // Save to database
-            if (isNewStaff) {
-                staffService.createStaff(staff);
-                System.out.println("Staff created successfully. Closing window...");
-            } else {
-                staffService.updateStaff(staff.getId(), staff);
-                System.out.println("Staff updated successfully. Closing window...");
-            }
-            
-            // Handle supervisor assignment
             Staff selectedSupervisor = supervisorComboBox.getValue();
-            if (staff.getId() != null) {
-                if (selectedSupervisor != null) {
-                    // Assign supervisor
-                    staffService.assignSupervisor(staff.getId(), selectedSupervisor.getId());
+            tasks.run("save staff", () -> {
+                // Save to database
+                if (isNewStaff) {
+                    staffService.createStaff(staff);
+                    System.out.println("Staff created successfully. Closing window...");
                 } else {
-                    // Remove supervisor
-                    staffService.removeSupervisor(staff.getId());
+                    staffService.updateStaff(staff.getId(), staff);
+                    System.out.println("Staff updated successfully. Closing window...");
                 }
-            }
-            
-            // Show success message
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Success");
-            alert.setHeaderText(isNewStaff ? "Staff Created" : "Staff Updated");
-            alert.setContentText("Staff details have been saved successfully.");
-            alert.showAndWait();
-            
-            // Close the window
-            Stage stage = (Stage) nameField.getScene().getWindow();
-            if (stage != null) {
-                stage.close();
-            } else {
-                System.err.println("Stage is null, cannot close window");
-            }
+
+                // Handle supervisor assignment
+                if (staff.getId() != null) {
+                    if (selectedSupervisor != null) {
+                        // Assign supervisor
+                        staffService.assignSupervisor(staff.getId(), selectedSupervisor.getId());
+                    } else {
+                        // Remove supervisor
+                        staffService.removeSupervisor(staff.getId());
+                    }
+                }
+            }, () -> {
+                // Show success message
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Success");
+                alert.setHeaderText(isNewStaff ? "Staff Created" : "Staff Updated");
+                alert.setContentText("Staff details have been saved successfully.");
+                alert.showAndWait();
+
+                // Close the window
+                Stage stage = (Stage) nameField.getScene().getWindow();
+                if (stage != null) {
+                    stage.close();
+                } else {
+                    System.err.println("Stage is null, cannot close window");
+                }
+            }, e -> {
+                System.err.println("Error saving staff: " + e.getMessage());
+                showError("Save Error", "Failed to save staff details", e.getMessage());
+            });
         } catch (Exception e) {
             System.err.println("Error saving staff: " + e.getMessage());
             e.printStackTrace();
@@ -5,16 +5,27 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.models.Equipment;
+import org.example.models.EquipmentMaintenanceState;
 import org.example.models.Room;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.example.services.EquipmentService;
 import org.example.services.RoomService;
+import org.example.services.ResourceVersionService;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Component
 @RestController
@@ -22,8 +33,14 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class EquipmentController {
 
+    private static final Logger LOGGER = Logger.getLogger(EquipmentController.class.getName());
+
     private final EquipmentService equipmentService;
     private final RoomService roomService;
+    private final ResourceVersionService resourceVersions;
+    private final ObjectMapper objectMapper;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
 
     @FXML private Label roomNameLabel;
     @FXML private TableView<Equipment> equipmentTable;
@@ -35,22 +52,29 @@ public class EquipmentController {
     private Room currentRoom;
 
     @Autowired
-    public EquipmentController(EquipmentService equipmentService, RoomService roomService) {
+    public EquipmentController(EquipmentService equipmentService, RoomService roomService,
+                               ResourceVersionService resourceVersions, ObjectMapper objectMapper,
+                               UiTaskRunner uiTaskRunner) {
         this.equipmentService = equipmentService;
         this.roomService = roomService;
+        this.resourceVersions = resourceVersions;
+        this.objectMapper = objectMapper;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(equipmentTable);
         // Fetch the room by ID dynamically (change the ID as necessary)
-        try {
-            currentRoom = roomService.getRoomById(1);
+        tasks.refresh("load room", () -> roomService.getRoomById(1), room -> {
+            currentRoom = room;
             roomNameLabel.setText(currentRoom.getDescription());
             setupTableColumns();
             loadEquipment();
-        } catch (RuntimeException e) {
-            System.out.println("Room not found: " + e.getMessage());
-        }
+        }, e -> {
+            LOGGER.log(Level.WARNING, "Room not found", e);
+            showError("Error", "Room not found: " + e.getMessage());
+        });
     }
 
     private void setupTableColumns() {
@@ -61,13 +85,22 @@ public class EquipmentController {
 
     private void loadEquipment() {
         if (currentRoom != null) {
-            ObservableList<Equipment> equipmentList = FXCollections.observableArrayList(
-                    equipmentService.getEquipmentByRoomId(currentRoom.getId())
-            );
-            equipmentTable.setItems(equipmentList);
+            Integer roomId = currentRoom.getId();
+            tasks.refresh("load equipment", () -> equipmentService.getEquipmentByRoomId(roomId), equipment -> {
+                ObservableList<Equipment> equipmentList = FXCollections.observableArrayList(equipment);
+                equipmentTable.setItems(equipmentList);
+            });
         }
     }
 
+    private void showError(String title, String content) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(content);
+        alert.showAndWait();
+    }
+
     @FXML
     private void showAddEquipmentForm() {
         System.out.println("Show Add Equipment Form");
@@ -85,13 +118,27 @@ public class EquipmentController {
 
     // REST Endpoints
     @GetMapping
-    public ResponseEntity<List<Equipment>> getAllEquipment() {
-        return ResponseEntity.ok(equipmentService.getAllEquipment());
+    public ResponseEntity<List<Map<String, Object>>> getAllEquipment(
+            @RequestParam(required = false) List<String> fields, WebRequest request) {
+        List<String> selected = EquipmentService.RESPONSE_FIELDS.select(fields);
+        String etag = resourceVersions.etag(request, "equipment-" + String.join(",", selected),
+            ResourceVersionService.EQUIPMENT, ResourceVersionService.ROOMS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(equipmentService.getEquipmentFields(selected));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEquipment() {
+        return StreamingJsonResponse.array(objectMapper,
+            sink -> equipmentService.forEachEquipmentRow(row -> sink.accept(new EquipmentRow(row))));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Equipment> getEquipmentById(@PathVariable Integer id) {
-        return ResponseEntity.ok(equipmentService.getEquipmentById(id));
+    public ResponseEntity<Map<String, Object>> getEquipmentById(@PathVariable Integer id,
+                                                                @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(equipmentService.getEquipmentFieldsById(id, fields));
     }
 
     @GetMapping("/room/{roomId}")
@@ -99,6 +146,13 @@ public class EquipmentController {
         return ResponseEntity.ok(equipmentService.getEquipmentByRoomId(roomId));
     }
 
+    // Read from the due-date index; by defaults to today
+    @GetMapping("/maintenance/due")
+    public ResponseEntity<List<EquipmentMaintenanceState>> getMaintenanceDue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate by) {
+        return ResponseEntity.ok(equipmentService.getMaintenanceDueBy(by != null ? by : LocalDate.now()));
+    }
+
 
     @PostMapping
     public ResponseEntity<Equipment> createEquipment(@RequestBody EquipmentRequest request) {
@@ -159,4 +213,40 @@ public class EquipmentController {
             this.roomId = roomId;
         }
     }
+
+    private static class EquipmentRow {
+        private final Integer id;
+        private final String name;
+        private final Integer amount;
+        private final String description;
+        private final Integer roomId;
+
+        EquipmentRow(Object[] row) {
+            this.id = (Integer) row[0];
+            this.name = (String) row[1];
+            this.amount = (Integer) row[2];
+            this.description = (String) row[3];
+            this.roomId = (Integer) row[4];
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Integer getAmount() {
+            return amount;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public Integer getRoomId() {
+            return roomId;
+        }
+    }
 }
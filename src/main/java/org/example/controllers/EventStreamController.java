@@ -0,0 +1,30 @@
+package org.example.controllers;
+
+import org.example.services.LiveEventHub;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Server-sent events for dashboards: cell-occupancy, visitor-log-status, gun-assignment and expense-status
+// deltas, pushed once the change is committed. prisonId and blockId narrow the stream; a reconnecting
+// client resumes with Last-Event-ID and gets a "reset" event when the gap can no longer be replayed.
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EventStreamController {
+
+    private final LiveEventHub liveEventHub;
+
+    @Autowired
+    public EventStreamController(LiveEventHub liveEventHub) {
+        this.liveEventHub = liveEventHub;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestParam(required = false) Integer prisonId,
+                                   @RequestParam(required = false) Integer blockId,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return liveEventHub.subscribe(prisonId, blockId, lastEventId);
+    }
+}
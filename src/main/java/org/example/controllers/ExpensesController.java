@@ -8,15 +8,22 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import org.example.models.Expense;
 import org.example.models.Department;
+import org.example.models.ExpenseMonthlyRollup;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.example.services.ExpenseService;
+import org.example.services.ExpenseStatisticsService;
+import org.example.services.ExpenseStatisticsService.ExpenseTotals;
 import org.example.services.DepartmentService;
+import org.example.services.ExpenseTimeSeriesService;
+import org.example.services.ResourceVersionService;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @RestController
@@ -26,6 +33,11 @@ public class ExpensesController {
 
     private final ExpenseService expenseService;
     private final DepartmentService departmentService;
+    private final ExpenseStatisticsService expenseStatisticsService;
+    private final ExpenseTimeSeriesService expenseTimeSeriesService;
+    private final ResourceVersionService resourceVersions;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
 
     @FXML private TableView<Expense> expensesTable;
     @FXML private TableColumn<Expense, Integer> expenseIdCol;
@@ -36,13 +48,21 @@ public class ExpensesController {
     @FXML private TableColumn<Expense, Void> actionsCol;
 
     @Autowired
-    public ExpensesController(ExpenseService expenseService, DepartmentService departmentService) {
+    public ExpensesController(ExpenseService expenseService, DepartmentService departmentService,
+                              ExpenseStatisticsService expenseStatisticsService,
+                              ExpenseTimeSeriesService expenseTimeSeriesService,
+                              ResourceVersionService resourceVersions, UiTaskRunner uiTaskRunner) {
         this.expenseService = expenseService;
         this.departmentService = departmentService;
+        this.expenseStatisticsService = expenseStatisticsService;
+        this.expenseTimeSeriesService = expenseTimeSeriesService;
+        this.resourceVersions = resourceVersions;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(expensesTable);
         setupTableColumns();
         loadExpenses();
     }
@@ -57,8 +77,10 @@ public class ExpensesController {
     }
 
     private void loadExpenses() {
-        ObservableList<Expense> expenses = FXCollections.observableArrayList(expenseService.getAllExpenses());
-        expensesTable.setItems(expenses);
+        tasks.refresh("load expenses", expenseService::getAllExpenses, allExpenses -> {
+            ObservableList<Expense> expenses = FXCollections.observableArrayList(allExpenses);
+            expensesTable.setItems(expenses);
+        });
     }
 
     @FXML
@@ -70,9 +92,10 @@ public class ExpensesController {
     private void markExpenseAsPaid() {
         Expense selectedExpense = expensesTable.getSelectionModel().getSelectedItem();
         if (selectedExpense != null) {
-            expenseService.markExpenseAsPaid(selectedExpense.getId());
-            expensesTable.refresh();
-            System.out.println("Marked expense as paid: " + selectedExpense.getId());
+            tasks.run("mark expense as paid", () -> expenseService.markExpenseAsPaid(selectedExpense.getId()), () -> {
+                expensesTable.refresh();
+                System.out.println("Marked expense as paid: " + selectedExpense.getId());
+            }, null);
         } else {
             System.out.println("No expense selected.");
         }
@@ -85,13 +108,21 @@ public class ExpensesController {
 
     // REST Endpoints
     @GetMapping
-    public ResponseEntity<List<Expense>> getAllExpenses() {
-        return ResponseEntity.ok(expenseService.getAllExpenses());
+    public ResponseEntity<List<Map<String, Object>>> getAllExpenses(
+            @RequestParam(required = false) List<String> fields, WebRequest request) {
+        List<String> selected = ExpenseService.RESPONSE_FIELDS.select(fields);
+        String etag = resourceVersions.etag(request, "expenses-" + String.join(",", selected),
+            ResourceVersionService.EXPENSES, ResourceVersionService.DEPARTMENTS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(expenseService.getExpenseFields(selected));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Expense> getExpenseById(@PathVariable Integer id) {
-        return ResponseEntity.ok(expenseService.getExpenseById(id));
+    public ResponseEntity<Map<String, Object>> getExpenseById(@PathVariable Integer id,
+                                                              @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(expenseService.getExpenseFieldsById(id, fields));
     }
 
     @GetMapping("/department/{departmentId}")
@@ -142,30 +173,34 @@ public class ExpensesController {
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<ExpenseStats> getExpenseStats() {
-        List<Expense> allExpenses = expenseService.getAllExpenses();
-        
-        double totalAmount = allExpenses.stream()
-            .mapToDouble(Expense::getAmount)
-            .sum();
-        
-        double pendingAmount = allExpenses.stream()
-            .filter(e -> e.isPending())
-            .mapToDouble(Expense::getAmount)
-            .sum();
-        
-        long overdueCount = allExpenses.stream()
-            .filter(Expense::isOverdue)
-            .count();
+    public ResponseEntity<ExpenseStats> getExpenseStats(WebRequest request) {
+        String etag = resourceVersions.etag(request, "expense-stats", ResourceVersionService.EXPENSES);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ExpenseTotals totals = expenseStatisticsService.getExpenseTotals();
         
-        return ResponseEntity.ok(new ExpenseStats(
-            totalAmount,
-            pendingAmount,
-            overdueCount,
-            allExpenses.stream().filter(Expense::isPaid).count()
+        return ResponseEntity.ok().eTag(etag).body(new ExpenseStats(
+            totals.getTotalAmount(),
+            totals.getPendingAmount(),
+            totals.getOverdueCount(),
+            totals.getPaidCount()
         ));
     }
 
+    @GetMapping("/timeseries")
+    public ResponseEntity<List<ExpenseMonthlyRollup>> getExpenseTimeSeries(
+            @RequestParam(required = false) Integer departmentId,
+            @RequestParam(defaultValue = "12") int months) {
+        return ResponseEntity.ok(expenseTimeSeriesService.getTimeSeries(departmentId, months));
+    }
+
+    // Full recomputation, for changes to older months that the startup backfill does not cover
+    @PostMapping("/timeseries/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildExpenseTimeSeries() {
+        return ResponseEntity.ok(Map.of("buckets", expenseTimeSeriesService.rebuild()));
+    }
+
     // DTO classes
     private static class ExpenseRequest {
         private Integer departmentId;
@@ -0,0 +1,18 @@
+package org.example.controllers;
+
+import org.example.repositories.mysql.UnknownFieldException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// A fields=... parameter naming a field the resource does not have is a client error, not a server one
+@RestControllerAdvice
+public class FieldSelectionAdvice {
+
+    @ExceptionHandler(UnknownFieldException.class)
+    public ResponseEntity<Map<String, String>> handleUnknownField(UnknownFieldException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.controllers;
+
+import org.example.services.CsvImportService;
+import org.example.services.CsvImportService.ImportReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/import")
+@CrossOrigin(origins = "*")
+public class ImportRestController {
+
+    private final CsvImportService csvImportService;
+
+    @Autowired
+    public ImportRestController(CsvImportService csvImportService) {
+        this.csvImportService = csvImportService;
+    }
+
+    // The request body is read as a stream, so large files are never buffered whole
+    @PostMapping(value = "/expenses", consumes = "text/csv")
+    public ResponseEntity<ImportReport> importExpenses(InputStream body) throws IOException {
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(csvImportService.importExpenses(reader));
+        }
+    }
+
+    @PostMapping(value = "/staff", consumes = "text/csv")
+    public ResponseEntity<ImportReport> importStaff(InputStream body) throws IOException {
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(csvImportService.importStaff(reader));
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package org.example.controllers;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import javafx.util.Callback;
+import org.example.services.PageQuery;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Items of a table that only ever holds the pages its visible rows show. The size comes from a count
+// query; rows whose page is not loaded are null until the page arrives, and only the least recently
+// shown pages are kept. Sorting a column and setting the filter reload the table through the query
+// instead of sorting in memory. All methods are meant for the FX thread.
+public class PagedTableItems<T> extends ObservableListBase<T> {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int MAX_PAGES = 20;
+
+    private final UiTaskScope tasks;
+    private final TableView<T> table;
+    private final String name;
+    private final Function<String, Long> counter;
+    private final Function<PageQuery<T>, List<T>> pageLoader;
+    private final Map<TableColumn<T, ?>, String> sortFields = new HashMap<>();
+    private final String defaultSortField;
+    private final boolean defaultAscending;
+
+    // Least recently shown first
+    private final LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<>();
+    private final Set<TableRow<T>> rows = Collections.newSetFromMap(new WeakHashMap<>());
+    private Consumer<Throwable> onError = error -> { };
+    private String filter;
+    private String sortField;
+    private boolean ascending;
+    private int size;
+    private int generation;
+    private boolean loading;
+    private boolean failed;
+
+    private PagedTableItems(UiTaskScope tasks, TableView<T> table, String name, Function<String, Long> counter,
+                            Function<PageQuery<T>, List<T>> pageLoader, String sortField, boolean ascending) {
+        this.tasks = tasks;
+        this.table = table;
+        this.name = name;
+        this.counter = counter;
+        this.pageLoader = pageLoader;
+        this.defaultSortField = sortField;
+        this.defaultAscending = ascending;
+        this.sortField = sortField;
+        this.ascending = ascending;
+    }
+
+    // Creates the items and installs them in the table, which pages through them from now on
+    public static <T> PagedTableItems<T> forTable(UiTaskScope tasks, TableView<T> table, String name,
+                                                  Function<String, Long> counter,
+                                                  Function<PageQuery<T>, List<T>> pageLoader, String sortField,
+                                                  boolean ascending) {
+        PagedTableItems<T> items = new PagedTableItems<>(tasks, table, name, counter, pageLoader, sortField, ascending);
+        items.attach();
+        return items;
+    }
+
+    private void attach() {
+        // The rows the table creates are the visible ones, so they decide which pages to load
+        Callback<TableView<T>, TableRow<T>> rowFactory = table.getRowFactory();
+        table.setRowFactory(view -> {
+            TableRow<T> row = rowFactory != null ? rowFactory.call(view) : new TableRow<>();
+            InvalidationListener shown = observable -> rowShown(row);
+            row.indexProperty().addListener(shown);
+            row.itemProperty().addListener(shown);
+            rows.add(row);
+            return row;
+        });
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(false);
+        }
+        table.setSortPolicy(view -> {
+            applySortOrder();
+            return true;
+        });
+        table.setItems(this);
+    }
+
+    // Lets the column sort the table by the given query field
+    public void sortBy(TableColumn<T, ?> column, String field) {
+        sortFields.put(column, field);
+        column.setSortable(true);
+        if (field.equals(sortField) && !table.getSortOrder().contains(column)) {
+            column.setSortType(ascending ? TableColumn.SortType.ASCENDING : TableColumn.SortType.DESCENDING);
+            table.getSortOrder().setAll(Collections.singletonList(column));
+        }
+    }
+
+    // Called on the FX thread when counting or loading a page fails; failures are logged either way
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError != null ? onError : error -> { };
+    }
+
+    public void setFilter(String filter) {
+        String normalized = filter != null && !filter.isBlank() ? filter.trim() : null;
+        if (!Objects.equals(normalized, this.filter)) {
+            this.filter = normalized;
+            reload();
+        }
+    }
+
+    // Drops every loaded page and counts again; call after writes that add, remove or reorder rows
+    public void reload() {
+        generation++;
+        pages.clear();
+        failed = false;
+        int requestGeneration = generation;
+        String requestFilter = filter;
+        tasks.refresh(name + " count", () -> counter.apply(requestFilter), count -> {
+            if (requestGeneration == generation) {
+                resize((int) Math.min(count, Integer.MAX_VALUE));
+                loadVisiblePages();
+            }
+        }, e -> onError.accept(e));
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        List<T> page = pages.get(index / PAGE_SIZE);
+        int offset = index % PAGE_SIZE;
+        return page != null && offset < page.size() ? page.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Unsorting every column goes back to the default order
+    private void applySortOrder() {
+        String field = defaultSortField;
+        boolean direction = defaultAscending;
+        for (TableColumn<T, ?> column : table.getSortOrder()) {
+            if (sortFields.containsKey(column)) {
+                field = sortFields.get(column);
+                direction = column.getSortType() == TableColumn.SortType.ASCENDING;
+                break;
+            }
+        }
+        if (!field.equals(sortField) || direction != ascending) {
+            sortField = field;
+            ascending = direction;
+            reload();
+        }
+    }
+
+    private void rowShown(TableRow<T> row) {
+        int index = row.getIndex();
+        if (index < 0 || index >= size) {
+            return;
+        }
+        if (!touch(index / PAGE_SIZE)) {
+            loadVisiblePages();
+        }
+    }
+
+    // One page at a time, the lowest one a visible row is missing; when it arrives the rows are checked again,
+    // so pages scrolled past while a query ran are never fetched
+    private void loadVisiblePages() {
+        if (loading || failed) {
+            return;
+        }
+        Integer missing = null;
+        for (TableRow<T> row : rows) {
+            int index = row.getIndex();
+            if (row.getParent() == null || !row.isVisible() || index < 0 || index >= size) {
+                continue;
+            }
+            int page = index / PAGE_SIZE;
+            if (!touch(page) && (missing == null || page < missing)) {
+                missing = page;
+            }
+        }
+        if (missing == null) {
+            return;
+        }
+
+        int page = missing;
+        int requestGeneration = generation;
+        PageQuery<T> query = new PageQuery<>(filter, sortField, ascending, (long) page * PAGE_SIZE, PAGE_SIZE,
+            lastRowOf(page - 1));
+        loading = true;
+        tasks.submit("load " + name + " page " + page, () -> pageLoader.apply(query), loaded -> {
+            loading = false;
+            if (requestGeneration == generation) {
+                store(page, loaded);
+            }
+            loadVisiblePages();
+        }, e -> {
+            loading = false;
+            if (requestGeneration == generation) {
+                // Stays empty until the next reload instead of retrying a failing query on every scroll
+                failed = true;
+                onError.accept(e);
+            } else {
+                loadVisiblePages();
+            }
+        });
+    }
+
+    // Marks the page as just shown; false if it is not loaded
+    private boolean touch(int page) {
+        List<T> loaded = pages.remove(page);
+        if (loaded == null) {
+            return false;
+        }
+        pages.put(page, loaded);
+        return true;
+    }
+
+    private T lastRowOf(int page) {
+        List<T> loaded = pages.get(page);
+        return loaded != null && loaded.size() == PAGE_SIZE ? loaded.get(PAGE_SIZE - 1) : null;
+    }
+
+    private void store(int page, List<T> loaded) {
+        pages.put(page, loaded);
+        Iterator<Integer> leastRecent = pages.keySet().iterator();
+        while (pages.size() > MAX_PAGES) {
+            leastRecent.next();
+            leastRecent.remove();
+        }
+        int from = page * PAGE_SIZE;
+        int to = Math.min(from + loaded.size(), size);
+        if (from < to) {
+            beginChange();
+            for (int i = from; i < to; i++) {
+                nextUpdate(i);
+            }
+            endChange();
+        }
+    }
+
+    private void resize(int newSize) {
+        int oldSize = size;
+        size = newSize;
+        beginChange();
+        if (oldSize > 0) {
+            nextRemove(0, Collections.<T>nCopies(oldSize, null));
+        }
+        if (newSize > 0) {
+            nextAdd(0, newSize);
+        }
+        endChange();
+    }
+}
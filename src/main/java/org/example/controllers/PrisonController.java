@@ -23,10 +23,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.annotation.PostConstruct;
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
 import javafx.scene.control.cell.PropertyValueFactory;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import org.springframework.context.annotation.Scope;
@@ -57,7 +55,10 @@ public class PrisonController {
     private final PrisonService prisonService;
     private final StaffService staffService;
     private final PrisonerService prisonerService;
+    private final UiTaskRunner uiTaskRunner;
 
+    private UiTaskScope tasks;
+    private SearchPipeline<Block> blocksSearch;
     private Prison currentPrison;
 
     @Autowired
@@ -67,7 +68,8 @@ public class PrisonController {
                           DepartmentService departmentService,
                           PrisonService prisonService,
                           StaffService staffService,
-                          PrisonerService prisonerService) {
+                          PrisonerService prisonerService,
+                          UiTaskRunner uiTaskRunner) {
         this.applicationContext = applicationContext;
         this.springFXMLLoader = springFXMLLoader;
         this.blockService = blockService;
@@ -75,6 +77,7 @@ public class PrisonController {
         this.prisonService = prisonService;
         this.staffService = staffService;
         this.prisonerService = prisonerService;
+        this.uiTaskRunner = uiTaskRunner;
         LOGGER.info("PrisonController constructor called with dependencies");
     }
 
@@ -101,6 +104,8 @@ public class PrisonController {
         LOGGER.info("Verifying FXML component injection...");
         verifyFXMLInjection();
         
+        tasks = uiTaskRunner.scopeFor(blocksTable);
+
         // Set up UI components
         LOGGER.info("Setting up UI components...");
             setupUIComponents();
@@ -210,166 +215,68 @@ public class PrisonController {
 
     private void loadInitialData() {
         LOGGER.info("Starting initial data load");
-        try {
-            // Load prisons from database
-            LOGGER.info("Loading prisons from database...");
+        // Load prisons from database
+        tasks.refresh("prison", () -> {
             List<Prison> prisons = prisonService.getAllPrisons();
-            
-            if (!prisons.isEmpty()) {
-                // Set the first prison as current
-                currentPrison = prisons.get(0);
-                LOGGER.info("Updating prison info for prison: " + currentPrison.getName());
-                updatePrisonInfo(currentPrison);
-
-            // Load blocks data
-                LOGGER.info("Loading blocks data...");
-                loadBlocksData();
-            } else {
+            return prisons.isEmpty() ? null : loadSummary(prisons.get(0));
+        }, summary -> {
+            if (summary == null) {
                 LOGGER.warning("No prisons found in database");
                 showError("No Prisons", "No prisons found in the database.");
+                return;
             }
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error loading initial data", e);
-            showError("Error", "Failed to load initial data: " + e.getMessage());
-        }
-    }
-
-    private void loadBlocksData() {
-        if (blocksTable == null || currentPrison == null) {
-            LOGGER.warning("Cannot load blocks data - required components are null");
-            return;
-        }
-
-        // Load blocks in background thread
-        new Thread(() -> {
-            try {
-                List<Block> blocks = blockService.getBlocksByPrisonId(currentPrison.getId());
-                
-                // Update UI on JavaFX thread
-                Platform.runLater(() -> {
-                    try {
-                blocksTable.setItems(FXCollections.observableArrayList(blocks));
-                    } catch (Exception e) {
-                        LOGGER.log(Level.SEVERE, "Error updating blocks table", e);
-            }
-                });
-        } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Error loading blocks data", e);
-                Platform.runLater(() -> 
-                    displayError("Data Loading Error", "Failed to load blocks data"));
-            }
-        }).start();
-    }
-
-    private void updatePrisonInfo(Prison prison) {
-        if (prison == null) {
-            LOGGER.severe("Cannot update prison info - prison is null");
-            return;
-        }
-
-        LOGGER.info("Updating prison info for prison: " + prison.getName());
-        try {
-            // Update prison name
-            updatePrisonName(prison);
-            
-            // Update warden name
-            updateWardenName(prison);
-            
-            // Update capacity
-            updateCapacity(prison);
-            
-            // Update available cells
-            updateAvailableCells(prison);
-
-            LOGGER.info("Prison info updated successfully");
-        } catch (Exception e) {
-            String errorMsg = "Error updating prison info: " + e.getMessage();
-            LOGGER.log(Level.SEVERE, errorMsg, e);
-            throw new RuntimeException(errorMsg, e);
-        }
-    }
-
-    private void updatePrisonName(Prison prison) {
-            if (prisonNameLabel != null) {
-            try {
-                prisonNameLabel.setText(prison.getName());
-                LOGGER.info("Updated prison name label to: " + prison.getName());
-            } catch (Exception e) {
-                LOGGER.warning("Failed to update prison name label: " + e.getMessage());
-            }
-        } else {
-            LOGGER.warning("prisonNameLabel is null - cannot update prison name");
-        }
-    }
-
-    private void updateWardenName(Prison prison) {
-            if (wardenNameLabel != null) {
-            try {
-                String wardenName = staffService.getStaffByRoleAndPrisonId("Warden", prison.getId())
-                    .map(Staff::getName)
-                    .orElse("No Warden Assigned");
-                wardenNameLabel.setText(wardenName);
-                LOGGER.info("Updated warden name label to: " + wardenName);
-            } catch (Exception e) {
-                LOGGER.warning("Failed to update warden name label: " + e.getMessage());
-                wardenNameLabel.setText("Error loading warden");
-            }
-        } else {
-            LOGGER.warning("wardenNameLabel is null - cannot update warden name");
-        }
+            // Set the first prison as current
+            showSummary(summary);
+        }, e -> showError("Error", "Failed to load initial data: " + e.getMessage()));
     }
 
-    private void updateCapacity(Prison prison) {
-        if (capacityLabel != null) {
-            try {
-                int totalCapacity = calculateTotalCapacity(prison);
-                capacityLabel.setText(String.valueOf(totalCapacity));
-                LOGGER.info("Updated capacity label to: " + totalCapacity);
-            } catch (Exception e) {
-                LOGGER.warning("Failed to update capacity label: " + e.getMessage());
-                capacityLabel.setText("Error loading capacity");
-            }
-        } else {
-            LOGGER.warning("capacityLabel is null - cannot update capacity");
-        }
+    private void reloadPrison(Integer prisonId) {
+        tasks.refresh("prison", () -> loadSummary(prisonService.getPrisonById(prisonId)), this::showSummary,
+            e -> showError("Error", "Failed to reload prison details", e.getMessage()));
     }
 
-    private int calculateTotalCapacity(Prison prison) {
-        LOGGER.info("Calculating total capacity for prison ID: " + prison.getId());
-        List<Block> blocks = blockService.getBlocksByPrisonId(prison.getId());
-        int totalCapacity = blocks.stream()
+    // Runs on a UI task thread: every query the header and the blocks table need, with blocks read once
+    private PrisonSummary loadSummary(Prison prison) {
+        PrisonSummary summary = new PrisonSummary(prison);
+        summary.wardenName = staffService.getStaffByRoleAndPrisonId("Warden", prison.getId())
+            .map(Staff::getName)
+            .orElse("No Warden Assigned");
+        summary.blocks = blockService.getBlocksByPrisonId(prison.getId());
+        summary.totalCapacity = summary.blocks.stream()
             .flatMap(block -> block.getCells().stream())
             .mapToInt(cell -> cell.getCapacity())
             .sum();
-        LOGGER.info("Total capacity calculated: " + totalCapacity);
-        return totalCapacity;
-    }
-
-    private void updateAvailableCells(Prison prison) {
-        if (availableCellsLabel != null) {
-            try {
-                int availableCells = calculateAvailableCells(prison);
-                availableCellsLabel.setText(String.valueOf(availableCells));
-                LOGGER.info("Updated available cells label to: " + availableCells);
-            } catch (Exception e) {
-                LOGGER.warning("Failed to update available cells label: " + e.getMessage());
-                availableCellsLabel.setText("Error loading availability");
-            }
-        } else {
-            LOGGER.warning("availableCellsLabel is null - cannot update available cells");
-        }
-    }
-
-    private int calculateAvailableCells(Prison prison) {
-        LOGGER.info("Calculating available cells for prison ID: " + prison.getId());
-        List<Block> blocks = blockService.getBlocksByPrisonId(prison.getId());
-        int availableCells = blocks.stream()
+        summary.availableCells = summary.blocks.stream()
             .flatMap(block -> block.getCells().stream())
             .filter(cell -> !cell.getType().equalsIgnoreCase("Solitary"))
             .mapToInt(cell -> cell.getCapacity() - cell.getPrisoners().size())
             .sum();
-        LOGGER.info("Available cells calculated: " + availableCells);
-        return availableCells;
+        return summary;
+    }
+
+    private void showSummary(PrisonSummary summary) {
+        currentPrison = summary.prison;
+        LOGGER.info("Updating prison info for prison: " + currentPrison.getName());
+        prisonNameLabel.setText(currentPrison.getName());
+        wardenNameLabel.setText(summary.wardenName);
+        capacityLabel.setText(String.valueOf(summary.totalCapacity));
+        availableCellsLabel.setText(String.valueOf(summary.availableCells));
+        showBlocks(summary.blocks);
+    }
+
+    private void loadBlocksData() {
+        if (blocksTable == null || currentPrison == null) {
+            LOGGER.warning("Cannot load blocks data - required components are null");
+            return;
+        }
+        Integer prisonId = currentPrison.getId();
+        tasks.refresh("blocks", () -> blockService.getBlocksByPrisonId(prisonId), this::showBlocks,
+            e -> displayError("Data Loading Error", "Failed to load blocks data"));
+    }
+
+    // The search box is applied to freshly loaded blocks by the search pipeline
+    private void showBlocks(List<Block> blocks) {
+        blocksSearch.setRows(blocks);
     }
 
     @FXML
@@ -409,17 +316,9 @@ public class PrisonController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    blockService.deleteBlock(block.getId());
-                    // Refresh the blocks table
-                    if (currentPrison != null) {
-                        List<Block> blocks = blockService.getBlocksByPrisonId(currentPrison.getId());
-                        blocksTable.setItems(FXCollections.observableArrayList(blocks));
-                    }
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Error deleting block", e);
-                    showError("Error", "Could not delete block", e.getMessage());
-                }
+                // Refresh the blocks table
+                tasks.run("delete block", () -> blockService.deleteBlock(block.getId()), this::loadBlocksData,
+                    e -> showError("Error", "Could not delete block", e.getMessage()));
             }
         });
     }
@@ -561,9 +460,7 @@ public class PrisonController {
             dialogStage.showAndWait();
             
             // Refresh prison info after dialog is closed
-            currentPrison = prisonService.getPrisonById(currentPrison.getId());
-            updatePrisonInfo(currentPrison);
-            loadBlocksData();
+            reloadPrison(currentPrison.getId());
             
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Failed to open edit prison dialog", e);
@@ -571,35 +468,15 @@ public class PrisonController {
         }
     }
 
+    // Filters the blocks already loaded; only edits reload them
     @FXML
     private void handleSearch() {
-        String searchText = searchField.getText().toLowerCase();
-        if (searchText.isEmpty()) {
-            loadBlocksData();
-            return;
-        }
-
-        try {
-            List<Block> allBlocks = blockService.getBlocksByPrisonId(currentPrison.getId());
-            List<Block> filteredBlocks = allBlocks.stream()
-                .filter(block -> block.getType().toLowerCase().contains(searchText))
-                .collect(Collectors.toList());
-            blocksTable.setItems(FXCollections.observableArrayList(filteredBlocks));
-            LOGGER.info("Blocks filtered by search text: " + searchText);
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error searching blocks: " + e.getMessage(), e);
-            displayError("Search Error", "Failed to search blocks: " + e.getMessage());
-        }
+        blocksSearch.searchNow();
     }
 
     private void setupSearch() {
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue == null || newValue.isEmpty()) {
-                loadBlocksData();
-            } else {
-                handleSearch();
-            }
-        });
+        blocksSearch = new SearchPipeline<>(tasks, blocksTable, searchField, "blocks", Block::getType);
+        blocksSearch.setOnError(e -> showError("Error", "Failed to search blocks: " + e.getMessage()));
     }
 
     @FXML
@@ -617,19 +494,20 @@ public class PrisonController {
                 return;
             }
             
-            // Get the first prison (assuming we're working with a single prison for now)
-            Prison prison = prisonService.getAllPrisons().get(0);
-            
-            // Create and save the new block
-            Block newBlock = new Block(blockType, prison);
-            blockService.createBlock(newBlock);
-            
-            // Close the dialog
-            Stage stage = (Stage) blocksTable.getScene().getWindow();
-            stage.close();
-            
-            // Show success message
-            displaySuccess("Success", "Block added successfully");
+            tasks.submit("create block", () -> {
+                // Get the first prison (assuming we're working with a single prison for now)
+                Prison prison = prisonService.getAllPrisons().get(0);
+
+                // Create and save the new block
+                return blockService.createBlock(new Block(blockType, prison));
+            }, created -> {
+                // Close the dialog
+                Stage stage = (Stage) blocksTable.getScene().getWindow();
+                stage.close();
+
+                // Show success message
+                displaySuccess("Success", "Block added successfully");
+            }, e -> showError("Error", "Failed to create block", e.getMessage()));
         } catch (Exception e) {
             showError("Error", "Failed to create block", e.getMessage());
         }
@@ -663,16 +541,17 @@ public class PrisonController {
             currentPrison.setName(prisonNameLabel.getText().trim());
 
             // Save to database
-            prisonService.updatePrison(currentPrison.getId(), currentPrison);
-            
-            // Close the dialog
-            Stage stage = (Stage) prisonNameLabel.getScene().getWindow();
-            stage.close();
+            Prison prison = currentPrison;
+            tasks.submit("update prison", () -> prisonService.updatePrison(prison.getId(), prison), updated -> {
+                // Close the dialog
+                Stage stage = (Stage) prisonNameLabel.getScene().getWindow();
+                stage.close();
 
-            // Refresh data
-            loadInitialData();
-            
-            showSuccess("Success", "Prison details updated successfully");
+                // Refresh data
+                loadInitialData();
+
+                showSuccess("Success", "Prison details updated successfully");
+            }, e -> showError("Error", "Failed to update prison details", e.getMessage()));
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error updating prison details", e);
             showError("Error", "Failed to update prison details", e.getMessage());
@@ -793,28 +672,32 @@ public class PrisonController {
         if (event.getClickCount() == 2) {
             Block selectedBlock = blocksTable.getSelectionModel().getSelectedItem();
             if (selectedBlock != null) {
-                try {
-                    Block blockWithRelations = blockService.getBlockByIdWithRelations(selectedBlock.getId());
-                    BlockDetailsController controller = springFXMLLoader.loadAndGetController("/fxml/block-details.fxml", BlockDetailsController.class);
-                    controller.initData(blockWithRelations);
-                    
-                    // Close current window
-                    Stage currentStage = (Stage) blocksTable.getScene().getWindow();
-                    currentStage.close();
-                    
-                    // Show block details window
-                    Stage newStage = new Stage();
-                    newStage.setTitle("Block Details");
-                    newStage.setScene(new Scene(controller.getRoot()));
-                    newStage.show();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showError("Error loading block details", e.getMessage());
-                }
+                tasks.submit("load block details", () -> blockService.getBlockByIdWithRelations(selectedBlock.getId()),
+                    this::openBlockDetails, e -> showError("Error loading block details", e.getMessage()));
             }
         }
     }
 
+    private void openBlockDetails(Block blockWithRelations) {
+        try {
+            BlockDetailsController controller = springFXMLLoader.loadAndGetController("/fxml/block-details.fxml", BlockDetailsController.class);
+            controller.initData(blockWithRelations);
+
+            // Close current window
+            Stage currentStage = (Stage) blocksTable.getScene().getWindow();
+            currentStage.close();
+
+            // Show block details window
+            Stage newStage = new Stage();
+            newStage.setTitle("Block Details");
+            newStage.setScene(new Scene(controller.getRoot()));
+            newStage.show();
+        } catch (Exception e) {
+            e.printStackTrace();
+            showError("Error loading block details", e.getMessage());
+        }
+    }
+
     private void initializeTableColumns() {
         if (blockTypeCol != null) {
             blockTypeCol.setCellValueFactory(new PropertyValueFactory<>("type"));
@@ -835,8 +718,19 @@ public class PrisonController {
 
     private void loadPrisonData() {
         if (currentPrison != null) {
-            List<Block> blocks = blockService.getBlocksByPrisonId(currentPrison.getId());
-            blocksTable.setItems(FXCollections.observableArrayList(blocks));
+            loadBlocksData();
+        }
+    }
+
+    private static class PrisonSummary {
+        private final Prison prison;
+        private String wardenName;
+        private List<Block> blocks;
+        private int totalCapacity;
+        private int availableCells;
+
+        PrisonSummary(Prison prison) {
+            this.prison = prison;
         }
     }
-} 
\ No newline at end of file
+}
@@ -1,11 +1,12 @@
 package org.example.controllers;
 
 import javafx.beans.property.ReadOnlyStringWrapper;
-import javafx.collections.FXCollections;
+import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import javafx.util.Callback;
 import javafx.scene.control.*;
 import org.example.models.Prisoner;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,15 +17,17 @@ import org.example.services.CellService;
 import org.example.config.SpringFXMLLoader;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.function.Function;
 
 @Component
 public class PrisonerController {
-
     private final PrisonerService prisonerService;
     private final CellService cellService;
     private final ApplicationContext applicationContext;
     private final SpringFXMLLoader springFXMLLoader;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
+    private PagedTableItems<Prisoner> prisoners;
     private Prisoner selectedPrisoner;
 
     @FXML private TextField prisonerSearchField;
@@ -41,11 +44,13 @@ public class PrisonerController {
     public PrisonerController(PrisonerService prisonerService, 
                             CellService cellService, 
                             ApplicationContext applicationContext,
-                            SpringFXMLLoader springFXMLLoader) {
+                            SpringFXMLLoader springFXMLLoader,
+                            UiTaskRunner uiTaskRunner) {
         this.prisonerService = prisonerService;
         this.cellService = cellService;
         this.applicationContext = applicationContext;
         this.springFXMLLoader = springFXMLLoader;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
@@ -59,6 +64,11 @@ public class PrisonerController {
                 throw new IllegalStateException("Services not properly injected");
             }
             System.out.println("Services are properly injected");
+            tasks = uiTaskRunner.scopeFor(prisonersTable);
+            prisoners = PagedTableItems.forTable(tasks, prisonersTable, "prisoners", prisonerService::countPrisoners,
+                prisonerService::getPrisonerPage, "id", true);
+            prisoners.setOnError(e ->
+                showError("Data Loading Error", "Failed to load prisoners data: " + e.getMessage()));
             setupTableColumns();
             System.out.println("Table columns setup complete");
             loadPrisoners();
@@ -79,23 +89,21 @@ public class PrisonerController {
         try {
             System.out.println("Setting up table columns...");
             
-            prisonerIdCol.setCellValueFactory(cellData -> 
-                new ReadOnlyStringWrapper(String.valueOf(cellData.getValue().getId())));
-                
-            prisonerNameCol.setCellValueFactory(cellData -> 
-                new ReadOnlyStringWrapper(cellData.getValue().getName()));
-                
-            prisonerGenderCol.setCellValueFactory(cellData -> 
-                new ReadOnlyStringWrapper(cellData.getValue().getGender()));
-                
-            dobCol.setCellValueFactory(cellData -> 
-                new ReadOnlyStringWrapper(cellData.getValue().getDateOfBirth().toString()));
-                    
-            sentenceStartCol.setCellValueFactory(cellData -> 
-                new ReadOnlyStringWrapper(cellData.getValue().getSentenceStart().toString()));
-                
-            sentenceEndCol.setCellValueFactory(cellData -> 
-                new ReadOnlyStringWrapper(cellData.getValue().getSentenceEnd().toString()));
+            // Rows of pages that are still loading are null and stay blank
+            prisonerIdCol.setCellValueFactory(column(Prisoner::getId));
+            prisonerNameCol.setCellValueFactory(column(Prisoner::getName));
+            prisonerGenderCol.setCellValueFactory(column(Prisoner::getGender));
+            dobCol.setCellValueFactory(column(Prisoner::getDateOfBirth));
+            sentenceStartCol.setCellValueFactory(column(Prisoner::getSentenceStart));
+            sentenceEndCol.setCellValueFactory(column(Prisoner::getSentenceEnd));
+
+            // Sorting runs in the query
+            prisoners.sortBy(prisonerIdCol, "id");
+            prisoners.sortBy(prisonerNameCol, "name");
+            prisoners.sortBy(prisonerGenderCol, "gender");
+            prisoners.sortBy(dobCol, "dateOfBirth");
+            prisoners.sortBy(sentenceStartCol, "sentenceStart");
+            prisoners.sortBy(sentenceEndCol, "sentenceEnd");
             
             prisonerActionsCol.setCellFactory(col -> new TableCell<Prisoner, Void>() {
                 private final Button deleteButton = new Button("Delete");
@@ -103,14 +111,17 @@ public class PrisonerController {
                 {
                     deleteButton.setOnAction(event -> {
                         Prisoner prisoner = getTableView().getItems().get(getIndex());
-                        handleDeletePrisoner(prisoner);
+                        if (prisoner != null) {
+                            handleDeletePrisoner(prisoner);
+                        }
                     });
                 }
 
                 @Override
                 protected void updateItem(Void item, boolean empty) {
                     super.updateItem(item, empty);
-                    setGraphic(empty ? null : deleteButton);
+                    boolean loaded = getTableRow() != null && getTableRow().getItem() != null;
+                    setGraphic(empty || !loaded ? null : deleteButton);
                 }
             });
             System.out.println("Table columns setup complete.");
@@ -121,54 +132,29 @@ public class PrisonerController {
         }
     }
 
+    private static Callback<TableColumn.CellDataFeatures<Prisoner, String>, ObservableValue<String>> column(
+            Function<Prisoner, Object> value) {
+        return cellData -> {
+            Object cellValue = cellData.getValue() != null ? value.apply(cellData.getValue()) : null;
+            return new ReadOnlyStringWrapper(cellValue != null ? cellValue.toString() : null);
+        };
+    }
+
+    // Queries only once typing pauses, rather than once per keystroke
     private void setupSearch() {
-        prisonerSearchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue == null || newValue.isEmpty()) {
-                loadPrisoners();
-            } else {
-                handleSearch();
-            }
-        });
+        SearchPipeline.debounce(prisonerSearchField, text -> handleSearch());
     }
 
+    // Only the count and the pages on screen are queried, however many prisoners there are
     private void loadPrisoners() {
-        try {
-            System.out.println("Loading prisoners data...");
-            List<Prisoner> prisoners = prisonerService.getAllPrisoners();
-            System.out.println("Found " + prisoners.size() + " prisoners");
-            if (prisoners.isEmpty()) {
-                System.out.println("No prisoners found in the database");
-            } else {
-                System.out.println("First prisoner: " + prisoners.get(0).getName());
-            }
-            prisonersTable.setItems(FXCollections.observableArrayList(prisoners));
-            System.out.println("Prisoners data loaded successfully.");
-        } catch (Exception e) {
-            System.err.println("Error loading prisoners: " + e.getMessage());
-            e.printStackTrace();
-            showError("Data Loading Error", "Failed to load prisoners data: " + e.getMessage());
-        }
+        System.out.println("Loading prisoners data...");
+        prisoners.reload();
     }
 
+    // The name filter runs in the count and page queries; an empty search shows every prisoner again
     @FXML
     private void handleSearch() {
-        String searchText = prisonerSearchField.getText().toLowerCase();
-        if (searchText.isEmpty()) {
-            loadPrisoners();
-            return;
-        }
-
-        try {
-            List<Prisoner> allPrisoners = prisonerService.getAllPrisoners();
-            List<Prisoner> filteredPrisoners = allPrisoners.stream()
-                .filter(prisoner -> prisoner.getName().toLowerCase().contains(searchText))
-                .toList();
-            prisonersTable.setItems(FXCollections.observableArrayList(filteredPrisoners));
-        } catch (Exception e) {
-            System.err.println("Error searching prisoners: " + e.getMessage());
-            e.printStackTrace();
-            showError("Search Error", "Failed to search prisoners: " + e.getMessage());
-        }
+        prisoners.setFilter(prisonerSearchField.getText());
     }
 
     @FXML
@@ -202,15 +188,10 @@ public class PrisonerController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    prisonerService.deletePrisoner(prisoner.getId());
-                    loadPrisoners(); // Refresh the table
+                tasks.run("delete prisoner", () -> prisonerService.deletePrisoner(prisoner.getId()), () -> {
+                    prisoners.reload(); // Refresh the table
                     showSuccess("Success", "Prisoner deleted successfully");
-                } catch (Exception e) {
-                    System.err.println("Error deleting prisoner: " + e.getMessage());
-                    e.printStackTrace();
-                    showError("Error", "Failed to delete prisoner: " + e.getMessage());
-                }
+                }, e -> showError("Error", "Failed to delete prisoner: " + e.getMessage()));
             }
         });
     }
@@ -25,14 +25,19 @@ import org.example.services.VisitorService;
 import org.example.services.CrimeService;
 import org.example.services.MedicalRecordService;
 import org.example.services.CellService;
+import org.example.services.PrisonerDossierService;
 import org.example.config.SpringFXMLLoader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 @Component
 public class PrisonerDetailsController {
+    private static final Logger LOGGER = Logger.getLogger(PrisonerDetailsController.class.getName());
+
     @FXML
     private Label nameLabel;
     @FXML
@@ -100,6 +105,7 @@ public class PrisonerDetailsController {
 
     private Prisoner prisoner;
     private Parent root;
+    private BatchColumnResolver<VisitorLog, Integer, Visitor> visitorNameResolver;
 
     @Autowired
     private FXMLLoader fxmlLoader;
@@ -122,6 +128,14 @@ public class PrisonerDetailsController {
     @Autowired
     private CellService cellService;
 
+    @Autowired
+    private PrisonerDossierService dossierService;
+
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
+
     public Parent getRoot() {
         return root;
     }
@@ -133,6 +147,8 @@ public class PrisonerDetailsController {
     @FXML
     public void initialize() {
         try {
+        tasks = uiTaskRunner.scopeFor(crimesTable);
+        tasks.setErrorHandler((description, e) -> showError("Error", "Failed to " + description, e.getMessage()));
         setupCrimesTable();
         setupVisitorLogsTable();
         setupMedicalRecordsTable();
@@ -190,15 +206,9 @@ public class PrisonerDetailsController {
     }
 
     private void setupVisitorLogsTable() {
-        visitorNameColumn.setCellValueFactory(cellData -> {
-            VisitorLog log = cellData.getValue();
-            try {
-                Visitor visitor = visitorService.getVisitorById(log.getVisitorId()).orElse(null);
-                return new ReadOnlyStringWrapper(visitor != null ? visitor.getName() : "Unknown");
-            } catch (Exception e) {
-                return new ReadOnlyStringWrapper("Error loading visitor");
-            }
-        });
+        visitorNameResolver = BatchColumnResolver.forTable(tasks, visitorLogsTable, VisitorLog::getVisitorId,
+            visitorService::getVisitorsByIds);
+        visitorNameColumn.setCellValueFactory(visitorNameResolver.column(Visitor::getName, "Unknown"));
 
         relationshipColumn.setCellValueFactory(cellData -> 
             new ReadOnlyStringWrapper(cellData.getValue().getRelationship()));
@@ -311,49 +321,66 @@ public class PrisonerDetailsController {
         }
     }
 
+    // All three tables are fetched together; a source that is slow or down leaves its table empty
     private void loadData() {
-        loadCrimes();
-        loadVisitorLogs();
-        loadMedicalRecords();
+        tasks.refresh("load prisoner details", () -> dossierService.loadRelatedRecords(prisoner.getId()), dossier -> {
+            crimesTable.getItems().setAll(dossier.getCrimes());
+            visitorNameResolver.invalidate();
+            visitorNameResolver.preload(dossier.getVisitors());
+            visitorLogsTable.getItems().setAll(dossier.getVisitorLogs());
+            medicalRecordsTable.getItems().setAll(dossier.getMedicalRecords());
+            Map<String, String> unavailable = dossier.getUnavailable();
+            showAvailability(crimesTable, "crimes", unavailable.get(PrisonerDossierService.CRIMES));
+            showAvailability(visitorLogsTable, "visitor logs", unavailable.get(PrisonerDossierService.VISITOR_LOGS));
+            showAvailability(medicalRecordsTable, "medical records",
+                unavailable.get(PrisonerDossierService.MEDICAL_RECORDS));
+            if (!dossier.isComplete()) {
+                LOGGER.warning("Prisoner details incomplete: " + unavailable);
+            }
+        }, e -> {
+            LOGGER.log(Level.SEVERE, "Error loading prisoner details", e);
+            showError("Prisoner Error", "Failed to load prisoner details", e.getMessage());
+        });
     }
 
-    private void loadCrimes() {
-        try {
-            List<Crime> crimes = crimeService.getCrimesByPrisoner(prisoner.getId().toString());
-            crimesTable.getItems().setAll(crimes);
-        } catch (Exception e) {
-            System.err.println("Error loading crimes: " + e.getMessage());
+    // A source that timed out or failed leaves its table empty; the placeholder says so instead of "no content"
+    private static void showAvailability(TableView<?> table, String section, String reason) {
+        if (reason == null) {
+            table.setPlaceholder(null);
+        } else {
+            table.setPlaceholder(new Label("Could not load " + section
+                + ("timeout".equals(reason) ? " in time" : "") + ", reopen the prisoner to retry"));
         }
     }
 
+    private void loadCrimes() {
+        String prisonerId = prisoner.getId().toString();
+        tasks.refresh("load crimes", () -> crimeService.getCrimesByPrisoner(prisonerId),
+            crimes -> crimesTable.getItems().setAll(crimes), e -> {
+                LOGGER.log(Level.SEVERE, "Error loading crimes", e);
+                showError("Prisoner Error", "Failed to load crimes", e.getMessage());
+            });
+    }
+
     private void loadVisitorLogs() {
-        try {
-            List<VisitorLog> visitorLogs = visitorLogService.getVisitorLogsByPrisoner(prisoner.getId().toString());
-            visitorLogsTable.getItems().setAll(visitorLogs);
-        } catch (Exception e) {
-            System.err.println("Error loading visitor logs: " + e.getMessage());
-        }
+        String prisonerId = prisoner.getId().toString();
+        tasks.refresh("load visitor logs", () -> visitorLogService.getVisitorLogsByPrisoner(prisonerId),
+            visitorLogs -> {
+                visitorNameResolver.invalidate();
+                visitorLogsTable.getItems().setAll(visitorLogs);
+            }, e -> {
+                LOGGER.log(Level.SEVERE, "Error loading visitor logs", e);
+                showError("Prisoner Error", "Failed to load visitor logs", e.getMessage());
+            });
     }
 
     private void loadMedicalRecords() {
-        try {
-            System.out.println("Loading medical records for prisoner ID: " + prisoner.getId());
-            List<MedicalRecord> medicalRecords = medicalRecordService.getMedicalRecordsByPrisonerId(prisoner.getId().toString());
-            System.out.println("Found " + medicalRecords.size() + " medical records");
-            
-            if (medicalRecords.isEmpty()) {
-                System.out.println("No medical records found for prisoner: " + prisoner.getName());
-            } else {
-                for (MedicalRecord record : medicalRecords) {
-                    System.out.println("Medical record: " + record.getDiagnosis() + " - " + record.getStatus());
-                }
-            }
-            
-            medicalRecordsTable.getItems().setAll(medicalRecords);
-        } catch (Exception e) {
-            System.err.println("Error loading medical records: " + e.getMessage());
-            e.printStackTrace();
-        }
+        String prisonerId = prisoner.getId().toString();
+        tasks.refresh("load medical records", () -> medicalRecordService.getMedicalRecordsByPrisonerId(prisonerId),
+            medicalRecords -> medicalRecordsTable.getItems().setAll(medicalRecords), e -> {
+                LOGGER.log(Level.SEVERE, "Error loading medical records", e);
+                showError("Prisoner Error", "Failed to load medical records", e.getMessage());
+            });
     }
 
     @FXML
@@ -489,8 +516,8 @@ public class PrisonerDetailsController {
         alert.setHeaderText(null);
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.YES) {
-                visitorLogService.deleteVisitorLog(log.getId());
-                loadVisitorLogs();
+                tasks.run("delete visitor log", () -> visitorLogService.deleteVisitorLog(log.getId()),
+                    this::loadVisitorLogs, null);
             }
         });
     }
@@ -520,8 +547,8 @@ public class PrisonerDetailsController {
         alert.setHeaderText(null);
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.YES) {
-                medicalRecordService.deleteMedicalRecord(record.getId());
-                loadMedicalRecords();
+                tasks.run("delete medical record", () -> medicalRecordService.deleteMedicalRecord(record.getId()),
+                    this::loadMedicalRecords, null);
             }
         });
     }
@@ -533,8 +560,7 @@ public class PrisonerDetailsController {
         alert.setHeaderText(null);
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.YES) {
-                crimeService.deleteCrime(crime.getId());
-                loadCrimes();
+                tasks.run("delete crime", () -> crimeService.deleteCrime(crime.getId()), this::loadCrimes, null);
             }
         });
     }
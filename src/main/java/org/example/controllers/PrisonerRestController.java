@@ -1,16 +1,30 @@
 package org.example.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.models.Prisoner;
 import org.example.models.Cell;
+import org.example.models.Crime;
+import org.example.models.MedicalRecord;
+import org.example.models.Visitor;
+import org.example.models.VisitorLog;
 import org.example.services.PrisonerService;
 import org.example.services.CellService;
+import org.example.services.MultiGetResult;
+import org.example.services.PrisonerDossierService;
+import org.example.services.PrisonerDossierService.Dossier;
+import org.example.services.ResourceVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/prisoners")
@@ -19,21 +33,59 @@ public class PrisonerRestController {
 
     private final PrisonerService prisonerService;
     private final CellService cellService;
+    private final ResourceVersionService resourceVersions;
+    private final PrisonerDossierService dossierService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public PrisonerRestController(PrisonerService prisonerService, CellService cellService) {
+    public PrisonerRestController(PrisonerService prisonerService, CellService cellService,
+                                  ResourceVersionService resourceVersions, PrisonerDossierService dossierService,
+                                  ObjectMapper objectMapper) {
         this.prisonerService = prisonerService;
         this.cellService = cellService;
+        this.resourceVersions = resourceVersions;
+        this.dossierService = dossierService;
+        this.objectMapper = objectMapper;
     }
 
+    // Flat prisoner rows; fields=name,cellId limits both the payload and the selected columns
     @GetMapping
-    public ResponseEntity<List<Prisoner>> getAllPrisoners() {
-        return ResponseEntity.ok(prisonerService.getAllPrisoners());
+    public ResponseEntity<List<Map<String, Object>>> getAllPrisoners(
+            @RequestParam(required = false) List<String> fields, WebRequest request) {
+        List<String> selected = PrisonerService.RESPONSE_FIELDS.select(fields);
+        String etag = resourceVersions.etag(request, "prisoners-" + String.join(",", selected),
+            ResourceVersionService.PRISONERS, ResourceVersionService.CELLS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(prisonerService.getPrisonerFields(selected));
+    }
+
+    // ?ids=1,2,3 loads all prisoners in one query, in the requested order, and lists the ids not found
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResult<Map<String, Object>>> getPrisonersByIds(
+            @RequestParam List<Integer> ids, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(prisonerService.getPrisonerFieldsByIds(ids, fields));
+    }
+
+    // Full export written row by row from a database cursor, for clients that would otherwise page through everything
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPrisoners() {
+        return StreamingJsonResponse.array(objectMapper,
+            sink -> prisonerService.forEachPrisonerRow(row -> sink.accept(new PrisonerRow(row))));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Prisoner> getPrisonerById(@PathVariable Integer id) {
-        return ResponseEntity.ok(prisonerService.getPrisonerById(id));
+    public ResponseEntity<Map<String, Object>> getPrisonerById(@PathVariable Integer id,
+                                                               @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(prisonerService.getPrisonerFieldsById(id, fields));
+    }
+
+    // Prisoner, crimes, visits and medical records in one response, read from both stores in parallel.
+    // Sources that were too slow or failed come back empty and are listed in "unavailable".
+    @GetMapping("/{id}/dossier")
+    public ResponseEntity<DossierResponse> getPrisonerDossier(@PathVariable Integer id) {
+        return ResponseEntity.ok(new DossierResponse(dossierService.loadDossier(id)));
     }
 
     @GetMapping("/cell/{cellId}")
@@ -60,34 +112,25 @@ public class PrisonerRestController {
         return ResponseEntity.ok(prisonerService.getPrisonersByReleaseDateRange(startDate, endDate));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<Prisoner>> searchPrisoners(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(prisonerService.searchPrisonersByName(name, limit));
+    }
+
     @PostMapping
     public ResponseEntity<Prisoner> createPrisoner(@RequestBody PrisonerRequest request) {
         Cell cell = cellService.getCellById(request.getCellId())
             .orElseThrow(() -> new RuntimeException("Cell not found with ID: " + request.getCellId()));
-        Prisoner prisoner = new Prisoner(
-            request.getName(),
-            request.getDateOfBirth(),
-            request.getSentenceStart(),
-            request.getSentenceEnd(),
-            request.getGender(),
-            cell
-        );
-        return ResponseEntity.ok(prisonerService.createPrisoner(prisoner));
+        return ResponseEntity.ok(prisonerService.createPrisoner(request.toPrisoner(cell)));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Prisoner> updatePrisoner(@PathVariable Integer id, @RequestBody PrisonerRequest request) {
         Cell cell = cellService.getCellById(request.getCellId())
             .orElseThrow(() -> new RuntimeException("Cell not found with ID: " + request.getCellId()));
-        Prisoner prisoner = new Prisoner(
-            request.getName(),
-            request.getDateOfBirth(),
-            request.getSentenceStart(),
-            request.getSentenceEnd(),
-            request.getGender(),
-            cell
-        );
-        return ResponseEntity.ok(prisonerService.updatePrisoner(id, prisoner));
+        return ResponseEntity.ok(prisonerService.updatePrisoner(id, request.toPrisoner(cell)));
     }
 
     @DeleteMapping("/{id}")
@@ -97,7 +140,128 @@ public class PrisonerRestController {
     }
 
     // DTO classes
-    private static class PrisonerRequest {
+    private static class PrisonerRow {
+        private final Integer id;
+        private final String name;
+        private final LocalDate dateOfBirth;
+        private final LocalDate sentenceStart;
+        private final LocalDate sentenceEnd;
+        private final String gender;
+        private final Integer cellId;
+
+        PrisonerRow(Object[] row) {
+            this.id = (Integer) row[0];
+            this.name = (String) row[1];
+            this.dateOfBirth = (LocalDate) row[2];
+            this.sentenceStart = (LocalDate) row[3];
+            this.sentenceEnd = (LocalDate) row[4];
+            this.gender = (String) row[5];
+            this.cellId = (Integer) row[6];
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public LocalDate getDateOfBirth() {
+            return dateOfBirth;
+        }
+
+        public LocalDate getSentenceStart() {
+            return sentenceStart;
+        }
+
+        public LocalDate getSentenceEnd() {
+            return sentenceEnd;
+        }
+
+        public String getGender() {
+            return gender;
+        }
+
+        public Integer getCellId() {
+            return cellId;
+        }
+    }
+
+    private static class DossierResponse {
+        private final Map<String, Object> prisoner;
+        private final List<Map<String, Object>> crimes;
+        private final List<Map<String, Object>> visits;
+        private final List<Map<String, Object>> medicalRecords;
+        private final Map<String, String> unavailable;
+
+        DossierResponse(Dossier dossier) {
+            this.prisoner = dossier.getPrisoner();
+            this.crimes = dossier.getCrimes().stream().map(DossierResponse::crime).toList();
+            this.visits = dossier.getVisitorLogs().stream()
+                .map(log -> visit(log, dossier.getVisitors().get(log.getVisitorId())))
+                .toList();
+            this.medicalRecords = dossier.getMedicalRecords().stream().map(DossierResponse::medicalRecord).toList();
+            this.unavailable = dossier.getUnavailable();
+        }
+
+        private static Map<String, Object> crime(Crime crime) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", crime.getId());
+            row.put("name", crime.getName());
+            row.put("description", crime.getDescription());
+            row.put("sentenceStartDate", crime.getSentenceStartDate());
+            row.put("sentenceDuration", crime.getSentenceDuration());
+            return row;
+        }
+
+        // The visitor name is null when the visitors source was unavailable
+        private static Map<String, Object> visit(VisitorLog log, Visitor visitor) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", log.getId());
+            row.put("visitorId", log.getVisitorId());
+            row.put("visitorName", visitor != null ? visitor.getName() : null);
+            row.put("relationship", log.getRelationship());
+            row.put("date", log.getDate());
+            row.put("visitTime", log.getVisitTime());
+            row.put("duration", log.getDuration());
+            row.put("status", log.getStatus());
+            return row;
+        }
+
+        private static Map<String, Object> medicalRecord(MedicalRecord record) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", record.getId());
+            row.put("recordDate", record.getRecordDate());
+            row.put("diagnosis", record.getDiagnosis());
+            row.put("treatment", record.getTreatment());
+            row.put("status", record.getStatus());
+            return row;
+        }
+
+        public Map<String, Object> getPrisoner() {
+            return prisoner;
+        }
+
+        public List<Map<String, Object>> getCrimes() {
+            return crimes;
+        }
+
+        public List<Map<String, Object>> getVisits() {
+            return visits;
+        }
+
+        public List<Map<String, Object>> getMedicalRecords() {
+            return medicalRecords;
+        }
+
+        public Map<String, String> getUnavailable() {
+            return unavailable;
+        }
+    }
+
+    // Also the payload of prisoner batch operations
+    static class PrisonerRequest {
         private String name;
         private LocalDate dateOfBirth;
         private LocalDate sentenceStart;
@@ -152,5 +316,9 @@ public class PrisonerRestController {
         public void setCellId(Integer cellId) {
             this.cellId = cellId;
         }
+
+        Prisoner toPrisoner(Cell cell) {
+            return new Prisoner(name, dateOfBirth, sentenceStart, sentenceEnd, gender, cell);
+        }
     }
 } 
\ No newline at end of file
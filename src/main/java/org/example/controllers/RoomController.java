@@ -13,11 +13,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.example.services.RoomService;
 import org.example.services.BlockService;
 import org.example.services.DepartmentService;
+import org.example.services.ResourceVersionService;
 
 import java.util.List;
+import java.util.Map;
 
 @Component
 @RestController
@@ -28,6 +31,9 @@ public class RoomController {
     private final RoomService roomService;
     private final BlockService blockService;
     private final DepartmentService departmentService;
+    private final ResourceVersionService resourceVersions;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
 
     @FXML private Label blockNameLabel;
     @FXML private TableView<Room> roomsTable;
@@ -37,14 +43,18 @@ public class RoomController {
     @FXML private TableColumn<Room, Void> roomActionsCol;
 
     @Autowired
-    public RoomController(RoomService roomService, BlockService blockService, DepartmentService departmentService) {
+    public RoomController(RoomService roomService, BlockService blockService, DepartmentService departmentService,
+                          ResourceVersionService resourceVersions, UiTaskRunner uiTaskRunner) {
         this.roomService = roomService;
         this.blockService = blockService;
         this.departmentService = departmentService;
+        this.resourceVersions = resourceVersions;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(roomsTable);
         blockNameLabel.setText("Block A");
         setupTableColumns();
         loadRooms();
@@ -57,9 +67,10 @@ public class RoomController {
     }
 
     private void loadRooms() {
-        List<Room> rooms = roomService.getAllRooms();
-        ObservableList<Room> observableRooms = FXCollections.observableArrayList(rooms);
-        roomsTable.setItems(observableRooms);
+        tasks.refresh("load rooms", roomService::getAllRooms, rooms -> {
+            ObservableList<Room> observableRooms = FXCollections.observableArrayList(rooms);
+            roomsTable.setItems(observableRooms);
+        });
     }
 
     @FXML
@@ -79,13 +90,21 @@ public class RoomController {
 
     // REST Endpoints
     @GetMapping
-    public ResponseEntity<List<Room>> getAllRooms() {
-        return ResponseEntity.ok(roomService.getAllRooms());
+    public ResponseEntity<List<Map<String, Object>>> getAllRooms(
+            @RequestParam(required = false) List<String> fields, WebRequest request) {
+        List<String> selected = RoomService.RESPONSE_FIELDS.select(fields);
+        String etag = resourceVersions.etag(request, "rooms-" + String.join(",", selected),
+            ResourceVersionService.ROOMS, ResourceVersionService.BLOCKS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(roomService.getRoomFields(selected));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Room> getRoomById(@PathVariable Integer id) {
-        return ResponseEntity.ok(roomService.getRoomById(id));
+    public ResponseEntity<Map<String, Object>> getRoomById(@PathVariable Integer id,
+                                                           @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(roomService.getRoomFieldsById(id, fields));
     }
 
     @GetMapping("/block/{blockId}")
@@ -141,11 +160,16 @@ public class RoomController {
     }
 
     @GetMapping("/{id}/stats")
-    public ResponseEntity<RoomStats> getRoomStats(@PathVariable Integer id) {
+    public ResponseEntity<RoomStats> getRoomStats(@PathVariable Integer id, WebRequest request) {
+        String etag = resourceVersions.etag(request, "room-stats-" + id,
+            ResourceVersionService.ROOMS, ResourceVersionService.BLOCKS, ResourceVersionService.EQUIPMENT);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         Room room = roomService.getRoomById(id);
         String blockName = room.getBlocks().isEmpty() ? "No Block" : 
             room.getBlocks().iterator().next().getType();
-        return ResponseEntity.ok(new RoomStats(
+        return ResponseEntity.ok().eTag(etag).body(new RoomStats(
             room.getEquipmentCount(),
             room.hasEquipment(),
             blockName
@@ -16,9 +16,12 @@ import org.example.models.Department;
 import org.example.models.Contains2;
 import org.example.models.Equipment;
 import org.example.models.EquipmentMaintenanceLog;
+import org.example.models.EquipmentMaintenanceState;
+import org.example.models.RoomMaintenanceRollup;
 import org.example.services.EquipmentService;
 import org.example.services.RoomService;
 import org.example.services.EquipmentMaintenanceService;
+import org.example.services.EquipmentMaintenanceScheduleService;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.example.config.SpringFXMLLoader;
@@ -51,6 +54,8 @@ public class RoomDetailsController {
     @FXML private TableColumn<Equipment, String> equipmentNameColumn;
     @FXML private TableColumn<Equipment, String> equipmentDescriptionColumn;
     @FXML private TableColumn<Equipment, Integer> equipmentAmountColumn;
+    @FXML private TableColumn<Equipment, String> equipmentMaintenanceColumn;
+    @FXML private Label maintenanceSummaryLabel;
     @FXML private TableColumn<Equipment, Void> equipmentActionsColumn;
     
     @Autowired
@@ -67,8 +72,16 @@ public class RoomDetailsController {
     
     @Autowired
     private EquipmentMaintenanceService equipmentMaintenanceService;
-    
+
+    @Autowired
+    private EquipmentMaintenanceScheduleService maintenanceScheduleService;
+
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
     private Room room;
+    private RoomMaintenanceRollup maintenanceRollup;
     private Parent root;
     private Runnable onUpdateCallback;
     
@@ -77,11 +90,13 @@ public class RoomDetailsController {
 
     @Autowired
     public RoomDetailsController(EquipmentService equipmentService, RoomService roomService, 
-                               ApplicationContext applicationContext, EquipmentMaintenanceService equipmentMaintenanceService) {
+                               ApplicationContext applicationContext, EquipmentMaintenanceService equipmentMaintenanceService,
+                               EquipmentMaintenanceScheduleService maintenanceScheduleService) {
         this.equipmentService = equipmentService;
         this.roomService = roomService;
         this.applicationContext = applicationContext;
         this.equipmentMaintenanceService = equipmentMaintenanceService;
+        this.maintenanceScheduleService = maintenanceScheduleService;
     }
 
     public Parent getRoot() {
@@ -94,6 +109,7 @@ public class RoomDetailsController {
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(equipmentTable);
         setupEquipmentTable();
     }
 
@@ -106,6 +122,8 @@ public class RoomDetailsController {
         equipmentNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
         equipmentDescriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
         equipmentAmountColumn.setCellValueFactory(new PropertyValueFactory<>("amount"));
+        equipmentMaintenanceColumn.setCellValueFactory(cellData ->
+            new SimpleStringProperty(formatMaintenance(cellData.getValue())));
         
         // Set up actions column
         equipmentActionsColumn.setCellFactory(col -> new TableCell<Equipment, Void>() {
@@ -189,23 +207,67 @@ public class RoomDetailsController {
     }
 
     private void loadEquipment() {
-        try {
-            // Load equipment using the safe method that excludes invalid department references
-            List<Equipment> validEquipment = roomService.getValidEquipmentByRoomId(room.getId());
-            
+        // Load equipment using the safe method that excludes invalid department references
+        Integer roomId = room.getId();
+        tasks.refresh("load equipment", () -> {
+            List<Equipment> equipment = roomService.getValidEquipmentByRoomId(roomId);
+            // One Mongo query for the logs of the whole room
+            maintenanceScheduleService.loadMaintenanceLogs(equipment);
+            return equipment;
+        }, validEquipment -> {
             // Clear the table first to ensure proper refresh
             equipmentTable.getItems().clear();
-            
+
             // Add the new equipment items
             ObservableList<Equipment> observableEquipment = FXCollections.observableArrayList(validEquipment);
             equipmentTable.setItems(observableEquipment);
-            
+
+            loadMaintenanceRollup();
+
             // Force table refresh
             equipmentTable.refresh();
-        } catch (Exception e) {
+        }, e -> {
             System.err.println("Error loading equipment: " + e.getMessage());
             showError("Error", "Failed to load equipment", e.getMessage());
+        });
+    }
+
+    // One rollup call for the whole room instead of a maintenance lookup per item
+    private void loadMaintenanceRollup() {
+        Integer roomId = room.getId();
+        tasks.refresh("load maintenance rollup", () -> maintenanceScheduleService.getRoomRollup(roomId), rollup -> {
+            maintenanceRollup = rollup;
+            maintenanceSummaryLabel.setText(String.format("Maintenance: %d due, %d overdue, %d in progress",
+                maintenanceRollup.getDueCount(), maintenanceRollup.getOverdueCount(),
+                maintenanceRollup.getInProgressCount()));
+            // The maintenance column reads the rollup
+            equipmentTable.refresh();
+        }, e -> {
+            Logger.getLogger(RoomDetailsController.class.getName()).log(Level.WARNING, "Failed to load maintenance rollup", e);
+            maintenanceRollup = null;
+            maintenanceSummaryLabel.setText("Maintenance: unavailable");
+        });
+    }
+
+    private String formatMaintenance(Equipment equipment) {
+        if (maintenanceRollup == null || equipment == null) {
+            return "";
+        }
+        EquipmentMaintenanceState state = maintenanceRollup.getState(equipment.getId());
+        String status = maintenanceRollup.getStatus(equipment.getId());
+        if (state == null || status == null) {
+            return "";
         }
+        String next = state.getNextServiceDate() != null
+            ? state.getNextServiceDate().format(DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT))
+            : "never serviced";
+        return switch (status) {
+            case EquipmentMaintenanceState.OVERDUE -> "Overdue (" + next + ")";
+            case EquipmentMaintenanceState.DUE -> "Due (" + next + ")";
+            case EquipmentMaintenanceState.IN_PROGRESS -> "In progress";
+            default -> equipment.hasPendingMaintenance() ? "Service requested (next " + next + ")"
+                : "OK (next " + next + ")";
+        };
     }
 
     @FXML
@@ -255,14 +317,9 @@ public class RoomDetailsController {
             });
 
             Optional<Equipment> result = dialog.showAndWait();
-            result.ifPresent(equipment -> {
-                try {
-                    equipmentService.createEquipment(equipment); // Persist to DB
-                    loadEquipment();
-                } catch (Exception e) {
-                    showError("Error", "Failed to add equipment", e.getMessage());
-                }
-            });
+            result.ifPresent(equipment -> tasks.run("add equipment",
+                () -> equipmentService.createEquipment(equipment), // Persist to DB
+                this::loadEquipment, e -> showError("Error", "Failed to add equipment", e.getMessage())));
         } catch (Exception e) {
             showError("Error", "Failed to open add equipment dialog", e.getMessage());
         }
@@ -318,17 +375,17 @@ public class RoomDetailsController {
 
             Optional<Integer> result = dialog.showAndWait();
             result.ifPresent(amountToRemove -> {
-                try {
-                    if (amountToRemove == equipment.getAmount()) {
+                boolean removeAll = amountToRemove == equipment.getAmount();
+                if (!removeAll) {
+                    equipment.setAmount(equipment.getAmount() - amountToRemove);
+                }
+                tasks.run("remove equipment", () -> {
+                    if (removeAll) {
                         equipmentService.deleteEquipment(equipment.getId()); // Remove from DB
                     } else {
-                        equipment.setAmount(equipment.getAmount() - amountToRemove);
                         equipmentService.updateEquipment(equipment.getId(), equipment); // Update in DB
                     }
-                    loadEquipment();
-                } catch (Exception e) {
-                    showError("Error", "Failed to remove equipment", e.getMessage());
-                }
+                }, this::loadEquipment, e -> showError("Error", "Failed to remove equipment", e.getMessage()));
             });
         } catch (Exception e) {
             showError("Error", "Failed to remove equipment", e.getMessage());
@@ -384,14 +441,9 @@ public class RoomDetailsController {
             });
 
             Optional<Equipment> result = dialog.showAndWait();
-            result.ifPresent(eq -> {
-                try {
-                    equipmentService.updateEquipment(eq.getId(), eq); // Persist changes
-                    loadEquipment();
-                } catch (Exception e) {
-                    showError("Error", "Failed to edit equipment", e.getMessage());
-                }
-            });
+            result.ifPresent(eq -> tasks.run("edit equipment",
+                () -> equipmentService.updateEquipment(eq.getId(), eq), // Persist changes
+                this::loadEquipment, e -> showError("Error", "Failed to edit equipment", e.getMessage())));
         } catch (Exception e) {
             showError("Error", "Failed to open edit dialog", e.getMessage());
         }
@@ -413,9 +465,12 @@ public class RoomDetailsController {
             dialogStage.showAndWait();
             
             // Refresh room data after dialog is closed
-            room = roomService.getRoomByIdWithRelationsSafe(room.getId());
-            updateUI();
-            
+            Integer roomId = room.getId();
+            tasks.refresh("reload room", () -> roomService.getRoomByIdWithRelationsSafe(roomId), reloaded -> {
+                room = reloaded;
+                updateUI();
+            }, e -> showError("Error", "Failed to reload room", e.getMessage()));
+
         } catch (Exception e) {
             showError("Error", "Failed to open edit room dialog", e.getMessage());
         }
@@ -440,17 +495,25 @@ public class RoomDetailsController {
     }
 
     private void showEquipmentMaintenancePopup(Equipment equipment) {
+        // Close any existing popup
+        if (currentPopup != null) {
+            currentPopup.hide();
+            currentPopup = null;
+        }
+
+        // Get maintenance records for this equipment
+        tasks.refresh("load maintenance records",
+            () -> equipmentMaintenanceService.getMaintenanceRecordsByEquipmentId(equipment.getId()),
+            maintenanceRecords -> showEquipmentMaintenancePopup(equipment, maintenanceRecords), e -> {
+                Logger.getLogger(RoomDetailsController.class.getName())
+                    .log(Level.SEVERE, "Error loading equipment maintenance records", e);
+                showError("Error", "Failed to load maintenance information", e.getMessage());
+            });
+    }
+
+    private void showEquipmentMaintenancePopup(Equipment equipment, List<EquipmentMaintenanceLog> maintenanceRecords) {
         try {
-            // Close any existing popup
-            if (currentPopup != null) {
-                currentPopup.hide();
-                currentPopup = null;
-            }
-            
-            // Get maintenance records for this equipment
-            List<EquipmentMaintenanceLog> maintenanceRecords = equipmentMaintenanceService
-                .getMaintenanceRecordsByEquipmentId(equipment.getId());
-            
+
             // Create popup content
             VBox content = new VBox(10);
             content.setStyle("-fx-padding: 20px; -fx-background-color: white; -fx-border-color: #ccc; -fx-border-radius: 5px;");
@@ -640,15 +703,17 @@ public class RoomDetailsController {
 
             Optional<EquipmentMaintenanceLog> result = dialog.showAndWait();
             result.ifPresent(record -> {
-                try {
-                    System.out.println("[DEBUG] Attempting to save maintenance record: " + record);
-                    equipmentMaintenanceService.createMaintenanceRecord(record);
-                    showEquipmentMaintenancePopup(equipment); // Refresh popup
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    System.out.println("[ERROR] Failed to add maintenance record: " + record);
-                    showError("Error", "Failed to add maintenance record", e.toString());
-                }
+                System.out.println("[DEBUG] Attempting to save maintenance record: " + record);
+                tasks.run("add maintenance record", () -> equipmentMaintenanceService.createMaintenanceRecord(record),
+                    () -> {
+                        loadMaintenanceRollup();
+                        equipmentTable.refresh();
+                        showEquipmentMaintenancePopup(equipment); // Refresh popup
+                    }, e -> {
+                        e.printStackTrace();
+                        System.out.println("[ERROR] Failed to add maintenance record: " + record);
+                        showError("Error", "Failed to add maintenance record", e.toString());
+                    });
             });
         } catch (Exception e) {
             e.printStackTrace();
@@ -718,15 +783,17 @@ public class RoomDetailsController {
 
             Optional<EquipmentMaintenanceLog> result = dialog.showAndWait();
             result.ifPresent(updatedRecord -> {
-                try {
-                    System.out.println("[DEBUG] Attempting to update maintenance record: " + updatedRecord);
-                    equipmentMaintenanceService.updateMaintenanceRecord(record.getId(), updatedRecord);
-                    showEquipmentMaintenancePopup(equipment); // Refresh popup
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    System.out.println("[ERROR] Failed to update maintenance record: " + updatedRecord);
-                    showError("Error", "Failed to update maintenance record", e.toString());
-                }
+                System.out.println("[DEBUG] Attempting to update maintenance record: " + updatedRecord);
+                tasks.run("update maintenance record",
+                    () -> equipmentMaintenanceService.updateMaintenanceRecord(record.getId(), updatedRecord), () -> {
+                        loadMaintenanceRollup();
+                        equipmentTable.refresh();
+                        showEquipmentMaintenancePopup(equipment); // Refresh popup
+                    }, e -> {
+                        e.printStackTrace();
+                        System.out.println("[ERROR] Failed to update maintenance record: " + updatedRecord);
+                        showError("Error", "Failed to update maintenance record", e.toString());
+                    });
             });
         } catch (Exception e) {
             e.printStackTrace();
@@ -18,6 +18,7 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Component
@@ -28,6 +29,8 @@ public class ScheduleController {
 
     private final ScheduleService scheduleService;
     private final StaffService staffService;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
 
     @FXML private TableView<Schedule> scheduleTable;
     @FXML private TableColumn<Schedule, Integer> idColumn;
@@ -48,13 +51,16 @@ public class ScheduleController {
     @FXML private CheckBox sundayCheck;
 
     @Autowired
-    public ScheduleController(ScheduleService scheduleService, StaffService staffService) {
+    public ScheduleController(ScheduleService scheduleService, StaffService staffService, UiTaskRunner uiTaskRunner) {
         this.scheduleService = scheduleService;
         this.staffService = staffService;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(scheduleTable);
+        tasks.setErrorHandler((description, e) -> showError("Failed to " + description + ": " + e.getMessage()));
         setupTableColumns();
         loadSchedules();
         loadStaffComboBox();
@@ -121,16 +127,18 @@ public class ScheduleController {
     }
 
     private void loadSchedules() {
-        List<Schedule> schedules = scheduleService.getAllSchedules();
-        ObservableList<Schedule> observableSchedules = FXCollections.observableArrayList(schedules);
-        scheduleTable.setItems(observableSchedules);
+        tasks.refresh("load schedules", scheduleService::getAllSchedules, schedules -> {
+            ObservableList<Schedule> observableSchedules = FXCollections.observableArrayList(schedules);
+            scheduleTable.setItems(observableSchedules);
+        });
     }
 
     private void loadStaffComboBox() {
-        List<Staff> staffList = staffService.getAllStaff();
-        ObservableList<Staff> observableStaff = FXCollections.observableArrayList(staffList);
-        staffComboBox.setItems(observableStaff);
-        
+        tasks.refresh("load staff", staffService::getAllStaff, staffList -> {
+            ObservableList<Staff> observableStaff = FXCollections.observableArrayList(staffList);
+            staffComboBox.setItems(observableStaff);
+        });
+
         // Custom cell factory to show staff name in combo box
         staffComboBox.setCellFactory(comboBox -> new ListCell<>() {
             @Override
@@ -173,10 +181,12 @@ public class ScheduleController {
                 return;
             }
 
-            scheduleService.createSchedule(selectedStaff, selectedDays, startTime, endTime);
-            loadSchedules();
-            clearForm();
-            showSuccess("Schedule created successfully");
+            tasks.submit("create schedule",
+                () -> scheduleService.createSchedule(selectedStaff, selectedDays, startTime, endTime), created -> {
+                    loadSchedules();
+                    clearForm();
+                    showSuccess("Schedule created successfully");
+                }, e -> showError("Error creating schedule: " + e.getMessage()));
         } catch (Exception e) {
             showError("Error creating schedule: " + e.getMessage());
         }
@@ -223,13 +233,10 @@ public class ScheduleController {
             return;
         }
 
-        try {
-            scheduleService.deleteSchedule(selectedSchedule.getId());
+        tasks.run("delete schedule", () -> scheduleService.deleteSchedule(selectedSchedule.getId()), () -> {
             loadSchedules();
             showSuccess("Schedule deleted successfully");
-        } catch (Exception e) {
-            showError("Error deleting schedule: " + e.getMessage());
-        }
+        }, e -> showError("Error deleting schedule: " + e.getMessage()));
     }
 
     private void showError(String message) {
@@ -255,45 +262,53 @@ public class ScheduleController {
 
     // REST Endpoints
     @GetMapping
-    public ResponseEntity<List<Schedule>> getAllSchedules() {
-        return ResponseEntity.ok(scheduleService.getAllSchedules());
+    public ResponseEntity<List<Map<String, Object>>> getAllSchedules(
+            @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(scheduleService.getScheduleFields(fields));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Schedule> getScheduleById(@PathVariable Integer id) {
-        return ResponseEntity.ok(scheduleService.getScheduleById(id));
+    public ResponseEntity<Map<String, Object>> getScheduleById(@PathVariable Integer id,
+                                                               @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(scheduleService.getScheduleFieldsById(id, fields));
     }
 
     @GetMapping("/staff/{staffId}")
-    public ResponseEntity<List<Schedule>> getSchedulesByStaff(@PathVariable Integer staffId) {
-        return ResponseEntity.ok(scheduleService.getSchedulesByStaffId(staffId));
+    public ResponseEntity<List<Map<String, Object>>> getSchedulesByStaff(
+            @PathVariable Integer staffId, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(scheduleService.getScheduleFieldsByStaffId(staffId, fields));
     }
 
     @GetMapping("/current")
-    public ResponseEntity<List<Schedule>> getCurrentSchedules(@RequestParam LocalTime currentTime) {
-        return ResponseEntity.ok(scheduleService.getCurrentSchedules(currentTime));
+    public ResponseEntity<List<Map<String, Object>>> getCurrentSchedules(
+            @RequestParam LocalTime currentTime, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(scheduleService.getCurrentScheduleFields(currentTime, fields));
     }
 
     @GetMapping("/staff/{staffId}/current")
-    public ResponseEntity<List<Schedule>> getCurrentSchedulesByStaff(
+    public ResponseEntity<List<Map<String, Object>>> getCurrentSchedulesByStaff(
             @PathVariable Integer staffId,
-            @RequestParam LocalTime currentTime) {
-        return ResponseEntity.ok(scheduleService.getCurrentSchedulesByStaff(staffId, currentTime));
+            @RequestParam LocalTime currentTime,
+            @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(scheduleService.getCurrentScheduleFieldsByStaff(staffId, currentTime, fields));
     }
 
     @GetMapping("/time-range")
-    public ResponseEntity<List<Schedule>> getSchedulesByTimeRange(
+    public ResponseEntity<List<Map<String, Object>>> getSchedulesByTimeRange(
             @RequestParam LocalTime startTime,
-            @RequestParam LocalTime endTime) {
-        return ResponseEntity.ok(scheduleService.getSchedulesByTimeRange(startTime, endTime));
+            @RequestParam LocalTime endTime,
+            @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(scheduleService.getScheduleFieldsByTimeRange(startTime, endTime, fields));
     }
 
     @GetMapping("/staff/{staffId}/time-range")
-    public ResponseEntity<List<Schedule>> getSchedulesByStaffAndTimeRange(
+    public ResponseEntity<List<Map<String, Object>>> getSchedulesByStaffAndTimeRange(
             @PathVariable Integer staffId,
             @RequestParam LocalTime startTime,
-            @RequestParam LocalTime endTime) {
-        return ResponseEntity.ok(scheduleService.getSchedulesByStaffAndTimeRange(staffId, startTime, endTime));
+            @RequestParam LocalTime endTime,
+            @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(
+            scheduleService.getScheduleFieldsByStaffAndTimeRange(staffId, startTime, endTime, fields));
     }
 
     @PostMapping
@@ -310,8 +325,7 @@ public class ScheduleController {
     @PutMapping("/{id}")
     public ResponseEntity<Schedule> updateSchedule(@PathVariable Integer id, @RequestBody ScheduleRequest request) {
         Staff staff = staffService.getStaffById(request.getStaffId());
-        Schedule schedule = new Schedule(staff, request.getDays(), request.getStartTime(), request.getEndTime());
-        return ResponseEntity.ok(scheduleService.updateSchedule(id, schedule));
+        return ResponseEntity.ok(scheduleService.updateSchedule(id, request.toSchedule(staff)));
     }
 
     @DeleteMapping("/{id}")
@@ -343,7 +357,8 @@ public class ScheduleController {
     }
 
     // DTO classes
-    private static class ScheduleRequest {
+    // Also the payload of schedule batch operations
+    static class ScheduleRequest {
         private Integer staffId;
         private Set<String> days;
         private LocalTime startTime;
@@ -380,6 +395,10 @@ public class ScheduleController {
         public void setEndTime(LocalTime endTime) {
             this.endTime = endTime;
         }
+
+        Schedule toSchedule(Staff staff) {
+            return new Schedule(staff, days, startTime, endTime);
+        }
     }
 
     private static class ScheduleStats {
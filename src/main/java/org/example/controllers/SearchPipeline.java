@@ -0,0 +1,155 @@
+package org.example.controllers;
+
+import javafx.animation.PauseTransition;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextInputControl;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Filters a table held in memory by a search box without doing the matching on the FX thread. Typing
+// restarts a short pause and only the text present when it ends is searched. Each row's searchable text
+// is normalized once per set of rows, so a search is a substring scan over prepared keys on a UI task
+// thread, and a longer query only rescans the rows the shorter one matched. A search overtaken by newer
+// input or new rows stops early and is dropped; the table's items are replaced in one change.
+// All methods are meant for the FX thread.
+public class SearchPipeline<T> {
+
+    private static final Duration DEBOUNCE = Duration.millis(250);
+    // Rows scanned between checks for a newer search
+    private static final int STALE_CHECK_INTERVAL = 1024;
+
+    private final UiTaskScope tasks;
+    private final TextInputControl searchField;
+    private final String key;
+    private final Function<T, String> searchText;
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final PauseTransition pause;
+    private final AtomicInteger latest = new AtomicInteger();
+    private Consumer<Throwable> onError = error -> { };
+    private Rows<T> rows;
+    private Result<T> shown;
+
+    public SearchPipeline(UiTaskScope tasks, TableView<T> table, TextInputControl searchField, String name,
+                          Function<T, String> searchText) {
+        this.tasks = tasks;
+        this.searchField = searchField;
+        this.key = name + " search";
+        this.searchText = searchText;
+        this.rows = new Rows<>(List.of(), searchText);
+        this.pause = debounce(searchField, text -> search());
+        table.setItems(items);
+    }
+
+    // Calls search with the field's text once typing has paused; for searches that run elsewhere
+    public static PauseTransition debounce(TextInputControl field, Consumer<String> search) {
+        PauseTransition pause = new PauseTransition(DEBOUNCE);
+        pause.setOnFinished(event -> search.accept(field.getText()));
+        field.textProperty().addListener((observable, oldValue, newValue) -> pause.playFromStart());
+        return pause;
+    }
+
+    // Called on the FX thread when a search fails; failures are logged either way
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError != null ? onError : error -> { };
+    }
+
+    // Replaces the rows being searched and applies the current search to them
+    public void setRows(List<T> newRows) {
+        rows = new Rows<>(new ArrayList<>(newRows), searchText);
+        searchNow();
+    }
+
+    // Searches the field's current text without waiting for the pause, e.g. for a Search button
+    public void searchNow() {
+        pause.stop();
+        search();
+    }
+
+    private void search() {
+        int generation = latest.incrementAndGet();
+        String query = normalize(searchField.getText());
+        Rows<T> current = rows;
+        Result<T> previous = shown;
+        tasks.refresh(key, () -> current.search(query, previous, () -> latest.get() != generation), result -> {
+            if (result != null && generation == latest.get()) {
+                shown = result;
+                items.setAll(result.matches);
+            }
+        }, e -> onError.accept(e));
+    }
+
+    private static String normalize(String text) {
+        return text != null ? text.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    // One set of rows and their normalized keys, built by the first search that needs them
+    static final class Rows<T> {
+        private final List<T> list;
+        private final Function<T, String> searchText;
+        private String[] keys;
+
+        Rows(List<T> list, Function<T, String> searchText) {
+            this.list = list;
+            this.searchText = searchText;
+        }
+
+        private synchronized String[] keys() {
+            if (keys == null) {
+                String[] built = new String[list.size()];
+                for (int i = 0; i < built.length; i++) {
+                    built[i] = normalize(searchText.apply(list.get(i)));
+                }
+                keys = built;
+            }
+            return keys;
+        }
+
+        // Null when a newer search made this one stale
+        Result<T> search(String query, Result<T> previous, BooleanSupplier stale) {
+            String[] prepared = keys();
+            // A query that extends the shown one can only match rows the shown one matched
+            boolean narrow = previous != null && previous.rows == this && query.contains(previous.query);
+            int candidates = narrow ? previous.positions.length : prepared.length;
+            int[] positions = new int[candidates];
+            int found = 0;
+            for (int i = 0; i < candidates; i++) {
+                if (i % STALE_CHECK_INTERVAL == 0 && stale.getAsBoolean()) {
+                    return null;
+                }
+                int position = narrow ? previous.positions[i] : i;
+                if (query.isEmpty() || prepared[position].contains(query)) {
+                    positions[found++] = position;
+                }
+            }
+            List<T> matches = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                matches.add(list.get(positions[i]));
+            }
+            return new Result<>(this, query, Arrays.copyOf(positions, found), matches);
+        }
+    }
+
+    static final class Result<T> {
+        private final Rows<T> rows;
+        private final String query;
+        private final int[] positions;
+        final List<T> matches;
+
+        Result(Rows<T> rows, String query, int[] positions, List<T> matches) {
+            this.rows = rows;
+            this.query = query;
+            this.positions = positions;
+            this.matches = matches;
+        }
+    }
+}
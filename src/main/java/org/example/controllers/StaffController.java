@@ -4,9 +4,6 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.SimpleIntegerProperty;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -20,7 +17,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Objects;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -54,19 +51,32 @@ public class StaffController {
     private final StaffService staffService;
     private final ApplicationContext applicationContext;
     private final SpringFXMLLoader springFXMLLoader;
-    private ObservableList<Staff> allStaff;
-    private FilteredList<Staff> filteredStaff;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
+    private SearchPipeline<Staff> staffSearch;
+    // Set while add_staff.fxml, which shares this controller, is being loaded
+    private boolean loadingAddStaffForm;
+    private UiTaskScope addStaffTasks;
 
     @Autowired
-    public StaffController(StaffService staffService, ApplicationContext applicationContext, SpringFXMLLoader springFXMLLoader) {
+    public StaffController(StaffService staffService, ApplicationContext applicationContext,
+                           SpringFXMLLoader springFXMLLoader, UiTaskRunner uiTaskRunner) {
         this.staffService = staffService;
         this.applicationContext = applicationContext;
         this.springFXMLLoader = springFXMLLoader;
+        this.uiTaskRunner = uiTaskRunner;
         LOGGER.info("StaffController initialized with dependencies");
     }
 
     @FXML
     public void initialize() {
+        if (loadingAddStaffForm) {
+            // The form gets one scope, closed with the dialog; Save stays disabled while a save runs
+            addStaffTasks = uiTaskRunner.scopeFor(saveStaffButton);
+            saveStaffButton.disableProperty().bind(addStaffTasks.busyProperty());
+            return;
+        }
+        tasks = uiTaskRunner.scopeFor(staffTable);
         setupTableColumns();
         setupSearch();
         loadStaffData();
@@ -107,58 +117,22 @@ public class StaffController {
         });
     }
 
+    // Matches name, role, department, gender and supervisor; the table shows the pipeline's results
     private void setupSearch() {
-        // Initialize the filtered list
-        allStaff = FXCollections.observableArrayList();
-        filteredStaff = new FilteredList<>(allStaff, p -> true);
-
-        // Bind the search field to the filter predicate
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredStaff.setPredicate(staff -> {
-                // If search field is empty, display all staff
-                if (newValue == null || newValue.isEmpty()) {
-                    return true;
-                }
-
-                String lowerCaseFilter = newValue.toLowerCase();
-
-                // Match against name
-                if (staff.getName().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                }
-                // Match against role
-                if (staff.getRole().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                }
-                // Match against department
-                if (staff.getDepartment().getType().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                }
-                // Match against gender
-                if (staff.getGender().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                }
-                // Match against supervisor
-                Staff supervisor = staff.getSupervisor();
-                if (supervisor != null && supervisor.getName().toLowerCase().contains(lowerCaseFilter)) {
-                    return true;
-                }
-                return false;
-            });
+        staffSearch = new SearchPipeline<>(tasks, staffTable, searchField, "staff", staff -> {
+            Staff supervisor = staff.getSupervisor();
+            return String.join("\n", Objects.toString(staff.getName(), ""), Objects.toString(staff.getRole(), ""),
+                staff.getDepartment() != null ? Objects.toString(staff.getDepartment().getType(), "") : "",
+                Objects.toString(staff.getGender(), ""),
+                supervisor != null ? Objects.toString(supervisor.getName(), "") : "");
         });
-
-        // Bind the filtered list to the table
-        staffTable.setItems(filteredStaff);
+        staffSearch.setOnError(e -> showError("Error searching staff", e.getMessage()));
     }
 
     private void loadStaffData() {
-        try {
-            List<Staff> staffList = staffService.getAllStaffWithSupervisors();
-            allStaff.clear();
-            allStaff.addAll(staffList);
-        } catch (Exception e) {
-            showError("Error loading staff", e.getMessage());
-        }
+        tasks.refresh("load staff", staffService::getAllStaffWithSupervisors, staffList -> {
+            staffSearch.setRows(staffList);
+        }, e -> showError("Error loading staff", e.getMessage()));
     }
 
     private void setupTableClickHandlers() {
@@ -205,16 +179,18 @@ public class StaffController {
     }
 
     private void openStaffDetails(Staff staff) {
+        // Get fresh staff data with all relationships
+        tasks.submit("load staff details", () -> staffService.getStaffByIdWithRelations(staff.getId()),
+            freshStaff -> showStaffDetails(staff, freshStaff),
+            e -> showError("Unexpected Error", "An unexpected error occurred: " + e.getMessage()));
+    }
+
+    private void showStaffDetails(Staff staff, Staff freshStaff) {
         try {
-            Stage currentStage = (Stage) staffTable.getScene().getWindow();
-            
             // Load the staff details FXML and get controller using SpringFXMLLoader
             StaffDetailsController controller = springFXMLLoader.loadAndGetController("/fxml/staff-details.fxml", StaffDetailsController.class);
             Parent root = controller.getRoot();
             
-            // Get fresh staff data with all relationships
-            Staff freshStaff = staffService.getStaffByIdWithRelations(staff.getId());
-            
             // Set the staff data before showing the window
             controller.setStaff(freshStaff);
             controller.setPreviousPage("all_staff");
@@ -271,12 +247,8 @@ public class StaffController {
 
         alert.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    staffService.deleteStaff(staff.getId());
-                    loadStaffData();
-                } catch (Exception e) {
-                    showError("Error deleting staff", e.getMessage());
-                }
+                tasks.run("delete staff", () -> staffService.deleteStaff(staff.getId()), this::loadStaffData,
+                    e -> showError("Error deleting staff", e.getMessage()));
             }
         });
     }
@@ -294,7 +266,13 @@ public class StaffController {
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getClassLoader().getResource("fxml/add_staff.fxml"));
             loader.setControllerFactory(applicationContext::getBean);
-            Parent root = loader.load();
+            Parent root;
+            loadingAddStaffForm = true;
+            try {
+                root = loader.load();
+            } finally {
+                loadingAddStaffForm = false;
+            }
             
             Stage stage = new Stage();
             stage.setTitle("Add New Staff");
@@ -310,15 +288,7 @@ public class StaffController {
 
     @FXML
     private void handleSearch() {
-        String searchText = searchField.getText().toLowerCase();
-        filteredStaff.setPredicate(staff -> {
-            if (searchText == null || searchText.isEmpty()) {
-                return true;
-            }
-            return staff.getName().toLowerCase().contains(searchText) ||
-                   staff.getRole().toLowerCase().contains(searchText) ||
-                   staff.getDepartment().getName().toLowerCase().contains(searchText);
-        });
+        staffSearch.searchNow();
     }
 
     @FXML
@@ -339,7 +309,7 @@ public class StaffController {
         if (searchField != null) searchField.clear();
         
         // Show all staff
-        filteredStaff.setPredicate(staff -> true);
+        staffSearch.searchNow();
     }
 
     @FXML
@@ -432,6 +402,8 @@ public class StaffController {
     private TextField salaryField;
     @FXML
     private ComboBox<String> blockComboBox;
+    @FXML
+    private Button saveStaffButton;
 
     @FXML
     private void handleSaveStaff() {
@@ -476,19 +448,21 @@ public class StaffController {
             // TODO: Set department and block based on selected values
             staff.setSalary(new java.math.BigDecimal(salaryField.getText().trim()));
 
-            // Save staff member
-            staffService.createStaff(staff);
-
-            // Close the dialog
-            Stage stage = (Stage) nameField.getScene().getWindow();
-            stage.close();
-
-            // Show success message
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Success");
-            alert.setHeaderText(null);
-            alert.setContentText("Staff member added successfully");
-            alert.showAndWait();
+            addStaffTasks.submit("save staff", () -> staffService.createStaff(staff), saved -> {
+                // Close the dialog
+                Stage stage = (Stage) nameField.getScene().getWindow();
+                stage.close();
+
+                // Show success message
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Success");
+                alert.setHeaderText(null);
+                alert.setContentText("Staff member added successfully");
+                alert.showAndWait();
+            }, e -> {
+                LOGGER.log(Level.SEVERE, "Failed to save staff member", e);
+                showError("Error", "Failed to save staff member: " + e.getMessage());
+            });
 
         } catch (NumberFormatException e) {
             showError("Validation Error", "Invalid salary format");
@@ -60,6 +60,10 @@ public class StaffDetailsController implements Initializable {
     @Autowired
     private SpringFXMLLoader springFXMLLoader;
 
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
     private Staff currentStaff;
     private String previousPage;
     private Parent root;
@@ -75,6 +79,7 @@ public class StaffDetailsController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         try {
+            tasks = uiTaskRunner.scopeFor(gunsTable);
             setupGunsTable();
             System.out.println("[DEBUG] StaffDetailsController initialized successfully.");
         } catch (Exception e) {
@@ -149,16 +154,12 @@ public class StaffDetailsController implements Initializable {
     private void loadGuns() {
         if (currentStaff == null) return;
 
-        try {
-            List<Gun> assignedGuns = gunService.getGunsByAssignedStaffId(currentStaff.getId());
+        Integer staffId = currentStaff.getId();
+        tasks.refresh("load guns", () -> gunService.getGunsByAssignedStaffId(staffId), assignedGuns -> {
             ObservableList<Gun> gunsList = FXCollections.observableArrayList(assignedGuns);
             gunsTable.setItems(gunsList);
-            System.out.println("[DEBUG] Loaded " + assignedGuns.size() + " guns for staff ID: " + currentStaff.getId());
-        } catch (Exception e) {
-            System.err.println("[ERROR] Failed to load guns: " + e.getMessage());
-            e.printStackTrace();
-            showError("Data Loading Error", "Failed to load assigned guns", e.getMessage());
-        }
+            System.out.println("[DEBUG] Loaded " + assignedGuns.size() + " guns for staff ID: " + staffId);
+        }, e -> showError("Data Loading Error", "Failed to load assigned guns", e.getMessage()));
     }
 
     @FXML
@@ -174,7 +175,24 @@ public class StaffDetailsController implements Initializable {
                                                   currentStaff.getDepartment().getType() : "None"));
                 return;
             }
-            
+
+            // Filter out already assigned guns
+            Integer staffId = currentStaff.getId();
+            tasks.submit("load available guns", () -> {
+                List<Gun> availableGuns = gunService.getAllGuns();
+                availableGuns.removeAll(gunService.getGunsByAssignedStaffId(staffId));
+                return availableGuns;
+            }, this::showAssignGunDialog,
+                e -> showError("Error", "Failed to open gun assignment dialog", e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("[ERROR] Error in handleAssignGun: " + e.getMessage());
+            e.printStackTrace();
+            showError("Error", "Failed to open gun assignment dialog", e.getMessage());
+        }
+    }
+
+    private void showAssignGunDialog(List<Gun> availableGuns) {
+        try {
             // Create a dialog to select a gun to assign
             Dialog<Gun> dialog = new Dialog<>();
             dialog.setTitle("Assign Gun");
@@ -189,10 +207,6 @@ public class StaffDetailsController implements Initializable {
             content.setPadding(new javafx.geometry.Insets(10));
 
             ComboBox<Gun> gunComboBox = new ComboBox<>();
-            List<Gun> availableGuns = gunService.getAllGuns();
-            // Filter out already assigned guns
-            List<Gun> assignedGuns = gunService.getGunsByAssignedStaffId(currentStaff.getId());
-            availableGuns.removeAll(assignedGuns);
             gunComboBox.setItems(FXCollections.observableArrayList(availableGuns));
             gunComboBox.setCellFactory(param -> new ListCell<Gun>() {
                 @Override
@@ -222,20 +236,15 @@ public class StaffDetailsController implements Initializable {
             });
 
             Optional<Gun> result = dialog.showAndWait();
-            result.ifPresent(gun -> {
-                try {
-                    gunAssignmentService.assignGunToStaff(gun.getSerialNumber(), currentStaff.getId());
+            Integer staffId = currentStaff.getId();
+            result.ifPresent(gun -> tasks.submit("assign gun",
+                () -> gunAssignmentService.assignGunToStaff(gun.getSerialNumber(), staffId), assignment -> {
                     showSuccess("Gun assigned successfully");
                     loadGuns(); // Refresh the table
-                } catch (Exception e) {
-                    System.err.println("[ERROR] Failed to assign gun: " + e.getMessage());
-                    e.printStackTrace();
-                    showError("Assignment Error", "Failed to assign gun", e.getMessage());
-                }
-            });
+                }, e -> showError("Assignment Error", "Failed to assign gun", e.getMessage())));
 
         } catch (Exception e) {
-            System.err.println("[ERROR] Error in handleAssignGun: " + e.getMessage());
+            System.err.println("[ERROR] Error in showAssignGunDialog: " + e.getMessage());
             e.printStackTrace();
             showError("Error", "Failed to open gun assignment dialog", e.getMessage());
         }
@@ -249,24 +258,24 @@ public class StaffDetailsController implements Initializable {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                gunAssignmentService.removeGunAssignment(gun.getSerialNumber(), currentStaff.getId());
-                showSuccess("Gun assignment removed successfully");
-                loadGuns(); // Refresh the table
-            } catch (Exception e) {
-                System.err.println("[ERROR] Failed to remove gun assignment: " + e.getMessage());
-                e.printStackTrace();
-                showError("Removal Error", "Failed to remove gun assignment", e.getMessage());
-            }
+            tasks.run("remove gun assignment",
+                () -> gunAssignmentService.removeGunAssignment(gun.getSerialNumber(), currentStaff.getId()), () -> {
+                    showSuccess("Gun assignment removed successfully");
+                    loadGuns(); // Refresh the table
+                }, e -> showError("Removal Error", "Failed to remove gun assignment", e.getMessage()));
         }
     }
 
     @FXML
     private void handleEdit() {
+        // Get fresh staff data with all relationships
+        Integer staffId = currentStaff.getId();
+        tasks.submit("load staff", () -> staffService.getStaffByIdWithRelations(staffId), this::openEditDialog,
+            e -> showError("Edit Error", "Failed to open edit dialog", e.getMessage()));
+    }
+
+    private void openEditDialog(Staff freshStaff) {
         try {
-            // Get fresh staff data with all relationships
-            Staff freshStaff = staffService.getStaffByIdWithRelations(currentStaff.getId());
-            
             EditStaffController controller = springFXMLLoader.loadAndGetController("/fxml/edit-staff.fxml", EditStaffController.class);
             controller.setStaff(freshStaff);
 
@@ -276,12 +285,14 @@ public class StaffDetailsController implements Initializable {
             stage.showAndWait(); // Wait for the dialog to close
             
             // Get fresh staff data after editing and update the current staff
-            Staff updatedStaff = staffService.getStaffByIdWithRelations(currentStaff.getId());
-            this.currentStaff = updatedStaff;
-            
-            // Refresh the staff details after editing
-            loadStaffDetails();
-            loadGuns();
+            tasks.refresh("reload staff", () -> staffService.getStaffByIdWithRelations(freshStaff.getId()),
+                updatedStaff -> {
+                    this.currentStaff = updatedStaff;
+
+                    // Refresh the staff details after editing
+                    loadStaffDetails();
+                    loadGuns();
+                }, e -> showError("Data Loading Error", "Failed to reload staff details", e.getMessage()));
             
         } catch (Exception e) {
             System.err.println("[ERROR] Failed to open edit staff dialog: " + e.getMessage());
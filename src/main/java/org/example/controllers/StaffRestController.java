@@ -0,0 +1,36 @@
+package org.example.controllers;
+
+import org.example.services.MultiGetResult;
+import org.example.services.StaffService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/staff")
+@CrossOrigin(origins = "*")
+public class StaffRestController {
+
+    private final StaffService staffService;
+
+    @Autowired
+    public StaffRestController(StaffService staffService) {
+        this.staffService = staffService;
+    }
+
+    // ?ids=1,2,3 loads all staff in one query, in the requested order, and lists the ids not found
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResult<Map<String, Object>>> getStaffByIds(
+            @RequestParam List<Integer> ids, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(staffService.getStaffFieldsByIds(ids, fields));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getStaffById(@PathVariable Integer id,
+                                                            @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(staffService.getStaffFieldsById(id, fields));
+    }
+}
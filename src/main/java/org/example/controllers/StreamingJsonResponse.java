@@ -0,0 +1,56 @@
+package org.example.controllers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Writes a JSON array element by element as the source produces rows, so neither the full list nor a
+// full Jackson tree is ever built. The source pushes rows to the sink it is given, typically from a
+// database cursor inside a read-only transaction.
+public final class StreamingJsonResponse {
+
+    private static final Logger LOGGER = Logger.getLogger(StreamingJsonResponse.class.getName());
+    // Flushing now and then keeps the first bytes early without defeating gzip on the way out
+    private static final int FLUSH_EVERY = 500;
+
+    private StreamingJsonResponse() {
+    }
+
+    public static <T> ResponseEntity<StreamingResponseBody> array(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.createGenerator(outputStream);
+            // The servlet stream belongs to the container, and a broken stream must not be written to on close
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            int[] written = {0};
+            try {
+                generator.writeStartArray();
+                generator.flush();
+                source.accept(item -> {
+                    try {
+                        generator.writeObject(item);
+                        if (++written[0] % FLUSH_EVERY == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.close();
+            } catch (IOException | UncheckedIOException e) {
+                // The client went away; stop reading rows and let the source close its cursor
+                LOGGER.log(Level.FINE, "Streaming response aborted after " + written[0] + " elements", e);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
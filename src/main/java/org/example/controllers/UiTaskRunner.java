@@ -0,0 +1,52 @@
+package org.example.controllers;
+
+import jakarta.annotation.PreDestroy;
+import javafx.scene.Node;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The one place JavaFX controllers run database work. A small bounded pool of named daemon threads does
+// the work; results, errors and busy state are delivered back on the FX thread through a UiTaskScope,
+// which belongs to one view and drops its work when that view is closed.
+@Component
+public class UiTaskRunner {
+
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public UiTaskRunner(@Value("${javafx.ui-tasks.threads:4}") int threads,
+                        @Value("${javafx.ui-tasks.queue-capacity:200}") int queueCapacity) {
+        Assert.isTrue(threads > 0, "UI task thread count must be greater than 0");
+        Assert.isTrue(queueCapacity > 0, "UI task queue capacity must be greater than 0");
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "ui-task-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        // Idle threads go away between bursts of navigation
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // A scope for the view that contains the node; it closes when the node leaves its scene or its
+    // window is hidden, so controllers pass any node of the view they are initializing
+    public UiTaskScope scopeFor(Node view) {
+        Assert.notNull(view, "View node cannot be null");
+        UiTaskScope scope = new UiTaskScope(executor);
+        scope.closeWhenHidden(view);
+        return scope;
+    }
+}
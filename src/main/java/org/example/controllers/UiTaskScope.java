@@ -0,0 +1,241 @@
+package org.example.controllers;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Window;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Background work for one view. Work runs on the UiTaskRunner pool and its result is handed to the
+// success callback on the FX thread; nothing is delivered once the view is closed. Keyed work coalesces:
+// asking for a refresh while one is running queues exactly one more run with the latest request, so
+// repeated clicks or events never stack up queries. All methods are meant for the FX thread.
+public class UiTaskScope {
+
+    private static final Logger LOGGER = Logger.getLogger(UiTaskScope.class.getName());
+    private static final String VIEW_LISTENERS_KEY = UiTaskScope.class.getName() + ".listeners";
+
+    private final Executor executor;
+    private final Set<Task<?>> tasks = new HashSet<>();
+    private final Map<String, Request<?>> pendingByKey = new HashMap<>();
+    private final Set<String> runningKeys = new HashSet<>();
+    private final ReadOnlyBooleanWrapper busy = new ReadOnlyBooleanWrapper(false);
+    private BiConsumer<String, Throwable> errorHandler = (description, error) -> { };
+    private boolean closed;
+
+    UiTaskScope(Executor executor) {
+        this.executor = executor;
+    }
+
+    // True while any work of this view is queued or running; bind a progress indicator or disable buttons
+    public ReadOnlyBooleanProperty busyProperty() {
+        return busy.getReadOnlyProperty();
+    }
+
+    // Called on the FX thread for work that failed and has no error callback of its own
+    public void setErrorHandler(BiConsumer<String, Throwable> errorHandler) {
+        this.errorHandler = errorHandler != null ? errorHandler : (description, error) -> { };
+    }
+
+    // Loads and refreshes: a second request for the same key while one runs replaces any queued one
+    public <T> void refresh(String key, Callable<T> work, Consumer<T> onSuccess) {
+        refresh(key, work, onSuccess, null);
+    }
+
+    public <T> void refresh(String key, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        onFxThread(() -> {
+            Request<T> request = new Request<>(key, work, onSuccess, onError);
+            if (runningKeys.contains(key)) {
+                pendingByKey.put(key, request);
+            } else {
+                start(request);
+            }
+        });
+    }
+
+    // Writes and one-off lookups; every call runs
+    public <T> void submit(String description, Callable<T> work, Consumer<T> onSuccess) {
+        submit(description, work, onSuccess, null);
+    }
+
+    public <T> void submit(String description, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        onFxThread(() -> start(new Request<>(description, work, onSuccess, onError).unkeyed()));
+    }
+
+    // Writes with nothing to hand back, such as deletes
+    public void run(String description, Runnable work, Runnable onSuccess, Consumer<Throwable> onError) {
+        submit(description, () -> {
+            work.run();
+            return null;
+        }, ignored -> {
+            if (onSuccess != null) {
+                onSuccess.run();
+            }
+        }, onError);
+    }
+
+    // Queued work never starts and running work has its result dropped; running queries are not
+    // interrupted, since the drivers do not recover cleanly from it
+    public void close() {
+        onFxThread(() -> {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pendingByKey.clear();
+            runningKeys.clear();
+            for (Task<?> task : tasks) {
+                task.cancel(false);
+            }
+            tasks.clear();
+            busy.set(false);
+        });
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private <T> void start(Request<T> request) {
+        if (closed) {
+            return;
+        }
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return request.work.call();
+            }
+        };
+        task.setOnSucceeded(event -> {
+            finish(task, request);
+            if (!closed && request.onSuccess != null) {
+                request.onSuccess.accept(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            finish(task, request);
+            if (!closed) {
+                fail(request, task.getException());
+            }
+        });
+        task.setOnCancelled(event -> finish(task, request));
+
+        tasks.add(task);
+        if (request.keyed) {
+            runningKeys.add(request.description);
+        }
+        busy.set(true);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            finish(task, request);
+            fail(request, e);
+        }
+    }
+
+    private void finish(Task<?> task, Request<?> request) {
+        tasks.remove(task);
+        if (request.keyed) {
+            runningKeys.remove(request.description);
+            Request<?> next = pendingByKey.remove(request.description);
+            if (next != null) {
+                start(next);
+            }
+        }
+        busy.set(!tasks.isEmpty());
+    }
+
+    private void fail(Request<?> request, Throwable error) {
+        LOGGER.log(Level.WARNING, "UI task '" + request.description + "' failed", error);
+        if (request.onError != null) {
+            request.onError.accept(error);
+        } else {
+            errorHandler.accept(request.description, error);
+        }
+    }
+
+    // Watches the node's scene and window; the listeners on the shared window are weak and kept alive by
+    // the node, so views that come and go in the main window do not pile up listeners on it
+    void closeWhenHidden(Node view) {
+        ChangeListener<Boolean> showingListener = (observable, wasShowing, showing) -> {
+            if (!showing) {
+                close();
+            }
+        };
+        WeakChangeListener<Boolean> weakShowingListener = new WeakChangeListener<>(showingListener);
+        ChangeListener<Window> windowListener = (observable, oldWindow, newWindow) -> {
+            if (oldWindow != null) {
+                oldWindow.showingProperty().removeListener(weakShowingListener);
+            }
+            if (newWindow != null) {
+                newWindow.showingProperty().addListener(weakShowingListener);
+            }
+        };
+        WeakChangeListener<Window> weakWindowListener = new WeakChangeListener<>(windowListener);
+        ChangeListener<Scene> sceneListener = (observable, oldScene, newScene) -> {
+            if (oldScene != null) {
+                oldScene.windowProperty().removeListener(weakWindowListener);
+                if (oldScene.getWindow() != null) {
+                    oldScene.getWindow().showingProperty().removeListener(weakShowingListener);
+                }
+            }
+            if (newScene == null) {
+                close();
+                return;
+            }
+            newScene.windowProperty().addListener(weakWindowListener);
+            if (newScene.getWindow() != null) {
+                newScene.getWindow().showingProperty().addListener(weakShowingListener);
+            }
+        };
+        view.getProperties().put(VIEW_LISTENERS_KEY, new Object[] {showingListener, windowListener});
+        view.sceneProperty().addListener(sceneListener);
+        if (view.getScene() != null) {
+            sceneListener.changed(view.sceneProperty(), null, view.getScene());
+        }
+    }
+
+    private void onFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+
+    private static final class Request<T> {
+        private final String description;
+        private final Callable<T> work;
+        private final Consumer<T> onSuccess;
+        private final Consumer<Throwable> onError;
+        private boolean keyed = true;
+
+        private Request(String description, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+            this.description = description;
+            this.work = work;
+            this.onSuccess = onSuccess;
+            this.onError = onError;
+        }
+
+        private Request<T> unkeyed() {
+            keyed = false;
+            return this;
+        }
+    }
+}
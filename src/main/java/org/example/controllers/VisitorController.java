@@ -1,19 +1,23 @@
 package org.example.controllers;
 
 import javafx.beans.property.ReadOnlyStringWrapper;
-import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.models.VisitorLog;
 import org.example.models.Visitor;
 import org.example.models.Prisoner;
+import org.example.models.VisitSlot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.example.services.VisitorLogService;
 import org.example.services.VisitorService;
 import org.example.services.PrisonerService;
+import org.example.services.VisitSlotService;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -29,6 +33,11 @@ public class VisitorController {
     private final VisitorLogService visitorLogService;
     private final VisitorService visitorService;
     private final PrisonerService prisonerService;
+    private final VisitSlotService visitSlotService;
+    private final ObjectMapper objectMapper;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
+    private PagedTableItems<VisitorLog> visitorLogs;
 
     @FXML private TableView<VisitorLog> visitorTable;
     @FXML private TableColumn<VisitorLog, String> visitorNameCol;
@@ -38,49 +47,57 @@ public class VisitorController {
     @FXML private TableColumn<VisitorLog, Void> actionsCol;
 
     @Autowired
-    public VisitorController(VisitorLogService visitorLogService, VisitorService visitorService, PrisonerService prisonerService) {
+    public VisitorController(VisitorLogService visitorLogService, VisitorService visitorService, PrisonerService prisonerService,
+                             VisitSlotService visitSlotService, ObjectMapper objectMapper, UiTaskRunner uiTaskRunner) {
         this.visitorLogService = visitorLogService;
         this.visitorService = visitorService;
         this.prisonerService = prisonerService;
+        this.visitSlotService = visitSlotService;
+        this.objectMapper = objectMapper;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(visitorTable);
+        tasks.setErrorHandler((description, e) -> showError("Failed to " + description + ": " + e.getMessage()));
+        // Newest visits first; the partitioned logs can only be paged in date order
+        visitorLogs = PagedTableItems.forTable(tasks, visitorTable, "visitor logs",
+            filter -> visitorLogService.countVisitorLogs(), visitorLogService::getVisitorLogPage,
+            VisitorLogService.PAGE_SORT_FIELD, false);
+        visitorLogs.setOnError(e -> showError("Failed to load visitor logs: " + e.getMessage()));
         setupTableColumns();
         loadVisitors();
     }
 
     private void setupTableColumns() {
-        visitorNameCol.setCellValueFactory(cellData -> {
-            VisitorLog log = cellData.getValue();
-            try {
-                Visitor visitor = visitorService.getVisitorById(log.getVisitorId()).orElse(null);
-                return new ReadOnlyStringWrapper(visitor != null ? visitor.getName() : "Unknown");
-            } catch (Exception e) {
-                return new ReadOnlyStringWrapper("Error loading visitor");
-            }
-        });
-
-        relationshipCol.setCellValueFactory(cellData -> 
-            new ReadOnlyStringWrapper(cellData.getValue().getRelationship()));
-
-        prisonerNameCol.setCellValueFactory(cellData -> {
-            VisitorLog log = cellData.getValue();
-            try {
-                Prisoner prisoner = prisonerService.getPrisonerById(log.getPrisonerId());
-                return new ReadOnlyStringWrapper(prisoner != null ? prisoner.getName() : "Unknown");
-            } catch (Exception e) {
-                return new ReadOnlyStringWrapper("Error loading prisoner");
-            }
-        });
-
-        dateCol.setCellValueFactory(cellData ->
-            new ReadOnlyStringWrapper(cellData.getValue().getDate().toString()));
+        BatchColumnResolver<VisitorLog, Integer, Visitor> visitorResolver = BatchColumnResolver.forTable(
+            tasks, visitorTable, VisitorLog::getVisitorId, visitorService::getVisitorsByIds);
+        visitorNameCol.setCellValueFactory(visitorResolver.column(Visitor::getName, "Unknown"));
+
+        // Rows of pages that are still loading are null and stay blank
+        relationshipCol.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(
+            cellData.getValue() != null ? cellData.getValue().getRelationship() : null));
+
+        BatchColumnResolver<VisitorLog, Integer, Prisoner> prisonerResolver = BatchColumnResolver.forTable(
+            tasks, visitorTable, VisitorLog::getPrisonerId, prisonerService::getPrisonersByIds);
+        prisonerNameCol.setCellValueFactory(prisonerResolver.column(Prisoner::getName, "Unknown"));
+
+        dateCol.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(
+            cellData.getValue() != null ? cellData.getValue().getDate().toString() : null));
+        visitorLogs.sortBy(dateCol, VisitorLogService.PAGE_SORT_FIELD);
     }
 
     private void loadVisitors() {
-        List<VisitorLog> visitorLogs = visitorLogService.getAllVisitorLogs();
-        visitorTable.setItems(FXCollections.observableArrayList(visitorLogs));
+        visitorLogs.reload();
+    }
+
+    private void showError(String message) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
     }
 
     @FXML
@@ -99,6 +116,12 @@ public class VisitorController {
         return ResponseEntity.ok(visitorLogService.getAllVisitorLogs());
     }
 
+    // Every partition and the archive, written as they are read instead of collected first
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamVisitorLogs() {
+        return StreamingJsonResponse.array(objectMapper, sink -> visitorLogService.forEachVisitorLog(sink::accept));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<VisitorLog> getVisitorLogById(@PathVariable String id) {
         return visitorLogService.getVisitorLogById(id)
@@ -193,7 +216,6 @@ public class VisitorController {
             existingLog.setVisitorId(visitor.getId());
             existingLog.setPrisonerId(prisoner.getId());
             existingLog.setDate(request.getVisitDate());
-            existingLog.setDuration(60); // Default duration
             existingLog.setRelationship(visitor.getRelationship());
             existingLog.setNotes(request.getComments());
 
@@ -224,6 +246,28 @@ public class VisitorController {
         return ResponseEntity.ok(visitorLogService.completeVisitorLog(id));
     }
 
+    @GetMapping("/slots/available")
+    public ResponseEntity<List<VisitSlot>> getAvailableSlots(
+            @RequestParam Integer prisonerId,
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(defaultValue = "5") int limit) {
+        Prisoner prisoner = prisonerService.getPrisonerById(prisonerId);
+        return ResponseEntity.ok(visitorLogService.getAvailableSlots(prisoner, from != null ? from : LocalDate.now(), limit));
+    }
+
+    @GetMapping("/slots")
+    public ResponseEntity<List<VisitSlot>> getSlots(@RequestParam Integer prisonId, @RequestParam LocalDate date) {
+        return ResponseEntity.ok(visitSlotService.getSlots(prisonId, date));
+    }
+
+    @PutMapping("/slots/capacity")
+    public ResponseEntity<List<VisitSlot>> setDayCapacity(
+            @RequestParam Integer prisonId,
+            @RequestParam LocalDate date,
+            @RequestParam int capacity) {
+        return ResponseEntity.ok(visitSlotService.setDayCapacity(prisonId, date, capacity));
+    }
+
     // DTO classes
     private static class VisitorLogRequest {
         private String visitorId;
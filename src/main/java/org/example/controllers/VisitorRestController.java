@@ -0,0 +1,38 @@
+package org.example.controllers;
+
+import org.example.services.MultiGetResult;
+import org.example.services.VisitorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/visitors")
+@CrossOrigin(origins = "*")
+public class VisitorRestController {
+
+    private final VisitorService visitorService;
+
+    @Autowired
+    public VisitorRestController(VisitorService visitorService) {
+        this.visitorService = visitorService;
+    }
+
+    // ?ids=1,2,3 loads all visitors in one query, in the requested order, and lists the ids not found
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResult<Map<String, Object>>> getVisitorsByIds(
+            @RequestParam List<Integer> ids, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(visitorService.getVisitorFieldsByIds(ids, fields));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getVisitorById(@PathVariable Integer id,
+                                                              @RequestParam(required = false) List<String> fields) {
+        return visitorService.getVisitorFieldsById(id, fields)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
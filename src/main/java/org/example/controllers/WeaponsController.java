@@ -1,6 +1,5 @@
 package org.example.controllers;
 
-import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -8,19 +7,22 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import org.example.models.Gun;
 import org.example.models.GunAssignment;
+import org.example.models.GunMaintenanceRecord;
 import org.example.models.Staff;
 import org.example.services.GunService;
 import org.example.services.GunAssignmentService;
+import org.example.services.GunMaintenanceService;
+import org.example.services.MultiGetResult;
 import org.example.services.StaffService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.HashMap;
 
 @Component
 @RestController
@@ -31,6 +33,9 @@ public class WeaponsController {
     private final GunService gunService;
     private final GunAssignmentService gunAssignmentService;
     private final StaffService staffService;
+    private final GunMaintenanceService gunMaintenanceService;
+    private final UiTaskRunner uiTaskRunner;
+    private UiTaskScope tasks;
 
     @FXML private TableView<Gun> weaponsTable;
     @FXML private TableColumn<Gun, String> serialNumberCol;
@@ -41,14 +46,19 @@ public class WeaponsController {
     @FXML private TableColumn<Gun, Void> actionsCol;
 
     @Autowired
-    public WeaponsController(GunService gunService, GunAssignmentService gunAssignmentService, StaffService staffService) {
+    public WeaponsController(GunService gunService, GunAssignmentService gunAssignmentService, StaffService staffService,
+                             GunMaintenanceService gunMaintenanceService, UiTaskRunner uiTaskRunner) {
         this.gunService = gunService;
         this.gunAssignmentService = gunAssignmentService;
         this.staffService = staffService;
+        this.gunMaintenanceService = gunMaintenanceService;
+        this.uiTaskRunner = uiTaskRunner;
     }
 
     @FXML
     public void initialize() {
+        tasks = uiTaskRunner.scopeFor(weaponsTable);
+        tasks.setErrorHandler((description, e) -> showError("Failed to " + description + ": " + e.getMessage()));
         setupTableColumns();
         loadWeapons();
     }
@@ -58,29 +68,25 @@ public class WeaponsController {
         typeCol.setCellValueFactory(new PropertyValueFactory<>("type"));
         nameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
 
-        assignedToCol.setCellValueFactory(cellData -> {
-            String serialNumber = cellData.getValue().getSerialNumber();
-            List<GunAssignment> assignments = gunAssignmentService.getGunAssignmentsByGunSerialNumber(serialNumber);
-            if (!assignments.isEmpty()) {
-                return new ReadOnlyStringWrapper(assignments.get(0).getStaff().getName());
-            }
-            return new ReadOnlyStringWrapper("Unassigned");
-        });
-
-        returnedCol.setCellValueFactory(cellData -> {
-            String serialNumber = cellData.getValue().getSerialNumber();
-            List<GunAssignment> assignments = gunAssignmentService.getGunAssignmentsByGunSerialNumber(serialNumber);
-            if (!assignments.isEmpty()) {
-                return new ReadOnlyStringWrapper(assignments.get(0).isReturned() ? "Yes" : "No");
-            }
-            return new ReadOnlyStringWrapper("Yes");
-        });
+        // Both columns read the same assignments, fetched once per table load
+        BatchColumnResolver<Gun, String, List<GunAssignment>> assignmentResolver = BatchColumnResolver.forTable(
+            tasks, weaponsTable, Gun::getSerialNumber, gunAssignmentService::getGunAssignmentsByGunSerialNumbers);
+        // A gun's history can hold returned assignments; only the one not yet returned counts
+        assignedToCol.setCellValueFactory(assignmentResolver.column(assignments -> assignments.stream()
+            .filter(assignment -> !assignment.isReturned())
+            .map(assignment -> assignment.getStaff().getName())
+            .findFirst()
+            .orElse("Unassigned"), "Unassigned"));
+        returnedCol.setCellValueFactory(assignmentResolver.column(
+            assignments -> assignments.stream().anyMatch(assignment -> !assignment.isReturned()) ? "No" : "Yes",
+            "Yes"));
     }
 
     private void loadWeapons() {
-        List<Gun> guns = gunService.getAllGuns();
-        ObservableList<Gun> weapons = FXCollections.observableArrayList(guns);
-        weaponsTable.setItems(weapons);
+        tasks.refresh("load weapons", gunService::getAllGuns, guns -> {
+            ObservableList<Gun> weapons = FXCollections.observableArrayList(guns);
+            weaponsTable.setItems(weapons);
+        });
     }
 
     @FXML
@@ -96,12 +102,16 @@ public class WeaponsController {
             return;
         }
 
-        List<Staff> availableStaff = staffService.getAllStaff();
-        if (availableStaff.isEmpty()) {
-            showError("No staff members available for assignment");
-            return;
-        }
+        tasks.submit("load staff", staffService::getAllStaff, availableStaff -> {
+            if (availableStaff.isEmpty()) {
+                showError("No staff members available for assignment");
+                return;
+            }
+            showAssignDialog(selectedGun, availableStaff);
+        });
+    }
 
+    private void showAssignDialog(Gun selectedGun, List<Staff> availableStaff) {
         Dialog<Staff> dialog = new Dialog<>();
         dialog.setTitle("Assign Gun");
         dialog.setHeaderText("Select staff member to assign gun: " + selectedGun.getSerialNumber());
@@ -126,15 +136,11 @@ public class WeaponsController {
         });
 
         Optional<Staff> result = dialog.showAndWait();
-        result.ifPresent(staff -> {
-            try {
-                gunAssignmentService.assignGunToStaff(selectedGun.getSerialNumber(), staff.getId());
+        result.ifPresent(staff -> tasks.submit("assign gun",
+            () -> gunAssignmentService.assignGunToStaff(selectedGun.getSerialNumber(), staff.getId()), assignment -> {
                 loadWeapons();
                 showSuccess("Gun assigned successfully");
-            } catch (Exception e) {
-                showError("Error assigning gun: " + e.getMessage());
-            }
-        });
+            }, e -> showError("Error assigning gun: " + e.getMessage())));
     }
 
     private void showError(String message) {
@@ -160,8 +166,15 @@ public class WeaponsController {
 
     // REST Endpoints
     @GetMapping
-    public ResponseEntity<List<Gun>> getAllGuns() {
-        return ResponseEntity.ok(gunService.getAllGuns());
+    public ResponseEntity<List<Map<String, Object>>> getAllGuns(@RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(gunService.getGunFields(fields));
+    }
+
+    // ?ids=SN1,SN2 loads all guns in one query, in the requested order, and lists the unknown serial numbers
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResult<Map<String, Object>>> getGunsBySerialNumbers(
+            @RequestParam List<String> ids, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(gunService.getGunFieldsBySerialNumbers(ids, fields));
     }
 
     @GetMapping("/{serialNumber}")
@@ -170,20 +183,23 @@ public class WeaponsController {
     }
 
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Gun>> getGunsByType(@PathVariable String type) {
-        return ResponseEntity.ok(gunService.getGunsByType(type));
+    public ResponseEntity<List<Map<String, Object>>> getGunsByType(
+            @PathVariable String type, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(gunService.getGunFieldsByType(type, fields));
     }
 
     @GetMapping("/staff/{staffId}")
-    public ResponseEntity<List<Gun>> getGunsByStaffId(@PathVariable Integer staffId) {
-        return ResponseEntity.ok(gunService.getGunsByAssignedStaffId(staffId));
+    public ResponseEntity<List<Map<String, Object>>> getGunsByStaffId(
+            @PathVariable Integer staffId, @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(gunService.getGunFieldsByAssignedStaffId(staffId, fields));
     }
 
     @GetMapping("/staff/{staffId}/type/{type}")
-    public ResponseEntity<List<Gun>> getGunsByStaffIdAndType(
+    public ResponseEntity<List<Map<String, Object>>> getGunsByStaffIdAndType(
             @PathVariable Integer staffId,
-            @PathVariable String type) {
-        return ResponseEntity.ok(gunService.getGunsByAssignedStaffIdAndType(staffId, type));
+            @PathVariable String type,
+            @RequestParam(required = false) List<String> fields) {
+        return ResponseEntity.ok(gunService.getGunFieldsByAssignedStaffIdAndType(staffId, type, fields));
     }
 
     @PostMapping
@@ -221,20 +237,34 @@ public class WeaponsController {
     }
 
     @GetMapping("/maintenance/needed")
-    public ResponseEntity<List<Gun>> getGunsNeedingMaintenance() {
-        return ResponseEntity.ok(gunService.getGunsByAssignedStaffId(null));
+    public ResponseEntity<List<Gun>> getGunsNeedingMaintenance(@RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(gunService.getGunsDueForMaintenance(limit));
     }
 
     @GetMapping("/stats/type")
     public ResponseEntity<Map<String, Long>> getGunStatisticsByType() {
-        Map<String, Long> stats = new HashMap<>();
-        stats.put("total", gunService.getGunCountByType(""));
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(gunService.getGunCountsByType());
     }
 
     @GetMapping("/maintenance/count")
     public ResponseEntity<Long> getGunsNeedingMaintenanceCount() {
-        return ResponseEntity.ok(gunService.getGunCountByAssignedStaffId(null));
+        return ResponseEntity.ok(gunService.getGunsDueForMaintenanceCount());
+    }
+
+    @GetMapping("/{serialNumber}/maintenance")
+    public ResponseEntity<GunMaintenanceRecord> getMaintenanceRecord(@PathVariable String serialNumber) {
+        return ResponseEntity.ok(gunMaintenanceService.getMaintenanceRecord(serialNumber));
+    }
+
+    @PostMapping("/{serialNumber}/maintenance/usage")
+    public ResponseEntity<GunMaintenanceRecord> recordUsage(@PathVariable String serialNumber, @RequestBody UsageRequest request) {
+        return ResponseEntity.ok(gunMaintenanceService.recordUsage(serialNumber, request.getRounds()));
+    }
+
+    @PostMapping("/{serialNumber}/maintenance/service")
+    public ResponseEntity<GunMaintenanceRecord> recordService(@PathVariable String serialNumber, @RequestBody ServiceRequest request) {
+        LocalDate serviceDate = request.getServiceDate() != null ? request.getServiceDate() : LocalDate.now();
+        return ResponseEntity.ok(gunMaintenanceService.recordService(serialNumber, serviceDate));
     }
 
     // DTO classes
@@ -267,4 +297,28 @@ public class WeaponsController {
             this.name = name;
         }
     }
+
+    private static class UsageRequest {
+        private int rounds;
+
+        public int getRounds() {
+            return rounds;
+        }
+
+        public void setRounds(int rounds) {
+            this.rounds = rounds;
+        }
+    }
+
+    private static class ServiceRequest {
+        private LocalDate serviceDate;
+
+        public LocalDate getServiceDate() {
+            return serviceDate;
+        }
+
+        public void setServiceDate(LocalDate serviceDate) {
+            this.serviceDate = serviceDate;
+        }
+    }
 }
@@ -12,6 +12,7 @@ import javafx.collections.transformation.FilteredList;
 import javafx.scene.Parent;
 import javafx.scene.layout.VBox;
 import org.example.models.Gun;
+import org.example.models.GunAssignment;
 import org.example.models.Staff;
 import org.example.services.GunService;
 import org.example.services.GunAssignmentService;
@@ -51,6 +52,11 @@ public class WeaponsManagementController implements Initializable {
     @Autowired
     private SpringFXMLLoader springFXMLLoader;
 
+    @Autowired
+    private UiTaskRunner uiTaskRunner;
+
+    private UiTaskScope tasks;
+
     private ObservableList<Gun> allWeapons;
     private FilteredList<Gun> filteredWeapons;
     private Parent root;
@@ -65,6 +71,7 @@ public class WeaponsManagementController implements Initializable {
 
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
+        tasks = uiTaskRunner.scopeFor(weaponsTable);
         setupTable();
         setupSearchAndFilter();
         loadWeapons();
@@ -77,19 +84,13 @@ public class WeaponsManagementController implements Initializable {
         typeColumn.setCellValueFactory(new PropertyValueFactory<>("type"));
         
         // Set up assigned to column
-        assignedToColumn.setCellValueFactory(cellData -> {
-            Gun gun = cellData.getValue();
-            try {
-                List<Staff> assignedStaff = gunAssignmentService.getStaffByGunId(gun.getSerialNumber());
-                if (assignedStaff.isEmpty()) {
-                    return new javafx.beans.property.SimpleStringProperty("Not Assigned");
-                } else {
-                    return new javafx.beans.property.SimpleStringProperty(assignedStaff.get(0).getName());
-                }
-            } catch (Exception e) {
-                return new javafx.beans.property.SimpleStringProperty("Error");
-            }
-        });
+        BatchColumnResolver<Gun, String, List<GunAssignment>> assignmentResolver = BatchColumnResolver.forTable(
+            tasks, weaponsTable, Gun::getSerialNumber, gunAssignmentService::getGunAssignmentsByGunSerialNumbers);
+        assignedToColumn.setCellValueFactory(assignmentResolver.column(assignments -> assignments.stream()
+            .filter(assignment -> !assignment.isReturned())
+            .map(assignment -> assignment.getStaff().getName())
+            .findFirst()
+            .orElse("Not Assigned"), "Not Assigned"));
 
         // Set up actions column
         actionsColumn.setCellFactory(col -> new TableCell<Gun, Void>() {
@@ -143,6 +144,9 @@ public class WeaponsManagementController implements Initializable {
     }
 
     private void filterWeapons() {
+        if (filteredWeapons == null) {
+            return; // Applied once the weapons have loaded
+        }
         String searchText = searchField.getText().toLowerCase();
         String selectedType = filterTypeComboBox.getValue();
 
@@ -158,16 +162,13 @@ public class WeaponsManagementController implements Initializable {
     }
 
     private void loadWeapons() {
-        try {
-            List<Gun> weapons = gunService.getAllGuns();
+        tasks.refresh("load weapons", gunService::getAllGuns, weapons -> {
             allWeapons = FXCollections.observableArrayList(weapons);
             filteredWeapons = new FilteredList<>(allWeapons, p -> true);
             weaponsTable.setItems(filteredWeapons);
+            filterWeapons();
             LOGGER.info("Loaded " + weapons.size() + " weapons");
-        } catch (Exception e) {
-            LOGGER.log(Level.SEVERE, "Error loading weapons", e);
-            showError("Error", "Failed to load weapons", e.getMessage());
-        }
+        }, e -> showError("Error", "Failed to load weapons", e.getMessage()));
     }
 
     @FXML
@@ -225,16 +226,10 @@ public class WeaponsManagementController implements Initializable {
             });
 
             Optional<Gun> result = dialog.showAndWait();
-            result.ifPresent(weapon -> {
-                try {
-                    gunService.createGun(weapon);
-                    showSuccess("Weapon added successfully");
-                    loadWeapons(); // Refresh the table
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Error adding weapon", e);
-                    showError("Error", "Failed to add weapon", e.getMessage());
-                }
-            });
+            result.ifPresent(weapon -> tasks.submit("add weapon", () -> gunService.createGun(weapon), created -> {
+                showSuccess("Weapon added successfully");
+                loadWeapons(); // Refresh the table
+            }, e -> showError("Error", "Failed to add weapon", e.getMessage())));
 
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error opening add weapon dialog", e);
@@ -297,26 +292,20 @@ public class WeaponsManagementController implements Initializable {
             });
 
             Optional<Gun> result = dialog.showAndWait();
-            result.ifPresent(updatedWeapon -> {
-                try {
-                    // Use the original serial number for the update
-                    gunService.updateGun(weapon.getSerialNumber(), updatedWeapon);
+            // Use the original serial number for the update
+            result.ifPresent(updatedWeapon -> tasks.submit("update weapon",
+                () -> gunService.updateGun(weapon.getSerialNumber(), updatedWeapon), saved -> {
                     showSuccess("Weapon updated successfully");
-                    
+
                     // Update the weapon in the observable list
                     int index = allWeapons.indexOf(weapon);
                     if (index != -1) {
                         allWeapons.set(index, updatedWeapon);
                     }
-                    
+
                     // Refresh the table
                     weaponsTable.refresh();
-                    
-                } catch (Exception e) {
-                    LOGGER.log(Level.SEVERE, "Error updating weapon", e);
-                    showError("Error", "Failed to update weapon", e.getMessage());
-                }
-            });
+                }, e -> showError("Error", "Failed to update weapon", e.getMessage())));
 
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error opening edit weapon dialog", e);
@@ -332,9 +321,14 @@ public class WeaponsManagementController implements Initializable {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
+            tasks.submit("delete weapon", () -> {
                 // Check if weapon is assigned to any staff
                 List<Staff> assignedStaff = gunAssignmentService.getStaffByGunId(weapon.getSerialNumber());
+                if (assignedStaff.isEmpty()) {
+                    gunService.deleteGun(weapon.getSerialNumber());
+                }
+                return assignedStaff;
+            }, assignedStaff -> {
                 if (!assignedStaff.isEmpty()) {
                     showError("Cannot Delete", 
                              "Weapon is currently assigned", 
@@ -343,19 +337,14 @@ public class WeaponsManagementController implements Initializable {
                              ". Please remove the assignment first.");
                     return;
                 }
-                
-                gunService.deleteGun(weapon.getSerialNumber());
                 showSuccess("Weapon deleted successfully");
-                
+
                 // Remove the weapon from the observable list
                 allWeapons.remove(weapon);
-                
+
                 // Refresh the table
                 weaponsTable.refresh();
-            } catch (Exception e) {
-                LOGGER.log(Level.SEVERE, "Error deleting weapon", e);
-                showError("Error", "Failed to delete weapon", e.getMessage());
-            }
+            }, e -> showError("Error", "Failed to delete weapon", e.getMessage()));
         }
     }
 
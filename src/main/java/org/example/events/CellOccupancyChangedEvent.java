@@ -0,0 +1,26 @@
+package org.example.events;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+// Published when prisoners are placed in, moved between or removed from cells; carries every cell
+// whose head count may have changed
+public class CellOccupancyChangedEvent {
+
+    private final Set<Integer> cellIds;
+
+    public CellOccupancyChangedEvent(Collection<Integer> cellIds) {
+        if (cellIds == null) {
+            throw new IllegalArgumentException("Cell IDs cannot be null");
+        }
+        Set<Integer> ids = new LinkedHashSet<>(cellIds);
+        ids.removeIf(Objects::isNull);
+        this.cellIds = Set.copyOf(ids);
+    }
+
+    public Set<Integer> getCellIds() {
+        return cellIds;
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.events;
+
+// Published by ExpenseService for every write; before is null on create, after is null on delete
+public class ExpenseChangedEvent {
+
+    private final ExpenseSnapshot before;
+    private final ExpenseSnapshot after;
+
+    public ExpenseChangedEvent(ExpenseSnapshot before, ExpenseSnapshot after) {
+        if (before == null && after == null) {
+            throw new IllegalArgumentException("Expense change must have a before or after state");
+        }
+        this.before = before;
+        this.after = after;
+    }
+
+    public ExpenseSnapshot getBefore() {
+        return before;
+    }
+
+    public ExpenseSnapshot getAfter() {
+        return after;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.events;
+
+import org.example.models.Expense;
+
+import java.time.LocalDate;
+
+// Immutable copy of the fields the expense rollups are keyed on, taken before and after a write
+public class ExpenseSnapshot {
+
+    private final Integer expenseId;
+    private final Integer departmentId;
+    private final String status;
+    private final double amount;
+    private final LocalDate dueDate;
+
+    private ExpenseSnapshot(Integer expenseId, Integer departmentId, String status, double amount, LocalDate dueDate) {
+        this.expenseId = expenseId;
+        this.departmentId = departmentId;
+        this.status = status;
+        this.amount = amount;
+        this.dueDate = dueDate;
+    }
+
+    public static ExpenseSnapshot of(Expense expense) {
+        return new ExpenseSnapshot(expense.getId(), expense.getDepartment().getId(), expense.getStatus(),
+            expense.getAmount(), expense.getDueDate());
+    }
+
+    public ExpenseSnapshot withStatus(String newStatus) {
+        return new ExpenseSnapshot(expenseId, departmentId, newStatus, amount, dueDate);
+    }
+
+    public Integer getExpenseId() {
+        return expenseId;
+    }
+
+    public Integer getDepartmentId() {
+        return departmentId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public LocalDate getDueDate() {
+        return dueDate;
+    }
+}
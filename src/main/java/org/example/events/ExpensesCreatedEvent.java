@@ -0,0 +1,21 @@
+package org.example.events;
+
+import java.util.List;
+
+// Published once for each batch of expenses created together, such as a CSV import batch, in place of one
+// ExpenseChangedEvent per expense
+public class ExpensesCreatedEvent {
+
+    private final List<ExpenseSnapshot> expenses;
+
+    public ExpensesCreatedEvent(List<ExpenseSnapshot> expenses) {
+        if (expenses == null) {
+            throw new IllegalArgumentException("Expenses cannot be null");
+        }
+        this.expenses = List.copyOf(expenses);
+    }
+
+    public List<ExpenseSnapshot> getExpenses() {
+        return expenses;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.events;
+
+import java.util.List;
+
+// Published once per department for each batch of expenses the overdue scanner flips to OVERDUE
+public class ExpensesOverdueEvent {
+
+    private final Integer departmentId;
+    private final List<Integer> expenseIds;
+    private final double amount;
+
+    public ExpensesOverdueEvent(Integer departmentId, List<Integer> expenseIds, double amount) {
+        this.departmentId = departmentId;
+        this.expenseIds = List.copyOf(expenseIds);
+        this.amount = amount;
+    }
+
+    public Integer getDepartmentId() {
+        return departmentId;
+    }
+
+    public List<Integer> getExpenseIds() {
+        return expenseIds;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+}
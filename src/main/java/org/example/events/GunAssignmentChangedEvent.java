@@ -0,0 +1,30 @@
+package org.example.events;
+
+// Published by GunAssignmentService when a gun is assigned to, returned by or unassigned from a staff member
+public class GunAssignmentChangedEvent {
+
+    private final String serialNumber;
+    private final Integer staffId;
+    private final boolean assigned;
+
+    public GunAssignmentChangedEvent(String serialNumber, Integer staffId, boolean assigned) {
+        if (serialNumber == null) {
+            throw new IllegalArgumentException("Serial number cannot be null");
+        }
+        this.serialNumber = serialNumber;
+        this.staffId = staffId;
+        this.assigned = assigned;
+    }
+
+    public String getSerialNumber() {
+        return serialNumber;
+    }
+
+    public Integer getStaffId() {
+        return staffId;
+    }
+
+    public boolean isAssigned() {
+        return assigned;
+    }
+}
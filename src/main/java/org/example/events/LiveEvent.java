@@ -0,0 +1,54 @@
+package org.example.events;
+
+import java.util.Map;
+
+// One delta pushed to /api/events subscribers. The id is a per-process sequence; the SSE id clients hand back as
+// Last-Event-ID also carries the hub's start-up epoch (see LiveEventHub). prisonId and blockId are what
+// subscriptions filter on and may be null when the change is not tied to a block.
+public class LiveEvent {
+
+    private final long id;
+    private final String type;
+    private final Integer prisonId;
+    private final Integer blockId;
+    private final Map<String, Object> data;
+
+    public LiveEvent(long id, String type, Integer prisonId, Integer blockId, Map<String, Object> data) {
+        if (type == null) {
+            throw new IllegalArgumentException("Event type cannot be null");
+        }
+        this.id = id;
+        this.type = type;
+        this.prisonId = prisonId;
+        this.blockId = blockId;
+        this.data = data == null ? Map.of() : data;
+    }
+
+    // A null filter matches everything; a block filter only matches events tied to that block
+    public boolean matches(Integer prisonFilter, Integer blockFilter) {
+        if (prisonFilter != null && !prisonFilter.equals(prisonId)) {
+            return false;
+        }
+        return blockFilter == null || blockFilter.equals(blockId);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Integer getPrisonId() {
+        return prisonId;
+    }
+
+    public Integer getBlockId() {
+        return blockId;
+    }
+
+    public Map<String, Object> getData() {
+        return data;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.events;
+
+// Published by PrisonerService for every write; name is null when the prisoner was deleted
+public class PrisonerChangedEvent {
+
+    private final Integer prisonerId;
+    private final String name;
+
+    public PrisonerChangedEvent(Integer prisonerId, String name) {
+        if (prisonerId == null) {
+            throw new IllegalArgumentException("Prisoner ID cannot be null");
+        }
+        this.prisonerId = prisonerId;
+        this.name = name;
+    }
+
+    public Integer getPrisonerId() {
+        return prisonerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isDeleted() {
+        return name == null;
+    }
+}
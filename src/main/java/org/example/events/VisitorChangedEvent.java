@@ -0,0 +1,28 @@
+package org.example.events;
+
+// Published by VisitorService for every write; name is null when the visitor was deleted
+public class VisitorChangedEvent {
+
+    private final Integer visitorId;
+    private final String name;
+
+    public VisitorChangedEvent(Integer visitorId, String name) {
+        if (visitorId == null) {
+            throw new IllegalArgumentException("Visitor ID cannot be null");
+        }
+        this.visitorId = visitorId;
+        this.name = name;
+    }
+
+    public Integer getVisitorId() {
+        return visitorId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isDeleted() {
+        return name == null;
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.events;
+
+// Published by VisitorLogService when a visit is booked, changes status or is deleted; status is null
+// when the log was deleted
+public class VisitorLogStatusChangedEvent {
+
+    private final String visitorLogId;
+    private final Integer prisonerId;
+    private final String status;
+
+    public VisitorLogStatusChangedEvent(String visitorLogId, Integer prisonerId, String status) {
+        if (visitorLogId == null) {
+            throw new IllegalArgumentException("Visitor log ID cannot be null");
+        }
+        this.visitorLogId = visitorLogId;
+        this.prisonerId = prisonerId;
+        this.status = status;
+    }
+
+    public String getVisitorLogId() {
+        return visitorLogId;
+    }
+
+    public Integer getPrisonerId() {
+        return prisonerId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean isDeleted() {
+        return status == null;
+    }
+}
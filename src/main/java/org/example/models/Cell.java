@@ -3,6 +3,7 @@ package org.example.models;
 import lombok.Getter;
 import lombok.Setter;
 import jakarta.persistence.*;
+import org.example.config.IdGeneratorTable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,8 +13,11 @@ import java.util.List;
 @Table(name = "cell")
 public class Cell {
 
+    // Ids come from the id_generator table in blocks, so Hibernate can batch inserts; see IdGeneratorTable
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "cell_ids")
+    @TableGenerator(name = "cell_ids", table = "id_generator", pkColumnName = "entity",
+        valueColumnName = "next_id", pkColumnValue = "cell", allocationSize = IdGeneratorTable.ALLOCATION_SIZE)
     private Integer id;
 
     @Column(name = "type", nullable = false)
@@ -0,0 +1,50 @@
+package org.example.models;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Maintenance position of one equipment item, folded from its maintenance logs
+@Getter
+public class EquipmentMaintenanceState {
+
+    public static final String OK = "OK";
+    public static final String DUE = "DUE";
+    public static final String OVERDUE = "OVERDUE";
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+
+    private final Integer equipmentId;
+    private final LocalDateTime lastServiceDate; // latest completed maintenance, null if never serviced
+    private final LocalDate nextServiceDate;     // null if never serviced
+    private final int pendingCount;
+    private final int inProgressCount;
+
+    public EquipmentMaintenanceState(Integer equipmentId, LocalDateTime lastServiceDate, LocalDate nextServiceDate,
+                                     int pendingCount, int inProgressCount) {
+        this.equipmentId = equipmentId;
+        this.lastServiceDate = lastServiceDate;
+        this.nextServiceDate = nextServiceDate;
+        this.pendingCount = pendingCount;
+        this.inProgressCount = inProgressCount;
+    }
+
+    public static EquipmentMaintenanceState neverServiced(Integer equipmentId) {
+        return new EquipmentMaintenanceState(equipmentId, null, null, 0, 0);
+    }
+
+    // Work already under way wins; otherwise overdue past the next service date, due when it is close,
+    // a request is pending, or the item has never been serviced
+    public String statusOn(LocalDate today, int dueSoonDays) {
+        if (inProgressCount > 0) {
+            return IN_PROGRESS;
+        }
+        if (nextServiceDate != null && nextServiceDate.isBefore(today)) {
+            return OVERDUE;
+        }
+        if (nextServiceDate == null || pendingCount > 0 || !nextServiceDate.isAfter(today.plusDays(dueSoonDays))) {
+            return DUE;
+        }
+        return OK;
+    }
+}
@@ -3,6 +3,7 @@ package org.example.models;
 import lombok.Getter;
 import lombok.Setter;
 import jakarta.persistence.*;
+import org.example.config.IdGeneratorTable;
 import java.time.LocalDate;
 
 @Getter
@@ -11,8 +12,11 @@ import java.time.LocalDate;
 @Table(name = "expense")
 public class Expense {
 
+    // Ids come from the id_generator table in blocks, so Hibernate can batch inserts; see IdGeneratorTable
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "expense_ids")
+    @TableGenerator(name = "expense_ids", table = "id_generator", pkColumnName = "entity",
+        valueColumnName = "next_id", pkColumnValue = "expense", allocationSize = IdGeneratorTable.ALLOCATION_SIZE)
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,7 +30,7 @@ public class Expense {
     private LocalDate dueDate;
 
     @Column(nullable = false)
-    private String status; // PAID, PENDING
+    private String status; // PAID, PENDING, OVERDUE
 
     public Expense() {
         // Default constructor for JPA
@@ -68,13 +72,13 @@ public class Expense {
         }
         String normalizedStatus = status.trim().toUpperCase();
         if (!isValidStatus(normalizedStatus)) {
-            throw new IllegalArgumentException("Invalid status. Must be one of: PAID, PENDING");
+            throw new IllegalArgumentException("Invalid status. Must be one of: PAID, PENDING, OVERDUE");
         }
         this.status = normalizedStatus;
     }
 
     private boolean isValidStatus(String status) {
-        return status.equals("PAID") || status.equals("PENDING");
+        return status.equals("PAID") || status.equals("PENDING") || status.equals("OVERDUE");
     }
 
     public void markAsPaid() {
@@ -89,8 +93,13 @@ public class Expense {
         return "PENDING".equals(status);
     }
 
+    // OVERDUE is stored by the overdue scanner; the date check covers the gap before its next run
     public boolean isOverdue() {
-        return isPending() && dueDate.isBefore(LocalDate.now());
+        return "OVERDUE".equals(status) || (isPending() && dueDate.isBefore(LocalDate.now()));
+    }
+
+    public boolean isUnpaid() {
+        return isPending() || "OVERDUE".equals(status);
     }
 
     @Override
@@ -0,0 +1,40 @@
+package org.example.models;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.YearMonth;
+
+@Getter
+@Setter
+@Document(collection = "expenseMonthlyRollups")
+@CompoundIndex(name = "department_month", def = "{'departmentId': 1, 'month': 1}")
+public class ExpenseMonthlyRollup {
+
+    @Id
+    private String id;
+
+    private Integer departmentId;
+    private String month; // yyyy-MM, sorts chronologically
+    private String status; // PAID, PENDING, OVERDUE
+    private long count;
+    private double amount;
+
+    public ExpenseMonthlyRollup() {}
+
+    public ExpenseMonthlyRollup(Integer departmentId, YearMonth month, String status, long count, double amount) {
+        this.id = idFor(departmentId, month, status);
+        this.departmentId = departmentId;
+        this.month = month.toString();
+        this.status = status;
+        this.count = count;
+        this.amount = amount;
+    }
+
+    public static String idFor(Integer departmentId, YearMonth month, String status) {
+        return departmentId + ":" + month + ":" + status;
+    }
+}
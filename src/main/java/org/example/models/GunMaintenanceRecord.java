@@ -0,0 +1,91 @@
+package org.example.models;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@Document(collection = "gunMaintenance")
+public class GunMaintenanceRecord {
+
+    public static final int SERVICE_INTERVAL_DAYS = 180;
+    public static final int ROUNDS_BETWEEN_SERVICE = 500;
+
+    @Id
+    private String serialNumber;
+
+    private long roundsFired;
+    private long roundsSinceService;
+    private long usageCount;
+    private LocalDate lastServiceDate;
+    private LocalDate lastUsedDate;
+
+    public GunMaintenanceRecord() {}
+
+    public GunMaintenanceRecord(String serialNumber) {
+        this.serialNumber = validSerialNumber(serialNumber);
+    }
+
+    public void setSerialNumber(String serialNumber) {
+        this.serialNumber = validSerialNumber(serialNumber);
+    }
+
+    private static String validSerialNumber(String serialNumber) {
+        if (serialNumber == null || serialNumber.trim().isEmpty()) {
+            throw new IllegalArgumentException("Serial number cannot be null or empty");
+        }
+        return serialNumber.trim();
+    }
+
+    public void recordUsage(int rounds, LocalDate date) {
+        if (rounds < 0) {
+            throw new IllegalArgumentException("Rounds cannot be negative");
+        }
+        this.roundsFired += rounds;
+        this.roundsSinceService += rounds;
+        this.usageCount++;
+        this.lastUsedDate = date;
+    }
+
+    public void recordService(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Service date cannot be null");
+        }
+        this.lastServiceDate = date;
+        this.roundsSinceService = 0;
+    }
+
+    // Derived attribute: the date the weapon becomes due, by calendar or by rounds fired; null for a weapon
+    // that was never serviced, which is due already
+    public LocalDate getNextServiceDate() {
+        if (lastServiceDate == null) {
+            return null;
+        }
+        if (roundsSinceService >= ROUNDS_BETWEEN_SERVICE) {
+            return lastServiceDate;
+        }
+        return lastServiceDate.plusDays(SERVICE_INTERVAL_DAYS);
+    }
+
+    public boolean isDue(LocalDate date) {
+        LocalDate nextServiceDate = getNextServiceDate();
+        return nextServiceDate == null || !nextServiceDate.isAfter(date);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GunMaintenanceRecord that = (GunMaintenanceRecord) o;
+        return serialNumber.equals(that.serialNumber);
+    }
+
+    @Override
+    public int hashCode() {
+        return serialNumber.hashCode();
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.time.LocalDateTime;
 
@@ -25,6 +26,10 @@ public class MedicalRecord {
     @DBRef
     private Prisoner prisoner;
 
+    // Relevance of the record for the current text search; never persisted
+    @TextScore
+    private Float score;
+
     public MedicalRecord() {
         this.recordDate = LocalDateTime.now();
         this.status = "Active";
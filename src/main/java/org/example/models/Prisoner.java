@@ -3,6 +3,7 @@ package org.example.models;
 import lombok.Getter;
 import lombok.Setter;
 import jakarta.persistence.*;
+import org.example.config.IdGeneratorTable;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
@@ -13,8 +14,11 @@ import java.util.Set;
 @Table(name = "prisoner")
 public class Prisoner {
 
+    // Ids come from the id_generator table in blocks, so Hibernate can batch inserts; see IdGeneratorTable
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "prisoner_ids")
+    @TableGenerator(name = "prisoner_ids", table = "id_generator", pkColumnName = "entity",
+        valueColumnName = "next_id", pkColumnValue = "prisoner", allocationSize = IdGeneratorTable.ALLOCATION_SIZE)
     private Integer id;
 
     @Column(nullable = false)
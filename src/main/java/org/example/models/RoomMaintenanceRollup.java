@@ -0,0 +1,52 @@
+package org.example.models;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Maintenance summary for all equipment in one room
+@Getter
+public class RoomMaintenanceRollup {
+
+    private final Integer roomId;
+    private final Map<Integer, EquipmentMaintenanceState> states;
+    private final Map<Integer, String> statuses;
+    private int dueCount;
+    private int overdueCount;
+    private int inProgressCount;
+
+    public RoomMaintenanceRollup(Integer roomId) {
+        this.roomId = roomId;
+        this.states = new LinkedHashMap<>();
+        this.statuses = new LinkedHashMap<>();
+    }
+
+    public void add(EquipmentMaintenanceState state, String status) {
+        states.put(state.getEquipmentId(), state);
+        statuses.put(state.getEquipmentId(), status);
+        switch (status) {
+            case EquipmentMaintenanceState.DUE -> dueCount++;
+            case EquipmentMaintenanceState.OVERDUE -> overdueCount++;
+            case EquipmentMaintenanceState.IN_PROGRESS -> inProgressCount++;
+            default -> { }
+        }
+    }
+
+    public int getItemCount() {
+        return states.size();
+    }
+
+    public EquipmentMaintenanceState getState(Integer equipmentId) {
+        return states.get(equipmentId);
+    }
+
+    public String getStatus(Integer equipmentId) {
+        return statuses.get(equipmentId);
+    }
+
+    public Map<Integer, String> getStatuses() {
+        return Collections.unmodifiableMap(statuses);
+    }
+}
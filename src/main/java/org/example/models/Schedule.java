@@ -3,6 +3,7 @@ package org.example.models;
 import lombok.Getter;
 import lombok.Setter;
 import jakarta.persistence.*;
+import org.example.config.IdGeneratorTable;
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -14,8 +15,11 @@ import java.util.Set;
 @Table(name = "schedule")
 public class Schedule {
 
+    // Ids come from the id_generator table in blocks, so Hibernate can batch inserts; see IdGeneratorTable
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "schedule_ids")
+    @TableGenerator(name = "schedule_ids", table = "id_generator", pkColumnName = "entity",
+        valueColumnName = "next_id", pkColumnValue = "schedule", allocationSize = IdGeneratorTable.ALLOCATION_SIZE)
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
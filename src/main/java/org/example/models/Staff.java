@@ -3,6 +3,7 @@ package org.example.models;
 import lombok.Getter;
 import lombok.Setter;
 import jakarta.persistence.*;
+import org.example.config.IdGeneratorTable;
 import java.time.LocalDate;
 import java.math.BigDecimal;
 import java.time.Period;
@@ -15,8 +16,11 @@ import java.util.Set;
 @Table(name = "staff")
 public class Staff {
 
+    // Ids come from the id_generator table in blocks, so Hibernate can batch inserts; see IdGeneratorTable
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "staff_ids")
+    @TableGenerator(name = "staff_ids", table = "id_generator", pkColumnName = "entity",
+        valueColumnName = "next_id", pkColumnValue = "staff", allocationSize = IdGeneratorTable.ALLOCATION_SIZE)
     private Integer id;
 
     @Column(nullable = false)
@@ -0,0 +1,50 @@
+package org.example.models;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@Document(collection = "visitSlots")
+@CompoundIndex(name = "prison_date", def = "{'prisonId': 1, 'date': 1, 'startTime': 1}")
+public class VisitSlot {
+
+    @Id
+    private String id;
+
+    private Integer prisonId;
+    private LocalDate date;
+    private LocalTime startTime;
+    private int durationMinutes;
+    private int capacity;
+    private int booked;
+
+    public VisitSlot() {}
+
+    public VisitSlot(Integer prisonId, LocalDate date, LocalTime startTime, int durationMinutes, int capacity) {
+        this.id = idFor(prisonId, date, startTime);
+        this.prisonId = prisonId;
+        this.date = date;
+        this.startTime = startTime;
+        this.durationMinutes = durationMinutes;
+        this.capacity = capacity;
+    }
+
+    public static String idFor(Integer prisonId, LocalDate date, LocalTime startTime) {
+        return prisonId + ":" + date + ":" + startTime;
+    }
+
+    public int getAvailable() {
+        return Math.max(0, capacity - booked);
+    }
+
+    public boolean isFull() {
+        return booked >= capacity;
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 @Getter
 @Setter
@@ -19,6 +20,8 @@ public class VisitorLog {
     private Integer prisonerId;
     private Integer visitorId;
     private LocalDate date;
+    private LocalTime visitTime; // start of the booked visit slot
+    private String slotId;
     private Integer duration; // in minutes
     private String relationship;
     private String notes;
@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,6 +13,9 @@ public interface EquipmentMaintenanceRepository extends MongoRepository<Equipmen
     
     // Find all maintenance records for a specific equipment
     List<EquipmentMaintenanceLog> findByEquipmentId(Integer equipmentId);
+
+    // Find all maintenance records for a batch of equipment
+    List<EquipmentMaintenanceLog> findByEquipmentIdIn(Collection<Integer> equipmentIds);
     
     // Find all maintenance records by type
     List<EquipmentMaintenanceLog> findByType(String type);
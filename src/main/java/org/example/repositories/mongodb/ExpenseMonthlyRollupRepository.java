@@ -0,0 +1,23 @@
+package org.example.repositories.mongodb;
+
+import org.example.models.ExpenseMonthlyRollup;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExpenseMonthlyRollupRepository extends MongoRepository<ExpenseMonthlyRollup, String> {
+
+    // Find all rollups in an inclusive month range (yyyy-MM)
+    @Query("{ 'month': { $gte: ?0, $lte: ?1 } }")
+    List<ExpenseMonthlyRollup> findByMonthRange(String fromMonth, String toMonth);
+
+    // Find all rollups for a specific department in an inclusive month range (yyyy-MM)
+    @Query("{ 'departmentId': ?0, 'month': { $gte: ?1, $lte: ?2 } }")
+    List<ExpenseMonthlyRollup> findByDepartmentIdAndMonthRange(Integer departmentId, String fromMonth, String toMonth);
+
+    // The rollup with the newest month, or empty when nothing has been rolled up
+    Optional<ExpenseMonthlyRollup> findFirstByOrderByMonthDesc();
+}
@@ -0,0 +1,9 @@
+package org.example.repositories.mongodb;
+
+import org.example.models.GunMaintenanceRecord;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GunMaintenanceRepository extends MongoRepository<GunMaintenanceRecord, String> {
+}
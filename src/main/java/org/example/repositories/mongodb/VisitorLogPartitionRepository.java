@@ -0,0 +1,526 @@
+package org.example.repositories.mongodb;
+
+import jakarta.annotation.PostConstruct;
+import org.example.models.VisitorLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+// Visitor logs live in one collection per visit month (visitorLogs_yyyy_MM) while the month is active,
+// and closed months are compacted into visitorLogsArchive, which carries fewer indexes. Every query is
+// routed to the partitions that can hold matching logs instead of scanning the full history. Until the
+// original single collection has been migrated, reads also fall back to it, so old logs never go missing.
+@Repository
+public class VisitorLogPartitionRepository {
+
+    private static final Logger LOGGER = Logger.getLogger(VisitorLogPartitionRepository.class.getName());
+
+    public static final String LEGACY_COLLECTION = "visitorLogs";
+    public static final String ARCHIVE_COLLECTION = "visitorLogsArchive";
+    private static final String PARTITION_PREFIX = "visitorLogs_";
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final List<String> ARCHIVED_STATUSES = List.of("COMPLETED", "REJECTED");
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    // Months that currently have a live partition collection
+    private final NavigableSet<YearMonth> liveMonths = new ConcurrentSkipListSet<>();
+    // Newest month with anything in the archive; ranges after it never read the archive
+    private volatile YearMonth latestArchivedMonth;
+    // True while the legacy collection still holds logs that have not been moved into partitions
+    private volatile boolean legacyPending;
+    // Saves into or out of a month share its lock; archiving from the month's partition and dropping it take it
+    // exclusively. This guards one process only, which is how the application runs against its database.
+    private final Map<YearMonth, ReadWriteLock> monthLocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public VisitorLogPartitionRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    public void loadPartitions() {
+        for (String name : mongoTemplate.getCollectionNames()) {
+            if (name.startsWith(PARTITION_PREFIX)) {
+                liveMonths.add(YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_FORMAT));
+            }
+        }
+        IndexOperations archiveIndexes = mongoTemplate.indexOps(ARCHIVE_COLLECTION);
+        archiveIndexes.ensureIndex(new Index().on("prisonerId", Sort.Direction.ASC));
+        archiveIndexes.ensureIndex(new Index().on("date", Sort.Direction.ASC));
+        VisitorLog newestArchived = mongoTemplate.findOne(new Query().with(Sort.by(Sort.Direction.DESC, "date")).limit(1),
+            VisitorLog.class, ARCHIVE_COLLECTION);
+        latestArchivedMonth = newestArchived != null ? YearMonth.from(newestArchived.getDate()) : null;
+        legacyPending = mongoTemplate.collectionExists(LEGACY_COLLECTION)
+            && mongoTemplate.getCollection(LEGACY_COLLECTION).estimatedDocumentCount() > 0;
+        LOGGER.info("Visitor log partitions: " + liveMonths.size() + " live months"
+            + (legacyPending ? ", legacy collection not yet migrated" : ""));
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_FORMAT);
+    }
+
+    public NavigableSet<YearMonth> getLiveMonths() {
+        return liveMonths;
+    }
+
+    public static boolean isArchivedStatus(String status) {
+        return ARCHIVED_STATUSES.contains(status);
+    }
+
+    // Writes the log to the partition for its visit date and drops any copy left in another partition.
+    // previousDate is the visit date the log was stored under, or null for a new log. Every save stamps
+    // updatedAt, which the legacy migration uses to tell whether a log changed under it.
+    public VisitorLog save(VisitorLog visitorLog, LocalDate previousDate) {
+        YearMonth month = YearMonth.from(visitorLog.getDate());
+        YearMonth previousMonth = previousDate != null ? YearMonth.from(previousDate) : null;
+        // Both months stay locked until the stale copies are gone, so archiving cannot copy one of them
+        List<Lock> locks = lockMonths(month, previousMonth);
+        try {
+            visitorLog.setUpdatedAt(LocalDateTime.now());
+            VisitorLog saved = mongoTemplate.save(visitorLog, partitionFor(month));
+            if (previousMonth != null) {
+                if (!previousMonth.equals(month)) {
+                    removeFrom(partitionName(previousMonth), saved.getId());
+                }
+                // Only logs of archived months can have a copy in the archive; new logs never do
+                YearMonth archivedThrough = latestArchivedMonth;
+                if (archivedThrough != null && !previousMonth.isAfter(archivedThrough)) {
+                    removeFrom(ARCHIVE_COLLECTION, saved.getId());
+                }
+                // Otherwise the migration would later bring back the legacy copy
+                if (legacyPending) {
+                    removeFrom(LEGACY_COLLECTION, saved.getId());
+                }
+            }
+            return saved;
+        } finally {
+            for (Lock lock : locks) {
+                lock.unlock();
+            }
+        }
+    }
+
+    public Optional<VisitorLog> findById(String id) {
+        Query byId = Query.query(Criteria.where("_id").is(id));
+        for (YearMonth month : liveMonths.descendingSet()) {
+            VisitorLog visitorLog = mongoTemplate.findOne(byId, VisitorLog.class, partitionName(month));
+            if (visitorLog != null) {
+                return Optional.of(visitorLog);
+            }
+        }
+        for (String collection : overlayCollections()) {
+            VisitorLog visitorLog = mongoTemplate.findOne(byId, VisitorLog.class, collection);
+            if (visitorLog != null) {
+                return Optional.of(visitorLog);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void delete(VisitorLog visitorLog) {
+        removeFrom(partitionName(YearMonth.from(visitorLog.getDate())), visitorLog.getId());
+        removeFrom(ARCHIVE_COLLECTION, visitorLog.getId());
+        if (legacyPending) {
+            removeFrom(LEGACY_COLLECTION, visitorLog.getId());
+        }
+    }
+
+    public List<VisitorLog> findAll() {
+        return find(new Query(), liveMonths, true);
+    }
+
+    // Walks every partition, then the archive, through server-side cursors one batch at a time. While the
+    // legacy collection is migrated a log can be met twice, once in each place.
+    public void forEach(Consumer<VisitorLog> action) {
+        Query query = new Query().cursorBatchSize(STREAM_BATCH_SIZE);
+        for (YearMonth month : liveMonths) {
+            try (Stream<VisitorLog> logs = mongoTemplate.stream(query, VisitorLog.class, partitionName(month))) {
+                logs.forEach(action);
+            }
+        }
+        for (String collection : overlayCollections()) {
+            try (Stream<VisitorLog> logs = mongoTemplate.stream(query, VisitorLog.class, collection)) {
+                logs.forEach(action);
+            }
+        }
+    }
+
+    public List<VisitorLog> findByPrisonerId(Integer prisonerId) {
+        return find(Query.query(Criteria.where("prisonerId").is(prisonerId)), liveMonths, true);
+    }
+
+    public List<VisitorLog> findByPrisonerId(Integer prisonerId, Duration maxTime) {
+        return find(Query.query(Criteria.where("prisonerId").is(prisonerId)).maxTime(maxTime), liveMonths, true);
+    }
+
+    public List<VisitorLog> findByVisitorId(Integer visitorId) {
+        return find(Query.query(Criteria.where("visitorId").is(visitorId)), liveMonths, true);
+    }
+
+    // Only the partitions for months in the range are read; the archive only if the range reaches archived months
+    public List<VisitorLog> findByDateBetween(LocalDate start, LocalDate end) {
+        Query query = Query.query(Criteria.where("date").gte(start).lte(end));
+        NavigableSet<YearMonth> months = liveMonths.subSet(YearMonth.from(start), true, YearMonth.from(end), true);
+        YearMonth archivedThrough = latestArchivedMonth;
+        boolean includeArchive = archivedThrough != null && !YearMonth.from(start).isAfter(archivedThrough);
+        return find(query, months, includeArchive);
+    }
+
+    // Pending and approved visits are never archived, so those lookups stay on the live partitions
+    public List<VisitorLog> findByStatus(String status) {
+        return find(Query.query(Criteria.where("status").is(status)), liveMonths, isArchivedStatus(status));
+    }
+
+    public List<VisitorLog> findByRelationship(String relationship) {
+        return find(Query.query(Criteria.where("relationship").is(relationship)), liveMonths, true);
+    }
+
+    public List<VisitorLog> findByPrisonerIdAndRelationship(Integer prisonerId, String relationship) {
+        return find(Query.query(Criteria.where("prisonerId").is(prisonerId).and("relationship").is(relationship)),
+            liveMonths, true);
+    }
+
+    public List<VisitorLog> findVisitsNeedingFollowUp() {
+        return find(Query.query(Criteria.where("needsFollowUp").is(true)), liveMonths, true);
+    }
+
+    public List<VisitorLog> findPrisonerVisitsNeedingFollowUp(Integer prisonerId) {
+        return find(Query.query(Criteria.where("prisonerId").is(prisonerId).and("needsFollowUp").is(true)),
+            liveMonths, true);
+    }
+
+    // Cheap metadata counts, used to size the visitor log table
+    public long estimatedCount() {
+        long count = 0;
+        for (String collection : overlayCollections()) {
+            count += mongoTemplate.getCollection(collection).estimatedDocumentCount();
+        }
+        for (YearMonth month : liveMonths) {
+            count += mongoTemplate.getCollection(partitionName(month)).estimatedDocumentCount();
+        }
+        return count;
+    }
+
+    // A page of every log in (date, id) order that continues after the given log, or starts at the
+    // beginning when it is null. Months are disjoint, so the partitions are read in month order only
+    // until the page is full; the archive and the unmigrated legacy collection can overlap any month
+    // and are each read once and merged in.
+    public List<VisitorLog> findPageAfter(VisitorLog after, boolean ascending, int limit) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Query query = new Query().with(Sort.by(direction, "date", "_id")).limit(limit);
+        NavigableSet<YearMonth> months = ascending ? liveMonths : liveMonths.descendingSet();
+        if (after != null) {
+            query.addCriteria(ascending
+                ? new Criteria().orOperator(Criteria.where("date").gt(after.getDate()),
+                    Criteria.where("date").is(after.getDate()).and("_id").gt(after.getId()))
+                : new Criteria().orOperator(Criteria.where("date").lt(after.getDate()),
+                    Criteria.where("date").is(after.getDate()).and("_id").lt(after.getId())));
+            months = months.tailSet(YearMonth.from(after.getDate()), true);
+        }
+
+        List<VisitorLog> live = new ArrayList<>(limit);
+        for (YearMonth month : months) {
+            live.addAll(mongoTemplate.find(Query.of(query).limit(limit - live.size()), VisitorLog.class,
+                partitionName(month)));
+            if (live.size() >= limit) {
+                break;
+            }
+        }
+        YearMonth archivedThrough = latestArchivedMonth;
+        boolean includeArchive = archivedThrough != null
+            && (!ascending || after == null || !YearMonth.from(after.getDate()).isAfter(archivedThrough));
+        List<VisitorLog> page = includeArchive
+            ? merge(live, mongoTemplate.find(query, VisitorLog.class, ARCHIVE_COLLECTION), pageOrder(ascending), limit)
+            : live;
+        if (legacyPending) {
+            page = merge(page, mongoTemplate.find(query, VisitorLog.class, LEGACY_COLLECTION), pageOrder(ascending),
+                limit);
+        }
+        return page.size() > limit ? page.subList(0, limit) : page;
+    }
+
+    // A page that starts offset logs into the (date, id) order. Month counts locate the log right before
+    // the page, so a jump costs two counts per month plus reading one month, never the whole history.
+    public List<VisitorLog> findPageAt(long offset, boolean ascending, int limit) {
+        if (offset == 0) {
+            return findPageAfter(null, ascending, limit);
+        }
+        NavigableSet<YearMonth> months = new TreeSet<>(liveMonths);
+        YearMonth archivedThrough = latestArchivedMonth;
+        boolean legacy = legacyPending;
+        if (archivedThrough != null) {
+            addMonthsOf(months, ARCHIVE_COLLECTION);
+        }
+        if (legacy) {
+            addMonthsOf(months, LEGACY_COLLECTION);
+        }
+
+        long before = 0;
+        for (YearMonth month : ascending ? months : months.descendingSet()) {
+            Query inMonth = Query.query(Criteria.where("date").gte(month.atDay(1)).lte(month.atEndOfMonth()));
+            long live = liveMonths.contains(month)
+                ? mongoTemplate.getCollection(partitionName(month)).estimatedDocumentCount() : 0;
+            long archived = archivedThrough != null && !month.isAfter(archivedThrough)
+                ? mongoTemplate.count(inMonth, VisitorLog.class, ARCHIVE_COLLECTION) : 0;
+            long unmigrated = legacy ? mongoTemplate.count(inMonth, VisitorLog.class, LEGACY_COLLECTION) : 0;
+            if (before + live + archived + unmigrated < offset) {
+                before += live + archived + unmigrated;
+                continue;
+            }
+            // The previous log is in this month; read the month up to it and continue after it
+            int position = Math.toIntExact(offset - before - 1);
+            Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+            inMonth.with(Sort.by(direction, "date", "_id")).limit(position + 1);
+            List<VisitorLog> monthLogs = merge(
+                live > 0 ? mongoTemplate.find(inMonth, VisitorLog.class, partitionName(month)) : List.of(),
+                archived > 0 ? mongoTemplate.find(inMonth, VisitorLog.class, ARCHIVE_COLLECTION) : List.of(),
+                pageOrder(ascending), position + 1);
+            if (unmigrated > 0) {
+                monthLogs = merge(monthLogs, mongoTemplate.find(inMonth, VisitorLog.class, LEGACY_COLLECTION),
+                    pageOrder(ascending), position + 1);
+            }
+            if (monthLogs.size() <= position) {
+                return List.of();
+            }
+            return findPageAfter(monthLogs.get(position), ascending, limit);
+        }
+        return List.of();
+    }
+
+    // Adds every month from the collection's oldest log to its newest
+    private void addMonthsOf(NavigableSet<YearMonth> months, String collection) {
+        VisitorLog oldest = mongoTemplate.findOne(new Query().with(Sort.by(Sort.Direction.ASC, "date")).limit(1),
+            VisitorLog.class, collection);
+        VisitorLog newest = mongoTemplate.findOne(new Query().with(Sort.by(Sort.Direction.DESC, "date")).limit(1),
+            VisitorLog.class, collection);
+        if (oldest == null || newest == null) {
+            return;
+        }
+        for (YearMonth month = YearMonth.from(oldest.getDate()); !month.isAfter(YearMonth.from(newest.getDate()));
+             month = month.plusMonths(1)) {
+            months.add(month);
+        }
+    }
+
+    public boolean isLegacyPending() {
+        return legacyPending;
+    }
+
+    public List<VisitorLog> findLegacyBatch(int batchSize) {
+        return mongoTemplate.find(new Query().limit(batchSize), VisitorLog.class, LEGACY_COLLECTION);
+    }
+
+    // Copies legacy logs into their partitions, then removes them from the legacy collection. A log that
+    // is already in a partition was saved since and is newer, so it is kept rather than overwritten. Each
+    // legacy copy is only removed if it is still the version that was read; if a save changed it meanwhile,
+    // that save has written the current version and the copy made here is withdrawn.
+    public void moveFromLegacy(List<VisitorLog> batch) {
+        for (VisitorLog visitorLog : batch) {
+            YearMonth month = YearMonth.from(visitorLog.getDate());
+            boolean inserted = false;
+            ReadWriteLock lock = monthLock(month);
+            lock.readLock().lock();
+            try {
+                String partition = partitionFor(month);
+                if (!mongoTemplate.exists(Query.query(Criteria.where("_id").is(visitorLog.getId())), VisitorLog.class,
+                        partition)) {
+                    mongoTemplate.insert(visitorLog, partition);
+                    inserted = true;
+                }
+            } catch (DuplicateKeyException e) {
+                LOGGER.fine("Visitor log " + visitorLog.getId()
+                    + " was saved during migration; keeping the newer copy");
+            } finally {
+                lock.readLock().unlock();
+            }
+            Query unchanged = Query.query(Criteria.where("_id").is(visitorLog.getId())
+                .and("updatedAt").is(visitorLog.getUpdatedAt()));
+            if (mongoTemplate.remove(unchanged, VisitorLog.class, LEGACY_COLLECTION).getDeletedCount() == 0
+                    && inserted) {
+                // Only removes the copy if a save to the same month has not replaced it with a newer one
+                mongoTemplate.remove(unchanged, VisitorLog.class, partitionName(month));
+            }
+        }
+    }
+
+    // Called once the legacy collection is empty; reads stop falling back to it
+    public void markLegacyMigrated() {
+        legacyPending = false;
+    }
+
+    // Moves up to batchSize finished visits of a month into the archive; returns how many were moved. Saves
+    // into or out of the month wait, so none can land between the copy and the delete and be lost.
+    public int archiveBatch(YearMonth month, int batchSize) {
+        String partition = partitionName(month);
+        ReadWriteLock lock = monthLock(month);
+        lock.writeLock().lock();
+        try {
+            Query finished = Query.query(Criteria.where("status").in(ARCHIVED_STATUSES)).limit(batchSize);
+            List<VisitorLog> batch = mongoTemplate.find(finished, VisitorLog.class, partition);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            // Upserts keep a re-run after a crash between the copy and the delete harmless
+            BulkOperations copy =
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, VisitorLog.class, ARCHIVE_COLLECTION);
+            List<String> ids = new ArrayList<>(batch.size());
+            for (VisitorLog visitorLog : batch) {
+                copy.replaceOne(Query.query(Criteria.where("_id").is(visitorLog.getId())), visitorLog,
+                    FindAndReplaceOptions.options().upsert());
+                ids.add(visitorLog.getId());
+            }
+            copy.execute();
+            if (latestArchivedMonth == null || month.isAfter(latestArchivedMonth)) {
+                latestArchivedMonth = month;
+            }
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), VisitorLog.class, partition);
+            return batch.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drops the month's partition once nothing is left in it. Saves into the month wait for the drop, and
+    // a save that lands after it creates the partition again.
+    public boolean dropIfEmpty(YearMonth month) {
+        String partition = partitionName(month);
+        ReadWriteLock lock = monthLock(month);
+        lock.writeLock().lock();
+        try {
+            if (mongoTemplate.getCollection(partition).countDocuments() > 0) {
+                return false;
+            }
+            mongoTemplate.dropCollection(partition);
+            liveMonths.remove(month);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A log met in a partition wins over a copy still in the legacy collection
+    private List<VisitorLog> find(Query query, Collection<YearMonth> months, boolean includeArchive) {
+        List<VisitorLog> results = new ArrayList<>();
+        for (YearMonth month : months) {
+            results.addAll(mongoTemplate.find(query, VisitorLog.class, partitionName(month)));
+        }
+        if (includeArchive) {
+            results.addAll(mongoTemplate.find(query, VisitorLog.class, ARCHIVE_COLLECTION));
+        }
+        if (!legacyPending) {
+            return results;
+        }
+        Map<String, VisitorLog> byId = new LinkedHashMap<>();
+        for (VisitorLog visitorLog : results) {
+            byId.put(visitorLog.getId(), visitorLog);
+        }
+        for (VisitorLog visitorLog : mongoTemplate.find(query, VisitorLog.class, LEGACY_COLLECTION)) {
+            byId.putIfAbsent(visitorLog.getId(), visitorLog);
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    private List<String> overlayCollections() {
+        return legacyPending ? List.of(ARCHIVE_COLLECTION, LEGACY_COLLECTION) : List.of(ARCHIVE_COLLECTION);
+    }
+
+    private ReadWriteLock monthLock(YearMonth month) {
+        return monthLocks.computeIfAbsent(month, key -> new ReentrantReadWriteLock());
+    }
+
+    // Takes the read locks of the given months, skipping nulls, always in month order
+    private List<Lock> lockMonths(YearMonth... months) {
+        NavigableSet<YearMonth> ordered = new TreeSet<>();
+        for (YearMonth month : months) {
+            if (month != null) {
+                ordered.add(month);
+            }
+        }
+        List<Lock> locks = new ArrayList<>(ordered.size());
+        for (YearMonth month : ordered) {
+            Lock lock = monthLock(month).readLock();
+            lock.lock();
+            locks.add(lock);
+        }
+        return locks;
+    }
+
+    private static Comparator<VisitorLog> pageOrder(boolean ascending) {
+        Comparator<VisitorLog> order = Comparator.comparing(VisitorLog::getDate).thenComparing(VisitorLog::getId);
+        return ascending ? order : order.reversed();
+    }
+
+    // Both lists are already in page order. A log in both, as during the legacy migration, is kept once,
+    // from the first list.
+    static List<VisitorLog> merge(List<VisitorLog> first, List<VisitorLog> second,
+                                  Comparator<VisitorLog> order, int limit) {
+        List<VisitorLog> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j >= second.size() || (i < first.size() && order.compare(first.get(i), second.get(j)) <= 0)) {
+                VisitorLog next = first.get(i++);
+                if (j < second.size() && order.compare(next, second.get(j)) == 0) {
+                    j++;
+                }
+                merged.add(next);
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    private String partitionFor(YearMonth month) {
+        String partition = partitionName(month);
+        if (!liveMonths.contains(month)) {
+            IndexOperations indexes = mongoTemplate.indexOps(partition);
+            indexes.ensureIndex(new Index().on("date", Sort.Direction.ASC));
+            indexes.ensureIndex(new Index().on("status", Sort.Direction.ASC));
+            indexes.ensureIndex(new Index().on("prisonerId", Sort.Direction.ASC));
+            indexes.ensureIndex(new Index().on("visitorId", Sort.Direction.ASC));
+            liveMonths.add(month);
+        }
+        return partition;
+    }
+
+    private void removeFrom(String collection, String id) {
+        if (id != null) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), VisitorLog.class, collection);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -30,4 +31,9 @@ public interface CellRepository extends JpaRepository<Cell, Integer> {
     // Find all cells by block ID and type and prisoner ID using JPQL
     @Query("SELECT c FROM Cell c JOIN c.prisoners p WHERE c.block.id = :blockId AND c.type = :type AND p.id = :prisonerId")
     List<Cell> findByBlockIdAndTypeAndPrisonerId(@Param("blockId") Integer blockId, @Param("type") String type, @Param("prisonerId") Integer prisonerId);
-} 
\ No newline at end of file
+
+    // Cell id, block id, prison id, capacity and head count of the given cells, for live occupancy updates
+    @Query("SELECT c.id, b.id, b.prison.id, c.capacity, SIZE(c.prisoners) "
+        + "FROM Cell c JOIN c.block b WHERE c.id IN :ids")
+    List<Object[]> findOccupancyByIds(@Param("ids") Collection<Integer> ids);
+}
@@ -27,4 +27,7 @@ public interface DepartmentRepository extends JpaRepository<Department, Integer>
            "LEFT JOIN FETCH d.expenses " +
            "WHERE d.id = :id")
     Department findByIdWithRelations(@Param("id") Integer id);
+
+    @Query("SELECT d.prisonId FROM Department d WHERE d.id = :id")
+    Integer findPrisonIdById(@Param("id") Integer id);
 }
@@ -1,9 +1,15 @@
 package org.example.repositories.mysql;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.example.models.Equipment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EquipmentRepository extends JpaRepository<Equipment, Integer> {
@@ -12,5 +18,17 @@ public interface EquipmentRepository extends JpaRepository<Equipment, Integer> {
     Equipment findByName(String name);
     
     // Find all equipment by room ID
-    List<Equipment> findByRoom_Id(Integer roomId);   
+    List<Equipment> findByRoom_Id(Integer roomId);
+
+    // Ids of the equipment in a room, without loading the entities
+    @Query("SELECT e.id FROM Equipment e WHERE e.room.id = :roomId")
+    List<Integer> findIdsByRoomId(@Param("roomId") Integer roomId);
+
+    // Flat rows (id, name, amount, description, room id) read through a streaming MySQL result set
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.id, e.name, e.amount, e.description, e.room.id FROM Equipment e")
+    Stream<Object[]> streamAllRows();
 }
@@ -2,6 +2,9 @@ package org.example.repositories.mysql;
 
 import org.example.models.Expense;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.math.BigDecimal;
@@ -36,4 +39,26 @@ public interface ExpenseRepository extends JpaRepository<Expense, Integer> {
     
     // Find overdue expenses by department
     List<Expense> findByDepartmentIdAndStatusAndDueDateBefore(Integer departmentId, String status, LocalDate date);
+    
+    // Statistics queries
+    @Query("SELECT e.department.id, e.status, COUNT(e), SUM(e.amount) FROM Expense e GROUP BY e.department.id, e.status")
+    List<Object[]> sumExpensesByDepartmentAndStatus();
+    
+    @Query("SELECT e.department.id, EXTRACT(YEAR FROM e.dueDate), EXTRACT(MONTH FROM e.dueDate), e.status, COUNT(e), SUM(e.amount) " +
+           "FROM Expense e GROUP BY e.department.id, EXTRACT(YEAR FROM e.dueDate), EXTRACT(MONTH FROM e.dueDate), e.status")
+    List<Object[]> sumExpensesByDepartmentMonthAndStatus();
+
+    // The same buckets for expenses due on or after the given date
+    @Query("SELECT e.department.id, EXTRACT(YEAR FROM e.dueDate), EXTRACT(MONTH FROM e.dueDate), e.status, COUNT(e), SUM(e.amount) " +
+           "FROM Expense e WHERE e.dueDate >= :from " +
+           "GROUP BY e.department.id, EXTRACT(YEAR FROM e.dueDate), EXTRACT(MONTH FROM e.dueDate), e.status")
+    List<Object[]> sumExpensesByDepartmentMonthAndStatusSince(@Param("from") LocalDate from);
+    
+    // Overdue scanner queries
+    @Query("SELECT e.id, e.dueDate FROM Expense e WHERE e.status = 'PENDING'")
+    List<Object[]> findPendingDueDates();
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.status = 'OVERDUE' WHERE e.id IN :ids AND e.status = 'PENDING'")
+    int markOverdue(@Param("ids") List<Integer> ids);
 }
@@ -0,0 +1,104 @@
+package org.example.repositories.mysql;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// The REST response fields of one entity, each mapped to an attribute path ("cell.block.id"). Requests
+// pick a subset by name and only those columns are selected; the key field ("id" unless the entity
+// is keyed otherwise) is always part of the result. A collection field ("cells.id", "days") is a list of
+// values read with one extra query for the whole result.
+public final class FieldProjection<T> {
+
+    public static final String ID = "id";
+
+    private final Class<T> entityType;
+    private final String keyField;
+    private final Map<String, String> paths = new LinkedHashMap<>();
+    private final Set<String> collections = new LinkedHashSet<>();
+
+    private FieldProjection(Class<T> entityType, String keyField) {
+        this.entityType = entityType;
+        this.keyField = keyField;
+        paths.put(keyField, keyField);
+    }
+
+    public static <T> FieldProjection<T> of(Class<T> entityType) {
+        return of(entityType, ID);
+    }
+
+    // For entities whose id attribute is not called "id"; the field keeps the attribute's name
+    public static <T> FieldProjection<T> of(Class<T> entityType, String keyField) {
+        Assert.notNull(entityType, "Entity type cannot be null");
+        Assert.hasText(keyField, "Key field cannot be null or empty");
+        return new FieldProjection<>(entityType, keyField);
+    }
+
+    public FieldProjection<T> field(String name, String path) {
+        Assert.hasText(name, "Field name cannot be null or empty");
+        Assert.hasText(path, "Attribute path cannot be null or empty");
+        paths.put(name, path);
+        return this;
+    }
+
+    // path is a collection attribute, optionally followed by one attribute of its elements
+    public FieldProjection<T> collection(String name, String path) {
+        field(name, path);
+        Assert.isTrue(path.split("\\.").length <= 2, "Collection path can have at most two parts: " + path);
+        collections.add(name);
+        return this;
+    }
+
+    public Class<T> getEntityType() {
+        return entityType;
+    }
+
+    public String getKeyField() {
+        return keyField;
+    }
+
+    public Set<String> getFieldNames() {
+        return Collections.unmodifiableSet(paths.keySet());
+    }
+
+    public String getPath(String field) {
+        return paths.get(field);
+    }
+
+    public boolean isCollection(String field) {
+        return collections.contains(field);
+    }
+
+    // Requested names in declaration order with the key first; no or blank names select every field
+    public List<String> select(Collection<String> requested) {
+        if (requested == null || requested.stream().allMatch(name -> name == null || name.isBlank())) {
+            return new ArrayList<>(paths.keySet());
+        }
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String name : requested) {
+            if (name == null || name.isBlank()) {
+                continue;
+            }
+            String field = name.trim();
+            if (!paths.containsKey(field)) {
+                throw new UnknownFieldException("Unknown field '" + field + "' for "
+                    + entityType.getSimpleName() + ". Allowed fields: " + paths.keySet());
+            }
+            wanted.add(field);
+        }
+        List<String> selected = new ArrayList<>();
+        for (String field : paths.keySet()) {
+            if (field.equals(keyField) || wanted.contains(field)) {
+                selected.add(field);
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.repositories.mysql;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Runs scalar tuple queries for a field projection, so a response only reads the columns it returns and
+// never initializes an association. Each association on a path is joined once (left join), so a missing
+// cell or block yields null fields instead of dropping the row. Collection fields are read afterwards with
+// one query each for all returned rows.
+@Repository
+public class FieldProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> List<Map<String, Object>> findAll(FieldProjection<T> projection, List<String> fields) {
+        return query(projection, fields, null, null);
+    }
+
+    // Rows matching the specification, e.g. the cells of one block; collection fields are read for those rows only
+    public <T> List<Map<String, Object>> findAll(FieldProjection<T> projection, List<String> fields,
+                                                 Specification<T> where) {
+        Assert.notNull(where, "Specification cannot be null");
+        return query(projection, fields, null, where);
+    }
+
+    public <T> Optional<Map<String, Object>> findById(FieldProjection<T> projection, List<String> fields, Object id) {
+        Assert.notNull(id, "ID cannot be null");
+        List<Map<String, Object>> rows = query(projection, fields, List.of(id), null);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    // One IN query for all ids; rows are keyed by id. Hibernate pads the IN list to a power of two so
+    // different id counts share a handful of statement shapes.
+    public <T> Map<Object, Map<String, Object>> findAllById(FieldProjection<T> projection, List<String> fields,
+                                                            Collection<?> ids) {
+        Assert.notNull(ids, "IDs cannot be null");
+        Map<Object, Map<String, Object>> rows = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return rows;
+        }
+        for (Map<String, Object> row : query(projection, fields, ids, null)) {
+            rows.put(row.get(projection.getKeyField()), row);
+        }
+        return rows;
+    }
+
+    private <T> List<Map<String, Object>> query(FieldProjection<T> projection, List<String> fields,
+                                                Collection<?> ids, Specification<T> where) {
+        Assert.notNull(projection, "Projection cannot be null");
+        Assert.notEmpty(fields, "At least one field must be selected");
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(projection.getEntityType());
+
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        List<String> collectionFields = new ArrayList<>();
+        for (String field : fields) {
+            if (projection.isCollection(field)) {
+                collectionFields.add(field);
+            } else {
+                selections.add(resolve(root, joins, projection.getPath(field)).alias(field));
+            }
+        }
+        query.multiselect(selections);
+        Path<Object> key = root.get(projection.getKeyField());
+        if (ids != null) {
+            query.where(ids.size() == 1 ? builder.equal(key, ids.iterator().next()) : key.in(ids));
+        } else if (where != null) {
+            query.where(where.toPredicate(root, query, builder));
+        }
+        query.orderBy(builder.asc(key));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<Object, Map<String, Object>> rowsByKey = new HashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, projection.isCollection(field) ? new ArrayList<>() : tuple.get(field));
+            }
+            rows.add(row);
+            rowsByKey.put(row.get(projection.getKeyField()), row);
+        }
+        Collection<?> keys = ids == null && where != null ? rowsByKey.keySet() : ids;
+        for (String field : collectionFields) {
+            if (!rows.isEmpty()) {
+                fillCollection(projection, field, keys, rowsByKey);
+            }
+        }
+        return rows;
+    }
+
+    // Appends each element's value to the list of the row it belongs to
+    @SuppressWarnings("unchecked")
+    private <T> void fillCollection(FieldProjection<T> projection, String field, Collection<?> ids,
+                                    Map<Object, Map<String, Object>> rowsByKey) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(projection.getEntityType());
+        String[] parts = projection.getPath(field).split("\\.");
+        Join<?, ?> elements = root.join(parts[0], JoinType.INNER);
+        Path<Object> key = root.get(projection.getKeyField());
+        Selection<?> value = parts.length > 1 ? elements.get(parts[1]) : elements;
+        query.multiselect(key.alias("key"), value.alias("value"));
+        if (ids != null) {
+            query.where(key.in(ids));
+        }
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = rowsByKey.get(tuple.get("key"));
+            if (row != null) {
+                ((List<Object>) row.get(field)).add(tuple.get("value"));
+            }
+        }
+    }
+
+    private static Path<?> resolve(Root<?> root, Map<String, From<?, ?>> joins, String path) {
+        String[] parts = path.split("\\.");
+        From<?, ?> from = root;
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < parts.length - 1; i++) {
+            joined.append(parts[i]).append('.');
+            From<?, ?> parent = from;
+            String attribute = parts[i];
+            from = joins.computeIfAbsent(joined.toString(), key -> parent.join(attribute, JoinType.LEFT));
+        }
+        return from.get(parts[parts.length - 1]);
+    }
+}
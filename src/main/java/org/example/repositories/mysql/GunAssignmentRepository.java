@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +42,9 @@ public interface GunAssignmentRepository extends JpaRepository<GunAssignment, Gu
     List<GunAssignment> findByStaffId(Integer staffId);
     
     List<GunAssignment> findByGunSerialNumber(String serialNumber);
+
+    @Query("SELECT ga FROM GunAssignment ga JOIN FETCH ga.gun JOIN FETCH ga.staff WHERE ga.gun.serialNumber IN :serialNumbers")
+    List<GunAssignment> findByGunSerialNumberIn(@Param("serialNumbers") Collection<String> serialNumbers);
     
     @Query("SELECT ga FROM GunAssignment ga WHERE ga.staff.id = :staffId AND ga.gun.type = :type")
     List<GunAssignment> findByStaffIdAndGunType(@Param("staffId") Integer staffId, @Param("type") String type);
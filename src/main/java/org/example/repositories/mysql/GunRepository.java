@@ -30,4 +30,11 @@ public interface GunRepository extends JpaRepository<Gun, String> {
     
     @Query("SELECT COUNT(g) FROM Gun g JOIN g.assignedStaff s WHERE s.id = :staffId")
     long countByAssignedStaffId(@Param("staffId") Integer staffId);
+    
+    // Statistics queries
+    @Query("SELECT g.type, COUNT(g) FROM Gun g GROUP BY g.type")
+    List<Object[]> countGunsByType();
+    
+    @Query("SELECT g.serialNumber FROM Gun g")
+    List<String> findAllSerialNumbers();
 }
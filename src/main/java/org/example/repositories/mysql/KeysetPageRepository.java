@@ -0,0 +1,99 @@
+package org.example.repositories.mysql;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Sorted pages of one entity for the JavaFX tables, ordered by one attribute with the id breaking ties.
+// A page that follows a row the caller already has continues after that row's (value, id), so a deep
+// page costs the same as the first; pages reached by jumping fall back to an offset. The optional
+// filter is a set of ids resolved beforehand, e.g. from the name search index, so the database never
+// scans a text column with a leading-wildcard LIKE.
+@Repository
+public class KeysetPageRepository {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A null ids filter counts every row
+    public <T> long count(Class<T> entityType, Collection<?> ids) {
+        Assert.notNull(entityType, "Entity type cannot be null");
+        if (ids != null && ids.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<T> root = query.from(entityType);
+        query.select(builder.count(root));
+        if (ids != null) {
+            query.where(root.get(ID).in(ids));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // afterValue and afterId describe the row before the page; without both the page starts at offset
+    public <T> List<T> findPage(Class<T> entityType, Collection<?> ids, String sortAttribute, boolean ascending,
+                                Object afterValue, Object afterId, long offset, int limit) {
+        Assert.notNull(entityType, "Entity type cannot be null");
+        Assert.hasText(sortAttribute, "Sort attribute cannot be null or empty");
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+        if (ids != null && ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(entityType);
+        Root<T> root = query.from(entityType);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (ids != null) {
+            predicates.add(root.get(ID).in(ids));
+        }
+        boolean keyset = afterId != null && (afterValue != null || ID.equals(sortAttribute));
+        if (keyset) {
+            predicates.add(after(builder, root, sortAttribute, ascending, afterValue, afterId));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        Path<Object> sort = root.get(sortAttribute);
+        Path<Object> id = root.get(ID);
+        query.orderBy(ascending ? builder.asc(sort) : builder.desc(sort),
+            ascending ? builder.asc(id) : builder.desc(id));
+
+        TypedQuery<T> page = entityManager.createQuery(query).setMaxResults(limit);
+        if (!keyset) {
+            page.setFirstResult(Math.toIntExact(offset));
+        }
+        return page.getResultList();
+    }
+
+    // MySQL sorts nulls first ascending and last descending, so only a descending page can run into them
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder builder, Root<?> root, String sortAttribute, boolean ascending,
+                                   Object afterValue, Object afterId) {
+        Path<Comparable> id = root.get(ID);
+        Comparable lastId = (Comparable) afterId;
+        if (ID.equals(sortAttribute)) {
+            return ascending ? builder.greaterThan(id, lastId) : builder.lessThan(id, lastId);
+        }
+        Path<Comparable> sort = root.get(sortAttribute);
+        Comparable lastValue = (Comparable) afterValue;
+        Predicate sameValue = builder.and(builder.equal(sort, lastValue),
+            ascending ? builder.greaterThan(id, lastId) : builder.lessThan(id, lastId));
+        if (ascending) {
+            return builder.or(builder.greaterThan(sort, lastValue), sameValue);
+        }
+        return builder.or(builder.lessThan(sort, lastValue), builder.isNull(sort), sameValue);
+    }
+}
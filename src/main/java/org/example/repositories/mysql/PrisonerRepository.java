@@ -1,12 +1,16 @@
 package org.example.repositories.mysql;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.example.models.Prisoner;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 @Repository
 public interface PrisonerRepository extends JpaRepository<Prisoner, Integer> {
@@ -83,4 +87,26 @@ public interface PrisonerRepository extends JpaRepository<Prisoner, Integer> {
 
     @Query("SELECT COUNT(p) FROM Prisoner p JOIN p.cell c JOIN c.block b WHERE b.prison.id = :prisonId")
     int countByPrisonId(@Param("prisonId") Integer prisonId);
+
+    @Query("SELECT p.id, p.name FROM Prisoner p")
+    List<Object[]> findAllIdsAndNames();
+
+    // Facility a prisoner is held in, via cell and block; null if the prisoner has no cell
+    @Query("SELECT b.prison.id FROM Prisoner p JOIN p.cell c JOIN c.block b WHERE p.id = :prisonerId")
+    Integer findPrisonIdByPrisonerId(@Param("prisonerId") Integer prisonerId);
+
+    // Flat rows for the streaming export (id, name, dob, sentence start/end, gender, cell id). The MySQL
+    // driver only hands rows over one at a time with this fetch size, and scalar columns keep Hibernate
+    // from issuing association selects while the result set is still open.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p.id, p.name, p.dateOfBirth, p.sentenceStart, p.sentenceEnd, p.gender, c.id "
+        + "FROM Prisoner p LEFT JOIN p.cell c")
+    Stream<Object[]> streamAllRows();
+
+    // Block id and prison id of the prisoner's cell; empty if the prisoner has no cell
+    @Query("SELECT b.id, b.prison.id FROM Prisoner p JOIN p.cell c JOIN c.block b WHERE p.id = :prisonerId")
+    List<Object[]> findBlockAndPrisonIdByPrisonerId(@Param("prisonerId") Integer prisonerId);
 }
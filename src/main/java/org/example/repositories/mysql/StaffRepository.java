@@ -107,4 +107,7 @@ public interface StaffRepository extends JpaRepository<Staff, Integer> {
 
     @Query("SELECT s FROM Staff s JOIN s.department d JOIN d.contains2Relations c2 JOIN c2.block b WHERE b.prison.id = :prisonId AND s.role = :role ORDER BY s.id DESC LIMIT 1")
     Optional<Staff> findByPrisonIdAndRole(@Param("prisonId") Integer prisonId, @Param("role") String role);
+
+    @Query("SELECT d.prisonId FROM Staff s JOIN s.department d WHERE s.id = :staffId")
+    Integer findPrisonIdByStaffId(@Param("staffId") Integer staffId);
 }
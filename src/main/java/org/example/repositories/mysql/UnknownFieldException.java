@@ -0,0 +1,11 @@
+package org.example.repositories.mysql;
+
+// A requested response field that the resource does not declare; the REST layer answers 400
+public class UnknownFieldException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UnknownFieldException(String message) {
+        super(message);
+    }
+}
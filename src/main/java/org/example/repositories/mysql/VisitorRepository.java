@@ -40,6 +40,9 @@ public interface VisitorRepository extends JpaRepository<Visitor, Integer> {
         @Param("relationship") String relationship
     );
     
+    @Query("SELECT v.id, v.name FROM Visitor v")
+    List<Object[]> findAllIdsAndNames();
+    
     // Statistics queries
     @Query("SELECT v.relationship, COUNT(v) FROM Visitor v GROUP BY v.relationship")
     List<Object[]> countVisitorsByRelationship();
@@ -0,0 +1,222 @@
+package org.example.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Runs a list of write operations in chunked transactions, so one request commits chunkSize rows per
+// round trip and Hibernate flushes them as JDBC batches. A chunk that fails is rolled back and replayed
+// item by item to tell which operations failed. In atomic mode the whole list is one transaction.
+@Service
+@Lazy
+public class BatchOperationService {
+
+    private static final Logger LOGGER = Logger.getLogger(BatchOperationService.class.getName());
+
+    public static final String OK = "OK";
+    public static final String FAILED = "FAILED";
+    public static final String ROLLED_BACK = "ROLLED_BACK";
+    public static final String SKIPPED = "SKIPPED";
+
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxOperations;
+    private final boolean statisticsEnabled;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public BatchOperationService(@Qualifier("mysqlTransactionManager") PlatformTransactionManager transactionManager,
+                                 @Value("${batch.chunk-size:100}") int chunkSize,
+                                 @Value("${batch.max-operations:5000}") int maxOperations,
+                                 @Value("${datasource.mysql.statistics:false}") boolean statisticsEnabled) {
+        Assert.isTrue(chunkSize > 0, "Batch chunk size must be greater than 0");
+        Assert.isTrue(maxOperations > 0, "Batch operation limit must be greater than 0");
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxOperations = maxOperations;
+        this.statisticsEnabled = statisticsEnabled;
+    }
+
+    // The action applies one operation and returns the id of the row it touched
+    public <T> BatchResult execute(List<T> operations, boolean atomic, Function<T, Object> action) {
+        Assert.notNull(operations, "Operations cannot be null");
+        Assert.notNull(action, "Action cannot be null");
+        if (operations.size() > maxOperations) {
+            throw new IllegalArgumentException("A batch can hold at most " + maxOperations + " operations, got "
+                + operations.size());
+        }
+        // The statistics are only looked up when hibernate.generate_statistics is on
+        Statistics statistics = statisticsEnabled
+            ? entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics() : null;
+        long statementsBefore = statistics != null ? statistics.getPrepareStatementCount() : 0;
+        BatchResult result = new BatchResult(operations.size());
+        if (atomic) {
+            executeAtomic(operations, action, result);
+        } else {
+            for (int start = 0; start < operations.size(); start += chunkSize) {
+                executeChunk(operations, start, Math.min(start + chunkSize, operations.size()), action, result);
+            }
+        }
+        // With batching each chunk costs a few statements rather than one per row. The counters are shared,
+        // so other work running at the same time is counted too.
+        if (statistics != null) {
+            LOGGER.info("Batch of " + operations.size() + " operations prepared "
+                + (statistics.getPrepareStatementCount() - statementsBefore) + " JDBC statements");
+        }
+        return result;
+    }
+
+    private <T> void executeAtomic(List<T> operations, Function<T, Object> action, BatchResult result) {
+        Object[] ids = new Object[operations.size()];
+        int[] failedIndex = {-1};
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < operations.size(); i++) {
+                    try {
+                        ids[i] = action.apply(operations.get(i));
+                    } catch (RuntimeException e) {
+                        failedIndex[0] = i;
+                        throw e;
+                    }
+                    if ((i + 1) % chunkSize == 0) {
+                        // Sends the chunk as JDBC batches and keeps the persistence context at one chunk
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // A failure while flushing or committing belongs to no single operation
+            if (failedIndex[0] < 0) {
+                result.setError(e.getMessage());
+            }
+            for (int i = 0; i < operations.size(); i++) {
+                if (i == failedIndex[0]) {
+                    result.set(i, BatchItemResult.failed(i, e));
+                } else {
+                    boolean ran = failedIndex[0] < 0 || i < failedIndex[0];
+                    result.set(i, new BatchItemResult(i, ran ? ROLLED_BACK : SKIPPED, null, null));
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < operations.size(); i++) {
+            result.set(i, new BatchItemResult(i, OK, ids[i], null));
+        }
+    }
+
+    private <T> void executeChunk(List<T> operations, int from, int to, Function<T, Object> action,
+                                  BatchResult result) {
+        Object[] ids = new Object[to - from];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = from; i < to; i++) {
+                    ids[i - from] = action.apply(operations.get(i));
+                }
+            });
+            for (int i = from; i < to; i++) {
+                result.set(i, new BatchItemResult(i, OK, ids[i - from], null));
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Batch chunk " + from + "-" + (to - 1) + " failed, replaying item by item", e);
+            for (int i = from; i < to; i++) {
+                T operation = operations.get(i);
+                try {
+                    Object id = transactionTemplate.execute(status -> action.apply(operation));
+                    result.set(i, new BatchItemResult(i, OK, id, null));
+                } catch (RuntimeException itemFailure) {
+                    result.set(i, BatchItemResult.failed(i, itemFailure));
+                }
+            }
+        }
+    }
+
+    public static class BatchResult {
+        private final List<BatchItemResult> items;
+        private String error;
+
+        private BatchResult(int size) {
+            this.items = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                items.add(null);
+            }
+        }
+
+        private void set(int index, BatchItemResult item) {
+            items.set(index, item);
+        }
+
+        public long getSucceededCount() {
+            return items.stream().filter(item -> OK.equals(item.getStatus())).count();
+        }
+
+        public long getFailedCount() {
+            return items.stream().filter(item -> FAILED.equals(item.getStatus())).count();
+        }
+
+        private void setError(String error) {
+            this.error = error;
+        }
+
+        // Set when an atomic batch failed at flush or commit rather than in one operation
+        public String getError() {
+            return error;
+        }
+
+        // One entry per operation, in request order
+        public List<BatchItemResult> getItems() {
+            return items;
+        }
+    }
+
+    public static class BatchItemResult {
+        private final int index;
+        private final String status;
+        private final Object id;
+        private final String error;
+
+        private BatchItemResult(int index, String status, Object id, String error) {
+            this.index = index;
+            this.status = status;
+            this.id = id;
+            this.error = error;
+        }
+
+        private static BatchItemResult failed(int index, RuntimeException e) {
+            return new BatchItemResult(index, FAILED, null, e.getMessage());
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public Object getId() {
+            return id;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -4,22 +4,38 @@ import org.example.models.Block;
 import org.example.models.Cell;
 import org.example.models.Room;
 import org.example.repositories.mysql.BlockRepository;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @Transactional
 public class BlockService {
 
+    // Fields of the block REST representation
+    public static final FieldProjection<Block> RESPONSE_FIELDS = FieldProjection.of(Block.class)
+        .field("type", "type")
+        .field("prisonId", "prison.id")
+        .collection("cellIds", "cells.id")
+        .collection("roomIds", "rooms.id");
+
     private final BlockRepository blockRepository;
+    private final ResourceVersionService resourceVersions;
+    private final FieldProjectionRepository fieldProjectionRepository;
 
-    public BlockService(BlockRepository blockRepository) {
+    public BlockService(BlockRepository blockRepository, ResourceVersionService resourceVersions,
+                        FieldProjectionRepository fieldProjectionRepository) {
         this.blockRepository = blockRepository;
+        this.resourceVersions = resourceVersions;
+        this.fieldProjectionRepository = fieldProjectionRepository;
     }
 
     @Transactional(readOnly = true)
@@ -33,6 +49,17 @@ public class BlockService {
         return blockRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getBlockFields(Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getBlockFieldsById(Integer id, Collection<String> fields) {
+        Assert.notNull(id, "Block ID cannot be null");
+        return fieldProjectionRepository.findById(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), id);
+    }
+
     @Transactional(readOnly = true)
     public List<Block> getBlocksByType(String type) {
         Assert.hasText(type, "Block type cannot be null or empty");
@@ -81,6 +108,7 @@ public class BlockService {
     @Transactional
     public Block createBlock(Block block) {
         Assert.notNull(block, "Block cannot be null");
+        resourceVersions.bump(ResourceVersionService.BLOCKS);
         validateBlock(block);
         return blockRepository.save(block);
     }
@@ -89,6 +117,7 @@ public class BlockService {
     public Block updateBlock(Integer id, Block updatedBlock) {
         Assert.notNull(id, "Block ID cannot be null");
         Assert.notNull(updatedBlock, "Updated block cannot be null");
+        resourceVersions.bump(ResourceVersionService.BLOCKS);
         validateBlock(updatedBlock);
         
         return blockRepository.findById(id)
@@ -103,6 +132,8 @@ public class BlockService {
     @Transactional
     public void deleteBlock(Integer id) {
         Assert.notNull(id, "Block ID cannot be null");
+        resourceVersions.bump(ResourceVersionService.BLOCKS, ResourceVersionService.CELLS,
+            ResourceVersionService.ROOMS);
         Block block = blockRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Block not found with ID: " + id));
         blockRepository.delete(block);
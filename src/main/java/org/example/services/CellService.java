@@ -1,24 +1,47 @@
 package org.example.services;
 
+import org.example.events.CellOccupancyChangedEvent;
 import org.example.models.Cell;
 import org.example.models.Prisoner;
 import org.example.models.Block;
 import org.example.repositories.mysql.CellRepository;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 @Transactional
 public class CellService {
 
+    // Fields of the cell REST representation
+    public static final FieldProjection<Cell> RESPONSE_FIELDS = FieldProjection.of(Cell.class)
+        .field("type", "type")
+        .field("capacity", "capacity")
+        .field("blockId", "block.id")
+        .field("blockType", "block.type");
+
     private final CellRepository cellRepository;
+    private final ResourceVersionService resourceVersions;
+    private final FieldProjectionRepository fieldProjectionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CellService(CellRepository cellRepository) {
+    public CellService(CellRepository cellRepository, ResourceVersionService resourceVersions,
+                       FieldProjectionRepository fieldProjectionRepository, ApplicationEventPublisher eventPublisher) {
         this.cellRepository = cellRepository;
+        this.resourceVersions = resourceVersions;
+        this.fieldProjectionRepository = fieldProjectionRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -26,6 +49,24 @@ public class CellService {
         return cellRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCellFields(Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields));
+    }
+
+    @Transactional(readOnly = true)
+    public MultiGetResult<Map<String, Object>> getCellFieldsByIds(Collection<Integer> ids, Collection<String> fields) {
+        List<String> selected = RESPONSE_FIELDS.select(fields);
+        return MultiGetResult.load(ids,
+            distinct -> fieldProjectionRepository.findAllById(RESPONSE_FIELDS, selected, distinct));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getCellFieldsById(Integer id, Collection<String> fields) {
+        Assert.notNull(id, "Cell ID cannot be null");
+        return fieldProjectionRepository.findById(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), id);
+    }
+
     @Transactional(readOnly = true)
     public Optional<Cell> getCellById(Integer id) {
         Assert.notNull(id, "Cell ID cannot be null");
@@ -44,6 +85,13 @@ public class CellService {
         return cellRepository.findByBlockId(blockId);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCellFieldsByBlockId(Integer blockId, Collection<String> fields) {
+        Assert.notNull(blockId, "Block ID cannot be null");
+        Specification<Cell> inBlock = (root, query, builder) -> builder.equal(root.get("block").get("id"), blockId);
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), inBlock);
+    }
+
     @Transactional(readOnly = true)
     public List<Cell> getCellsByBlockIdAndType(Integer blockId, String type) {
         Assert.notNull(blockId, "Block ID cannot be null");
@@ -60,6 +108,7 @@ public class CellService {
     @Transactional
     public Cell createCell(Cell cell) {
         Assert.notNull(cell, "Cell cannot be null");
+        resourceVersions.bump(ResourceVersionService.CELLS);
         validateCell(cell);
         return cellRepository.save(cell);
     }
@@ -68,6 +117,7 @@ public class CellService {
     public Cell updateCell(Integer id, Cell updatedCell) {
         Assert.notNull(id, "Cell ID cannot be null");
         Assert.notNull(updatedCell, "Updated cell cannot be null");
+        resourceVersions.bump(ResourceVersionService.CELLS, ResourceVersionService.PRISONERS);
         validateCell(updatedCell);
         
         return cellRepository.findById(id)
@@ -83,7 +133,9 @@ public class CellService {
                 
                 // If capacity is reduced and there are more prisoners than new capacity
                 if (newCapacity < oldCapacity && currentPrisonerCount > newCapacity) {
-                    reallocateExcessPrisoners(cell, currentPrisonerCount - newCapacity);
+                    List<Integer> changedCellIds = reallocateExcessPrisoners(cell, currentPrisonerCount - newCapacity);
+                    changedCellIds.add(cell.getId());
+                    eventPublisher.publishEvent(new CellOccupancyChangedEvent(changedCellIds));
                 }
                 
                 return cellRepository.save(cell);
@@ -92,9 +144,9 @@ public class CellService {
     }
 
     /**
-     * Reallocates excess prisoners to available cells of the same type
+     * Reallocates excess prisoners to available cells of the same type; returns the cells that received them
      */
-    private void reallocateExcessPrisoners(Cell cell, int excessCount) {
+    private List<Integer> reallocateExcessPrisoners(Cell cell, int excessCount) {
         List<Prisoner> prisonersToMove = cell.getPrisoners().stream()
             .skip(cell.getCapacity()) // Get prisoners beyond the new capacity
             .limit(excessCount)
@@ -111,6 +163,7 @@ public class CellService {
         }
         
         // Reallocate prisoners
+        List<Integer> targetCellIds = new ArrayList<>();
         int cellIndex = 0;
         for (Prisoner prisoner : prisonersToMove) {
             // Find next available cell
@@ -131,17 +184,20 @@ public class CellService {
             // Save both cells
             cellRepository.save(cell);
             cellRepository.save(targetCell);
+            targetCellIds.add(targetCell.getId());
             
             // If target cell is now full, move to next cell
             if (targetCell.isAtCapacity()) {
                 cellIndex++;
             }
         }
+        return targetCellIds;
     }
 
     @Transactional
     public void deleteCell(Integer id) {
         Assert.notNull(id, "Cell ID cannot be null");
+        resourceVersions.bump(ResourceVersionService.CELLS, ResourceVersionService.BLOCKS);
         Cell cell = cellRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Cell not found with ID: " + id));
         
@@ -189,24 +245,29 @@ public class CellService {
     public void addPrisoner(Integer cellId, Prisoner prisoner) {
         Assert.notNull(cellId, "Cell ID cannot be null");
         Assert.notNull(prisoner, "Prisoner cannot be null");
+        resourceVersions.bump(ResourceVersionService.CELLS, ResourceVersionService.PRISONERS);
         
         Cell cell = cellRepository.findById(cellId)
             .orElseThrow(() -> new RuntimeException("Cell not found with ID: " + cellId));
+        Integer previousCellId = prisoner.getCell() != null ? prisoner.getCell().getId() : null;
         
         cell.addPrisoner(prisoner);
         cellRepository.save(cell);
+        eventPublisher.publishEvent(new CellOccupancyChangedEvent(Arrays.asList(previousCellId, cellId)));
     }
 
     @Transactional
     public void removePrisoner(Integer cellId, Prisoner prisoner) {
         Assert.notNull(cellId, "Cell ID cannot be null");
         Assert.notNull(prisoner, "Prisoner cannot be null");
+        resourceVersions.bump(ResourceVersionService.CELLS, ResourceVersionService.PRISONERS);
         
         Cell cell = cellRepository.findById(cellId)
             .orElseThrow(() -> new RuntimeException("Cell not found with ID: " + cellId));
         
         cell.removePrisoner(prisoner);
         cellRepository.save(cell);
+        eventPublisher.publishEvent(new CellOccupancyChangedEvent(Arrays.asList(cellId)));
     }
 
     @Transactional(readOnly = true)
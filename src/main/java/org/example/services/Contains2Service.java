@@ -6,6 +6,7 @@ import org.example.models.Department;
 import org.example.models.Room;
 import org.example.repositories.mysql.Contains2Repository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
@@ -13,6 +14,7 @@ import org.springframework.util.Assert;
 import java.util.List;
 
 @Service
+@Lazy
 @Transactional
 public class Contains2Service {
 
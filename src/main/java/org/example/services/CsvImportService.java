@@ -0,0 +1,295 @@
+package org.example.services;
+
+import org.example.models.Department;
+import org.example.models.Expense;
+import org.example.models.Staff;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+// Streams CSV files line by line into the expense and staff tables, committing every batchSize valid rows
+@Service
+@Lazy
+public class CsvImportService {
+
+    private static final Logger LOGGER = Logger.getLogger(CsvImportService.class.getName());
+    private static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private static final List<String> EXPENSE_COLUMNS = List.of("department_id", "amount", "due_date");
+    private static final List<String> STAFF_COLUMNS =
+        List.of("name", "salary", "phone", "dob", "gender", "role", "department_id");
+
+    private final ExpenseService expenseService;
+    private final StaffService staffService;
+    private final DepartmentService departmentService;
+    private final int batchSize;
+
+    @Autowired
+    public CsvImportService(ExpenseService expenseService, StaffService staffService,
+                            DepartmentService departmentService,
+                            @Value("${import.batch-size:1000}") int batchSize) {
+        Assert.isTrue(batchSize > 0, "Import batch size must be greater than 0");
+        this.expenseService = expenseService;
+        this.staffService = staffService;
+        this.departmentService = departmentService;
+        this.batchSize = batchSize;
+    }
+
+    public ImportReport importExpenses(Reader reader) {
+        Assert.notNull(reader, "Reader cannot be null");
+        Map<Integer, Department> departments = loadDepartments();
+        return importRows(reader, EXPENSE_COLUMNS, row -> {
+            Expense expense = new Expense(
+                department(departments, row.get("department_id")),
+                parseDouble(row.get("amount"), "amount"),
+                parseDate(row.get("due_date"), "due_date"));
+            expenseService.validateExpense(expense);
+            return expense;
+        }, expenseService::createExpenses);
+    }
+
+    public ImportReport importStaff(Reader reader) {
+        Assert.notNull(reader, "Reader cannot be null");
+        Map<Integer, Department> departments = loadDepartments();
+        return importRows(reader, STAFF_COLUMNS, row -> {
+            Staff staff = new Staff(
+                row.get("name"),
+                parseDecimal(row.get("salary"), "salary"),
+                row.get("phone"),
+                parseDate(row.get("dob"), "dob"),
+                row.get("gender"),
+                row.get("role"),
+                department(departments, row.get("department_id")));
+            staffService.validateStaff(staff);
+            return staff;
+        }, staffService::createStaff);
+    }
+
+    // Only the current batch and the capped rejection list are held in memory, whatever the file size
+    private <T> ImportReport importRows(Reader reader, List<String> requiredColumns,
+                                        Function<Map<String, String>, T> rowMapper, Consumer<List<T>> batchWriter) {
+        ImportReport report = new ImportReport();
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        try {
+            String headerLine = lines.readLine();
+            if (headerLine == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            Map<String, Integer> header = parseHeader(headerLine, requiredColumns);
+
+            List<T> batch = new ArrayList<>(batchSize);
+            List<Long> batchLines = new ArrayList<>(batchSize);
+            long lineNumber = 1;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(rowMapper.apply(toRow(parseLine(line), header, requiredColumns)));
+                    batchLines.add(lineNumber);
+                } catch (RuntimeException e) {
+                    report.reject(lineNumber, e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    flush(batch, batchLines, batchWriter, report);
+                }
+            }
+            flush(batch, batchLines, batchWriter, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV import", e);
+        }
+        LOGGER.info("CSV import finished: " + report.getImportedCount() + " imported, "
+            + report.getRejectedCount() + " rejected");
+        return report;
+    }
+
+    private <T> void flush(List<T> batch, List<Long> batchLines, Consumer<List<T>> batchWriter, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            batchWriter.accept(batch);
+            report.imported(batch.size());
+        } catch (RuntimeException e) {
+            // The whole transaction rolled back, so every line in it is reported
+            LOGGER.log(Level.WARNING, "Import batch of " + batch.size() + " rows failed", e);
+            for (Long lineNumber : batchLines) {
+                report.reject(lineNumber, "Batch failed: " + e.getMessage());
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private Map<Integer, Department> loadDepartments() {
+        return departmentService.getAllDepartments().stream()
+            .collect(Collectors.toMap(Department::getId, Function.identity()));
+    }
+
+    private static Department department(Map<Integer, Department> departments, String value) {
+        Integer departmentId = parseInteger(value, "department_id");
+        Department department = departments.get(departmentId);
+        if (department == null) {
+            throw new IllegalArgumentException("Department not found with id: " + departmentId);
+        }
+        return department;
+    }
+
+    private static Map<String, Integer> parseHeader(String headerLine, List<String> requiredColumns) {
+        List<String> names = parseLine(headerLine);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(), i);
+        }
+        for (String column : requiredColumns) {
+            if (!header.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + column);
+            }
+        }
+        return header;
+    }
+
+    private static Map<String, String> toRow(List<String> fields, Map<String, Integer> header, List<String> columns) {
+        Map<String, String> row = new HashMap<>();
+        for (String column : columns) {
+            int index = header.get(column);
+            if (index >= fields.size()) {
+                throw new IllegalArgumentException("Missing value for column: " + column);
+            }
+            row.put(column, fields.get(index).trim());
+        }
+        return row;
+    }
+
+    // RFC 4180 fields on a single line: commas separate, double quotes wrap, "" is an escaped quote
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Integer parseInteger(String value, String column) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String value, String column) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static BigDecimal parseDecimal(String value, String column) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String value, String column) {
+        try {
+            return LocalDate.parse(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + column + " (expected yyyy-MM-dd): " + value);
+        }
+    }
+
+    public static class ImportReport {
+        private long importedCount;
+        private long rejectedCount;
+        private final List<RejectedLine> rejectedLines = new ArrayList<>();
+
+        private void imported(int count) {
+            importedCount += count;
+        }
+
+        private void reject(long lineNumber, String reason) {
+            rejectedCount++;
+            if (rejectedLines.size() < MAX_REPORTED_REJECTIONS) {
+                rejectedLines.add(new RejectedLine(lineNumber, reason));
+            }
+        }
+
+        public long getImportedCount() {
+            return importedCount;
+        }
+
+        public long getRejectedCount() {
+            return rejectedCount;
+        }
+
+        // Capped at MAX_REPORTED_REJECTIONS; rejectedCount holds the full total
+        public List<RejectedLine> getRejectedLines() {
+            return rejectedLines;
+        }
+    }
+
+    public static class RejectedLine {
+        private final long lineNumber;
+        private final String reason;
+
+        private RejectedLine(long lineNumber, String reason) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
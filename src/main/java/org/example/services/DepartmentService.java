@@ -2,20 +2,35 @@ package org.example.services;
 
 import org.example.models.Department;
 import org.example.repositories.mysql.DepartmentRepository;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
 public class DepartmentService {
 
+    // Fields of the department REST representation
+    public static final FieldProjection<Department> RESPONSE_FIELDS = FieldProjection.of(Department.class)
+        .field("type", "type")
+        .field("status", "status")
+        .field("prisonId", "prisonId");
+
     private final DepartmentRepository departmentRepository;
+    private final ResourceVersionService resourceVersions;
+    private final FieldProjectionRepository fieldProjectionRepository;
 
-    public DepartmentService(DepartmentRepository departmentRepository) {
+    public DepartmentService(DepartmentRepository departmentRepository, ResourceVersionService resourceVersions,
+                             FieldProjectionRepository fieldProjectionRepository) {
         this.departmentRepository = departmentRepository;
+        this.resourceVersions = resourceVersions;
+        this.fieldProjectionRepository = fieldProjectionRepository;
     }
 
     @Transactional(readOnly = true)
@@ -29,6 +44,18 @@ public class DepartmentService {
         return departmentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Department not found with ID: " + id));
     }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDepartmentFields(Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDepartmentFieldsById(Integer id, Collection<String> fields) {
+        Assert.notNull(id, "Department ID cannot be null");
+        return fieldProjectionRepository.findById(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), id)
+            .orElseThrow(() -> new RuntimeException("Department not found with ID: " + id));
+    }
     
     @Transactional(readOnly = true)
     public Department getDepartmentByIdWithRelations(Integer id) {
@@ -65,6 +92,7 @@ public class DepartmentService {
     @Transactional
     public Department createDepartment(Department department) {
         Assert.notNull(department, "Department cannot be null");
+        resourceVersions.bump(ResourceVersionService.DEPARTMENTS);
         validateDepartment(department);
         return departmentRepository.save(department);
     }
@@ -73,6 +101,7 @@ public class DepartmentService {
     public Department updateDepartment(Integer id, Department updatedDepartment) {
         Assert.notNull(id, "Department ID cannot be null");
         Assert.notNull(updatedDepartment, "Updated department cannot be null");
+        resourceVersions.bump(ResourceVersionService.DEPARTMENTS);
         validateDepartment(updatedDepartment);
         
         return departmentRepository.findById(id)
@@ -87,6 +116,8 @@ public class DepartmentService {
     @Transactional
     public void deleteDepartment(Integer id) {
         Assert.notNull(id, "Department ID cannot be null");
+        resourceVersions.bump(ResourceVersionService.DEPARTMENTS, ResourceVersionService.EXPENSES,
+            ResourceVersionService.STAFF, ResourceVersionService.ROOMS);
         departmentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Department not found with ID: " + id));
         departmentRepository.deleteById(id);
@@ -105,6 +136,7 @@ public class DepartmentService {
     @Transactional
     public void activateDepartment(Integer id) {
         Assert.notNull(id, "Department ID cannot be null");
+        resourceVersions.bump(ResourceVersionService.DEPARTMENTS);
         Department department = getDepartmentById(id);
         department.activate();
         departmentRepository.save(department);
@@ -113,6 +145,7 @@ public class DepartmentService {
     @Transactional
     public void deactivateDepartment(Integer id) {
         Assert.notNull(id, "Department ID cannot be null");
+        resourceVersions.bump(ResourceVersionService.DEPARTMENTS);
         Department department = getDepartmentById(id);
         department.deactivate();
         departmentRepository.save(department);
@@ -0,0 +1,227 @@
+package org.example.services;
+
+import jakarta.annotation.PostConstruct;
+import org.example.models.Equipment;
+import org.example.models.EquipmentMaintenanceLog;
+import org.example.models.EquipmentMaintenanceState;
+import org.example.models.RoomMaintenanceRollup;
+import org.example.repositories.mongodb.EquipmentMaintenanceRepository;
+import org.example.repositories.mysql.EquipmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+// Joins maintenance logs (Mongo) with equipment (MySQL). Each item's last and next service dates are
+// folded from its logs once and kept in a due-date index, so room rollups only need the room's
+// equipment ids and never read the logs item by item.
+@Service
+public class EquipmentMaintenanceScheduleService {
+
+    private static final Logger LOGGER = Logger.getLogger(EquipmentMaintenanceScheduleService.class.getName());
+
+    private final EquipmentMaintenanceRepository maintenanceRepository;
+    private final EquipmentRepository equipmentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final int serviceIntervalDays;
+    private final int dueSoonDays;
+
+    // Guarded by this
+    private final Map<Integer, EquipmentMaintenanceState> states = new HashMap<>();
+    private final NavigableMap<LocalDate, Set<Integer>> dueIndex = new TreeMap<>();
+    // The newest refresh started for each item; an older read that finishes later is dropped
+    private final Map<Integer, Long> latestRefresh = new HashMap<>();
+    private long refreshSequence;
+
+    @Autowired
+    public EquipmentMaintenanceScheduleService(EquipmentMaintenanceRepository maintenanceRepository,
+                                               EquipmentRepository equipmentRepository,
+                                               MongoTemplate mongoTemplate,
+                                               @Value("${equipment.maintenance.interval-days:90}") int serviceIntervalDays,
+                                               @Value("${equipment.maintenance.due-soon-days:14}") int dueSoonDays) {
+        Assert.isTrue(serviceIntervalDays > 0, "Maintenance interval must be greater than 0");
+        Assert.isTrue(dueSoonDays >= 0, "Due-soon window cannot be negative");
+        this.maintenanceRepository = maintenanceRepository;
+        this.equipmentRepository = equipmentRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.serviceIntervalDays = serviceIntervalDays;
+        this.dueSoonDays = dueSoonDays;
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        states.clear();
+        dueIndex.clear();
+        // Refreshes still reading started before this full read, so their results are older
+        latestRefresh.clear();
+        Map<Integer, EquipmentMaintenanceState> folded = fold(mongoTemplate.find(logFieldsOnly(new Query()),
+            EquipmentMaintenanceLog.class));
+        folded.values().forEach(this::index);
+        LOGGER.info("Maintenance schedule built for " + states.size() + " equipment items");
+    }
+
+    // Re-reads the logs of the given equipment in one query after their maintenance records changed. The read
+    // runs outside the lock; an item is only updated if no refresh of it started after this one, since that
+    // refresh reads a snapshot at least as new.
+    public void refresh(Collection<Integer> equipmentIds) {
+        Assert.notNull(equipmentIds, "Equipment IDs cannot be null");
+        Set<Integer> ids = new HashSet<>(equipmentIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+        long sequence;
+        synchronized (this) {
+            sequence = ++refreshSequence;
+            for (Integer id : ids) {
+                latestRefresh.put(id, sequence);
+            }
+        }
+        Map<Integer, EquipmentMaintenanceState> folded = fold(mongoTemplate.find(
+            logFieldsOnly(Query.query(Criteria.where("equipmentId").in(ids))), EquipmentMaintenanceLog.class));
+        synchronized (this) {
+            for (Integer id : ids) {
+                if (!Long.valueOf(sequence).equals(latestRefresh.get(id))) {
+                    continue;
+                }
+                latestRefresh.remove(id);
+                unindex(id);
+                EquipmentMaintenanceState state = folded.get(id);
+                if (state != null) {
+                    index(state);
+                }
+            }
+        }
+    }
+
+    public synchronized EquipmentMaintenanceState getState(Integer equipmentId) {
+        Assert.notNull(equipmentId, "Equipment ID cannot be null");
+        EquipmentMaintenanceState state = states.get(equipmentId);
+        return state != null ? state : EquipmentMaintenanceState.neverServiced(equipmentId);
+    }
+
+    public synchronized Map<Integer, EquipmentMaintenanceState> getStates(Collection<Integer> equipmentIds) {
+        Assert.notNull(equipmentIds, "Equipment IDs cannot be null");
+        Map<Integer, EquipmentMaintenanceState> result = new LinkedHashMap<>();
+        for (Integer id : equipmentIds) {
+            EquipmentMaintenanceState state = states.get(id);
+            result.put(id, state != null ? state : EquipmentMaintenanceState.neverServiced(id));
+        }
+        return result;
+    }
+
+    // Equipment whose next service date falls on or before the given date, earliest first
+    public synchronized List<Integer> getEquipmentDueBy(LocalDate date) {
+        Assert.notNull(date, "Date cannot be null");
+        List<Integer> due = new ArrayList<>();
+        dueIndex.headMap(date, true).values().forEach(due::addAll);
+        return due;
+    }
+
+    public String getStatus(EquipmentMaintenanceState state) {
+        Assert.notNull(state, "Maintenance state cannot be null");
+        return state.statusOn(LocalDate.now(), dueSoonDays);
+    }
+
+    // One id query against MySQL, then the states come from the index
+    public RoomMaintenanceRollup getRoomRollup(Integer roomId) {
+        Assert.notNull(roomId, "Room ID cannot be null");
+        LocalDate today = LocalDate.now();
+        RoomMaintenanceRollup rollup = new RoomMaintenanceRollup(roomId);
+        for (EquipmentMaintenanceState state : getStates(equipmentRepository.findIdsByRoomId(roomId)).values()) {
+            rollup.add(state, state.statusOn(today, dueSoonDays));
+        }
+        return rollup;
+    }
+
+    // Fills the transient maintenance logs of the given equipment with one query
+    public void loadMaintenanceLogs(Collection<Equipment> equipment) {
+        Assert.notNull(equipment, "Equipment cannot be null");
+        Map<Integer, Equipment> byId = new HashMap<>();
+        for (Equipment item : equipment) {
+            if (item.getId() != null) {
+                byId.put(item.getId(), item);
+                item.getMaintenanceLogs().clear();
+            }
+        }
+        if (byId.isEmpty()) {
+            return;
+        }
+        for (EquipmentMaintenanceLog log : maintenanceRepository.findByEquipmentIdIn(byId.keySet())) {
+            Equipment item = byId.get(log.getEquipmentId());
+            if (item != null) {
+                item.getMaintenanceLogs().add(log);
+            }
+        }
+    }
+
+    private Map<Integer, EquipmentMaintenanceState> fold(List<EquipmentMaintenanceLog> logs) {
+        Map<Integer, LocalDateTime> lastService = new HashMap<>();
+        Map<Integer, int[]> openCounts = new HashMap<>(); // [pending, in progress]
+        for (EquipmentMaintenanceLog log : logs) {
+            Integer id = log.getEquipmentId();
+            if (id == null) {
+                continue;
+            }
+            int[] counts = openCounts.computeIfAbsent(id, key -> new int[2]);
+            if (log.isCompleted() && log.getMaintenanceDate() != null) {
+                lastService.merge(id, log.getMaintenanceDate(), (a, b) -> a.isAfter(b) ? a : b);
+            } else if (log.isPending()) {
+                counts[0]++;
+            } else if (log.isInProgress()) {
+                counts[1]++;
+            }
+        }
+
+        Map<Integer, EquipmentMaintenanceState> folded = new HashMap<>();
+        for (Map.Entry<Integer, int[]> entry : openCounts.entrySet()) {
+            LocalDateTime last = lastService.get(entry.getKey());
+            LocalDate next = last != null ? last.toLocalDate().plusDays(serviceIntervalDays) : null;
+            folded.put(entry.getKey(), new EquipmentMaintenanceState(entry.getKey(), last, next,
+                entry.getValue()[0], entry.getValue()[1]));
+        }
+        return folded;
+    }
+
+    private void index(EquipmentMaintenanceState state) {
+        states.put(state.getEquipmentId(), state);
+        if (state.getNextServiceDate() != null) {
+            dueIndex.computeIfAbsent(state.getNextServiceDate(), key -> new HashSet<>()).add(state.getEquipmentId());
+        }
+    }
+
+    private void unindex(Integer equipmentId) {
+        EquipmentMaintenanceState previous = states.remove(equipmentId);
+        if (previous != null && previous.getNextServiceDate() != null) {
+            Set<Integer> ids = dueIndex.get(previous.getNextServiceDate());
+            if (ids != null) {
+                ids.remove(equipmentId);
+                if (ids.isEmpty()) {
+                    dueIndex.remove(previous.getNextServiceDate());
+                }
+            }
+        }
+    }
+
+    private static Query logFieldsOnly(Query query) {
+        query.fields().include("equipmentId", "maintenanceDate", "status");
+        return query;
+    }
+}
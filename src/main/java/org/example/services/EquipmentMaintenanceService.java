@@ -7,6 +7,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
@@ -14,9 +15,12 @@ import java.util.List;
 public class EquipmentMaintenanceService {
 
     private final EquipmentMaintenanceRepository maintenanceRepository;
+    private final EquipmentMaintenanceScheduleService scheduleService;
 
-    public EquipmentMaintenanceService(EquipmentMaintenanceRepository maintenanceRepository) {
+    public EquipmentMaintenanceService(EquipmentMaintenanceRepository maintenanceRepository,
+                                       EquipmentMaintenanceScheduleService scheduleService) {
         this.maintenanceRepository = maintenanceRepository;
+        this.scheduleService = scheduleService;
     }
 
     @Transactional(readOnly = true)
@@ -72,7 +76,9 @@ public class EquipmentMaintenanceService {
     public EquipmentMaintenanceLog createMaintenanceRecord(EquipmentMaintenanceLog record) {
         Assert.notNull(record, "Maintenance record cannot be null");
         validateMaintenanceRecord(record);
-        return maintenanceRepository.save(record);
+        EquipmentMaintenanceLog saved = maintenanceRepository.save(record);
+        scheduleService.refresh(Arrays.asList(saved.getEquipmentId()));
+        return saved;
     }
 
     @Transactional
@@ -83,13 +89,16 @@ public class EquipmentMaintenanceService {
         
         return maintenanceRepository.findById(id)
             .map(record -> {
+                Integer previousEquipmentId = record.getEquipmentId();
                 record.setEquipmentId(updatedRecord.getEquipmentId());
                 record.setMaintenanceDate(updatedRecord.getMaintenanceDate());
                 record.setType(updatedRecord.getType());
                 record.setDescription(updatedRecord.getDescription());
                 record.setTechnician(updatedRecord.getTechnician());
                 record.setStatus(updatedRecord.getStatus());
-                return maintenanceRepository.save(record);
+                EquipmentMaintenanceLog saved = maintenanceRepository.save(record);
+                scheduleService.refresh(Arrays.asList(previousEquipmentId, saved.getEquipmentId()));
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("Maintenance record not found with ID: " + id));
     }
@@ -97,9 +106,10 @@ public class EquipmentMaintenanceService {
     @Transactional
     public void deleteMaintenanceRecord(String id) {
         Assert.hasText(id, "Maintenance record ID cannot be null or empty");
-        maintenanceRepository.findById(id)
+        EquipmentMaintenanceLog record = maintenanceRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Maintenance record not found with ID: " + id));
         maintenanceRepository.deleteById(id);
+        scheduleService.refresh(Arrays.asList(record.getEquipmentId()));
     }
 
     private void validateMaintenanceRecord(EquipmentMaintenanceLog record) {
@@ -119,6 +129,7 @@ public class EquipmentMaintenanceService {
         EquipmentMaintenanceLog record = getMaintenanceRecordById(id);
         record.setStatus(newStatus);
         maintenanceRepository.save(record);
+        scheduleService.refresh(Arrays.asList(record.getEquipmentId()));
     }
 
     @Transactional(readOnly = true)
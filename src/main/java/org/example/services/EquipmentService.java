@@ -1,20 +1,43 @@
 package org.example.services;
 
 import org.example.models.Equipment;
+import org.example.models.EquipmentMaintenanceState;
 import org.example.repositories.mysql.EquipmentRepository;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class EquipmentService {
 
+    // Fields of the equipment REST representation
+    public static final FieldProjection<Equipment> RESPONSE_FIELDS = FieldProjection.of(Equipment.class)
+        .field("name", "name")
+        .field("amount", "amount")
+        .field("description", "description")
+        .field("roomId", "room.id");
+
     private final EquipmentRepository equipmentRepository;
+    private final ResourceVersionService resourceVersions;
+    private final FieldProjectionRepository fieldProjectionRepository;
+    private final EquipmentMaintenanceScheduleService maintenanceScheduleService;
 
-    public EquipmentService(EquipmentRepository equipmentRepository) {
+    public EquipmentService(EquipmentRepository equipmentRepository, ResourceVersionService resourceVersions,
+                            FieldProjectionRepository fieldProjectionRepository,
+                            EquipmentMaintenanceScheduleService maintenanceScheduleService) {
         this.equipmentRepository = equipmentRepository;
+        this.resourceVersions = resourceVersions;
+        this.fieldProjectionRepository = fieldProjectionRepository;
+        this.maintenanceScheduleService = maintenanceScheduleService;
     }
 
     @Transactional(readOnly = true)
@@ -22,6 +45,26 @@ public class EquipmentService {
         return equipmentRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public void forEachEquipmentRow(Consumer<Object[]> action) {
+        Assert.notNull(action, "Action cannot be null");
+        try (Stream<Object[]> rows = equipmentRepository.streamAllRows()) {
+            rows.forEach(action);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getEquipmentFields(Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getEquipmentFieldsById(Integer id, Collection<String> fields) {
+        Assert.notNull(id, "Equipment ID cannot be null");
+        return fieldProjectionRepository.findById(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), id)
+            .orElseThrow(() -> new RuntimeException("Equipment not found with ID: " + id));
+    }
+
     @Transactional(readOnly = true)
     public Equipment getEquipmentById(Integer id) {
         Assert.notNull(id, "Equipment ID cannot be null");
@@ -35,15 +78,27 @@ public class EquipmentService {
         return equipmentRepository.findByName(name);
     }
 
+    // The room's equipment with its maintenance logs, read from Mongo in one query for the whole room
     @Transactional(readOnly = true)
     public List<Equipment> getEquipmentByRoomId(Integer roomId) {
         Assert.notNull(roomId, "Room ID cannot be null");
-        return equipmentRepository.findByRoom_Id(roomId);
+        List<Equipment> equipment = equipmentRepository.findByRoom_Id(roomId);
+        maintenanceScheduleService.loadMaintenanceLogs(equipment);
+        return equipment;
+    }
+
+    // Maintenance states of the equipment due for service on or before the date, earliest first
+    @Transactional(readOnly = true)
+    public List<EquipmentMaintenanceState> getMaintenanceDueBy(LocalDate date) {
+        Assert.notNull(date, "Date cannot be null");
+        return List.copyOf(maintenanceScheduleService.getStates(maintenanceScheduleService.getEquipmentDueBy(date))
+            .values());
     }
 
     @Transactional
     public Equipment createEquipment(Equipment equipment) {
         Assert.notNull(equipment, "Equipment cannot be null");
+        resourceVersions.bump(ResourceVersionService.EQUIPMENT, ResourceVersionService.ROOMS);
         validateEquipment(equipment);
         return equipmentRepository.save(equipment);
     }
@@ -52,6 +107,7 @@ public class EquipmentService {
     public Equipment updateEquipment(Integer id, Equipment updatedEquipment) {
         Assert.notNull(id, "Equipment ID cannot be null");
         Assert.notNull(updatedEquipment, "Updated equipment cannot be null");
+        resourceVersions.bump(ResourceVersionService.EQUIPMENT, ResourceVersionService.ROOMS);
         validateEquipment(updatedEquipment);
         
         return equipmentRepository.findById(id)
@@ -68,6 +124,7 @@ public class EquipmentService {
     @Transactional
     public void deleteEquipment(Integer id) {
         Assert.notNull(id, "Equipment ID cannot be null");
+        resourceVersions.bump(ResourceVersionService.EQUIPMENT, ResourceVersionService.ROOMS);
         equipmentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Equipment not found with ID: " + id));
         equipmentRepository.deleteById(id);
@@ -0,0 +1,199 @@
+package org.example.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.events.ExpenseChangedEvent;
+import org.example.events.ExpenseSnapshot;
+import org.example.events.ExpensesCreatedEvent;
+import org.example.repositories.mysql.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Service
+public class ExpenseOverdueScanner {
+
+    private static final Logger LOGGER = Logger.getLogger(ExpenseOverdueScanner.class.getName());
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseService expenseService;
+    private final int batchSize;
+
+    // Min-heap of pending expenses by due date. Entries are removed lazily: an entry is only
+    // live while it matches pendingDueDates, so updates never have to search the heap.
+    private final PriorityQueue<DueEntry> dueHeap = new PriorityQueue<>();
+    private final Map<Integer, LocalDate> pendingDueDates = new HashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "expense-overdue-scanner");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> nextScan;
+    private ZonedDateTime nextScanTime;
+
+    @Autowired
+    public ExpenseOverdueScanner(ExpenseRepository expenseRepository,
+                                ExpenseService expenseService,
+                                @Value("${expenses.overdue-scanner.batch-size:500}") int batchSize) {
+        this.expenseRepository = expenseRepository;
+        this.expenseService = expenseService;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        for (Object[] row : expenseRepository.findPendingDueDates()) {
+            track((Integer) row[0], (LocalDate) row[1]);
+        }
+        LOGGER.info("Overdue scanner tracking " + pendingDueDates.size() + " pending expenses");
+        // Anything already past due is flipped straight away
+        scheduleAt(ZonedDateTime.now());
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onExpenseChanged(ExpenseChangedEvent event) {
+        ExpenseSnapshot before = event.getBefore();
+        ExpenseSnapshot after = event.getAfter();
+        if (before != null) {
+            pendingDueDates.remove(before.getExpenseId());
+        }
+        if (after != null && "PENDING".equals(after.getStatus())) {
+            track(after.getExpenseId(), after.getDueDate());
+        }
+        if (dueHeap.size() > 2 * pendingDueDates.size() + 1024) {
+            compact();
+        }
+        scheduleNext();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onExpensesCreated(ExpensesCreatedEvent event) {
+        for (ExpenseSnapshot expense : event.getExpenses()) {
+            if ("PENDING".equals(expense.getStatus())) {
+                track(expense.getExpenseId(), expense.getDueDate());
+            }
+        }
+        scheduleNext();
+    }
+
+    private void scan() {
+        List<Integer> due = takeDue(LocalDate.now());
+        int flipped = 0;
+        boolean failed = false;
+        for (int start = 0; start < due.size(); start += batchSize) {
+            List<Integer> batch = due.subList(start, Math.min(start + batchSize, due.size()));
+            try {
+                flipped += expenseService.markExpensesOverdue(batch);
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Failed to mark " + batch.size() + " expenses as overdue", e);
+                retry(batch);
+                failed = true;
+            }
+        }
+        if (!due.isEmpty()) {
+            LOGGER.info("Overdue scanner flipped " + flipped + " of " + due.size() + " due expenses");
+        }
+        synchronized (this) {
+            nextScan = null;
+            nextScanTime = null;
+            if (failed) {
+                scheduleAt(ZonedDateTime.now().plus(RETRY_DELAY));
+            } else {
+                scheduleNext();
+            }
+        }
+    }
+
+    private synchronized List<Integer> takeDue(LocalDate today) {
+        List<Integer> due = new ArrayList<>();
+        while (!dueHeap.isEmpty() && dueHeap.peek().dueDate.isBefore(today)) {
+            DueEntry entry = dueHeap.poll();
+            if (entry.dueDate.equals(pendingDueDates.get(entry.expenseId))) {
+                pendingDueDates.remove(entry.expenseId);
+                due.add(entry.expenseId);
+            }
+        }
+        return due;
+    }
+
+    // A failed batch goes back on the heap and is picked up by the next scan
+    private synchronized void retry(List<Integer> batch) {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        for (Integer id : batch) {
+            pendingDueDates.putIfAbsent(id, yesterday);
+            dueHeap.add(new DueEntry(id, pendingDueDates.get(id)));
+        }
+    }
+
+    private void track(Integer expenseId, LocalDate dueDate) {
+        pendingDueDates.put(expenseId, dueDate);
+        dueHeap.add(new DueEntry(expenseId, dueDate));
+    }
+
+    private void compact() {
+        dueHeap.clear();
+        pendingDueDates.forEach((id, dueDate) -> dueHeap.add(new DueEntry(id, dueDate)));
+    }
+
+    // An expense becomes overdue at the start of the day after its due date
+    private void scheduleNext() {
+        while (!dueHeap.isEmpty() && !dueHeap.peek().dueDate.equals(pendingDueDates.get(dueHeap.peek().expenseId))) {
+            dueHeap.poll();
+        }
+        if (dueHeap.isEmpty()) {
+            return;
+        }
+        scheduleAt(dueHeap.peek().dueDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()));
+    }
+
+    private void scheduleAt(ZonedDateTime wakeTime) {
+        if (nextScanTime != null && !wakeTime.isBefore(nextScanTime)) {
+            return;
+        }
+        if (nextScan != null) {
+            nextScan.cancel(false);
+        }
+        long delay = Math.max(0, Duration.between(ZonedDateTime.now(), wakeTime).toMillis());
+        nextScan = scheduler.schedule(this::scan, delay, TimeUnit.MILLISECONDS);
+        nextScanTime = wakeTime;
+    }
+
+    private static final class DueEntry implements Comparable<DueEntry> {
+        private final Integer expenseId;
+        private final LocalDate dueDate;
+
+        private DueEntry(Integer expenseId, LocalDate dueDate) {
+            this.expenseId = expenseId;
+            this.dueDate = dueDate;
+        }
+
+        @Override
+        public int compareTo(DueEntry other) {
+            return dueDate.compareTo(other.dueDate);
+        }
+    }
+}
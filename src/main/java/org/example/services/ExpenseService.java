@@ -3,23 +3,49 @@ package org.example.services;
 import org.example.models.Expense;
 import org.example.models.Department;
 import org.example.repositories.mysql.ExpenseRepository;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
+import org.example.events.ExpenseChangedEvent;
+import org.example.events.ExpenseSnapshot;
+import org.example.events.ExpensesCreatedEvent;
+import org.example.events.ExpensesOverdueEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.math.BigDecimal;
 
 @Service
 @Transactional
 public class ExpenseService {
+
+    // Fields of the expense REST representation
+    public static final FieldProjection<Expense> RESPONSE_FIELDS = FieldProjection.of(Expense.class)
+        .field("departmentId", "department.id")
+        .field("departmentType", "department.type")
+        .field("amount", "amount")
+        .field("dueDate", "dueDate")
+        .field("status", "status");
     
     private final ExpenseRepository expenseRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceVersionService resourceVersions;
+    private final FieldProjectionRepository fieldProjectionRepository;
     
     @Autowired
-    public ExpenseService(ExpenseRepository expenseRepository) {
+    public ExpenseService(ExpenseRepository expenseRepository, ApplicationEventPublisher eventPublisher,
+                          ResourceVersionService resourceVersions,
+                          FieldProjectionRepository fieldProjectionRepository) {
         this.expenseRepository = expenseRepository;
+        this.eventPublisher = eventPublisher;
+        this.resourceVersions = resourceVersions;
+        this.fieldProjectionRepository = fieldProjectionRepository;
     }
     
     @Transactional(readOnly = true)
@@ -35,6 +61,20 @@ public class ExpenseService {
         return expenseRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Expense not found with id: " + id));
     }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getExpenseFields(Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getExpenseFieldsById(Integer id, Collection<String> fields) {
+        if (id == null) {
+            throw new IllegalArgumentException("Expense ID cannot be null");
+        }
+        return fieldProjectionRepository.findById(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), id)
+            .orElseThrow(() -> new RuntimeException("Expense not found with id: " + id));
+    }
     
     @Transactional
     public Expense createExpense(Expense expense) {
@@ -45,7 +85,26 @@ public class ExpenseService {
         
         expense.setStatus("PENDING");
         
-        return expenseRepository.save(expense);
+        Expense savedExpense = expenseRepository.save(expense);
+        publishChange(null, ExpenseSnapshot.of(savedExpense));
+        return savedExpense;
+    }
+    
+    // Saves one import batch in a single transaction and announces it with a single event. The importer has
+    // already run validateExpense on every row, so that a bad row is rejected on its own instead of failing the batch
+    @Transactional
+    List<Expense> createExpenses(List<Expense> expenses) {
+        if (expenses == null) {
+            throw new IllegalArgumentException("Expenses cannot be null");
+        }
+        for (Expense expense : expenses) {
+            expense.setStatus("PENDING");
+        }
+        
+        List<Expense> savedExpenses = expenseRepository.saveAll(expenses);
+        resourceVersions.bump(ResourceVersionService.EXPENSES);
+        eventPublisher.publishEvent(new ExpensesCreatedEvent(savedExpenses.stream().map(ExpenseSnapshot::of).toList()));
+        return savedExpenses;
     }
     
     @Transactional
@@ -59,14 +118,21 @@ public class ExpenseService {
         
         Expense existingExpense = getExpenseById(id);
         validateExpense(updatedExpense);
+        ExpenseSnapshot before = ExpenseSnapshot.of(existingExpense);
         
         // Only update allowed fields
         existingExpense.setDepartment(updatedExpense.getDepartment());
         existingExpense.setAmount(updatedExpense.getAmount());
         existingExpense.setDueDate(updatedExpense.getDueDate());
         existingExpense.setStatus(updatedExpense.getStatus());
+        if ("OVERDUE".equals(existingExpense.getStatus()) && !existingExpense.getDueDate().isBefore(LocalDate.now())) {
+            // Moving the due date forward re-opens an overdue expense
+            existingExpense.setStatus("PENDING");
+        }
         
-        return expenseRepository.save(existingExpense);
+        Expense savedExpense = expenseRepository.save(existingExpense);
+        publishChange(before, ExpenseSnapshot.of(savedExpense));
+        return savedExpense;
     }
     
     @Transactional
@@ -76,11 +142,12 @@ public class ExpenseService {
         }
         
         Expense expense = getExpenseById(id);
-        if (!"PENDING".equals(expense.getStatus())) {
+        if (!expense.isUnpaid()) {
             throw new IllegalStateException("Cannot delete expense that is not pending. Current status: " + expense.getStatus());
         }
         
         expenseRepository.deleteById(id);
+        publishChange(ExpenseSnapshot.of(expense), null);
     }
     
     @Transactional(readOnly = true)
@@ -184,13 +251,16 @@ public class ExpenseService {
         }
         
         Expense expense = getExpenseById(id);
+        ExpenseSnapshot before = ExpenseSnapshot.of(expense);
         expense.setStatus("PAID");
-        return expenseRepository.save(expense);
+        Expense savedExpense = expenseRepository.save(expense);
+        publishChange(before, ExpenseSnapshot.of(savedExpense));
+        return savedExpense;
     }
     
     @Transactional(readOnly = true)
     public List<Expense> getOverdueExpenses() {
-        return expenseRepository.findByStatusAndDueDateBefore("PENDING", LocalDate.now());
+        return expenseRepository.findByStatus("OVERDUE");
     }
     
     @Transactional(readOnly = true)
@@ -198,14 +268,46 @@ public class ExpenseService {
         if (department == null) {
             throw new IllegalArgumentException("Department cannot be null");
         }
-        return expenseRepository.findByDepartmentIdAndStatusAndDueDateBefore(
-            department.getId(),
-            "PENDING",
-            LocalDate.now()
-        );
+        return expenseRepository.findByDepartmentIdAndStatus(department.getId(), "OVERDUE");
+    }
+    
+    // Flips one batch of pending expenses past their due date to OVERDUE with a single UPDATE
+    @Transactional
+    public int markExpensesOverdue(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        LocalDate today = LocalDate.now();
+        List<ExpenseSnapshot> overdue = expenseRepository.findAllById(ids).stream()
+            .filter(expense -> expense.isPending() && expense.getDueDate().isBefore(today))
+            .map(ExpenseSnapshot::of)
+            .toList();
+        if (overdue.isEmpty()) {
+            return 0;
+        }
+        
+        expenseRepository.markOverdue(overdue.stream().map(ExpenseSnapshot::getExpenseId).toList());
+        
+        for (ExpenseSnapshot before : overdue) {
+            publishChange(before, before.withStatus("OVERDUE"));
+        }
+        Map<Integer, List<ExpenseSnapshot>> byDepartment = overdue.stream()
+            .collect(Collectors.groupingBy(ExpenseSnapshot::getDepartmentId));
+        byDepartment.forEach((departmentId, snapshots) -> eventPublisher.publishEvent(new ExpensesOverdueEvent(
+            departmentId,
+            snapshots.stream().map(ExpenseSnapshot::getExpenseId).toList(),
+            snapshots.stream().mapToDouble(ExpenseSnapshot::getAmount).sum()
+        )));
+        return overdue.size();
+    }
+    
+    // Every expense write ends here, so this is also where the REST version counter moves
+    private void publishChange(ExpenseSnapshot before, ExpenseSnapshot after) {
+        resourceVersions.bump(ResourceVersionService.EXPENSES);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(before, after));
     }
     
-    private void validateExpense(Expense expense) {
+    public void validateExpense(Expense expense) {
         if (expense.getDepartment() == null) {
             throw new IllegalArgumentException("Department cannot be null");
         }
@@ -0,0 +1,174 @@
+package org.example.services;
+
+import org.example.events.ExpenseChangedEvent;
+import org.example.events.ExpenseSnapshot;
+import org.example.events.ExpensesCreatedEvent;
+import org.example.repositories.mysql.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+@Service
+public class ExpenseStatisticsService {
+
+    private static final Logger LOGGER = Logger.getLogger(ExpenseStatisticsService.class.getName());
+
+    private final ExpenseRepository expenseRepository;
+
+    // Per-department rollup counters, seeded from grouped queries and kept current on every committed write
+    private final Map<Integer, ExpenseTotals> rollups = new HashMap<>();
+    private boolean seeded;
+
+    @Autowired
+    public ExpenseStatisticsService(ExpenseRepository expenseRepository) {
+        this.expenseRepository = expenseRepository;
+    }
+
+    public synchronized ExpenseTotals getExpenseTotals() {
+        ensureCurrent();
+        ExpenseTotals totals = new ExpenseTotals();
+        rollups.values().forEach(totals::add);
+        return totals;
+    }
+
+    public synchronized ExpenseTotals getDepartmentExpenseTotals(Integer departmentId) {
+        Assert.notNull(departmentId, "Department ID cannot be null");
+        ensureCurrent();
+        ExpenseTotals totals = new ExpenseTotals();
+        ExpenseTotals rollup = rollups.get(departmentId);
+        if (rollup != null) {
+            totals.add(rollup);
+        }
+        return totals;
+    }
+
+    // Applies the difference between two states of an expense once the surrounding transaction commits
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onExpenseChanged(ExpenseChangedEvent event) {
+        if (!seeded) {
+            // Nothing seeded yet; the first read will rebuild from the committed state
+            return;
+        }
+        if (event.getBefore() != null) {
+            apply(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            apply(event.getAfter(), 1);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onExpensesCreated(ExpensesCreatedEvent event) {
+        if (!seeded) {
+            return;
+        }
+        for (ExpenseSnapshot expense : event.getExpenses()) {
+            apply(expense, 1);
+        }
+    }
+
+    public synchronized void rebuild() {
+        rollups.clear();
+
+        List<Object[]> byStatus = expenseRepository.sumExpensesByDepartmentAndStatus();
+        for (Object[] row : byStatus) {
+            ExpenseTotals rollup = rollups.computeIfAbsent((Integer) row[0], id -> new ExpenseTotals());
+            rollup.addStatus((String) row[1], (Long) row[2], toDouble(row[3]));
+        }
+
+        seeded = true;
+        LOGGER.info("Expense rollups rebuilt for " + rollups.size() + " departments");
+    }
+
+    private void apply(ExpenseSnapshot snapshot, int sign) {
+        ExpenseTotals rollup = rollups.computeIfAbsent(snapshot.getDepartmentId(), id -> new ExpenseTotals());
+        rollup.addStatus(snapshot.getStatus(), sign, sign * snapshot.getAmount());
+    }
+
+    private void ensureCurrent() {
+        if (!seeded) {
+            rebuild();
+        }
+    }
+
+    private static double toDouble(Object value) {
+        return value != null ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    public static class ExpenseTotals {
+        private long totalCount;
+        private double totalAmount;
+        private long pendingCount;
+        private double pendingAmount;
+        private long paidCount;
+        private double paidAmount;
+        private long overdueCount;
+        private double overdueAmount;
+
+        private void addStatus(String status, long count, double amount) {
+            totalCount += count;
+            totalAmount += amount;
+            // Overdue expenses are still unpaid, so they count towards pending as well
+            if ("PENDING".equals(status) || "OVERDUE".equals(status)) {
+                pendingCount += count;
+                pendingAmount += amount;
+            }
+            if ("OVERDUE".equals(status)) {
+                overdueCount += count;
+                overdueAmount += amount;
+            } else if ("PAID".equals(status)) {
+                paidCount += count;
+                paidAmount += amount;
+            }
+        }
+
+        private void add(ExpenseTotals other) {
+            totalCount += other.totalCount;
+            totalAmount += other.totalAmount;
+            pendingCount += other.pendingCount;
+            pendingAmount += other.pendingAmount;
+            paidCount += other.paidCount;
+            paidAmount += other.paidAmount;
+            overdueCount += other.overdueCount;
+            overdueAmount += other.overdueAmount;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public double getTotalAmount() {
+            return totalAmount;
+        }
+
+        public long getPendingCount() {
+            return pendingCount;
+        }
+
+        public double getPendingAmount() {
+            return pendingAmount;
+        }
+
+        public long getPaidCount() {
+            return paidCount;
+        }
+
+        public double getPaidAmount() {
+            return paidAmount;
+        }
+
+        public long getOverdueCount() {
+            return overdueCount;
+        }
+
+        public double getOverdueAmount() {
+            return overdueAmount;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.services;
+
+import jakarta.annotation.PostConstruct;
+import org.example.events.ExpenseChangedEvent;
+import org.example.events.ExpenseSnapshot;
+import org.example.events.ExpensesCreatedEvent;
+import org.example.models.ExpenseMonthlyRollup;
+import org.example.repositories.mongodb.ExpenseMonthlyRollupRepository;
+import org.example.repositories.mysql.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+@Service
+public class ExpenseTimeSeriesService {
+
+    private static final Logger LOGGER = Logger.getLogger(ExpenseTimeSeriesService.class.getName());
+
+    private final ExpenseMonthlyRollupRepository rollupRepository;
+    private final ExpenseRepository expenseRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public ExpenseTimeSeriesService(ExpenseMonthlyRollupRepository rollupRepository,
+                                    ExpenseRepository expenseRepository,
+                                    MongoTemplate mongoTemplate) {
+        this.rollupRepository = rollupRepository;
+        this.expenseRepository = expenseRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // The rollup store is filled from history once and afterwards maintained incrementally. On later starts only
+    // the months from the newest rolled-up one (or the current month, if that is earlier) are recomputed; a change
+    // to an older month whose event was missed while the application was down stays wrong until rebuild() runs.
+    @PostConstruct
+    public void backfill() {
+        Optional<ExpenseMonthlyRollup> newest = rollupRepository.findFirstByOrderByMonthDesc();
+        if (newest.isEmpty()) {
+            rebuild();
+            return;
+        }
+        YearMonth newestMonth = YearMonth.parse(newest.get().getMonth());
+        rebuildFrom(newestMonth.isBefore(YearMonth.now()) ? newestMonth : YearMonth.now());
+    }
+
+    // Recomputes every bucket from the expenses table
+    public int rebuild() {
+        List<ExpenseMonthlyRollup> rollups = toRollups(expenseRepository.sumExpensesByDepartmentMonthAndStatus());
+        replace(rollups, Criteria.where("month").exists(true));
+        LOGGER.info("Expense time series rebuilt with " + rollups.size() + " monthly buckets");
+        return rollups.size();
+    }
+
+    // Replaces the buckets of the given month and every later one
+    public void rebuildFrom(YearMonth from) {
+        Assert.notNull(from, "Month cannot be null");
+        List<ExpenseMonthlyRollup> rollups =
+            toRollups(expenseRepository.sumExpensesByDepartmentMonthAndStatusSince(from.atDay(1)));
+        replace(rollups, Criteria.where("month").gte(from.toString()));
+        LOGGER.info("Expense time series backfilled from " + from + " with " + rollups.size() + " monthly buckets");
+    }
+
+    // Overwrites the buckets in place with upserts and then removes the buckets of the range that no longer have
+    // any expenses. A bucket is never missing or replaced as a whole document, so concurrent $inc updates to it
+    // are not dropped the way they were between a remove and a re-insert.
+    private void replace(List<ExpenseMonthlyRollup> rollups, Criteria range) {
+        List<String> ids = new ArrayList<>(rollups.size());
+        if (!rollups.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseMonthlyRollup.class);
+            for (ExpenseMonthlyRollup rollup : rollups) {
+                ids.add(rollup.getId());
+                bulk.upsert(Query.query(Criteria.where("_id").is(rollup.getId())), new Update()
+                    .set("departmentId", rollup.getDepartmentId())
+                    .set("month", rollup.getMonth())
+                    .set("status", rollup.getStatus())
+                    .set("count", rollup.getCount())
+                    .set("amount", rollup.getAmount()));
+            }
+            bulk.execute();
+        }
+        mongoTemplate.remove(Query.query(new Criteria().andOperator(range, Criteria.where("_id").nin(ids))),
+            ExpenseMonthlyRollup.class);
+    }
+
+    private static List<ExpenseMonthlyRollup> toRollups(List<Object[]> rows) {
+        List<ExpenseMonthlyRollup> rollups = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+            rollups.add(new ExpenseMonthlyRollup((Integer) row[0], month, (String) row[3],
+                (Long) row[4], row[5] != null ? ((Number) row[5]).doubleValue() : 0.0));
+        }
+        return rollups;
+    }
+
+    public List<ExpenseMonthlyRollup> getTimeSeries(Integer departmentId, int months) {
+        Assert.isTrue(months > 0, "Months must be greater than 0");
+        YearMonth to = YearMonth.now();
+        YearMonth from = to.minusMonths(months - 1L);
+
+        List<ExpenseMonthlyRollup> rollups = departmentId != null
+            ? rollupRepository.findByDepartmentIdAndMonthRange(departmentId, from.toString(), to.toString())
+            : rollupRepository.findByMonthRange(from.toString(), to.toString());
+        rollups.sort(Comparator.comparing(ExpenseMonthlyRollup::getMonth)
+            .thenComparing(ExpenseMonthlyRollup::getDepartmentId)
+            .thenComparing(ExpenseMonthlyRollup::getStatus));
+        return rollups;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        if (event.getBefore() != null) {
+            increment(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            increment(event.getAfter(), 1);
+        }
+    }
+
+    // A created batch is summed per bucket first, so each bucket it touches gets a single $inc
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesCreated(ExpensesCreatedEvent event) {
+        Map<String, ExpenseMonthlyRollup> buckets = new LinkedHashMap<>();
+        for (ExpenseSnapshot snapshot : event.getExpenses()) {
+            YearMonth month = YearMonth.from(snapshot.getDueDate());
+            ExpenseMonthlyRollup bucket = buckets.computeIfAbsent(
+                ExpenseMonthlyRollup.idFor(snapshot.getDepartmentId(), month, snapshot.getStatus()),
+                id -> new ExpenseMonthlyRollup(snapshot.getDepartmentId(), month, snapshot.getStatus(), 0, 0.0));
+            bucket.setCount(bucket.getCount() + 1);
+            bucket.setAmount(bucket.getAmount() + snapshot.getAmount());
+        }
+        if (buckets.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExpenseMonthlyRollup.class);
+        for (ExpenseMonthlyRollup bucket : buckets.values()) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(bucket.getId())),
+                incrementOf(bucket.getDepartmentId(), bucket.getMonth(), bucket.getStatus(),
+                    bucket.getCount(), bucket.getAmount()));
+        }
+        bulk.execute();
+    }
+
+    // Atomic $inc upsert so concurrent writers never lose an update to the same bucket
+    private void increment(ExpenseSnapshot snapshot, int sign) {
+        YearMonth month = YearMonth.from(snapshot.getDueDate());
+        String id = ExpenseMonthlyRollup.idFor(snapshot.getDepartmentId(), month, snapshot.getStatus());
+        Update update = incrementOf(snapshot.getDepartmentId(), month.toString(), snapshot.getStatus(),
+            sign, sign * snapshot.getAmount());
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(id)), update, ExpenseMonthlyRollup.class);
+    }
+
+    private static Update incrementOf(Integer departmentId, String month, String status, long count, double amount) {
+        return new Update()
+            .setOnInsert("departmentId", departmentId)
+            .setOnInsert("month", month)
+            .setOnInsert("status", status)
+            .inc("count", count)
+            .inc("amount", amount);
+    }
+}
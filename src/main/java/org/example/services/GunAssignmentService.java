@@ -1,5 +1,6 @@
 package org.example.services;
 
+import org.example.events.GunAssignmentChangedEvent;
 import org.example.models.Gun;
 import org.example.models.GunAssignment;
 import org.example.models.GunAssignmentId;
@@ -7,11 +8,15 @@ import org.example.models.Staff;
 import org.example.repositories.mysql.GunAssignmentRepository;
 import org.example.repositories.mysql.GunRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -20,14 +25,17 @@ public class GunAssignmentService {
     private final GunAssignmentRepository gunAssignmentRepository;
     private final GunRepository gunRepository;
     private final StaffService staffService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public GunAssignmentService(GunAssignmentRepository gunAssignmentRepository,
                                GunRepository gunRepository,
-                               StaffService staffService) {
+                               StaffService staffService,
+                               ApplicationEventPublisher eventPublisher) {
         this.gunAssignmentRepository = gunAssignmentRepository;
         this.gunRepository = gunRepository;
         this.staffService = staffService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -67,13 +75,16 @@ public class GunAssignmentService {
         GunAssignment assignment = new GunAssignment();
         assignment.setGun(gun);
         assignment.setStaff(staff);
-        return gunAssignmentRepository.save(assignment);
+        GunAssignment savedAssignment = gunAssignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new GunAssignmentChangedEvent(gunSerialNumber, staffId, true));
+        return savedAssignment;
     }
 
     @Transactional
     public void removeGunAssignment(String gunSerialNumber, Integer staffId) {
         GunAssignmentId id = new GunAssignmentId(gunSerialNumber, staffId);
         gunAssignmentRepository.deleteById(id);
+        eventPublisher.publishEvent(new GunAssignmentChangedEvent(gunSerialNumber, staffId, false));
     }
 
     public List<GunAssignment> getGunAssignmentsByStaffId(Integer staffId) {
@@ -105,7 +116,10 @@ public class GunAssignmentService {
 
         GunAssignment assignment = activeAssignment.get();
         assignment.markAsReturned();
-        return gunAssignmentRepository.save(assignment);
+        GunAssignment savedAssignment = gunAssignmentRepository.save(assignment);
+        eventPublisher.publishEvent(new GunAssignmentChangedEvent(gun.getSerialNumber(),
+            assignment.getStaff().getId(), false));
+        return savedAssignment;
     }
 
     @Transactional(readOnly = true)
@@ -118,6 +132,13 @@ public class GunAssignmentService {
         return gunAssignmentRepository.findByStaff(staff);
     }
 
+    // Assignments for many guns in one query, grouped by gun serial number
+    @Transactional(readOnly = true)
+    public Map<String, List<GunAssignment>> getGunAssignmentsByGunSerialNumbers(Collection<String> serialNumbers) {
+        return gunAssignmentRepository.findByGunSerialNumberIn(serialNumbers).stream()
+                .collect(Collectors.groupingBy(assignment -> assignment.getGun().getSerialNumber()));
+    }
+
     @Transactional(readOnly = true)
     public List<Staff> getStaffByGunId(String gunSerialNumber) {
         List<GunAssignment> assignments = gunAssignmentRepository.findByGunSerialNumber(gunSerialNumber);
@@ -0,0 +1,241 @@
+package org.example.services;
+
+import jakarta.annotation.PostConstruct;
+import org.example.models.GunMaintenanceRecord;
+import org.example.repositories.mongodb.GunMaintenanceRepository;
+import org.example.repositories.mysql.GunRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+@Service
+public class GunMaintenanceService {
+
+    private static final Logger LOGGER = Logger.getLogger(GunMaintenanceService.class.getName());
+
+    private final GunMaintenanceRepository maintenanceRepository;
+    private final GunRepository gunRepository;
+    private final MongoTemplate mongoTemplate;
+
+    // Due-date priority index: every weapon ordered by next service date, then serial number
+    private final ConcurrentSkipListSet<DueEntry> dueIndex = new ConcurrentSkipListSet<>();
+    private final Map<String, DueEntry> entriesBySerialNumber = new ConcurrentHashMap<>();
+    // Number of weapons due on each date, so counting walks the distinct dates rather than every weapon
+    private final ConcurrentNavigableMap<LocalDate, Long> dueCounts = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public GunMaintenanceService(GunMaintenanceRepository maintenanceRepository, GunRepository gunRepository,
+                                 MongoTemplate mongoTemplate) {
+        this.maintenanceRepository = maintenanceRepository;
+        this.gunRepository = gunRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @PostConstruct
+    public void rebuildIndex() {
+        Map<String, GunMaintenanceRecord> records = maintenanceRepository.findAll().stream()
+            .collect(Collectors.toMap(GunMaintenanceRecord::getSerialNumber, Function.identity()));
+
+        clearIndex();
+        for (String serialNumber : gunRepository.findAllSerialNumbers()) {
+            GunMaintenanceRecord record = records.get(serialNumber);
+            index(serialNumber, dueDate(record));
+        }
+        LOGGER.info("Gun maintenance index built for " + entriesBySerialNumber.size() + " weapons");
+    }
+
+    public GunMaintenanceRecord getMaintenanceRecord(String serialNumber) {
+        Assert.hasText(serialNumber, "Serial number cannot be null or empty");
+        return maintenanceRepository.findById(serialNumber)
+            .orElseGet(() -> new GunMaintenanceRecord(serialNumber));
+    }
+
+    public GunMaintenanceRecord recordUsage(String serialNumber, int rounds) {
+        Assert.hasText(serialNumber, "Serial number cannot be null or empty");
+        Assert.isTrue(rounds >= 0, "Rounds cannot be negative");
+        verifyGunExists(serialNumber);
+
+        // Counted on the server, so concurrent reports for the same weapon all add up
+        GunMaintenanceRecord saved = update(serialNumber, new Update()
+            .inc("roundsFired", rounds)
+            .inc("roundsSinceService", rounds)
+            .inc("usageCount", 1)
+            .set("lastUsedDate", LocalDate.now()));
+        afterCommit(() -> index(serialNumber, dueDate(saved)));
+        return saved;
+    }
+
+    public GunMaintenanceRecord recordService(String serialNumber, LocalDate serviceDate) {
+        Assert.hasText(serialNumber, "Serial number cannot be null or empty");
+        Assert.notNull(serviceDate, "Service date cannot be null");
+        Assert.isTrue(!serviceDate.isAfter(LocalDate.now()), "Service date cannot be in the future");
+        verifyGunExists(serialNumber);
+
+        GunMaintenanceRecord saved = update(serialNumber, new Update()
+            .set("lastServiceDate", serviceDate)
+            .set("roundsSinceService", 0L));
+        afterCommit(() -> index(serialNumber, dueDate(saved)));
+        return saved;
+    }
+
+    // Called inside the transaction that creates the gun; it is indexed once that commits
+    public void registerGun(String serialNumber) {
+        Assert.hasText(serialNumber, "Serial number cannot be null or empty");
+        afterCommit(() -> {
+            if (!entriesBySerialNumber.containsKey(serialNumber)) {
+                index(serialNumber, dueDate(getMaintenanceRecord(serialNumber)));
+            }
+        });
+    }
+
+    // Called inside the transaction that deletes the gun; a rollback keeps its record and index entry
+    public void unregisterGun(String serialNumber) {
+        Assert.hasText(serialNumber, "Serial number cannot be null or empty");
+        afterCommit(() -> {
+            maintenanceRepository.deleteById(serialNumber);
+            removeFromIndex(serialNumber);
+        });
+    }
+
+    public List<String> getSerialNumbersDueForMaintenance(LocalDate date, int limit) {
+        Assert.notNull(date, "Date cannot be null");
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+        List<String> serialNumbers = new ArrayList<>(Math.min(limit, 1024));
+        for (DueEntry entry : dueIndex.headSet(upperBound(date))) {
+            if (serialNumbers.size() >= limit) {
+                break;
+            }
+            serialNumbers.add(entry.serialNumber);
+        }
+        return serialNumbers;
+    }
+
+    public long getDueForMaintenanceCount(LocalDate date) {
+        Assert.notNull(date, "Date cannot be null");
+        long count = 0;
+        for (long due : dueCounts.headMap(date, true).values()) {
+            count += due;
+        }
+        return count;
+    }
+
+    // Applies the update to the weapon's record in one operation, creating the record on first use, and
+    // returns the record as it is afterwards
+    private GunMaintenanceRecord update(String serialNumber, Update update) {
+        Query bySerialNumber = Query.query(Criteria.where("_id").is(serialNumber));
+        try {
+            return mongoTemplate.findAndModify(bySerialNumber, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), GunMaintenanceRecord.class);
+        } catch (DuplicateKeyException e) {
+            // Another report created the record first; it exists now
+            return mongoTemplate.findAndModify(bySerialNumber, update,
+                FindAndModifyOptions.options().returnNew(true), GunMaintenanceRecord.class);
+        }
+    }
+
+    // Index key: a weapon that was never serviced sorts before every dated one
+    private static LocalDate dueDate(GunMaintenanceRecord record) {
+        LocalDate nextServiceDate = record != null ? record.getNextServiceDate() : null;
+        return nextServiceDate != null ? nextServiceDate : LocalDate.MIN;
+    }
+
+    private void verifyGunExists(String serialNumber) {
+        if (!gunRepository.existsBySerialNumber(serialNumber)) {
+            throw new RuntimeException("Gun not found with serial number: " + serialNumber);
+        }
+    }
+
+    // Smallest possible entry for the day after the given date, so the head set holds everything due on or before it
+    private DueEntry upperBound(LocalDate date) {
+        return new DueEntry(date.plusDays(1), "");
+    }
+
+    // Inside a transaction the change waits for the commit, so the index never holds a change that is
+    // rolled back
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private synchronized void clearIndex() {
+        dueIndex.clear();
+        entriesBySerialNumber.clear();
+        dueCounts.clear();
+    }
+
+    private synchronized void index(String serialNumber, LocalDate nextServiceDate) {
+        DueEntry entry = new DueEntry(nextServiceDate, serialNumber);
+        DueEntry previous = entriesBySerialNumber.put(serialNumber, entry);
+        if (previous != null) {
+            dueIndex.remove(previous);
+            dueCounts.computeIfPresent(previous.dueDate, (date, count) -> count > 1 ? count - 1 : null);
+        }
+        dueIndex.add(entry);
+        dueCounts.merge(nextServiceDate, 1L, Long::sum);
+    }
+
+    private synchronized void removeFromIndex(String serialNumber) {
+        DueEntry previous = entriesBySerialNumber.remove(serialNumber);
+        if (previous != null) {
+            dueIndex.remove(previous);
+            dueCounts.computeIfPresent(previous.dueDate, (date, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static final class DueEntry implements Comparable<DueEntry> {
+        private final LocalDate dueDate;
+        private final String serialNumber;
+
+        private DueEntry(LocalDate dueDate, String serialNumber) {
+            this.dueDate = dueDate;
+            this.serialNumber = serialNumber;
+        }
+
+        @Override
+        public int compareTo(DueEntry other) {
+            int byDate = dueDate.compareTo(other.dueDate);
+            return byDate != 0 ? byDate : serialNumber.compareTo(other.serialNumber);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            DueEntry that = (DueEntry) o;
+            return dueDate.equals(that.dueDate) && serialNumber.equals(that.serialNumber);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * dueDate.hashCode() + serialNumber.hashCode();
+        }
+    }
+}
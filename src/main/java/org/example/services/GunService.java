@@ -1,20 +1,39 @@
 package org.example.services;
 
 import org.example.models.Gun;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
 import org.example.repositories.mysql.GunRepository;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class GunService {
 
+    // Fields of the gun multi-get representation; guns are keyed by serial number
+    public static final FieldProjection<Gun> RESPONSE_FIELDS = FieldProjection.of(Gun.class, "serialNumber")
+        .field("type", "type")
+        .field("name", "name");
+
     private final GunRepository gunRepository;
+    private final GunMaintenanceService gunMaintenanceService;
+    private final FieldProjectionRepository fieldProjectionRepository;
 
-    public GunService(GunRepository gunRepository) {
+    public GunService(GunRepository gunRepository, GunMaintenanceService gunMaintenanceService,
+                      FieldProjectionRepository fieldProjectionRepository) {
         this.gunRepository = gunRepository;
+        this.gunMaintenanceService = gunMaintenanceService;
+        this.fieldProjectionRepository = fieldProjectionRepository;
     }
 
     @Transactional(readOnly = true)
@@ -29,6 +48,52 @@ public class GunService {
             .orElseThrow(() -> new RuntimeException("Gun not found with serial number: " + serialNumber));
     }
 
+    @Transactional(readOnly = true)
+    public MultiGetResult<Map<String, Object>> getGunFieldsBySerialNumbers(Collection<String> serialNumbers,
+                                                                           Collection<String> fields) {
+        List<String> selected = RESPONSE_FIELDS.select(fields);
+        return MultiGetResult.load(serialNumbers,
+            distinct -> fieldProjectionRepository.findAllById(RESPONSE_FIELDS, selected, distinct));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getGunFields(Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getGunFieldsByType(String type, Collection<String> fields) {
+        Assert.hasText(type, "Gun type cannot be null or empty");
+        return findGunFields(ofType(type), fields);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getGunFieldsByAssignedStaffId(Integer staffId, Collection<String> fields) {
+        Assert.notNull(staffId, "Staff ID cannot be null");
+        return findGunFields(assignedTo(staffId), fields);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getGunFieldsByAssignedStaffIdAndType(Integer staffId, String type,
+                                                                          Collection<String> fields) {
+        Assert.notNull(staffId, "Staff ID cannot be null");
+        Assert.hasText(type, "Gun type cannot be null or empty");
+        return findGunFields(assignedTo(staffId).and(ofType(type)), fields);
+    }
+
+    private List<Map<String, Object>> findGunFields(Specification<Gun> where, Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), where);
+    }
+
+    private static Specification<Gun> ofType(String type) {
+        return (root, query, builder) -> builder.equal(root.get("type"), type);
+    }
+
+    // Inner join on the assignment table, as in GunRepository.findByAssignedStaffId
+    private static Specification<Gun> assignedTo(Integer staffId) {
+        return (root, query, builder) -> builder.equal(root.join("assignedStaff").get("id"), staffId);
+    }
+
     @Transactional(readOnly = true)
     public List<Gun> getGunsByType(String type) {
         Assert.hasText(type, "Gun type cannot be null or empty");
@@ -52,7 +117,9 @@ public class GunService {
     public Gun createGun(Gun gun) {
         Assert.notNull(gun, "Gun cannot be null");
         validateGun(gun);
-        return gunRepository.save(gun);
+        Gun savedGun = gunRepository.save(gun);
+        gunMaintenanceService.registerGun(savedGun.getSerialNumber());
+        return savedGun;
     }
 
     @Transactional
@@ -76,6 +143,7 @@ public class GunService {
         gunRepository.findBySerialNumber(serialNumber)
             .orElseThrow(() -> new RuntimeException("Gun not found with serial number: " + serialNumber));
         gunRepository.deleteById(serialNumber);
+        gunMaintenanceService.unregisterGun(serialNumber);
     }
 
     private void validateGun(Gun gun) {
@@ -101,4 +169,34 @@ public class GunService {
         Assert.notNull(staffId, "Staff ID cannot be null");
         return gunRepository.countByAssignedStaffId(staffId);
     }
+
+    @Transactional(readOnly = true)
+    public Map<String, Long> getGunCountsByType() {
+        List<Object[]> results = gunRepository.countGunsByType();
+        return results.stream()
+            .collect(Collectors.toMap(
+                row -> (String) row[0],
+                row -> (Long) row[1]
+            ));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Gun> getGunsDueForMaintenance(int limit) {
+        List<String> serialNumbers = gunMaintenanceService.getSerialNumbersDueForMaintenance(LocalDate.now(), limit);
+        // findAllById returns rows in database order; put them back in due order
+        Map<String, Gun> guns = gunRepository.findAllById(serialNumbers).stream()
+            .collect(Collectors.toMap(Gun::getSerialNumber, Function.identity()));
+        List<Gun> due = new ArrayList<>(guns.size());
+        for (String serialNumber : serialNumbers) {
+            Gun gun = guns.get(serialNumber);
+            if (gun != null) {
+                due.add(gun);
+            }
+        }
+        return due;
+    }
+
+    public long getGunsDueForMaintenanceCount() {
+        return gunMaintenanceService.getDueForMaintenanceCount(LocalDate.now());
+    }
 }
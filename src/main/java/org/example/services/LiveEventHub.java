@@ -0,0 +1,249 @@
+package org.example.services;
+
+import jakarta.annotation.PreDestroy;
+import org.example.events.LiveEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Fan-out of live events to SSE subscribers. Every event is numbered and kept in a bounded replay window so a
+// reconnecting client can resume from its Last-Event-ID. SSE ids are "<epoch>-<sequence>" with the start-up
+// epoch, so an id from before a restart gets a reset. Publishing never blocks on a
+// client: each subscriber has a bounded buffer drained by its own virtual thread, which also sends the heartbeat
+// when the stream is idle, so a slow client only ever holds up itself. A subscriber whose buffer fills up, or
+// whose write takes longer than the send timeout, is disconnected and left to reconnect and replay.
+@Service
+public class LiveEventHub {
+
+    private static final Logger LOGGER = Logger.getLogger(LiveEventHub.class.getName());
+    private static final String RESET = "reset";
+
+    private final int bufferSize;
+    private final int replaySize;
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final long sendTimeoutNanos;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Deque<LiveEvent> replay = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ThreadFactory subscriberThreads = Thread.ofVirtual().name("live-events-", 1).factory();
+
+    // Only watches for stuck writes; it never writes to a client itself
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-events-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public LiveEventHub(@Value("${live-events.subscriber-buffer:256}") int bufferSize,
+                        @Value("${live-events.replay-size:1000}") int replaySize,
+                        @Value("${live-events.timeout-ms:1800000}") long timeoutMillis,
+                        @Value("${live-events.heartbeat-ms:20000}") long heartbeatMillis,
+                        @Value("${live-events.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        Assert.isTrue(bufferSize > 0, "Subscriber buffer must be greater than 0");
+        Assert.isTrue(replaySize >= 0, "Replay size cannot be negative");
+        Assert.isTrue(heartbeatMillis > 0, "Heartbeat interval must be greater than 0");
+        Assert.isTrue(sendTimeoutMillis > 0, "Send timeout must be greater than 0");
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.timeoutMillis = timeoutMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        long checkMillis = Math.max(1, sendTimeoutMillis / 4);
+        watchdog.scheduleWithFixedDelay(this::dropStuckSubscribers, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        watchdog.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        subscribers.clear();
+    }
+
+    public void publish(String type, Integer prisonId, Integer blockId, Map<String, Object> data) {
+        LiveEvent event;
+        // Numbering and the replay window share the lock with subscribe, so a new subscriber sees each
+        // event exactly once, either from the replay or from its buffer
+        synchronized (replay) {
+            event = new LiveEvent(sequence.incrementAndGet(), type, prisonId, blockId, data);
+            if (replaySize > 0) {
+                replay.addLast(event);
+                if (replay.size() > replaySize) {
+                    replay.removeFirst();
+                }
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (event.matches(subscriber.prisonId, subscriber.blockId)) {
+                    subscriber.offer(event);
+                }
+            }
+        }
+    }
+
+    public SseEmitter subscribe(Integer prisonId, Integer blockId, String lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), prisonId, blockId);
+        subscriber.emitter.onCompletion(subscriber::close);
+        subscriber.emitter.onTimeout(subscriber::close);
+        subscriber.emitter.onError(error -> subscriber.close());
+        synchronized (replay) {
+            if (lastEventId != null) {
+                replayTo(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.start();
+        return subscriber.emitter;
+    }
+
+    private void replayTo(Subscriber subscriber, String lastEventId) {
+        long current = sequence.get();
+        long oldest = replay.isEmpty() ? current + 1 : replay.peekFirst().getId();
+        long last = sequenceOf(lastEventId);
+        // Ids from another epoch or older than the window cannot be resumed; the client reloads
+        if (last < 0 || last > current || last < oldest - 1) {
+            subscriber.offer(new LiveEvent(current, RESET, null, null, Map.of("lastEventId", eventId(current))));
+            return;
+        }
+        for (LiveEvent event : replay) {
+            if (event.getId() > last && event.matches(subscriber.prisonId, subscriber.blockId)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private String eventId(long id) {
+        return epoch + '-' + id;
+    }
+
+    // The sequence of an id from this epoch, or -1 for anything else
+    private long sequenceOf(String lastEventId) {
+        String prefix = epoch + '-';
+        if (!lastEventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void dropStuckSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutNanos) {
+                LOGGER.warning("Live event subscriber did not accept a write within the send timeout, disconnecting");
+                subscriber.close();
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Integer prisonId;
+        private final Integer blockId;
+        private final BlockingQueue<LiveEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private volatile Thread thread;
+        private volatile boolean closed;
+        // System.nanoTime() when the current write started, 0 between writes
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter, Integer prisonId, Integer blockId) {
+            this.emitter = emitter;
+            this.prisonId = prisonId;
+            this.blockId = blockId;
+        }
+
+        private void offer(LiveEvent event) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                LOGGER.warning("Live event subscriber fell " + bufferSize + " events behind, disconnecting");
+                close();
+            }
+        }
+
+        private void start() {
+            thread = subscriberThreads.newThread(this::drain);
+            thread.start();
+        }
+
+        // The only place the emitter is written to or completed, so no other thread ever waits on it
+        private void drain() {
+            try {
+                while (!closed) {
+                    LiveEvent event = buffer.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (closed) {
+                        break;
+                    }
+                    sendingSince = System.nanoTime();
+                    if (event == null) {
+                        // Comments keep proxies from closing idle streams and reveal clients that went away
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                            .id(eventId(event.getId()))
+                            .name(event.getType())
+                            .data(event, MediaType.APPLICATION_JSON));
+                    }
+                    sendingSince = 0;
+                }
+            } catch (InterruptedException e) {
+                LOGGER.log(Level.FINE, "Live event subscriber disconnected", e);
+            } catch (IOException | IllegalStateException e) {
+                LOGGER.log(Level.FINE, "Live event subscriber went away", e);
+            } finally {
+                sendingSince = 0;
+                close();
+                Thread.interrupted();
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException e) {
+                    LOGGER.log(Level.FINE, "Live event stream already closed", e);
+                }
+            }
+        }
+
+        // Safe from any thread and never blocks: the drain thread notices and completes the stream
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            buffer.clear();
+            Thread drainThread = thread;
+            if (drainThread != null && drainThread != Thread.currentThread()) {
+                drainThread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.services;
+
+import jakarta.annotation.PreDestroy;
+import org.example.events.CellOccupancyChangedEvent;
+import org.example.events.ExpenseChangedEvent;
+import org.example.events.ExpenseSnapshot;
+import org.example.events.ExpensesCreatedEvent;
+import org.example.events.GunAssignmentChangedEvent;
+import org.example.events.VisitorLogStatusChangedEvent;
+import org.example.repositories.mysql.CellRepository;
+import org.example.repositories.mysql.DepartmentRepository;
+import org.example.repositories.mysql.PrisonerRepository;
+import org.example.repositories.mysql.StaffRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+// Turns committed domain events into compact live events for LiveEventHub. The listeners run after
+// commit, so subscribers never see a change that was rolled back; the prison and block lookups run on a
+// single background thread, which keeps them off the writing request and keeps events in commit order.
+@Service
+public class LiveEventService {
+
+    private static final Logger LOGGER = Logger.getLogger(LiveEventService.class.getName());
+
+    public static final String CELL_OCCUPANCY = "cell-occupancy";
+    public static final String VISITOR_LOG_STATUS = "visitor-log-status";
+    public static final String GUN_ASSIGNMENT = "gun-assignment";
+    public static final String EXPENSE_STATUS = "expense-status";
+
+    private final LiveEventHub hub;
+    private final CellRepository cellRepository;
+    private final PrisonerRepository prisonerRepository;
+    private final StaffRepository staffRepository;
+    private final DepartmentRepository departmentRepository;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-event-resolver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public LiveEventService(LiveEventHub hub, CellRepository cellRepository, PrisonerRepository prisonerRepository,
+                            StaffRepository staffRepository, DepartmentRepository departmentRepository) {
+        this.hub = hub;
+        this.cellRepository = cellRepository;
+        this.prisonerRepository = prisonerRepository;
+        this.staffRepository = staffRepository;
+        this.departmentRepository = departmentRepository;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCellOccupancyChanged(CellOccupancyChangedEvent event) {
+        if (event.getCellIds().isEmpty()) {
+            return;
+        }
+        submit(() -> {
+            for (Object[] row : cellRepository.findOccupancyByIds(event.getCellIds())) {
+                Map<String, Object> data = new LinkedHashMap<>();
+                data.put("cellId", row[0]);
+                data.put("occupancy", row[4]);
+                data.put("capacity", row[3]);
+                hub.publish(CELL_OCCUPANCY, (Integer) row[2], (Integer) row[1], data);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisitorLogStatusChanged(VisitorLogStatusChangedEvent event) {
+        submit(() -> {
+            Integer prisonId = null;
+            Integer blockId = null;
+            if (event.getPrisonerId() != null) {
+                List<Object[]> rows = prisonerRepository.findBlockAndPrisonIdByPrisonerId(event.getPrisonerId());
+                if (!rows.isEmpty()) {
+                    blockId = (Integer) rows.get(0)[0];
+                    prisonId = (Integer) rows.get(0)[1];
+                }
+            }
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("visitorLogId", event.getVisitorLogId());
+            data.put("prisonerId", event.getPrisonerId());
+            data.put("status", event.getStatus());
+            data.put("deleted", event.isDeleted());
+            hub.publish(VISITOR_LOG_STATUS, prisonId, blockId, data);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGunAssignmentChanged(GunAssignmentChangedEvent event) {
+        submit(() -> {
+            Integer prisonId = event.getStaffId() == null ? null
+                : staffRepository.findPrisonIdByStaffId(event.getStaffId());
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("serialNumber", event.getSerialNumber());
+            data.put("staffId", event.getStaffId());
+            data.put("assigned", event.isAssigned());
+            hub.publish(GUN_ASSIGNMENT, prisonId, null, data);
+        });
+    }
+
+    // Only creates, deletes and status changes are pushed; edits to amount or description are not
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        ExpenseSnapshot before = event.getBefore();
+        ExpenseSnapshot after = event.getAfter();
+        if (before != null && after != null && Objects.equals(before.getStatus(), after.getStatus())) {
+            return;
+        }
+        ExpenseSnapshot current = after != null ? after : before;
+        submit(() -> {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("expenseId", current.getExpenseId());
+            data.put("departmentId", current.getDepartmentId());
+            data.put("status", after == null ? null : after.getStatus());
+            data.put("deleted", after == null);
+            hub.publish(EXPENSE_STATUS, departmentRepository.findPrisonIdById(current.getDepartmentId()), null, data);
+        });
+    }
+
+    // One event per department for a created batch rather than one per expense
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpensesCreated(ExpensesCreatedEvent event) {
+        Map<Integer, List<ExpenseSnapshot>> byDepartment = event.getExpenses().stream()
+            .collect(Collectors.groupingBy(ExpenseSnapshot::getDepartmentId, LinkedHashMap::new, Collectors.toList()));
+        if (byDepartment.isEmpty()) {
+            return;
+        }
+        submit(() -> byDepartment.forEach((departmentId, expenses) -> {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("expenseIds", expenses.stream().map(ExpenseSnapshot::getExpenseId).toList());
+            data.put("departmentId", departmentId);
+            data.put("status", "PENDING");
+            data.put("deleted", false);
+            hub.publish(EXPENSE_STATUS, departmentRepository.findPrisonIdById(departmentId), null, data);
+        }));
+    }
+
+    private void submit(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Failed to publish live event", e);
+            }
+        });
+    }
+}
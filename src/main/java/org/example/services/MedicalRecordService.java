@@ -1,22 +1,93 @@
 package org.example.services;
 
+import jakarta.annotation.PostConstruct;
 import org.example.models.MedicalRecord;
 import org.example.repositories.mongodb.MedicalRecordRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.logging.Logger;
 
 @Service
 @Transactional
 public class MedicalRecordService {
 
+    private static final Logger LOGGER = Logger.getLogger(MedicalRecordService.class.getName());
+    private static final String TEXT_INDEX_NAME = "medicalRecords_text";
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private MedicalRecordRepository medicalRecordRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Diagnosis matches weigh most, then treatment, then free-form notes
+    @PostConstruct
+    public void ensureTextIndex() {
+        TextIndexDefinition textIndex = new TextIndexDefinition.TextIndexDefinitionBuilder()
+            .named(TEXT_INDEX_NAME)
+            .onField("diagnosis", 3F)
+            .onField("treatment", 2F)
+            .onField("doctorNotes", 1F)
+            .build();
+        mongoTemplate.indexOps(MedicalRecord.class).ensureIndex(textIndex);
+        LOGGER.info("Medical record text index ready");
+    }
+
+    // Relevance-ranked search over diagnosis, treatment and doctor notes. The text index picks the
+    // candidates; prisoner, status and date filters narrow them, and only one page is read.
+    @Transactional(readOnly = true)
+    public Page<MedicalRecord> searchMedicalRecords(String text, Integer prisonerId, String status,
+                                                    LocalDateTime from, LocalDateTime to, int page, int size) {
+        Assert.hasText(text, "Search text cannot be null or empty");
+        Assert.isTrue(page >= 0, "Page must not be negative");
+        Assert.isTrue(size > 0 && size <= MAX_PAGE_SIZE, "Page size must be between 1 and " + MAX_PAGE_SIZE);
+        if (from != null && to != null) {
+            Assert.isTrue(!to.isBefore(from), "End date must not be before start date");
+        }
+
+        Pageable pageable = PageRequest.of(page, size);
+        Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text.trim()))
+            .sortByScore()
+            .with(pageable);
+        if (prisonerId != null) {
+            query.addCriteria(Criteria.where("prisoner.id").is(prisonerId));
+        }
+        if (status != null && !status.isBlank()) {
+            query.addCriteria(Criteria.where("status").is(status.trim().toUpperCase()));
+        }
+        if (from != null || to != null) {
+            Criteria recordDate = Criteria.where("recordDate");
+            if (from != null) {
+                recordDate.gte(from);
+            }
+            if (to != null) {
+                recordDate.lte(to);
+            }
+            query.addCriteria(recordDate);
+        }
+
+        List<MedicalRecord> records = mongoTemplate.find(query, MedicalRecord.class);
+        return PageableExecutionUtils.getPage(records, pageable,
+            () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), MedicalRecord.class));
+    }
+
     @Transactional(readOnly = true)
     public List<MedicalRecord> getAllMedicalRecords() {
         return medicalRecordRepository.findAll();
@@ -30,6 +101,14 @@ public class MedicalRecordService {
     }
 
     @Transactional(readOnly = true)
+    // The server abandons the query if it runs longer than maxTime and the call fails
+    public List<MedicalRecord> getMedicalRecordsByPrisonerId(String prisonerId, Duration maxTime) {
+        Assert.hasText(prisonerId, "Prisoner ID cannot be null or empty");
+        Assert.notNull(maxTime, "Max time cannot be null");
+        Query query = Query.query(Criteria.where("prisoner._id").is(Integer.parseInt(prisonerId))).maxTime(maxTime);
+        return mongoTemplate.find(query, MedicalRecord.class);
+    }
+
     public List<MedicalRecord> getMedicalRecordsByPrisonerId(String prisonerId) {
         Assert.hasText(prisonerId, "Prisoner ID cannot be null or empty");
         List<MedicalRecord> records = medicalRecordRepository.findByPrisonerIdWithPrisoner(Integer.parseInt(prisonerId));
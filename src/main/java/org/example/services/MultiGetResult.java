@@ -0,0 +1,57 @@
+package org.example.services;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Response of a multi-get: the items found, in the order their ids were requested, and the ids that
+// matched nothing. All items are loaded with one query however many ids are asked for.
+public class MultiGetResult<T> {
+
+    public static final int MAX_IDS = 1000;
+
+    private final List<T> items;
+    private final List<Object> missingIds;
+
+    private MultiGetResult(List<T> items, List<Object> missingIds) {
+        this.items = items;
+        this.missingIds = missingIds;
+    }
+
+    // Duplicate ids are looked up and returned once
+    public static <K, T> MultiGetResult<T> load(Collection<K> ids, Function<Set<K>, Map<?, T>> loader) {
+        Assert.notEmpty(ids, "At least one ID must be given");
+        Set<K> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " IDs can be requested at once, got "
+                + distinct.size());
+        }
+        Map<?, T> found = loader.apply(distinct);
+        List<T> items = new ArrayList<>(found.size());
+        List<Object> missingIds = new ArrayList<>();
+        for (K id : distinct) {
+            T item = found.get(id);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new MultiGetResult<>(items, missingIds);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public List<Object> getMissingIds() {
+        return missingIds;
+    }
+}
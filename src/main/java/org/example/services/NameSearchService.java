@@ -0,0 +1,87 @@
+package org.example.services;
+
+import jakarta.annotation.PostConstruct;
+import org.example.events.PrisonerChangedEvent;
+import org.example.events.VisitorChangedEvent;
+import org.example.repositories.mysql.PrisonerRepository;
+import org.example.repositories.mysql.VisitorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+// Trigram indexes over prisoner and visitor names, loaded at startup and kept current from write events
+@Service
+public class NameSearchService {
+
+    private static final Logger LOGGER = Logger.getLogger(NameSearchService.class.getName());
+
+    private final PrisonerRepository prisonerRepository;
+    private final VisitorRepository visitorRepository;
+
+    private final TrigramIndex prisonerIndex = new TrigramIndex();
+    private final TrigramIndex visitorIndex = new TrigramIndex();
+
+    @Autowired
+    public NameSearchService(PrisonerRepository prisonerRepository, VisitorRepository visitorRepository) {
+        this.prisonerRepository = prisonerRepository;
+        this.visitorRepository = visitorRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        prisonerIndex.clear();
+        for (Object[] row : prisonerRepository.findAllIdsAndNames()) {
+            prisonerIndex.put((Integer) row[0], (String) row[1]);
+        }
+        visitorIndex.clear();
+        for (Object[] row : visitorRepository.findAllIdsAndNames()) {
+            visitorIndex.put((Integer) row[0], (String) row[1]);
+        }
+        LOGGER.info("Name search indexes built for " + prisonerIndex.size() + " prisoners and "
+            + visitorIndex.size() + " visitors");
+    }
+
+    public List<Integer> searchPrisonerIds(String query, int limit) {
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+        return prisonerIndex.search(query, limit);
+    }
+
+    // All prisoners whose name contains the text, ignoring case and accents; for filters rather than ranking
+    public Set<Integer> findPrisonerIdsContaining(String text) {
+        return prisonerIndex.containing(text);
+    }
+
+    public List<Integer> searchVisitorIds(String query, int limit) {
+        return searchVisitorIds(query, limit, id -> true);
+    }
+
+    public List<Integer> searchVisitorIds(String query, int limit, Predicate<Integer> filter) {
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+        Assert.notNull(filter, "Filter cannot be null");
+        return visitorIndex.search(query, limit, filter);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPrisonerChanged(PrisonerChangedEvent event) {
+        if (event.isDeleted()) {
+            prisonerIndex.remove(event.getPrisonerId());
+        } else {
+            prisonerIndex.put(event.getPrisonerId(), event.getName());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVisitorChanged(VisitorChangedEvent event) {
+        if (event.isDeleted()) {
+            visitorIndex.remove(event.getVisitorId());
+        } else {
+            visitorIndex.put(event.getVisitorId(), event.getName());
+        }
+    }
+}
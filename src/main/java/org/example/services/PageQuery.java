@@ -0,0 +1,54 @@
+package org.example.services;
+
+import org.springframework.util.Assert;
+
+// One page of a sorted, optionally filtered table. A page that directly follows one the caller already
+// holds carries that page's last row, and the service continues after it (keyset) instead of skipping
+// offset rows; pages reached by jumping only have the offset.
+public final class PageQuery<T> {
+
+    private final String filter;
+    private final String sortField;
+    private final boolean ascending;
+    private final long offset;
+    private final int limit;
+    private final T after;
+
+    public PageQuery(String filter, String sortField, boolean ascending, long offset, int limit, T after) {
+        Assert.hasText(sortField, "Sort field cannot be null or empty");
+        Assert.isTrue(offset >= 0, "Offset cannot be negative");
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+        this.filter = filter != null && !filter.isBlank() ? filter.trim() : null;
+        this.sortField = sortField;
+        this.ascending = ascending;
+        this.offset = offset;
+        this.limit = limit;
+        this.after = after;
+    }
+
+    // Null when the table is not filtered
+    public String getFilter() {
+        return filter;
+    }
+
+    public String getSortField() {
+        return sortField;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // The row right before this page, or null
+    public T getAfter() {
+        return after;
+    }
+}
@@ -0,0 +1,219 @@
+package org.example.services;
+
+import jakarta.annotation.PreDestroy;
+import org.example.models.Crime;
+import org.example.models.MedicalRecord;
+import org.example.models.Visitor;
+import org.example.models.VisitorLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Everything shown about one prisoner, fetched from MySQL and Mongo at the same time. Crimes, visitor
+// logs and medical records start together, and the visitors named in the logs are loaded with one query
+// as soon as the logs arrive, so a dossier takes about as long as its slowest source. A source that fails
+// or misses the shared deadline is left empty and listed in unavailable instead of failing the dossier.
+// Each source runs on its own virtual thread, so a hung source never holds up other dossiers, and it is
+// interrupted when it misses the deadline. Interrupts do not stop a blocked database call, so the queries
+// also carry the deadline themselves: MySQL sources run in a read-only transaction with that timeout,
+// which the driver enforces per statement, and the Mongo queries set maxTime.
+@Service
+@Lazy
+public class PrisonerDossierService {
+
+    private static final Logger LOGGER = Logger.getLogger(PrisonerDossierService.class.getName());
+
+    public static final String CRIMES = "crimes";
+    public static final String VISITOR_LOGS = "visitorLogs";
+    public static final String MEDICAL_RECORDS = "medicalRecords";
+    public static final String VISITORS = "visitors";
+
+    private static final String TIMEOUT = "timeout";
+    private static final String ERROR = "error";
+
+    private final PrisonerService prisonerService;
+    private final CrimeService crimeService;
+    private final VisitorLogService visitorLogService;
+    private final MedicalRecordService medicalRecordService;
+    private final VisitorService visitorService;
+    private final long sourceTimeoutMillis;
+    private final TransactionTemplate mysqlReads;
+    private final ExecutorService executor;
+
+    @Autowired
+    public PrisonerDossierService(PrisonerService prisonerService, CrimeService crimeService,
+                                  VisitorLogService visitorLogService, MedicalRecordService medicalRecordService,
+                                  VisitorService visitorService,
+                                  @Qualifier("mysqlTransactionManager") PlatformTransactionManager transactionManager,
+                                  @Value("${dossier.source-timeout-ms:2000}") long sourceTimeoutMillis) {
+        Assert.isTrue(sourceTimeoutMillis > 0, "Dossier source timeout must be greater than 0");
+        this.prisonerService = prisonerService;
+        this.crimeService = crimeService;
+        this.visitorLogService = visitorLogService;
+        this.medicalRecordService = medicalRecordService;
+        this.visitorService = visitorService;
+        this.sourceTimeoutMillis = sourceTimeoutMillis;
+        this.mysqlReads = new TransactionTemplate(transactionManager);
+        this.mysqlReads.setReadOnly(true);
+        // JDBC query timeouts are whole seconds
+        this.mysqlReads.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sourceTimeoutMillis + 999)));
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("prisoner-dossier-", 1).factory());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Includes the prisoner's own fields; fails if the prisoner does not exist
+    public Dossier loadDossier(Integer prisonerId) {
+        return load(prisonerId, true);
+    }
+
+    // For callers that already hold the prisoner, such as the details screen
+    public Dossier loadRelatedRecords(Integer prisonerId) {
+        return load(prisonerId, false);
+    }
+
+    private Dossier load(Integer prisonerId, boolean withPrisoner) {
+        Assert.notNull(prisonerId, "Prisoner ID cannot be null");
+        String id = prisonerId.toString();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sourceTimeoutMillis);
+
+        Duration maxTime = Duration.ofMillis(sourceTimeoutMillis);
+        Future<List<Crime>> crimes = executor.submit(() -> readMysql(() -> crimeService.getCrimesByPrisoner(id)));
+        Future<List<VisitorLog>> visitorLogs =
+            executor.submit(() -> visitorLogService.getVisitorLogsByPrisoner(id, maxTime));
+        Future<List<MedicalRecord>> medicalRecords =
+            executor.submit(() -> medicalRecordService.getMedicalRecordsByPrisonerId(id, maxTime));
+        // Waits on its own virtual thread for the logs, then loads the visitors they name
+        Future<Map<Integer, Visitor>> visitors = executor.submit(() -> {
+            List<VisitorLog> logs = visitorLogs.get();
+            return readMysql(() -> loadVisitors(logs));
+        });
+
+        Dossier dossier = new Dossier();
+        if (withPrisoner) {
+            // The prisoner row is read here while the sources run; a missing prisoner ends the dossier
+            try {
+                dossier.prisoner = prisonerService.getPrisonerFieldsById(prisonerId, null);
+            } catch (RuntimeException e) {
+                crimes.cancel(true);
+                visitors.cancel(true);
+                visitorLogs.cancel(true);
+                medicalRecords.cancel(true);
+                throw e;
+            }
+        }
+        dossier.crimes = await(CRIMES, crimes, deadline, dossier, List.of());
+        dossier.visitorLogs = await(VISITOR_LOGS, visitorLogs, deadline, dossier, List.of());
+        dossier.medicalRecords = await(MEDICAL_RECORDS, medicalRecords, deadline, dossier, List.of());
+        dossier.visitors = await(VISITORS, visitors, deadline, dossier, Map.of());
+        return dossier;
+    }
+
+    private <T> T readMysql(Callable<T> source) {
+        return mysqlReads.execute(status -> {
+            try {
+                return source.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private Map<Integer, Visitor> loadVisitors(List<VisitorLog> logs) {
+        Set<Integer> visitorIds = new LinkedHashSet<>();
+        for (VisitorLog log : logs) {
+            visitorIds.add(log.getVisitorId());
+        }
+        visitorIds.removeIf(Objects::isNull);
+        return visitorIds.isEmpty() ? Map.of() : visitorService.getVisitorsByIds(visitorIds);
+    }
+
+    private <T> T await(String source, Future<T> future, long deadline, Dossier dossier, T fallback) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            LOGGER.warning("Dossier source " + source + " took longer than " + sourceTimeoutMillis + "ms");
+            dossier.unavailable.put(source, TIMEOUT);
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.WARNING, "Dossier source " + source + " failed", e.getCause());
+            dossier.unavailable.put(source, ERROR);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            dossier.unavailable.put(source, ERROR);
+        }
+        return fallback;
+    }
+
+    public static class Dossier {
+        private Map<String, Object> prisoner;
+        private List<Crime> crimes;
+        private List<VisitorLog> visitorLogs;
+        private List<MedicalRecord> medicalRecords;
+        private Map<Integer, Visitor> visitors;
+        private final Map<String, String> unavailable = new LinkedHashMap<>();
+
+        private Dossier() {
+        }
+
+        // Null when the dossier was loaded for related records only
+        public Map<String, Object> getPrisoner() {
+            return prisoner;
+        }
+
+        public List<Crime> getCrimes() {
+            return crimes;
+        }
+
+        public List<VisitorLog> getVisitorLogs() {
+            return visitorLogs;
+        }
+
+        public List<MedicalRecord> getMedicalRecords() {
+            return medicalRecords;
+        }
+
+        // Visitors named in the visitor logs, by id
+        public Map<Integer, Visitor> getVisitors() {
+            return visitors;
+        }
+
+        // Sources that timed out or failed, with "timeout" or "error"; their lists are empty
+        public Map<String, String> getUnavailable() {
+            return Collections.unmodifiableMap(unavailable);
+        }
+
+        public boolean isComplete() {
+            return unavailable.isEmpty();
+        }
+    }
+}
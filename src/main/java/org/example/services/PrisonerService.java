@@ -1,24 +1,71 @@
 package org.example.services;
 
+import org.example.events.CellOccupancyChangedEvent;
+import org.example.events.PrisonerChangedEvent;
 import org.example.models.Prisoner;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
+import org.example.repositories.mysql.KeysetPageRepository;
 import org.example.repositories.mysql.PrisonerRepository;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class PrisonerService {
 
+    // Fields of the prisoner REST representation
+    public static final FieldProjection<Prisoner> RESPONSE_FIELDS = FieldProjection.of(Prisoner.class)
+        .field("name", "name")
+        .field("dateOfBirth", "dateOfBirth")
+        .field("sentenceStart", "sentenceStart")
+        .field("sentenceEnd", "sentenceEnd")
+        .field("gender", "gender")
+        .field("cellId", "cell.id")
+        .field("blockId", "cell.block.id");
+
+    // Fields the prisoner table can sort by, and how the last row of a page gives the value to continue after
+    private static final Map<String, Function<Prisoner, Object>> PAGE_SORT_FIELDS = Map.of(
+        "id", Prisoner::getId,
+        "name", Prisoner::getName,
+        "gender", Prisoner::getGender,
+        "dateOfBirth", Prisoner::getDateOfBirth,
+        "sentenceStart", Prisoner::getSentenceStart,
+        "sentenceEnd", Prisoner::getSentenceEnd);
+
     private final PrisonerRepository prisonerRepository;
+    private final FieldProjectionRepository fieldProjectionRepository;
+    private final KeysetPageRepository keysetPageRepository;
+    private final NameSearchService nameSearchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResourceVersionService resourceVersions;
 
     @Autowired
-    public PrisonerService(PrisonerRepository prisonerRepository) {
+    public PrisonerService(PrisonerRepository prisonerRepository, NameSearchService nameSearchService,
+                           ApplicationEventPublisher eventPublisher, ResourceVersionService resourceVersions,
+                           FieldProjectionRepository fieldProjectionRepository,
+                           KeysetPageRepository keysetPageRepository) {
         this.prisonerRepository = prisonerRepository;
+        this.fieldProjectionRepository = fieldProjectionRepository;
+        this.keysetPageRepository = keysetPageRepository;
+        this.nameSearchService = nameSearchService;
+        this.eventPublisher = eventPublisher;
+        this.resourceVersions = resourceVersions;
     }
 
     @Transactional(readOnly = true)
@@ -26,6 +73,69 @@ public class PrisonerService {
         return prisonerRepository.findAll();
     }
 
+    // The cursor stays open for the whole read-only transaction and is closed even if the action throws
+    @Transactional(readOnly = true)
+    public void forEachPrisonerRow(Consumer<Object[]> action) {
+        Assert.notNull(action, "Action cannot be null");
+        try (Stream<Object[]> rows = prisonerRepository.streamAllRows()) {
+            rows.forEach(action);
+        }
+    }
+
+    // Prisoners whose name contains the filter (all when it is null)
+    @Transactional(readOnly = true)
+    public long countPrisoners(String nameFilter) {
+        return nameFilter == null ? keysetPageRepository.count(Prisoner.class, null)
+            : nameSearchService.findPrisonerIdsContaining(nameFilter).size();
+    }
+
+    // One page of the prisoner table. The name filter is resolved to ids by the name search index and
+    // sorting runs in the query, restricted to those ids
+    @Transactional(readOnly = true)
+    public List<Prisoner> getPrisonerPage(PageQuery<Prisoner> query) {
+        Assert.notNull(query, "Page query cannot be null");
+        Function<Prisoner, Object> sortValue = PAGE_SORT_FIELDS.get(query.getSortField());
+        if (sortValue == null) {
+            throw new IllegalArgumentException("Unknown sort field '" + query.getSortField()
+                + "' for prisoners. Allowed fields: " + PAGE_SORT_FIELDS.keySet());
+        }
+        Prisoner after = query.getAfter();
+        Set<Integer> ids = query.getFilter() == null ? null
+            : nameSearchService.findPrisonerIdsContaining(query.getFilter());
+        return keysetPageRepository.findPage(Prisoner.class, ids, query.getSortField(), query.isAscending(),
+            after != null ? sortValue.apply(after) : null, after != null ? after.getId() : null,
+            query.getOffset(), query.getLimit());
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Integer, Prisoner> getPrisonersByIds(Collection<Integer> ids) {
+        Assert.notNull(ids, "Prisoner IDs cannot be null");
+        return prisonerRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Prisoner::getId, Function.identity()));
+    }
+
+    // Only the requested fields (all when none are given) are read from the database
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPrisonerFields(Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields));
+    }
+
+    // One IN query for any number of ids, answered in the requested order
+    @Transactional(readOnly = true)
+    public MultiGetResult<Map<String, Object>> getPrisonerFieldsByIds(Collection<Integer> ids,
+                                                                       Collection<String> fields) {
+        List<String> selected = RESPONSE_FIELDS.select(fields);
+        return MultiGetResult.load(ids,
+            distinct -> fieldProjectionRepository.findAllById(RESPONSE_FIELDS, selected, distinct));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getPrisonerFieldsById(Integer id, Collection<String> fields) {
+        Assert.notNull(id, "Prisoner ID cannot be null");
+        return fieldProjectionRepository.findById(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), id)
+                .orElseThrow(() -> new RuntimeException("Prisoner not found with ID: " + id));
+    }
+
     @Transactional(readOnly = true)
     public Prisoner getPrisonerById(Integer id) {
         Assert.notNull(id, "Prisoner ID cannot be null");
@@ -36,26 +146,53 @@ public class PrisonerService {
     @Transactional
     public Prisoner createPrisoner(Prisoner prisoner) {
         Assert.notNull(prisoner, "Prisoner cannot be null");
+        resourceVersions.bump(ResourceVersionService.PRISONERS, ResourceVersionService.CELLS);
         validatePrisoner(prisoner);
-        return prisonerRepository.save(prisoner);
+        Prisoner savedPrisoner = prisonerRepository.save(prisoner);
+        eventPublisher.publishEvent(new PrisonerChangedEvent(savedPrisoner.getId(), savedPrisoner.getName()));
+        eventPublisher.publishEvent(new CellOccupancyChangedEvent(Arrays.asList(cellIdOf(savedPrisoner))));
+        return savedPrisoner;
     }
 
     @Transactional
     public Prisoner updatePrisoner(Integer id, Prisoner updatedPrisoner) {
         Assert.notNull(id, "Prisoner ID cannot be null");
         Assert.notNull(updatedPrisoner, "Updated prisoner cannot be null");
+        resourceVersions.bump(ResourceVersionService.PRISONERS, ResourceVersionService.CELLS);
         validatePrisoner(updatedPrisoner);
 
         Prisoner existingPrisoner = getPrisonerById(id);
+        Integer previousCellId = cellIdOf(existingPrisoner);
         updatePrisonerFields(existingPrisoner, updatedPrisoner);
-        return prisonerRepository.save(existingPrisoner);
+        Prisoner savedPrisoner = prisonerRepository.save(existingPrisoner);
+        eventPublisher.publishEvent(new PrisonerChangedEvent(savedPrisoner.getId(), savedPrisoner.getName()));
+        Integer cellId = cellIdOf(savedPrisoner);
+        if (!Objects.equals(previousCellId, cellId)) {
+            eventPublisher.publishEvent(new CellOccupancyChangedEvent(Arrays.asList(previousCellId, cellId)));
+        }
+        return savedPrisoner;
     }
 
     @Transactional
     public void deletePrisoner(Integer id) {
         Assert.notNull(id, "Prisoner ID cannot be null");
-        getPrisonerById(id); // Verify prisoner exists
+        resourceVersions.bump(ResourceVersionService.PRISONERS, ResourceVersionService.CELLS);
+        Integer cellId = cellIdOf(getPrisonerById(id)); // Also verifies the prisoner exists
         prisonerRepository.deleteById(id);
+        eventPublisher.publishEvent(new PrisonerChangedEvent(id, null));
+        eventPublisher.publishEvent(new CellOccupancyChangedEvent(Arrays.asList(cellId)));
+    }
+
+    // Ranked by name similarity, so partial and misspelt names still match
+    @Transactional(readOnly = true)
+    public List<Prisoner> searchPrisonersByName(String nameQuery, int limit) {
+        Assert.hasText(nameQuery, "Name query cannot be null or empty");
+        List<Integer> ids = nameSearchService.searchPrisonerIds(nameQuery, limit);
+        Map<Integer, Prisoner> prisoners = getPrisonersByIds(ids);
+        return ids.stream()
+            .map(prisoners::get)
+            .filter(prisoner -> prisoner != null)
+            .toList();
     }
 
     @Transactional(readOnly = true)
@@ -120,4 +257,8 @@ public class PrisonerService {
         existingPrisoner.setGender(updatedPrisoner.getGender());
         existingPrisoner.setCell(updatedPrisoner.getCell());
     }
+
+    private static Integer cellIdOf(Prisoner prisoner) {
+        return prisoner.getCell() != null ? prisoner.getCell().getId() : null;
+    }
 }
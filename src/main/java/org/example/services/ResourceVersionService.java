@@ -0,0 +1,103 @@
+package org.example.services;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory change counters per aggregate type, bumped by the write services. REST reads build their
+// ETag from the counters they depend on, so If-None-Match is answered without loading anything.
+// The start-up epoch is part of every tag, so tags from before a restart never match.
+@Service
+public class ResourceVersionService {
+
+    public static final String BLOCKS = "blocks";
+    public static final String CELLS = "cells";
+    public static final String ROOMS = "rooms";
+    public static final String DEPARTMENTS = "departments";
+    public static final String STAFF = "staff";
+    public static final String EXPENSES = "expenses";
+    public static final String PRISONERS = "prisoners";
+    public static final String EQUIPMENT = "equipment";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // Inside a transaction the bump waits for the commit, so a reader can never pair the new
+    // version with data that is not yet visible
+    public void bump(String... resources) {
+        Assert.notEmpty(resources, "At least one resource must be given");
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(resources);
+                }
+            });
+        } else {
+            increment(resources);
+        }
+    }
+
+    public long getVersion(String resource) {
+        AtomicLong version = versions.get(resource);
+        return version != null ? version.get() : 0;
+    }
+
+    // Quoted entity tag for a view that depends on the given resources. JSON and CBOR bodies of the same view
+    // differ byte for byte, so the representation the request negotiates is part of the tag.
+    public String etag(WebRequest request, String view, String... resources) {
+        Assert.notNull(request, "Request cannot be null");
+        Assert.hasText(view, "View cannot be null or empty");
+        StringBuilder tag = new StringBuilder("\"").append(view).append('-').append(representation(request))
+            .append('-').append(epoch);
+        for (String resource : resources) {
+            tag.append('-').append(getVersion(resource));
+        }
+        return tag.append('"').toString();
+    }
+
+    // The body format content negotiation will pick: the most specific accepted type, with JSON first for
+    // wildcards, as the converters are registered in WebConfig
+    private static String representation(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "json";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            // Negotiation rejects the request anyway
+            return "json";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            boolean concrete = !type.isWildcardType() && !type.isWildcardSubtype();
+            if (concrete && type.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "cbor";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "json";
+            }
+        }
+        return "json";
+    }
+
+    private void increment(String... resources) {
+        for (String resource : resources) {
+            versions.computeIfAbsent(resource, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
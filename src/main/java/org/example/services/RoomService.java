@@ -7,12 +7,16 @@ import org.example.models.Contains2;
 import org.example.models.Department;
 import org.example.repositories.mysql.RoomRepository;
 import org.example.repositories.mysql.Contains2Repository;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
 
@@ -20,13 +24,24 @@ import java.util.HashSet;
 @Transactional
 public class RoomService {
 
+    // Fields of the room REST representation
+    public static final FieldProjection<Room> RESPONSE_FIELDS = FieldProjection.of(Room.class)
+        .field("type", "type")
+        .field("description", "description")
+        .collection("blockIds", "blocks.id");
+
     private final RoomRepository roomRepository;
     private final Contains2Repository contains2Repository;
+    private final ResourceVersionService resourceVersions;
+    private final FieldProjectionRepository fieldProjectionRepository;
 
     @Autowired
-    public RoomService(RoomRepository roomRepository, Contains2Repository contains2Repository) {
+    public RoomService(RoomRepository roomRepository, Contains2Repository contains2Repository,
+                       ResourceVersionService resourceVersions, FieldProjectionRepository fieldProjectionRepository) {
         this.roomRepository = roomRepository;
         this.contains2Repository = contains2Repository;
+        this.resourceVersions = resourceVersions;
+        this.fieldProjectionRepository = fieldProjectionRepository;
     }
 
     @Transactional(readOnly = true)
@@ -41,6 +56,18 @@ public class RoomService {
                 .orElseThrow(() -> new RuntimeException("Room not found with ID: " + id));
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getRoomFields(Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRoomFieldsById(Integer id, Collection<String> fields) {
+        Assert.notNull(id, "Room ID cannot be null");
+        return fieldProjectionRepository.findById(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), id)
+            .orElseThrow(() -> new RuntimeException("Room not found with ID: " + id));
+    }
+
     @Transactional(readOnly = true)
     public Room getRoomByIdWithEquipment(Integer id) {
         Assert.notNull(id, "Room ID cannot be null");
@@ -80,6 +107,7 @@ public class RoomService {
     @Transactional
     public Room createRoom(Room room) {
         Assert.notNull(room, "Room cannot be null");
+        resourceVersions.bump(ResourceVersionService.ROOMS);
         validateRoom(room);
         return roomRepository.save(room);
     }
@@ -95,6 +123,7 @@ public class RoomService {
     public Room updateRoom(Integer id, Room updatedRoom) {
         Assert.notNull(id, "Room ID cannot be null");
         Assert.notNull(updatedRoom, "Updated room cannot be null");
+        resourceVersions.bump(ResourceVersionService.ROOMS);
         validateRoom(updatedRoom);
 
         Room existingRoom = getRoomById(id);
@@ -105,6 +134,8 @@ public class RoomService {
     @Transactional
     public void deleteRoom(Integer id) {
         Assert.notNull(id, "Room ID cannot be null");
+        resourceVersions.bump(ResourceVersionService.ROOMS, ResourceVersionService.BLOCKS,
+            ResourceVersionService.DEPARTMENTS, ResourceVersionService.EQUIPMENT);
         Room room = getRoomById(id);
         
         // Remove room from all blocks (clean up many-to-many relationship)
@@ -125,6 +156,7 @@ public class RoomService {
     public Room addEquipmentToRoom(Integer roomId, Equipment equipment) {
         Assert.notNull(roomId, "Room ID cannot be null");
         Assert.notNull(equipment, "Equipment cannot be null");
+        resourceVersions.bump(ResourceVersionService.ROOMS, ResourceVersionService.EQUIPMENT);
 
         Room room = getRoomById(roomId);
         room.addEquipment(equipment);
@@ -135,6 +167,7 @@ public class RoomService {
     public Room removeEquipmentFromRoom(Integer roomId, Equipment equipment) {
         Assert.notNull(roomId, "Room ID cannot be null");
         Assert.notNull(equipment, "Equipment cannot be null");
+        resourceVersions.bump(ResourceVersionService.ROOMS, ResourceVersionService.EQUIPMENT);
 
         Room room = getRoomById(roomId);
         room.removeEquipment(equipment);
@@ -146,6 +179,8 @@ public class RoomService {
         Assert.notNull(roomId, "Room ID cannot be null");
         Assert.notNull(block, "Block cannot be null");
         Assert.notNull(department, "Department cannot be null");
+        resourceVersions.bump(ResourceVersionService.ROOMS, ResourceVersionService.BLOCKS,
+            ResourceVersionService.DEPARTMENTS);
 
         Room room = getRoomById(roomId);
         
@@ -161,6 +196,8 @@ public class RoomService {
         Assert.notNull(roomId, "Room ID cannot be null");
         Assert.notNull(block, "Block cannot be null");
         Assert.notNull(department, "Department cannot be null");
+        resourceVersions.bump(ResourceVersionService.ROOMS, ResourceVersionService.BLOCKS,
+            ResourceVersionService.DEPARTMENTS);
 
         List<Contains2> contains2List = contains2Repository.findByBlockIdAndDepartmentIdAndRoomId(
             block.getId(), department.getId(), roomId);
@@ -3,24 +3,40 @@ package org.example.services;
 import org.example.models.Schedule;
 import org.example.models.Staff;
 import org.example.repositories.mysql.ScheduleRepository;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
 @Transactional
 public class ScheduleService {
 
+    // Fields of the schedule REST representation
+    public static final FieldProjection<Schedule> RESPONSE_FIELDS = FieldProjection.of(Schedule.class)
+        .field("staffId", "staff.id")
+        .field("staffName", "staff.name")
+        .collection("days", "days")
+        .field("start", "start")
+        .field("end", "end");
+
     private final ScheduleRepository scheduleRepository;
+    private final FieldProjectionRepository fieldProjectionRepository;
 
     @Autowired
-    public ScheduleService(ScheduleRepository scheduleRepository) {
+    public ScheduleService(ScheduleRepository scheduleRepository,
+                           FieldProjectionRepository fieldProjectionRepository) {
         this.scheduleRepository = scheduleRepository;
+        this.fieldProjectionRepository = fieldProjectionRepository;
     }
 
     @Transactional(readOnly = true)
@@ -35,12 +51,30 @@ public class ScheduleService {
                 .orElseThrow(() -> new RuntimeException("Schedule not found with ID: " + id));
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getScheduleFields(Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getScheduleFieldsById(Integer id, Collection<String> fields) {
+        Assert.notNull(id, "Schedule ID cannot be null");
+        return fieldProjectionRepository.findById(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), id)
+            .orElseThrow(() -> new RuntimeException("Schedule not found with ID: " + id));
+    }
+
     @Transactional(readOnly = true)
     public List<Schedule> getSchedulesByStaffId(Integer staffId) {
         Assert.notNull(staffId, "Staff ID cannot be null");
         return scheduleRepository.findByStaffId(staffId);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getScheduleFieldsByStaffId(Integer staffId, Collection<String> fields) {
+        Assert.notNull(staffId, "Staff ID cannot be null");
+        return findScheduleFields(ofStaff(staffId), fields);
+    }
+
     @Transactional
     public Schedule createSchedule(Staff staff, Set<String> days, LocalTime start, LocalTime end) {
         Assert.notNull(staff, "Staff cannot be null");
@@ -100,6 +134,57 @@ public class ScheduleService {
         return scheduleRepository.findByStaffIdAndStartBetween(staffId, startTime, endTime);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCurrentScheduleFields(LocalTime currentTime, Collection<String> fields) {
+        Assert.notNull(currentTime, "Current time cannot be null");
+        return findScheduleFields(endingAfter(currentTime), fields);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCurrentScheduleFieldsByStaff(Integer staffId, LocalTime currentTime,
+                                                                     Collection<String> fields) {
+        Assert.notNull(staffId, "Staff ID cannot be null");
+        Assert.notNull(currentTime, "Current time cannot be null");
+        return findScheduleFields(ofStaff(staffId).and(endingAfter(currentTime)), fields);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getScheduleFieldsByTimeRange(LocalTime startTime, LocalTime endTime,
+                                                                  Collection<String> fields) {
+        Assert.notNull(startTime, "Start time cannot be null");
+        Assert.notNull(endTime, "End time cannot be null");
+        Assert.isTrue(!endTime.isBefore(startTime), "End time must not be before start time");
+        return findScheduleFields(startingBetween(startTime, endTime), fields);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getScheduleFieldsByStaffAndTimeRange(Integer staffId, LocalTime startTime,
+                                                                          LocalTime endTime,
+                                                                          Collection<String> fields) {
+        Assert.notNull(staffId, "Staff ID cannot be null");
+        Assert.notNull(startTime, "Start time cannot be null");
+        Assert.notNull(endTime, "End time cannot be null");
+        Assert.isTrue(!endTime.isBefore(startTime), "End time must not be before start time");
+        return findScheduleFields(ofStaff(staffId).and(startingBetween(startTime, endTime)), fields);
+    }
+
+    private List<Map<String, Object>> findScheduleFields(Specification<Schedule> where, Collection<String> fields) {
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), where);
+    }
+
+    // Same conditions as the findByStaffId / EndAfter / StartBetween repository queries
+    private static Specification<Schedule> ofStaff(Integer staffId) {
+        return (root, query, builder) -> builder.equal(root.get("staff").get("id"), staffId);
+    }
+
+    private static Specification<Schedule> endingAfter(LocalTime time) {
+        return (root, query, builder) -> builder.greaterThan(root.get("end"), time);
+    }
+
+    private static Specification<Schedule> startingBetween(LocalTime startTime, LocalTime endTime) {
+        return (root, query, builder) -> builder.between(root.get("start"), startTime, endTime);
+    }
+
     @Transactional(readOnly = true)
     public boolean isWorkingHours(Integer scheduleId, LocalTime time) {
         Assert.notNull(scheduleId, "Schedule ID cannot be null");
@@ -4,17 +4,21 @@ import org.example.models.Staff;
 import org.example.models.StaffSupervision;
 import org.example.models.GunAssignment;
 import org.example.models.Schedule;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
 import org.example.repositories.mysql.StaffRepository;
 import org.example.repositories.mysql.StaffSupervisionRepository;
 import org.example.repositories.mysql.GunAssignmentRepository;
 import org.example.repositories.mysql.ScheduleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,19 +29,35 @@ import java.util.logging.Logger;
 @Transactional
 public class StaffService {
 
+    // Fields of the staff REST representation
+    public static final FieldProjection<Staff> RESPONSE_FIELDS = FieldProjection.of(Staff.class)
+        .field("name", "name")
+        .field("role", "role")
+        .field("gender", "gender")
+        .field("dateOfBirth", "dob")
+        .field("phone", "phone")
+        .field("salary", "salary")
+        .field("departmentId", "department.id");
+
     private final StaffRepository staffRepository;
     private final StaffSupervisionRepository staffSupervisionRepository;
     private final GunAssignmentRepository gunAssignmentRepository;
     private final ScheduleRepository scheduleRepository;
+    private final ResourceVersionService resourceVersions;
+    private final FieldProjectionRepository fieldProjectionRepository;
     private static final Logger LOGGER = Logger.getLogger(StaffService.class.getName());
 
     @Autowired
     public StaffService(StaffRepository staffRepository, StaffSupervisionRepository staffSupervisionRepository,
-                       GunAssignmentRepository gunAssignmentRepository, ScheduleRepository scheduleRepository) {
+                       GunAssignmentRepository gunAssignmentRepository, ScheduleRepository scheduleRepository,
+                       ResourceVersionService resourceVersions,
+                       FieldProjectionRepository fieldProjectionRepository) {
         this.staffRepository = staffRepository;
         this.staffSupervisionRepository = staffSupervisionRepository;
         this.gunAssignmentRepository = gunAssignmentRepository;
         this.scheduleRepository = scheduleRepository;
+        this.resourceVersions = resourceVersions;
+        this.fieldProjectionRepository = fieldProjectionRepository;
     }
 
     @Transactional(readOnly = true)
@@ -57,6 +77,21 @@ public class StaffService {
                 .orElseThrow(() -> new RuntimeException("Staff not found with ID: " + id));
     }
 
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStaffFieldsById(Integer id, Collection<String> fields) {
+        Assert.notNull(id, "Staff ID cannot be null");
+        return fieldProjectionRepository.findById(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), id)
+                .orElseThrow(() -> new RuntimeException("Staff not found with ID: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public MultiGetResult<Map<String, Object>> getStaffFieldsByIds(Collection<Integer> ids,
+                                                                    Collection<String> fields) {
+        List<String> selected = RESPONSE_FIELDS.select(fields);
+        return MultiGetResult.load(ids,
+            distinct -> fieldProjectionRepository.findAllById(RESPONSE_FIELDS, selected, distinct));
+    }
+
     @Transactional(readOnly = true)
     public Staff getStaffByIdWithRelations(Integer id) {
         Assert.notNull(id, "Staff ID cannot be null");
@@ -73,14 +108,25 @@ public class StaffService {
     @Transactional
     public Staff createStaff(Staff staff) {
         Assert.notNull(staff, "Staff cannot be null");
+        resourceVersions.bump(ResourceVersionService.STAFF);
         validateStaff(staff);
         return staffRepository.save(staff);
     }
 
+    // Saves one import batch in a single transaction. The importer has already run validateStaff on every row,
+    // so that a bad row is rejected on its own instead of failing the batch
+    @Transactional
+    List<Staff> createStaff(List<Staff> staff) {
+        Assert.notNull(staff, "Staff cannot be null");
+        resourceVersions.bump(ResourceVersionService.STAFF);
+        return staffRepository.saveAll(staff);
+    }
+
     @Transactional
     public Staff updateStaff(Integer id, Staff updatedStaff) {
         Assert.notNull(id, "Staff ID cannot be null");
         Assert.notNull(updatedStaff, "Updated staff cannot be null");
+        resourceVersions.bump(ResourceVersionService.STAFF);
         validateStaff(updatedStaff);
 
         Staff existingStaff = getStaffById(id);
@@ -91,6 +137,7 @@ public class StaffService {
     @Transactional
     public void deleteStaff(Integer id) {
         Assert.notNull(id, "Staff ID cannot be null");
+        resourceVersions.bump(ResourceVersionService.STAFF);
         Staff staff = getStaffById(id); // Verify exists and get the staff object
         
         // First, remove all supervision relationships where this staff is involved
@@ -132,6 +179,20 @@ public class StaffService {
         return staffRepository.findByDepartment_IdWithSupervisors(departmentId);
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getStaffFieldsByDepartment(Integer departmentId, Collection<String> fields) {
+        Assert.notNull(departmentId, "Department ID cannot be null");
+        Specification<Staff> inDepartment =
+            (root, query, builder) -> builder.equal(root.get("department").get("id"), departmentId);
+        return fieldProjectionRepository.findAll(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), inDepartment);
+    }
+
+    @Transactional(readOnly = true)
+    public long getStaffCountByDepartment(Integer departmentId) {
+        Assert.notNull(departmentId, "Department ID cannot be null");
+        return staffRepository.countByDepartment_Id(departmentId);
+    }
+
     @Transactional(readOnly = true)
     public List<Staff> getStaffByDepartmentAndRole(Integer departmentId, String role) {
         Assert.notNull(departmentId, "Department ID cannot be null");
@@ -246,6 +307,7 @@ public class StaffService {
     public void assignSupervisor(Integer subordinateId, Integer supervisorId) {
         Assert.notNull(subordinateId, "Subordinate ID cannot be null");
         Assert.notNull(supervisorId, "Supervisor ID cannot be null");
+        resourceVersions.bump(ResourceVersionService.STAFF);
         
         if (subordinateId.equals(supervisorId)) {
             throw new IllegalArgumentException("Staff cannot supervise themselves");
@@ -266,6 +328,7 @@ public class StaffService {
     @Transactional
     public void removeSupervisor(Integer subordinateId) {
         Assert.notNull(subordinateId, "Subordinate ID cannot be null");
+        resourceVersions.bump(ResourceVersionService.STAFF);
         Staff subordinate = getStaffById(subordinateId);
         
         // Remove all supervisor relationships for this subordinate
@@ -288,7 +351,7 @@ public class StaffService {
             .collect(Collectors.toList());
     }
 
-    private void validateStaff(Staff staff) {
+    public void validateStaff(Staff staff) {
         Assert.hasText(staff.getName(), "Name cannot be null or empty");
         Assert.notNull(staff.getSalary(), "Salary cannot be null");
         Assert.isTrue(staff.getSalary().compareTo(BigDecimal.ZERO) > 0, "Salary must be greater than 0");
@@ -0,0 +1,225 @@
+package org.example.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// In-memory trigram index over short strings such as names. Words are padded the way pg_trgm pads them
+// ("  john "), so prefixes match, and candidates are ranked by trigram similarity with exact substring
+// matches first. A typo only breaks the trigrams around it, so misspelt queries still find the name.
+public class TrigramIndex {
+
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private final Map<String, Set<Integer>> postings = new HashMap<>();
+    private final Map<Integer, String> names = new HashMap<>();
+    private final Map<Integer, Set<String>> trigramsById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Integer id, String name) {
+        if (id == null) {
+            throw new IllegalArgumentException("ID cannot be null");
+        }
+        String normalized = normalize(name);
+        Set<String> trigrams = trigrams(normalized);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            names.put(id, normalized);
+            trigramsById.put(id, trigrams);
+            for (String trigram : trigrams) {
+                postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            names.clear();
+            trigramsById.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Integer> search(String query, int limit) {
+        return search(query, limit, id -> true);
+    }
+
+    // Top matches for the query, best first, restricted to ids accepted by the filter
+    public List<Integer> search(String query, int limit, Predicate<Integer> filter) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<String> queryTrigrams = trigrams(normalized);
+
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                Set<Integer> ids = postings.get(trigram);
+                if (ids != null) {
+                    for (Integer id : ids) {
+                        shared.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+
+            PriorityQueue<Match> best = new PriorityQueue<>(Match.BY_RANK);
+            for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+                Integer id = candidate.getKey();
+                int common = candidate.getValue();
+                String name = names.get(id);
+                boolean substring = name.contains(normalized);
+                double similarity = (double) common / (queryTrigrams.size() + trigramsById.get(id).size() - common);
+                if ((!substring && similarity < MIN_SIMILARITY) || !filter.test(id)) {
+                    continue;
+                }
+                best.add(new Match(id, substring ? 1 + similarity : similarity, name.length()));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Match> ranked = new ArrayList<>(best);
+            ranked.sort(Match.BY_RANK.reversed());
+            List<Integer> ids = new ArrayList<>(ranked.size());
+            for (Match match : ranked) {
+                ids.add(match.id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every id whose normalized name contains the normalized query, in no particular order. Each three-letter
+    // run inside a query word is also a trigram of the name word containing it, so only names posted under
+    // all of them are checked; a query without such a run checks every name.
+    public Set<Integer> containing(String query) {
+        String normalized = normalize(query);
+        Set<Integer> ids = new HashSet<>();
+        if (normalized.isEmpty()) {
+            return ids;
+        }
+        lock.readLock().lock();
+        try {
+            Set<Integer> candidates = null;
+            for (String word : normalized.split(" ")) {
+                for (int i = 0; i + 3 <= word.length(); i++) {
+                    Set<Integer> posted = postings.getOrDefault(word.substring(i, i + 3), Collections.emptySet());
+                    if (candidates == null) {
+                        candidates = new HashSet<>(posted);
+                    } else {
+                        candidates.retainAll(posted);
+                    }
+                }
+            }
+            for (Integer id : candidates != null ? candidates : names.keySet()) {
+                if (names.get(id).contains(normalized)) {
+                    ids.add(id);
+                }
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Integer id) {
+        names.remove(id);
+        Set<String> trigrams = trigramsById.remove(id);
+        if (trigrams == null) {
+            return;
+        }
+        for (String trigram : trigrams) {
+            Set<Integer> ids = postings.get(trigram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    // Lower case, accents stripped, everything but letters and digits collapsed to single spaces
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return decomposed.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return trigrams;
+        }
+        for (String word : normalized.split(" ")) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    private static final class Match {
+        // Higher score first, then the shorter name, then the lower id
+        private static final Comparator<Match> BY_RANK = Comparator.<Match>comparingDouble(match -> match.score)
+            .thenComparing(Comparator.<Match>comparingInt(match -> match.length).reversed())
+            .thenComparing(Comparator.<Match, Integer>comparing(match -> match.id).reversed());
+
+        private final Integer id;
+        private final double score;
+        private final int length;
+
+        private Match(Integer id, double score, int length) {
+            this.id = id;
+            this.score = score;
+            this.length = length;
+        }
+    }
+}
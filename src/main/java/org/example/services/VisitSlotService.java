@@ -0,0 +1,233 @@
+package org.example.services;
+
+import org.bson.Document;
+import org.example.models.VisitSlot;
+import org.example.repositories.mysql.PrisonerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Visit capacity is held as one counter document per facility, day and slot. Bookings reserve
+// a place with a conditional $inc that also creates the slot on its first booking, so concurrent
+// requests can never take a slot past capacity.
+@Service
+public class VisitSlotService {
+
+    private final MongoTemplate mongoTemplate;
+    private final PrisonerRepository prisonerRepository;
+    private final LocalTime openingTime;
+    private final LocalTime closingTime;
+    private final int slotMinutes;
+    private final int defaultCapacity;
+    private final int bookingHorizonDays;
+
+    @Autowired
+    public VisitSlotService(MongoTemplate mongoTemplate, PrisonerRepository prisonerRepository,
+                            @Value("${visits.slots.opening-time:09:00}") String openingTime,
+                            @Value("${visits.slots.closing-time:17:00}") String closingTime,
+                            @Value("${visits.slots.length-minutes:60}") int slotMinutes,
+                            @Value("${visits.slots.capacity:10}") int defaultCapacity,
+                            @Value("${visits.slots.booking-horizon-days:60}") int bookingHorizonDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.prisonerRepository = prisonerRepository;
+        this.openingTime = LocalTime.parse(openingTime);
+        this.closingTime = LocalTime.parse(closingTime);
+        this.slotMinutes = slotMinutes;
+        this.defaultCapacity = defaultCapacity;
+        this.bookingHorizonDays = bookingHorizonDays;
+        Assert.isTrue(this.openingTime.isBefore(this.closingTime), "Visiting hours must open before they close");
+        Assert.isTrue(slotMinutes > 0, "Visit slot length must be greater than 0");
+        Assert.isTrue(defaultCapacity >= 0, "Visit slot capacity cannot be negative");
+    }
+
+    public Integer getPrisonId(Integer prisonerId) {
+        Assert.notNull(prisonerId, "Prisoner ID cannot be null");
+        Integer prisonId = prisonerRepository.findPrisonIdByPrisonerId(prisonerId);
+        if (prisonId == null) {
+            throw new IllegalArgumentException("Prisoner is not assigned to a cell: " + prisonerId);
+        }
+        return prisonId;
+    }
+
+    // Reserves one place in the slot containing the given time, or fails if the slot is full
+    public VisitSlot reserve(Integer prisonId, LocalDate date, LocalTime time) {
+        Assert.notNull(prisonId, "Prison ID cannot be null");
+        Assert.notNull(date, "Visit date cannot be null");
+        Assert.notNull(time, "Visit time cannot be null");
+        Assert.isTrue(!date.isBefore(LocalDate.now()), "Visit date cannot be in the past");
+
+        LocalTime startTime = slotStartFor(time);
+        String slotId = VisitSlot.idFor(prisonId, date, startTime);
+        Query hasRoom = new BasicQuery(new Document("_id", slotId)
+            .append("$expr", new Document("$lt", List.of("$booked", "$capacity"))));
+        // Creates the slot with this booking in it when it has never been used, in the same operation
+        Update book = new Update().inc("booked", 1)
+            .setOnInsert("prisonId", prisonId)
+            .setOnInsert("date", date)
+            .setOnInsert("startTime", startTime)
+            .setOnInsert("durationMinutes", slotMinutes)
+            .setOnInsert("capacity", defaultCapacity);
+        // A new slot with no places must not be created holding a booking
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(defaultCapacity > 0).returnNew(true);
+        VisitSlot slot;
+        try {
+            slot = mongoTemplate.findAndModify(hasRoom, book, options, VisitSlot.class);
+        } catch (DuplicateKeyException e) {
+            // The slot exists but is full, or another booking created it first; only a slot with room matches
+            slot = mongoTemplate.findAndModify(hasRoom, new Update().inc("booked", 1),
+                FindAndModifyOptions.options().returnNew(true), VisitSlot.class);
+        }
+        if (slot == null) {
+            throw new IllegalStateException("Visit slot is fully booked: " + date + " " + startTime);
+        }
+        return slot;
+    }
+
+    public void release(String slotId) {
+        Assert.hasText(slotId, "Visit slot ID cannot be null or empty");
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("_id").is(slotId).and("booked").gt(0)),
+            new Update().inc("booked", -1),
+            VisitSlot.class);
+    }
+
+    public List<VisitSlot> getSlots(Integer prisonId, LocalDate date) {
+        Assert.notNull(prisonId, "Prison ID cannot be null");
+        Assert.notNull(date, "Date cannot be null");
+        Map<String, VisitSlot> stored = findStoredSlots(prisonId, date, date);
+        List<VisitSlot> slots = new ArrayList<>();
+        for (LocalTime startTime : slotStartTimes()) {
+            slots.add(slotOrDefault(stored, prisonId, date, startTime));
+        }
+        return slots;
+    }
+
+    // Walks the slot template forward from the given date, reading only the stored counters
+    public List<VisitSlot> getAvailableSlots(Integer prisonId, LocalDate from, int limit) {
+        Assert.notNull(prisonId, "Prison ID cannot be null");
+        Assert.notNull(from, "Start date cannot be null");
+        Assert.isTrue(limit > 0, "Limit must be greater than 0");
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate start = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        LocalDate end = now.toLocalDate().plusDays(bookingHorizonDays);
+        Map<String, VisitSlot> stored = findStoredSlots(prisonId, start, end);
+        List<LocalTime> startTimes = slotStartTimes();
+
+        List<VisitSlot> available = new ArrayList<>(limit);
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            for (LocalTime startTime : startTimes) {
+                if (!date.atTime(startTime).isAfter(now)) {
+                    continue;
+                }
+                VisitSlot slot = slotOrDefault(stored, prisonId, date, startTime);
+                if (!slot.isFull()) {
+                    available.add(slot);
+                    if (available.size() >= limit) {
+                        return available;
+                    }
+                }
+            }
+        }
+        return available;
+    }
+
+    public List<VisitSlot> setDayCapacity(Integer prisonId, LocalDate date, int capacity) {
+        Assert.notNull(prisonId, "Prison ID cannot be null");
+        Assert.notNull(date, "Date cannot be null");
+        Assert.isTrue(capacity >= 0, "Capacity cannot be negative");
+
+        ensureDay(prisonId, date);
+        Query dayQuery = Query.query(Criteria.where("prisonId").is(prisonId).and("date").is(date));
+        if (mongoTemplate.exists(Query.query(Criteria.where("prisonId").is(prisonId).and("date").is(date)
+                .and("booked").gt(capacity)), VisitSlot.class)) {
+            throw new IllegalStateException("Cannot reduce capacity below existing bookings on " + date);
+        }
+        // The filter keeps a booking made since the check above from being left over capacity; such a
+        // slot keeps its capacity and the change is reported as failed
+        Query fits = Query.query(Criteria.where("prisonId").is(prisonId).and("date").is(date)
+            .and("booked").lte(capacity));
+        long updated = mongoTemplate.updateMulti(fits, new Update().set("capacity", capacity), VisitSlot.class)
+            .getMatchedCount();
+        if (updated < mongoTemplate.count(dayQuery, VisitSlot.class)) {
+            throw new IllegalStateException("Cannot reduce capacity below existing bookings on " + date);
+        }
+        return getSlots(prisonId, date);
+    }
+
+    public LocalTime slotStartFor(LocalTime time) {
+        Assert.notNull(time, "Visit time cannot be null");
+        if (time.isBefore(openingTime) || !time.isBefore(closingTime)) {
+            throw new IllegalArgumentException("Visit time must be within visiting hours " + openingTime + "-" + closingTime);
+        }
+        long minutesSinceOpening = ChronoUnit.MINUTES.between(openingTime, time);
+        LocalTime startTime = openingTime.plusMinutes(minutesSinceOpening / slotMinutes * slotMinutes);
+        if (startTime.plusMinutes(slotMinutes).isAfter(closingTime)) {
+            throw new IllegalArgumentException("Visit time must be within visiting hours " + openingTime + "-" + closingTime);
+        }
+        return startTime;
+    }
+
+    // Creates every counter document of the day that a booking has not created yet; re-running the upserts
+    // is harmless
+    private void ensureDay(Integer prisonId, LocalDate date) {
+        List<LocalTime> startTimes = slotStartTimes();
+        Query dayQuery = Query.query(Criteria.where("prisonId").is(prisonId).and("date").is(date));
+        if (mongoTemplate.count(dayQuery, VisitSlot.class) >= startTimes.size()) {
+            return;
+        }
+        for (LocalTime startTime : startTimes) {
+            Update insert = new Update()
+                .setOnInsert("prisonId", prisonId)
+                .setOnInsert("date", date)
+                .setOnInsert("startTime", startTime)
+                .setOnInsert("durationMinutes", slotMinutes)
+                .setOnInsert("capacity", defaultCapacity)
+                .setOnInsert("booked", 0);
+            try {
+                mongoTemplate.upsert(Query.query(Criteria.where("_id").is(VisitSlot.idFor(prisonId, date, startTime))),
+                    insert, VisitSlot.class);
+            } catch (DuplicateKeyException e) {
+                // Another booking created the same slot concurrently
+            }
+        }
+    }
+
+    private Map<String, VisitSlot> findStoredSlots(Integer prisonId, LocalDate from, LocalDate to) {
+        Query query = Query.query(Criteria.where("prisonId").is(prisonId).and("date").gte(from).lte(to));
+        return mongoTemplate.find(query, VisitSlot.class).stream()
+            .collect(Collectors.toMap(VisitSlot::getId, Function.identity()));
+    }
+
+    private VisitSlot slotOrDefault(Map<String, VisitSlot> stored, Integer prisonId, LocalDate date, LocalTime startTime) {
+        VisitSlot slot = stored.get(VisitSlot.idFor(prisonId, date, startTime));
+        return slot != null ? slot : new VisitSlot(prisonId, date, startTime, slotMinutes, defaultCapacity);
+    }
+
+    private List<LocalTime> slotStartTimes() {
+        List<LocalTime> startTimes = new ArrayList<>();
+        for (LocalTime time = openingTime; !time.plusMinutes(slotMinutes).isAfter(closingTime)
+                && !time.plusMinutes(slotMinutes).isBefore(time); time = time.plusMinutes(slotMinutes)) {
+            startTimes.add(time);
+        }
+        return startTimes;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.models.VisitorLog;
+import org.example.repositories.mongodb.VisitorLogPartitionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Moves visitor logs out of the original single collection into monthly partitions, and once a day
+// compacts the finished visits of closed months into the archive partition
+@Service
+public class VisitorLogArchiveService {
+
+    private static final Logger LOGGER = Logger.getLogger(VisitorLogArchiveService.class.getName());
+    private static final int COMPACTION_HOUR = 2;
+
+    private final VisitorLogPartitionRepository partitionRepository;
+    private final int archiveAfterMonths;
+    private final int batchSize;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "visitor-log-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public VisitorLogArchiveService(VisitorLogPartitionRepository partitionRepository,
+                                    @Value("${visitor-logs.archive-after-months:3}") int archiveAfterMonths,
+                                    @Value("${visitor-logs.archive-batch-size:500}") int batchSize) {
+        Assert.isTrue(archiveAfterMonths > 0, "Visitor logs must stay live for at least one month");
+        Assert.isTrue(batchSize > 0, "Archive batch size must be greater than 0");
+        this.partitionRepository = partitionRepository;
+        this.archiveAfterMonths = archiveAfterMonths;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        long delay = Duration.between(LocalDateTime.now(), nextCompactionTime()).toMillis();
+        scheduler.execute(this::migrateLegacyCollection);
+        scheduler.scheduleAtFixedRate(this::compactSafely, delay, TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    // Months before this one are closed and get compacted
+    public YearMonth getArchiveBoundary() {
+        return YearMonth.now().minusMonths(archiveAfterMonths - 1L);
+    }
+
+    public int compact() {
+        YearMonth boundary = getArchiveBoundary();
+        int archived = 0;
+        for (YearMonth month : new ArrayList<>(partitionRepository.getLiveMonths().headSet(boundary))) {
+            int moved;
+            do {
+                moved = partitionRepository.archiveBatch(month, batchSize);
+                archived += moved;
+            } while (moved == batchSize);
+            // Visits still pending or approved keep the partition alive until they are resolved
+            partitionRepository.dropIfEmpty(month);
+        }
+        if (archived > 0) {
+            LOGGER.info("Archived " + archived + " visitor logs from months before " + boundary);
+        }
+        return archived;
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Visitor log compaction failed", e);
+        }
+    }
+
+    // Reads fall back to the legacy collection until this has emptied it
+    private void migrateLegacyCollection() {
+        if (!partitionRepository.isLegacyPending()) {
+            return;
+        }
+        try {
+            int migrated = 0;
+            List<VisitorLog> batch;
+            while (!(batch = partitionRepository.findLegacyBatch(batchSize)).isEmpty()) {
+                partitionRepository.moveFromLegacy(batch);
+                migrated += batch.size();
+            }
+            partitionRepository.markLegacyMigrated();
+            if (migrated > 0) {
+                LOGGER.info("Moved " + migrated + " visitor logs into monthly partitions");
+                compact();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Visitor log partition migration failed", e);
+        }
+    }
+
+    private static LocalDateTime nextCompactionTime() {
+        LocalDateTime today = LocalDate.now().atTime(COMPACTION_HOUR, 0);
+        return today.isAfter(LocalDateTime.now()) ? today : today.plusDays(1);
+    }
+}
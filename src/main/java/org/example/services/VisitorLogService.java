@@ -1,33 +1,69 @@
 package org.example.services;
 
+import org.example.events.VisitorLogStatusChangedEvent;
 import org.example.models.Visitor;
 import org.example.models.Prisoner;
 import org.example.models.VisitorLog;
-import org.example.repositories.mongodb.VisitorLogRepository;
+import org.example.models.VisitSlot;
+import org.example.repositories.mongodb.VisitorLogPartitionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class VisitorLogService {
 
-    private final VisitorLogRepository visitorLogRepository;
+    // The only order the partitioned logs can be paged in without reading every partition
+    public static final String PAGE_SORT_FIELD = "date";
+
+    private final VisitorLogPartitionRepository visitorLogRepository;
+    private final VisitSlotService visitSlotService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public VisitorLogService(VisitorLogRepository visitorLogRepository) {
+    public VisitorLogService(VisitorLogPartitionRepository visitorLogRepository, VisitSlotService visitSlotService,
+                             ApplicationEventPublisher eventPublisher) {
         this.visitorLogRepository = visitorLogRepository;
+        this.visitSlotService = visitSlotService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<VisitorLog> getAllVisitorLogs() {
         return visitorLogRepository.findAll();
     }
 
+    // Approximate, from collection metadata; sizes the visitor log table without counting documents
+    public long countVisitorLogs() {
+        return visitorLogRepository.estimatedCount();
+    }
+
+    // One page of the visitor log table in visit date order
+    public List<VisitorLog> getVisitorLogPage(PageQuery<VisitorLog> query) {
+        Assert.notNull(query, "Page query cannot be null");
+        Assert.isTrue(PAGE_SORT_FIELD.equals(query.getSortField()),
+            "Visitor logs can only be paged by " + PAGE_SORT_FIELD);
+        Assert.isNull(query.getFilter(), "Visitor log pages cannot be filtered");
+        return query.getAfter() != null
+            ? visitorLogRepository.findPageAfter(query.getAfter(), query.isAscending(), query.getLimit())
+            : visitorLogRepository.findPageAt(query.getOffset(), query.isAscending(), query.getLimit());
+    }
+
+    // Visits every log without holding them all in memory; used by the streaming export
+    public void forEachVisitorLog(Consumer<VisitorLog> action) {
+        Assert.notNull(action, "Action cannot be null");
+        visitorLogRepository.forEach(action);
+    }
+
     public Optional<VisitorLog> getVisitorLogById(String id) {
         Assert.hasText(id, "Visitor log ID cannot be null or empty");
         return visitorLogRepository.findById(id);
@@ -40,13 +76,29 @@ public class VisitorLogService {
         Assert.notNull(visitDate, "Visit date cannot be null");
         Assert.notNull(visitTime, "Visit time cannot be null");
 
-        // Default duration of 60 minutes if not specified
-        Integer duration = 60;
-        String relationship = visitor.getRelationship();
-        String notes = comments;
+        // Reserve the slot first; the place is handed back if the log cannot be saved
+        VisitSlot slot = visitSlotService.reserve(visitSlotService.getPrisonId(prisoner.getId()), visitDate, visitTime);
+        try {
+            VisitorLog visitorLog = new VisitorLog(prisoner.getId(), visitor.getId(), visitDate,
+                slot.getDurationMinutes(), visitor.getRelationship(), comments);
+            visitorLog.setVisitTime(slot.getStartTime());
+            visitorLog.setSlotId(slot.getId());
+            return publishStatus(visitorLogRepository.save(visitorLog, null));
+        } catch (RuntimeException e) {
+            visitSlotService.release(slot.getId());
+            throw e;
+        }
+    }
+
+    public List<VisitSlot> getAvailableSlots(Prisoner prisoner, LocalDate from, int limit) {
+        Assert.notNull(prisoner, "Prisoner cannot be null");
+        return visitSlotService.getAvailableSlots(visitSlotService.getPrisonId(prisoner.getId()), from, limit);
+    }
 
-        VisitorLog visitorLog = new VisitorLog(prisoner.getId(), visitor.getId(), visitDate, duration, relationship, notes);
-        return visitorLogRepository.save(visitorLog);
+    // Every slot of the day at the prisoner's prison, full ones included
+    public List<VisitSlot> getSlots(Prisoner prisoner, LocalDate date) {
+        Assert.notNull(prisoner, "Prisoner cannot be null");
+        return visitSlotService.getSlots(visitSlotService.getPrisonId(prisoner.getId()), date);
     }
 
     public VisitorLog updateVisitorLog(String id, VisitorLog updatedLog) {
@@ -55,15 +107,64 @@ public class VisitorLogService {
 
         VisitorLog existingLog = getVisitorLogById(id)
             .orElseThrow(() -> new RuntimeException("Visitor log not found with ID: " + id));
+        String previousStatus = existingLog.getStatus();
+        VisitorLog saved = saveUpdate(existingLog, updatedLog);
+        return Objects.equals(previousStatus, saved.getStatus()) ? saved : publishStatus(saved);
+    }
 
+    private VisitorLog saveUpdate(VisitorLog existingLog, VisitorLog updatedLog) {
+        String previousSlotId = existingLog.getSlotId();
+        LocalDate previousDate = existingLog.getDate();
+        LocalTime previousTime = existingLog.getVisitTime();
+        Integer previousPrisonerId = existingLog.getPrisonerId();
+        // A rejected visit keeps its slot id but no longer holds a place in it
+        boolean heldPlace = previousSlotId != null && !existingLog.isRejected();
         updateVisitorLogFields(existingLog, updatedLog);
-        return visitorLogRepository.save(existingLog);
+
+        if (previousSlotId == null && !existingLog.isRejected()) {
+            // Booked before slots were counted; there is no place to move
+            return visitorLogRepository.save(existingLog, previousDate);
+        }
+        if (existingLog.isRejected()) {
+            VisitorLog saved = visitorLogRepository.save(existingLog, previousDate);
+            if (heldPlace) {
+                visitSlotService.release(previousSlotId);
+            }
+            return saved;
+        }
+        boolean moved = !existingLog.getDate().equals(previousDate)
+            || !existingLog.getPrisonerId().equals(previousPrisonerId)
+            || !Objects.equals(existingLog.getVisitTime(), previousTime);
+        if (heldPlace && !moved) {
+            return visitorLogRepository.save(existingLog, previousDate);
+        }
+        // A moved visit, or a rejected one taken up again, needs a place in its slot, checked against capacity
+        VisitSlot slot = visitSlotService.reserve(visitSlotService.getPrisonId(existingLog.getPrisonerId()),
+            existingLog.getDate(), existingLog.getVisitTime());
+        existingLog.setSlotId(slot.getId());
+        existingLog.setVisitTime(slot.getStartTime());
+        VisitorLog saved;
+        try {
+            saved = visitorLogRepository.save(existingLog, previousDate);
+        } catch (RuntimeException e) {
+            // The stored log is unchanged, so the new place is handed back
+            visitSlotService.release(slot.getId());
+            throw e;
+        }
+        if (heldPlace) {
+            visitSlotService.release(previousSlotId);
+        }
+        return saved;
     }
 
     public void deleteVisitorLog(String id) {
         Assert.hasText(id, "Visitor log ID cannot be null or empty");
-        getVisitorLogById(id); // Verify exists
-        visitorLogRepository.deleteById(id);
+        VisitorLog visitorLog = getVisitorLogById(id)
+            .orElseThrow(() -> new RuntimeException("Visitor log not found with ID: " + id));
+        visitorLogRepository.delete(visitorLog);
+        releaseSlot(visitorLog);
+        eventPublisher.publishEvent(new VisitorLogStatusChangedEvent(visitorLog.getId(), visitorLog.getPrisonerId(),
+            null));
     }
 
     public List<VisitorLog> getVisitorLogsByPrisoner(String prisonerId) {
@@ -71,6 +172,13 @@ public class VisitorLogService {
         return visitorLogRepository.findByPrisonerId(Integer.parseInt(prisonerId));
     }
 
+    // The server abandons each query that runs longer than maxTime and the call fails
+    public List<VisitorLog> getVisitorLogsByPrisoner(String prisonerId, Duration maxTime) {
+        Assert.hasText(prisonerId, "Prisoner ID cannot be null or empty");
+        Assert.notNull(maxTime, "Max time cannot be null");
+        return visitorLogRepository.findByPrisonerId(Integer.parseInt(prisonerId), maxTime);
+    }
+
     public List<VisitorLog> getVisitorLogsByVisitor(String visitorId) {
         Assert.hasText(visitorId, "Visitor ID cannot be null or empty");
         return visitorLogRepository.findByVisitorId(Integer.parseInt(visitorId));
@@ -89,11 +197,11 @@ public class VisitorLogService {
     }
 
     public List<VisitorLog> getPendingVisitorLogs() {
-        return visitorLogRepository.findPendingVisits();
+        return visitorLogRepository.findByStatus("PENDING");
     }
 
     public List<VisitorLog> getApprovedVisitorLogs() {
-        return visitorLogRepository.findApprovedVisits();
+        return visitorLogRepository.findByStatus("APPROVED");
     }
 
     public List<VisitorLog> getVisitorLogsNeedingFollowUp() {
@@ -125,7 +233,7 @@ public class VisitorLogService {
         }
         
         visitorLog.approve();
-        return visitorLogRepository.save(visitorLog);
+        return publishStatus(visitorLogRepository.save(visitorLog, visitorLog.getDate()));
     }
 
     public VisitorLog rejectVisitorLog(String id) {
@@ -137,7 +245,11 @@ public class VisitorLogService {
         }
         
         visitorLog.reject();
-        return visitorLogRepository.save(visitorLog);
+        VisitorLog saved = visitorLogRepository.save(visitorLog, visitorLog.getDate());
+        if (visitorLog.getSlotId() != null) {
+            visitSlotService.release(visitorLog.getSlotId());
+        }
+        return publishStatus(saved);
     }
 
     public VisitorLog completeVisitorLog(String id) {
@@ -149,7 +261,20 @@ public class VisitorLogService {
         }
         
         visitorLog.complete();
-        return visitorLogRepository.save(visitorLog);
+        return publishStatus(visitorLogRepository.save(visitorLog, visitorLog.getDate()));
+    }
+
+    private VisitorLog publishStatus(VisitorLog visitorLog) {
+        eventPublisher.publishEvent(new VisitorLogStatusChangedEvent(visitorLog.getId(), visitorLog.getPrisonerId(),
+            visitorLog.getStatus()));
+        return visitorLog;
+    }
+
+    // Rejected visits have already given their place back
+    private void releaseSlot(VisitorLog visitorLog) {
+        if (visitorLog.getSlotId() != null && !visitorLog.isRejected()) {
+            visitSlotService.release(visitorLog.getSlotId());
+        }
     }
 
     private void updateVisitorLogFields(VisitorLog existingLog, VisitorLog updatedLog) {
@@ -162,6 +287,9 @@ public class VisitorLogService {
         if (updatedLog.getDate() != null) {
             existingLog.setDate(updatedLog.getDate());
         }
+        if (updatedLog.getVisitTime() != null) {
+            existingLog.setVisitTime(updatedLog.getVisitTime());
+        }
         if (updatedLog.getDuration() != null) {
             existingLog.setDuration(updatedLog.getDuration());
         }
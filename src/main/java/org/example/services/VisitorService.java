@@ -1,28 +1,47 @@
 // VisitorService.java
 package org.example.services;
 
+import org.example.events.VisitorChangedEvent;
 import org.example.models.Visitor;
 import org.example.models.Prisoner;
+import org.example.repositories.mysql.FieldProjection;
+import org.example.repositories.mysql.FieldProjectionRepository;
 import org.example.repositories.mysql.VisitorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class VisitorService {
 
+    // Fields of the visitor REST representation
+    public static final FieldProjection<Visitor> RESPONSE_FIELDS = FieldProjection.of(Visitor.class)
+        .field("name", "name")
+        .field("relationship", "relationship");
+
     private final VisitorRepository visitorRepository;
+    private final NameSearchService nameSearchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FieldProjectionRepository fieldProjectionRepository;
 
     @Autowired
-    public VisitorService(VisitorRepository visitorRepository) {
+    public VisitorService(VisitorRepository visitorRepository, NameSearchService nameSearchService,
+                          ApplicationEventPublisher eventPublisher,
+                          FieldProjectionRepository fieldProjectionRepository) {
         this.visitorRepository = visitorRepository;
+        this.fieldProjectionRepository = fieldProjectionRepository;
+        this.nameSearchService = nameSearchService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -36,6 +55,27 @@ public class VisitorService {
         return visitorRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public Map<Integer, Visitor> getVisitorsByIds(Collection<Integer> ids) {
+        Assert.notNull(ids, "Visitor IDs cannot be null");
+        return visitorRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Visitor::getId, Function.identity()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getVisitorFieldsById(Integer id, Collection<String> fields) {
+        Assert.notNull(id, "Visitor ID cannot be null");
+        return fieldProjectionRepository.findById(RESPONSE_FIELDS, RESPONSE_FIELDS.select(fields), id);
+    }
+
+    @Transactional(readOnly = true)
+    public MultiGetResult<Map<String, Object>> getVisitorFieldsByIds(Collection<Integer> ids,
+                                                                      Collection<String> fields) {
+        List<String> selected = RESPONSE_FIELDS.select(fields);
+        return MultiGetResult.load(ids,
+            distinct -> fieldProjectionRepository.findAllById(RESPONSE_FIELDS, selected, distinct));
+    }
+
     @Transactional(readOnly = true)
     public Optional<Visitor> getVisitorByName(String name) {
         Assert.hasText(name, "Name cannot be null or empty");
@@ -52,7 +92,9 @@ public class VisitorService {
         }
 
         Visitor visitor = new Visitor(name, relationship);
-        return visitorRepository.save(visitor);
+        Visitor savedVisitor = visitorRepository.save(visitor);
+        eventPublisher.publishEvent(new VisitorChangedEvent(savedVisitor.getId(), savedVisitor.getName()));
+        return savedVisitor;
     }
 
     @Transactional
@@ -70,7 +112,9 @@ public class VisitorService {
         }
 
         updateVisitorFields(existingVisitor, updatedVisitor);
-        return visitorRepository.save(existingVisitor);
+        Visitor savedVisitor = visitorRepository.save(existingVisitor);
+        eventPublisher.publishEvent(new VisitorChangedEvent(savedVisitor.getId(), savedVisitor.getName()));
+        return savedVisitor;
     }
 
     @Transactional
@@ -90,6 +134,7 @@ public class VisitorService {
         }
         
         visitorRepository.deleteById(id);
+        eventPublisher.publishEvent(new VisitorChangedEvent(id, null));
     }
 
     @Transactional(readOnly = true)
@@ -111,11 +156,27 @@ public class VisitorService {
         return visitorRepository.findByPrisoners_IdAndRelationship(prisonerId, relationship);
     }
 
+    // Ranked by name similarity, so partial and misspelt names still match
+    @Transactional(readOnly = true)
+    public List<Visitor> searchVisitorsByName(String nameQuery, int limit) {
+        Assert.hasText(nameQuery, "Name query cannot be null or empty");
+        List<Integer> ids = nameSearchService.searchVisitorIds(nameQuery, limit);
+        Map<Integer, Visitor> visitors = getVisitorsByIds(ids);
+        return ids.stream()
+            .map(visitors::get)
+            .filter(visitor -> visitor != null)
+            .toList();
+    }
+
     @Transactional(readOnly = true)
     public List<Visitor> searchVisitorsByNameAndPrisoner(Integer prisonerId, String nameQuery) {
         Assert.notNull(prisonerId, "Prisoner ID cannot be null");
         Assert.hasText(nameQuery, "Name query cannot be null or empty");
-        return visitorRepository.findByPrisoners_IdAndNameContaining(prisonerId, nameQuery);
+        Map<Integer, Visitor> visitors = visitorRepository.findByPrisoners_Id(prisonerId).stream()
+            .collect(Collectors.toMap(Visitor::getId, Function.identity()));
+        return nameSearchService.searchVisitorIds(nameQuery, Math.max(1, visitors.size()), visitors::containsKey).stream()
+            .map(visitors::get)
+            .toList();
     }
 
     @Transactional(readOnly = true)
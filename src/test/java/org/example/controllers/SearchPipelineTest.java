@@ -0,0 +1,63 @@
+package org.example.controllers;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Searches run against SearchPipeline.Rows directly; queries arrive there already normalized
+class SearchPipelineTest {
+
+    private static final List<String> NAMES = List.of("Alice Brown", "alan smith", "BOB ALDER", "Carol White");
+
+    @Test
+    void searchMatchesNormalizedKeysInRowOrder() {
+        SearchPipeline.Rows<String> rows = new SearchPipeline.Rows<>(NAMES, Function.identity());
+
+        Assertions.assertEquals(List.of("Alice Brown", "alan smith", "BOB ALDER"),
+            rows.search("al", null, () -> false).matches);
+        Assertions.assertEquals(NAMES, rows.search("", null, () -> false).matches);
+        Assertions.assertEquals(List.of(), rows.search("zed", null, () -> false).matches);
+    }
+
+    @Test
+    void longerQueryOnlyRescansTheRowsTheShownOneMatched() {
+        SearchPipeline.Rows<String> rows = new SearchPipeline.Rows<>(NAMES, Function.identity());
+        // Shown result for "al" that left out "BOB ALDER"; a narrowed search cannot bring it back
+        SearchPipeline.Result<String> shown =
+            new SearchPipeline.Result<>(rows, "al", new int[] {0, 1}, List.of("Alice Brown", "alan smith"));
+
+        Assertions.assertEquals(List.of("alan smith"), rows.search("ala", shown, () -> false).matches);
+        Assertions.assertEquals(List.of(), rows.search("alder", shown, () -> false).matches);
+    }
+
+    @Test
+    void unrelatedQueryOrNewRowsScanEverything() {
+        SearchPipeline.Rows<String> rows = new SearchPipeline.Rows<>(NAMES, Function.identity());
+        SearchPipeline.Result<String> shown =
+            new SearchPipeline.Result<>(rows, "al", new int[] {0, 1}, List.of("Alice Brown", "alan smith"));
+        SearchPipeline.Rows<String> newRows = new SearchPipeline.Rows<>(NAMES, Function.identity());
+
+        Assertions.assertEquals(List.of("BOB ALDER"), rows.search("bob", shown, () -> false).matches);
+        Assertions.assertEquals(List.of("BOB ALDER"), newRows.search("alder", shown, () -> false).matches);
+    }
+
+    @Test
+    void staleSearchStopsAndReturnsNothing() {
+        List<Integer> many = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            many.add(i);
+        }
+        SearchPipeline.Rows<Integer> rows = new SearchPipeline.Rows<>(many, String::valueOf);
+        AtomicInteger checks = new AtomicInteger();
+
+        // Overtaken by newer input after the first block of rows
+        Assertions.assertNull(rows.search("1", null, () -> checks.incrementAndGet() > 1));
+        Assertions.assertEquals(2, checks.get());
+        Assertions.assertNull(rows.search("1", null, () -> true));
+        Assertions.assertEquals(many, rows.search("", null, () -> false).matches);
+    }
+}
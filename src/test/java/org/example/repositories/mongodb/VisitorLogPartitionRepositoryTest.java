@@ -0,0 +1,202 @@
+package org.example.repositories.mongodb;
+
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.example.models.VisitorLog;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// MongoTemplate is replaced by in-memory collections that answer the date and (date, _id) queries
+// the repository sends the way the server would
+class VisitorLogPartitionRepositoryTest {
+
+    private static final Comparator<VisitorLog> ASCENDING =
+        Comparator.comparing(VisitorLog::getDate).thenComparing(VisitorLog::getId);
+
+    private final Map<String, List<VisitorLog>> collections = new HashMap<>();
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = Mockito.mock(MongoTemplate.class);
+        Mockito.when(mongoTemplate.getCollectionNames()).thenAnswer(invocation -> collections.keySet());
+        Mockito.when(mongoTemplate.indexOps(ArgumentMatchers.anyString()))
+            .thenAnswer(invocation -> Mockito.mock(IndexOperations.class));
+        Mockito.when(mongoTemplate.collectionExists(ArgumentMatchers.anyString()))
+            .thenAnswer(invocation -> collections.containsKey(invocation.<String>getArgument(0)));
+        Mockito.when(mongoTemplate.getCollection(ArgumentMatchers.anyString())).thenAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            MongoCollection<Document> collection = Mockito.mock(MongoCollection.class);
+            long size = logs(invocation.getArgument(0)).size();
+            Mockito.when(collection.estimatedDocumentCount()).thenReturn(size);
+            return collection;
+        });
+        Mockito.when(mongoTemplate.find(ArgumentMatchers.any(Query.class), ArgumentMatchers.eq(VisitorLog.class),
+                ArgumentMatchers.anyString()))
+            .thenAnswer(invocation -> find(invocation.getArgument(0), invocation.getArgument(2)));
+        Mockito.when(mongoTemplate.findOne(ArgumentMatchers.any(Query.class), ArgumentMatchers.eq(VisitorLog.class),
+                ArgumentMatchers.anyString()))
+            .thenAnswer(invocation -> {
+                List<VisitorLog> found = find(invocation.getArgument(0), invocation.getArgument(2));
+                return found.isEmpty() ? null : found.get(0);
+            });
+        Mockito.when(mongoTemplate.count(ArgumentMatchers.any(Query.class), ArgumentMatchers.eq(VisitorLog.class),
+                ArgumentMatchers.anyString()))
+            .thenAnswer(invocation -> (long) find(Query.of(invocation.getArgument(0)).limit(0),
+                invocation.getArgument(2)).size());
+    }
+
+    @Test
+    void mergeInterleavesInPageOrderAndKeepsASharedLogOnce() {
+        VisitorLog a = log("a", "2024-01-05");
+        VisitorLog b = log("b", "2024-01-05");
+        VisitorLog c = log("c", "2024-01-09");
+        VisitorLog d = log("d", "2024-02-01");
+        VisitorLog migratedCopy = log("c", "2024-01-09");
+
+        Assertions.assertEquals(List.of("a", "b", "c", "d"), ids(VisitorLogPartitionRepository.merge(
+            List.of(a, c), List.of(b, migratedCopy, d), ASCENDING, 10)));
+        Assertions.assertSame(c, VisitorLogPartitionRepository.merge(
+            List.of(c), List.of(migratedCopy), ASCENDING, 10).get(0));
+        Assertions.assertEquals(List.of("a", "b"), ids(VisitorLogPartitionRepository.merge(
+            List.of(a, c), List.of(b, d), ASCENDING, 2)));
+        Assertions.assertEquals(List.of("d", "c", "b"), ids(VisitorLogPartitionRepository.merge(
+            List.of(d, b), List.of(c, a), ASCENDING.reversed(), 3)));
+    }
+
+    @Test
+    void pagesAtEveryOffsetMatchTheFullOrder() {
+        List<VisitorLog> all = new ArrayList<>();
+        // January and February are archived, the archive also holds a finished March visit, March and
+        // April are live, and two December logs are still in the legacy collection
+        all.addAll(store(VisitorLogPartitionRepository.ARCHIVE_COLLECTION,
+            log("j1", "2024-01-03"), log("j2", "2024-01-03"), log("j3", "2024-01-20"),
+            log("f1", "2024-02-14"), log("m0", "2024-03-01")));
+        all.addAll(store(VisitorLogPartitionRepository.partitionName(YearMonth.of(2024, 3)),
+            log("m1", "2024-03-01"), log("m2", "2024-03-15"), log("m3", "2024-03-31")));
+        all.addAll(store(VisitorLogPartitionRepository.partitionName(YearMonth.of(2024, 4)),
+            log("a1", "2024-04-02"), log("a2", "2024-04-02"), log("a3", "2024-04-30")));
+        all.addAll(store(VisitorLogPartitionRepository.LEGACY_COLLECTION,
+            log("d1", "2023-12-24"), log("d2", "2023-12-31")));
+        VisitorLogPartitionRepository repository = new VisitorLogPartitionRepository(mongoTemplate);
+        repository.loadPartitions();
+        Assertions.assertTrue(repository.isLegacyPending());
+
+        for (boolean ascending : new boolean[] {true, false}) {
+            List<VisitorLog> expected = new ArrayList<>(all);
+            expected.sort(ascending ? ASCENDING : ASCENDING.reversed());
+            for (int offset = 0; offset <= expected.size(); offset++) {
+                List<String> page = ids(expected.subList(offset, Math.min(offset + 3, expected.size())));
+                Assertions.assertEquals(page, ids(repository.findPageAt(offset, ascending, 3)),
+                    "offset " + offset + (ascending ? " ascending" : " descending"));
+            }
+        }
+    }
+
+    @Test
+    void pagingAfterTheLastLogWalksTheWholeHistoryOnce() {
+        List<VisitorLog> all = new ArrayList<>();
+        all.addAll(store(VisitorLogPartitionRepository.ARCHIVE_COLLECTION,
+            log("j1", "2024-01-03"), log("m0", "2024-03-01")));
+        all.addAll(store(VisitorLogPartitionRepository.partitionName(YearMonth.of(2024, 3)),
+            log("m1", "2024-03-01"), log("m2", "2024-03-15")));
+        all.addAll(store(VisitorLogPartitionRepository.partitionName(YearMonth.of(2024, 5)),
+            log("y1", "2024-05-10")));
+        VisitorLogPartitionRepository repository = new VisitorLogPartitionRepository(mongoTemplate);
+        repository.loadPartitions();
+
+        List<VisitorLog> walked = new ArrayList<>();
+        List<VisitorLog> page = repository.findPageAfter(null, true, 2);
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            page = repository.findPageAfter(page.get(page.size() - 1), true, 2);
+        }
+
+        all.sort(ASCENDING);
+        Assertions.assertEquals(ids(all), ids(walked));
+    }
+
+    private List<VisitorLog> store(String collection, VisitorLog... logs) {
+        Collections.addAll(collections.computeIfAbsent(collection, name -> new ArrayList<>()), logs);
+        return List.of(logs);
+    }
+
+    private List<VisitorLog> logs(String collection) {
+        return collections.getOrDefault(collection, List.of());
+    }
+
+    private List<VisitorLog> find(Query query, String collection) {
+        Document sort = query.getSortObject();
+        Comparator<VisitorLog> order = ASCENDING;
+        if (!sort.isEmpty() && ((Number) sort.values().iterator().next()).intValue() < 0) {
+            order = order.reversed();
+        }
+        List<VisitorLog> found = logs(collection).stream()
+            .filter(visitorLog -> matches(query.getQueryObject(), visitorLog))
+            .sorted(order)
+            .collect(Collectors.toList());
+        return query.getLimit() > 0 && found.size() > query.getLimit() ? found.subList(0, query.getLimit()) : found;
+    }
+
+    // Understands the filters the repository builds: $or and comparisons on date and _id
+    @SuppressWarnings("unchecked")
+    private static boolean matches(Document filter, VisitorLog visitorLog) {
+        for (Map.Entry<String, Object> entry : filter.entrySet()) {
+            if ("$or".equals(entry.getKey())) {
+                if (((List<Document>) entry.getValue()).stream().noneMatch(branch -> matches(branch, visitorLog))) {
+                    return false;
+                }
+                continue;
+            }
+            Comparable<Object> value = (Comparable<Object>) (Object) ("_id".equals(entry.getKey())
+                ? visitorLog.getId() : visitorLog.getDate());
+            if (!(entry.getValue() instanceof Document conditions)) {
+                if (value.compareTo(entry.getValue()) != 0) {
+                    return false;
+                }
+                continue;
+            }
+            for (Map.Entry<String, Object> condition : conditions.entrySet()) {
+                int compared = value.compareTo(condition.getValue());
+                boolean holds = switch (condition.getKey()) {
+                    case "$gt" -> compared > 0;
+                    case "$gte" -> compared >= 0;
+                    case "$lt" -> compared < 0;
+                    case "$lte" -> compared <= 0;
+                    default -> throw new IllegalArgumentException("Unsupported operator " + condition.getKey());
+                };
+                if (!holds) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static VisitorLog log(String id, String date) {
+        VisitorLog visitorLog = new VisitorLog();
+        visitorLog.setId(id);
+        visitorLog.setDate(LocalDate.parse(date));
+        return visitorLog;
+    }
+
+    private static List<String> ids(List<VisitorLog> logs) {
+        return logs.stream().map(VisitorLog::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.services;
+
+import org.example.models.GunMaintenanceRecord;
+import org.example.repositories.mongodb.GunMaintenanceRepository;
+import org.example.repositories.mysql.GunRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class GunMaintenanceServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private GunMaintenanceRepository maintenanceRepository;
+    private GunRepository gunRepository;
+    private MongoTemplate mongoTemplate;
+    private GunMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        maintenanceRepository = Mockito.mock(GunMaintenanceRepository.class);
+        gunRepository = Mockito.mock(GunRepository.class);
+        mongoTemplate = Mockito.mock(MongoTemplate.class);
+        Mockito.when(maintenanceRepository.save(ArgumentMatchers.any(GunMaintenanceRecord.class)))
+            .thenAnswer(AdditionalAnswers.returnsFirstArg());
+        Mockito.when(gunRepository.existsBySerialNumber(ArgumentMatchers.anyString())).thenReturn(true);
+
+        // G-NEW was never serviced, G-OLD is overdue, G-SOON is due in ten days and G-LATER in ninety
+        Mockito.when(maintenanceRepository.findAll()).thenReturn(List.of(
+            serviced("G-OLD", TODAY.minusDays(GunMaintenanceRecord.SERVICE_INTERVAL_DAYS + 30)),
+            serviced("G-SOON", TODAY.minusDays(GunMaintenanceRecord.SERVICE_INTERVAL_DAYS - 10)),
+            serviced("G-LATER", TODAY.minusDays(GunMaintenanceRecord.SERVICE_INTERVAL_DAYS - 90))));
+        Mockito.when(gunRepository.findAllSerialNumbers()).thenReturn(List.of("G-LATER", "G-SOON", "G-OLD", "G-NEW"));
+
+        service = new GunMaintenanceService(maintenanceRepository, gunRepository, mongoTemplate);
+        service.rebuildIndex();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void listsWeaponsInDueOrderUpToTheDate() {
+        Assertions.assertEquals(List.of("G-NEW", "G-OLD"), service.getSerialNumbersDueForMaintenance(TODAY, 10));
+        Assertions.assertEquals(List.of("G-NEW", "G-OLD", "G-SOON"),
+            service.getSerialNumbersDueForMaintenance(TODAY.plusDays(10), 10));
+        Assertions.assertEquals(List.of("G-NEW"), service.getSerialNumbersDueForMaintenance(TODAY, 1));
+    }
+
+    @Test
+    void countsMatchTheListedWeapons() {
+        Assertions.assertEquals(2, service.getDueForMaintenanceCount(TODAY));
+        Assertions.assertEquals(2, service.getDueForMaintenanceCount(TODAY.plusDays(9)));
+        Assertions.assertEquals(3, service.getDueForMaintenanceCount(TODAY.plusDays(10)));
+        Assertions.assertEquals(4, service.getDueForMaintenanceCount(TODAY.plusDays(90)));
+        Assertions.assertEquals(1, service.getDueForMaintenanceCount(TODAY.minusYears(10)));
+    }
+
+    @Test
+    void serviceMovesTheWeaponOutOfTheDueCount() {
+        Mockito.when(mongoTemplate.findAndModify(ArgumentMatchers.any(Query.class), ArgumentMatchers.any(Update.class),
+                ArgumentMatchers.any(FindAndModifyOptions.class), ArgumentMatchers.eq(GunMaintenanceRecord.class)))
+            .thenReturn(serviced("G-OLD", TODAY));
+
+        service.recordService("G-OLD", TODAY);
+
+        Assertions.assertEquals(List.of("G-NEW"), service.getSerialNumbersDueForMaintenance(TODAY, 10));
+        Assertions.assertEquals(1, service.getDueForMaintenanceCount(TODAY));
+        Assertions.assertEquals(4, service.getDueForMaintenanceCount(
+            TODAY.plusDays(GunMaintenanceRecord.SERVICE_INTERVAL_DAYS)));
+    }
+
+    @Test
+    void usageIsCountedOnTheServer() {
+        GunMaintenanceRecord used =
+            serviced("G-SOON", TODAY.minusDays(GunMaintenanceRecord.SERVICE_INTERVAL_DAYS - 10));
+        used.recordUsage(GunMaintenanceRecord.ROUNDS_BETWEEN_SERVICE, TODAY);
+        Mockito.when(mongoTemplate.findAndModify(ArgumentMatchers.any(Query.class), ArgumentMatchers.any(Update.class),
+                ArgumentMatchers.any(FindAndModifyOptions.class), ArgumentMatchers.eq(GunMaintenanceRecord.class)))
+            .thenReturn(used);
+
+        service.recordUsage("G-SOON", GunMaintenanceRecord.ROUNDS_BETWEEN_SERVICE);
+
+        // The rounds are sent as an increment rather than a saved copy of the record
+        Mockito.verify(maintenanceRepository, Mockito.never()).save(ArgumentMatchers.any(GunMaintenanceRecord.class));
+        Assertions.assertEquals(3, service.getDueForMaintenanceCount(TODAY));
+    }
+
+    @Test
+    void neverServicedWeaponHasNoNextServiceDate() {
+        GunMaintenanceRecord record = new GunMaintenanceRecord("G-NEW");
+
+        Assertions.assertNull(record.getNextServiceDate());
+        Assertions.assertTrue(record.isDue(TODAY.minusYears(10)));
+    }
+
+    @Test
+    void registrationWaitsForTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.registerGun("G-ADDED");
+
+        Assertions.assertEquals(2, service.getDueForMaintenanceCount(TODAY));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        Assertions.assertEquals(3, service.getDueForMaintenanceCount(TODAY));
+        Assertions.assertEquals(List.of("G-ADDED", "G-NEW", "G-OLD"),
+            service.getSerialNumbersDueForMaintenance(TODAY, 10));
+    }
+
+    @Test
+    void rolledBackRemovalKeepsTheWeapon() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.unregisterGun("G-OLD");
+        // Rolled back: the synchronizations are discarded without afterCommit
+        TransactionSynchronizationManager.clearSynchronization();
+
+        Assertions.assertEquals(2, service.getDueForMaintenanceCount(TODAY));
+        Mockito.verify(maintenanceRepository, Mockito.never()).deleteById(ArgumentMatchers.anyString());
+
+        service.unregisterGun("G-OLD");
+        Assertions.assertEquals(List.of("G-NEW"), service.getSerialNumbersDueForMaintenance(TODAY, 10));
+        Assertions.assertEquals(1, service.getDueForMaintenanceCount(TODAY));
+        Mockito.verify(maintenanceRepository).deleteById("G-OLD");
+    }
+
+    private static GunMaintenanceRecord serviced(String serialNumber, LocalDate serviceDate) {
+        GunMaintenanceRecord record = new GunMaintenanceRecord(serialNumber);
+        record.recordService(serviceDate);
+        return record;
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.services;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.example.models.VisitSlot;
+import org.example.repositories.mysql.PrisonerRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// MongoTemplate is replaced by an in-memory counter store that applies reserve's conditional
+// findAndModify the way the server does
+class VisitSlotServiceTest {
+
+    private static final Integer PRISON_ID = 1;
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+    private static final LocalTime TIME = LocalTime.of(10, 15);
+
+    private final Map<String, VisitSlot> slots = new HashMap<>();
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = Mockito.mock(MongoTemplate.class);
+        Mockito.when(mongoTemplate.findAndModify(ArgumentMatchers.any(Query.class),
+                ArgumentMatchers.any(UpdateDefinition.class), ArgumentMatchers.any(FindAndModifyOptions.class),
+                ArgumentMatchers.eq(VisitSlot.class)))
+            .thenAnswer(invocation -> book(invocation.getArgument(0), invocation.getArgument(1),
+                invocation.getArgument(2)));
+    }
+
+    @Test
+    void reserveTakesPlacesUpToCapacity() {
+        VisitSlotService service = service(2);
+
+        Assertions.assertEquals(1, service.reserve(PRISON_ID, DATE, TIME).getBooked());
+        VisitSlot second = service.reserve(PRISON_ID, DATE, TIME);
+        Assertions.assertEquals(2, second.getBooked());
+        Assertions.assertEquals(LocalTime.of(10, 0), second.getStartTime());
+        Assertions.assertThrows(IllegalStateException.class, () -> service.reserve(PRISON_ID, DATE, TIME));
+        Assertions.assertEquals(2, slots.get(second.getId()).getBooked());
+    }
+
+    @Test
+    void reserveNeverCreatesABookedSlotWithoutCapacity() {
+        VisitSlotService service = service(0);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> service.reserve(PRISON_ID, DATE, TIME));
+        Assertions.assertTrue(slots.isEmpty());
+    }
+
+    @Test
+    void reserveRetriesWhenAnotherBookingCreatedTheSlotFirst() {
+        VisitSlotService service = service(2);
+        String slotId = VisitSlot.idFor(PRISON_ID, DATE, LocalTime.of(10, 0));
+        Mockito.doAnswer(invocation -> {
+                // The other booking's insert wins the race for the slot's _id
+                VisitSlot other = new VisitSlot(PRISON_ID, DATE, LocalTime.of(10, 0), 60, 2);
+                other.setBooked(1);
+                slots.put(slotId, other);
+                throw new DuplicateKeyException("E11000 duplicate key error");
+            })
+            .doAnswer(invocation -> book(invocation.getArgument(0), invocation.getArgument(1),
+                invocation.getArgument(2)))
+            .when(mongoTemplate).findAndModify(ArgumentMatchers.any(Query.class),
+                ArgumentMatchers.any(UpdateDefinition.class), ArgumentMatchers.any(FindAndModifyOptions.class),
+                ArgumentMatchers.eq(VisitSlot.class));
+
+        VisitSlot slot = service.reserve(PRISON_ID, DATE, TIME);
+
+        Assertions.assertEquals(2, slot.getBooked());
+        Assertions.assertThrows(IllegalStateException.class, () -> service.reserve(PRISON_ID, DATE, TIME));
+    }
+
+    @Test
+    void reserveRejectsTimesOutsideVisitingHours() {
+        VisitSlotService service = service(2);
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> service.reserve(PRISON_ID, DATE, LocalTime.of(8, 30)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> service.reserve(PRISON_ID, DATE, LocalTime.of(17, 0)));
+        Assertions.assertTrue(slots.isEmpty());
+    }
+
+    @Test
+    void setDayCapacityFailsWhenABookingLandsAfterTheCheck() {
+        VisitSlotService service = service(2);
+        // All eight slots of the day exist and none is over the new capacity when checked
+        Mockito.when(mongoTemplate.count(ArgumentMatchers.any(Query.class), ArgumentMatchers.eq(VisitSlot.class)))
+            .thenReturn(8L);
+        Mockito.when(mongoTemplate.exists(ArgumentMatchers.any(Query.class), ArgumentMatchers.eq(VisitSlot.class)))
+            .thenReturn(false);
+        // One slot was booked past it before the update, so the update filter skips it
+        Mockito.when(mongoTemplate.updateMulti(ArgumentMatchers.any(Query.class),
+                ArgumentMatchers.any(UpdateDefinition.class), ArgumentMatchers.eq(VisitSlot.class)))
+            .thenReturn(UpdateResult.acknowledged(7, 7L, null));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> service.setDayCapacity(PRISON_ID, DATE, 1));
+    }
+
+    @Test
+    void slotStartTimesFollowTheTemplate() {
+        List<VisitSlot> day = service(2).getSlots(PRISON_ID, DATE);
+
+        Assertions.assertEquals(8, day.size());
+        Assertions.assertEquals(LocalTime.of(9, 0), day.get(0).getStartTime());
+        Assertions.assertEquals(LocalTime.of(16, 0), day.get(7).getStartTime());
+    }
+
+    private VisitSlotService service(int capacity) {
+        return new VisitSlotService(mongoTemplate, Mockito.mock(PrisonerRepository.class), "09:00", "17:00", 60,
+            capacity, 60);
+    }
+
+    // Matches only a slot with room left; a missing slot is inserted when upserting, and an upsert that
+    // meets an existing full slot collides on its _id like the server's does
+    private VisitSlot book(Query query, UpdateDefinition update, FindAndModifyOptions options) {
+        String id = (String) query.getQueryObject().get("_id");
+        VisitSlot slot = slots.get(id);
+        if (slot != null) {
+            if (slot.getBooked() < slot.getCapacity()) {
+                slot.setBooked(slot.getBooked() + 1);
+                return slot;
+            }
+            if (options.isUpsert()) {
+                throw new DuplicateKeyException("E11000 duplicate key error");
+            }
+            return null;
+        }
+        if (!options.isUpsert()) {
+            return null;
+        }
+        Document onInsert = (Document) update.getUpdateObject().get("$setOnInsert");
+        VisitSlot created = new VisitSlot(onInsert.getInteger("prisonId"), (LocalDate) onInsert.get("date"),
+            (LocalTime) onInsert.get("startTime"), onInsert.getInteger("durationMinutes"),
+            onInsert.getInteger("capacity"));
+        created.setBooked(1);
+        Assertions.assertEquals(id, created.getId());
+        slots.put(id, created);
+        return created;
+    }
+}